@@ -65,7 +65,7 @@ final class OpenIdAuthIT
 		JwtVerifier verifier = mock(JwtVerifier.class);
 		JWTClaimsSet mock = mock(JWTClaimsSet.class);
 		when(mock.getStringClaim("preferred_username")).thenReturn(System.getProperty("DB_USERNAME"));
-		when(verifier.getClaimsSet(any(), any())).thenReturn(mock);
+		when(verifier.getClaimsSet(any())).thenReturn(mock);
 		JwtVerifier.setInstance(verifier);
 	}
 
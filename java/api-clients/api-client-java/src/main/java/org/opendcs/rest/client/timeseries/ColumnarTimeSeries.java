@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.rest.client.timeseries;
+
+import java.time.Instant;
+
+import org.opendcs.rest.client.model.ApiTimeSeriesIdentifier;
+
+/**
+ * Time series data decoded from the columnar tsdata format, held as parallel primitive arrays.
+ */
+public final class ColumnarTimeSeries
+{
+	private final ApiTimeSeriesIdentifier tsid;
+	private final long[] times;
+	private final double[] values;
+	private final long[] flags;
+	private final int size;
+	private final String nextPage;
+
+	ColumnarTimeSeries(ApiTimeSeriesIdentifier tsid, long[] times, double[] values, long[] flags, int size,
+			String nextPage)
+	{
+		this.tsid = tsid;
+		this.times = times;
+		this.values = values;
+		this.flags = flags;
+		this.size = size;
+		this.nextPage = nextPage;
+	}
+
+	public ApiTimeSeriesIdentifier getTsid()
+	{
+		return tsid;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return sample time in milliseconds since the epoch
+	 */
+	public long getTimeMillis(int index)
+	{
+		return times[checkIndex(index)];
+	}
+
+	public Instant getTime(int index)
+	{
+		return Instant.ofEpochMilli(getTimeMillis(index));
+	}
+
+	public double getValue(int index)
+	{
+		return values[checkIndex(index)];
+	}
+
+	public long getFlags(int index)
+	{
+		return flags[checkIndex(index)];
+	}
+
+	/**
+	 * @return continuation token for the next page, null on the last page or if the request was not paged
+	 */
+	public String getNextPage()
+	{
+		return nextPage;
+	}
+
+	private int checkIndex(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		return index;
+	}
+}
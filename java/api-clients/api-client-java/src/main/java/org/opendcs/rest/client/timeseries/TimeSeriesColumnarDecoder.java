@@ -0,0 +1,225 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.rest.client.timeseries;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opendcs.rest.client.model.ApiTimeSeriesIdentifier;
+
+/**
+ * Decodes the compact columnar format returned by tsdata when the request is sent with
+ * {@code Accept: application/vnd.opendcs.tsdata.columnar}.
+ * <p>
+ * The stream starts with the magic {@code ODTS}, a version byte and the time series identifier as length
+ * prefixed JSON. Blocks of samples follow, each with a varint count and three columns: delta-of-delta encoded
+ * times, Gorilla XOR encoded values and run-length encoded flags. A zero count ends the blocks and is followed by
+ * the optional continuation token.
+ * <pre>
+ * HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/tsdata?key=12&amp;start=now-1year"))
+ *         .header("Accept", TimeSeriesColumnarDecoder.MEDIA_TYPE)
+ *         .build();
+ * ColumnarTimeSeries data = TimeSeriesColumnarDecoder.decode(
+ *         client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body());
+ * </pre>
+ */
+public final class TimeSeriesColumnarDecoder
+{
+	public static final String MEDIA_TYPE = "application/vnd.opendcs.tsdata.columnar";
+	private static final int VERSION = 1;
+	private static final byte[] MAGIC = {'O', 'D', 'T', 'S'};
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private final DataInputStream input;
+	private long[] times = new long[1024];
+	private double[] values = new double[1024];
+	private long[] flags = new long[1024];
+	private int size;
+	// Unread bits of the current value column byte
+	private int bits;
+	private int bitCount;
+
+	private TimeSeriesColumnarDecoder(InputStream input)
+	{
+		this.input = new DataInputStream(new BufferedInputStream(input));
+	}
+
+	/**
+	 * Read a complete columnar tsdata response. The stream is read to the end of the encoded data but not closed.
+	 * @throws IOException if the stream cannot be read or is not in the columnar format
+	 */
+	public static ColumnarTimeSeries decode(InputStream input) throws IOException
+	{
+		return new TimeSeriesColumnarDecoder(input).decode();
+	}
+
+	private ColumnarTimeSeries decode() throws IOException
+	{
+		byte[] magic = new byte[MAGIC.length];
+		input.readFully(magic);
+		if (!Arrays.equals(magic, MAGIC))
+		{
+			throw new IOException("Not an OpenDCS columnar time series stream");
+		}
+		int version = input.readUnsignedByte();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported columnar time series version " + version);
+		}
+		ApiTimeSeriesIdentifier tsid = MAPPER.readValue(readBytes(), ApiTimeSeriesIdentifier.class);
+		for (int count = readLength(); count > 0; count = readLength())
+		{
+			ensure(size + count);
+			readTimes(count);
+			readValues(count);
+			readFlags(count);
+			size += count;
+		}
+		String nextPage = input.readUnsignedByte() == 0 ? null : new String(readBytes(), StandardCharsets.UTF_8);
+		return new ColumnarTimeSeries(tsid, times, values, flags, size, nextPage);
+	}
+
+	private void readTimes(int count) throws IOException
+	{
+		long time = readZigzag();
+		times[size] = time;
+		long delta = 0;
+		for (int i = 1; i < count; i++)
+		{
+			delta = i == 1 ? readZigzag() : delta + readZigzag();
+			time += delta;
+			times[size + i] = time;
+		}
+	}
+
+	private void readValues(int count) throws IOException
+	{
+		long previous = readBits(64);
+		values[size] = Double.longBitsToDouble(previous);
+		int leading = 0;
+		int trailing = 0;
+		for (int i = 1; i < count; i++)
+		{
+			if (readBits(1) != 0)
+			{
+				if (readBits(1) != 0)
+				{
+					leading = (int) readBits(6);
+					trailing = 64 - leading - ((int) readBits(6) + 1);
+				}
+				previous ^= readBits(64 - leading - trailing) << trailing;
+			}
+			values[size + i] = Double.longBitsToDouble(previous);
+		}
+		// The column is padded to a whole byte
+		bits = 0;
+		bitCount = 0;
+	}
+
+	private void readFlags(int count) throws IOException
+	{
+		for (int i = 0; i < count; )
+		{
+			int run = readLength();
+			long value = readVarint();
+			if (run <= 0 || run > count - i)
+			{
+				throw new IOException("Invalid flag run length " + run);
+			}
+			Arrays.fill(flags, size + i, size + i + run, value);
+			i += run;
+		}
+	}
+
+	private long readBits(int length) throws IOException
+	{
+		long result = 0;
+		for (int remaining = length; remaining > 0; )
+		{
+			if (bitCount == 0)
+			{
+				bits = input.readUnsignedByte();
+				bitCount = 8;
+			}
+			int take = Math.min(remaining, bitCount);
+			bitCount -= take;
+			result = (result << take) | ((bits >>> bitCount) & ((1 << take) - 1));
+			remaining -= take;
+		}
+		return result;
+	}
+
+	private byte[] readBytes() throws IOException
+	{
+		byte[] bytes = new byte[readLength()];
+		input.readFully(bytes);
+		return bytes;
+	}
+
+	private int readLength() throws IOException
+	{
+		long length = readVarint();
+		if (length < 0 || length > Integer.MAX_VALUE - 8)
+		{
+			throw new IOException("Invalid length " + length);
+		}
+		return (int) length;
+	}
+
+	private long readZigzag() throws IOException
+	{
+		long value = readVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private long readVarint() throws IOException
+	{
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			int b = input.read();
+			if (b < 0)
+			{
+				throw new EOFException("Unexpected end of columnar time series stream");
+			}
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return result;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	private void ensure(int capacity)
+	{
+		if (capacity > times.length)
+		{
+			int length = Math.max(times.length * 2, capacity);
+			times = Arrays.copyOf(times, length);
+			values = Arrays.copyOf(values, length);
+			flags = Arrays.copyOf(flags, length);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.rest.client.timeseries;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.util.TimeSeriesColumnarEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TimeSeriesColumnarDecoderTest
+{
+	private static final byte[] TSID = ("{\"key\":42,\"uniqueString\":\"SAC.Flow.Inst.15Minutes.0.GOES\","
+			+ "\"description\":null,\"storageUnits\":\"cms\",\"active\":true}").getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void testRoundTrip() throws Exception
+	{
+		int count = 5000;
+		long[] times = new long[count];
+		double[] values = new double[count];
+		long[] flags = new long[count];
+		Random random = new Random(7);
+		long time = 946_684_800_000L;
+		for (int i = 0; i < count; i++)
+		{
+			// Mostly regular with occasional gaps and jitter
+			time += i % 500 == 0 ? 86_400_000L : 900_000L + (i % 97 == 0 ? 1234 : 0);
+			times[i] = time;
+			values[i] = i % 10 < 3 ? 12.5 : Math.round(random.nextGaussian() * 1000.0) / 100.0;
+			flags[i] = i / 700 % 2 == 0 ? 0 : 0x40000000L + i / 700;
+		}
+		values[17] = Double.NaN;
+		values[18] = -0.0;
+		values[19] = Double.MAX_VALUE;
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TimeSeriesColumnarEncoder encoder = new TimeSeriesColumnarEncoder(out, TSID);
+		for (int i = 0; i < count; i++)
+		{
+			encoder.write(times[i], values[i], flags[i]);
+		}
+		encoder.finish("token-1");
+
+		ColumnarTimeSeries data = TimeSeriesColumnarDecoder.decode(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(42L, data.getTsid().getKey());
+		assertEquals("SAC.Flow.Inst.15Minutes.0.GOES", data.getTsid().getUniqueString());
+		assertEquals("token-1", data.getNextPage());
+		assertEquals(count, data.size());
+		for (int i = 0; i < count; i++)
+		{
+			assertEquals(times[i], data.getTimeMillis(i), "time " + i);
+			assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(data.getValue(i)),
+					"value " + i);
+			assertEquals(flags[i], data.getFlags(i), "flags " + i);
+		}
+	}
+
+	@Test
+	void testEmptySeries() throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new TimeSeriesColumnarEncoder(out, TSID).finish(null);
+
+		ColumnarTimeSeries data = TimeSeriesColumnarDecoder.decode(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(0, data.size());
+		assertNull(data.getNextPage());
+		assertThrows(IndexOutOfBoundsException.class, () -> data.getValue(0));
+	}
+
+	@Test
+	void testRejectsOtherContent()
+	{
+		byte[] json = "{\"tsid\":null,\"values\":[]}".getBytes(StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> TimeSeriesColumnarDecoder.decode(new ByteArrayInputStream(json)));
+	}
+}
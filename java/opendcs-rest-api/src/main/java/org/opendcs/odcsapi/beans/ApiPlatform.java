@@ -22,6 +22,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 @Schema(description = "Represents a platform, including its site, configuration, sensors, and transport media details.")
 public final class ApiPlatform
 {
@@ -62,6 +64,14 @@ public final class ApiPlatform
 	@Schema(description = "The list of transport media associated with the platform.")
 	private List<ApiTransportMedium> transportMedia = new ArrayList<>();
 
+	@Schema(description = "The platform configuration, only included when requested with expand=config.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private ApiPlatformConfig platformConfig = null;
+
+	@Schema(description = "The site of the platform, only included when requested with expand=site.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private ApiSite site = null;
+
 	public Long getPlatformId()
 	{
 		return platformId;
@@ -158,4 +168,20 @@ public final class ApiPlatform
 	{
 		this.properties = properties;
 	}
+	public ApiPlatformConfig getPlatformConfig()
+	{
+		return platformConfig;
+	}
+	public void setPlatformConfig(ApiPlatformConfig platformConfig)
+	{
+		this.platformConfig = platformConfig;
+	}
+	public ApiSite getSite()
+	{
+		return site;
+	}
+	public void setSite(ApiSite site)
+	{
+		this.site = site;
+	}
 }
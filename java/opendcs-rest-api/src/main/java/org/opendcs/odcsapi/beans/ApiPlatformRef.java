@@ -17,6 +17,7 @@ package org.opendcs.odcsapi.beans;
 
 import java.util.Properties;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Represents a platform reference, including its ID, name, agency, and other metadata.")
@@ -48,6 +49,14 @@ public final class ApiPlatformRef
 
 	@Schema(description = "Designator for the platform.", example = "tailwater")
 	private String designator = null;
+
+	@Schema(description = "The platform configuration, only included when requested with expand=config.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private ApiPlatformConfig platformConfig = null;
+
+	@Schema(description = "The site of the platform, only included when requested with expand=site.")
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private ApiSite site = null;
 	
 	public String getName()
 	{
@@ -139,5 +148,23 @@ public final class ApiPlatformRef
 		this.transportMedia = transportMedia;
 	}
 
+	public ApiPlatformConfig getPlatformConfig()
+	{
+		return platformConfig;
+	}
+
+	public void setPlatformConfig(ApiPlatformConfig platformConfig)
+	{
+		this.platformConfig = platformConfig;
+	}
+
+	public ApiSite getSite()
+	{
+		return site;
+	}
 
+	public void setSite(ApiSite site)
+	{
+		this.site = site;
+	}
 }
@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.beans;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A record that references another record, such as a routing spec using a network list.")
+public final class ApiReference
+{
+	@Schema(description = "Type of the referencing record: routingspec, platform or timeseries.",
+			example = "routingspec")
+	private String type = null;
+
+	@Schema(description = "Unique numeric identifier of the referencing record.", example = "20")
+	private Long id = null;
+
+	@Schema(description = "Name of the referencing record. The unique string for time series.",
+			example = "goes1")
+	private String name = null;
+
+	public ApiReference()
+	{
+	}
+
+	public ApiReference(String type, Long id, String name)
+	{
+		this.type = type;
+		this.id = id;
+		this.name = name;
+	}
+
+	public String getType()
+	{
+		return type;
+	}
+
+	public void setType(String type)
+	{
+		this.type = type;
+	}
+
+	public Long getId()
+	{
+		return id;
+	}
+
+	public void setId(Long id)
+	{
+		this.id = id;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+}
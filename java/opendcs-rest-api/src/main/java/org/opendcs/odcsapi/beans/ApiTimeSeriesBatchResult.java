@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "The result for one time series of a batch data request. Either the data or an error is set.")
+public final class ApiTimeSeriesBatchResult
+{
+	@Schema(description = "The requested time series key.", example = "532")
+	private Long key = null;
+
+	@Schema(description = "HTTP status describing the outcome for this time series.", example = "200")
+	private int status = 0;
+
+	@Schema(description = "Error message when the time series could not be retrieved.",
+			example = "Time series with key=532 not found")
+	private String message = null;
+
+	@Schema(description = "Identifier for the time series, set when the data was retrieved.")
+	private ApiTimeSeriesIdentifier tsid = null;
+
+	@Schema(description = "A list of time series values representing the data points.")
+	private List<ApiTimeSeriesValue> values = new ArrayList<>();
+
+	public Long getKey()
+	{
+		return key;
+	}
+
+	public void setKey(Long key)
+	{
+		this.key = key;
+	}
+
+	public int getStatus()
+	{
+		return status;
+	}
+
+	public void setStatus(int status)
+	{
+		this.status = status;
+	}
+
+	public String getMessage()
+	{
+		return message;
+	}
+
+	public void setMessage(String message)
+	{
+		this.message = message;
+	}
+
+	public ApiTimeSeriesIdentifier getTsid()
+	{
+		return tsid;
+	}
+
+	public void setTsid(ApiTimeSeriesIdentifier tsid)
+	{
+		this.tsid = tsid;
+	}
+
+	public List<ApiTimeSeriesValue> getValues()
+	{
+		return values;
+	}
+
+	public void setValues(List<ApiTimeSeriesValue> values)
+	{
+		this.values = values;
+	}
+}
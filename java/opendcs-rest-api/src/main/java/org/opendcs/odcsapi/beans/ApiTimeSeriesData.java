@@ -18,6 +18,7 @@ package org.opendcs.odcsapi.beans;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Represents time series data, including its identifier and the associated data points.")
@@ -29,6 +30,10 @@ public final class ApiTimeSeriesData
 	@Schema(description = "A list of time series values representing the data points.")
 	private List<ApiTimeSeriesValue> values = new ArrayList<>();
 
+	@Schema(description = "Continuation token for the next page of values when the request was limited. "
+			+ "Absent on the last page and when no limit was given.")
+	private String nextPage = null;
+
 	public ApiTimeSeriesIdentifier getTsid()
 	{
 		return tsid;
@@ -49,4 +54,15 @@ public final class ApiTimeSeriesData
 		this.values = values;
 	}
 
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public String getNextPage()
+	{
+		return nextPage;
+	}
+
+	public void setNextPage(String nextPage)
+	{
+		this.nextPage = nextPage;
+	}
+
 }
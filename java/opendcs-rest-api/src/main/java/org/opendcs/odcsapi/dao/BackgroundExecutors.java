@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Executors running background work of the web application, such as the per organization refresh tasks. They are
+ * shut down with the web application so a redeploy leaves no thread behind that holds on to its class loader.
+ * <p>
+ * A periodic task never runs concurrently with itself, so an organization whose reads are slow occupies at most one
+ * thread of a scheduler. Schedulers shared by all organizations get {@value #THREADS_PROPERTY} threads
+ * (default {@value #DEFAULT_THREADS}) so the others keep being refreshed.
+ */
+public final class BackgroundExecutors
+{
+	public static final String THREADS_PROPERTY = "opendcs.rest.api.background.threads";
+	static final int DEFAULT_THREADS = 4;
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final int THREADS = Math.max(1, Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS));
+	private static final List<ExecutorService> executors = new CopyOnWriteArrayList<>();
+
+	private BackgroundExecutors()
+	{
+		throw new AssertionError("Utility class");
+	}
+
+	/**
+	 * Create a scheduler shared by all organizations, shut down with the web application.
+	 * @param name prefix of the thread names
+	 */
+	public static ScheduledExecutorService newScheduler(String name)
+	{
+		return register(newScheduler(name, THREADS));
+	}
+
+	/**
+	 * Create a scheduler with a single thread for work that is not per organization, shut down with the web
+	 * application.
+	 */
+	public static ScheduledExecutorService newSingleThreadScheduler(String name)
+	{
+		return register(newScheduler(name, 1));
+	}
+
+	/**
+	 * Shut down the executor with the web application.
+	 * @return the executor
+	 */
+	public static <E extends ExecutorService> E register(E executor)
+	{
+		executors.add(executor);
+		return executor;
+	}
+
+	/**
+	 * Interrupt the running tasks of all registered executors and wait briefly for their threads to end.
+	 */
+	public static void shutdown()
+	{
+		for(ExecutorService executor : executors)
+		{
+			executor.shutdownNow();
+		}
+		try
+		{
+			for(ExecutorService executor : executors)
+			{
+				if(!executor.awaitTermination(5, TimeUnit.SECONDS))
+				{
+					log.warn("Background tasks did not end within 5 seconds of the shutdown.");
+				}
+			}
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		executors.clear();
+	}
+
+	static ScheduledThreadPoolExecutor newScheduler(String name, int threads)
+	{
+		AtomicInteger threadCount = new AtomicInteger();
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, r ->
+		{
+			Thread thread = new Thread(r, threads == 1 ? name : name + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Tasks of organizations that went idle are cancelled, do not keep them queued until their next run
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+}
@@ -16,10 +16,11 @@
 package org.opendcs.odcsapi.dao;
 
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 
 import decodes.db.DatabaseException;
@@ -33,21 +34,42 @@ import org.opendcs.odcsapi.dao.cwms.SessionOfficePreparer;
 public final class OpenDcsDatabaseFactory
 {
 
+	public static final String MAX_ORGANIZATIONS_PROPERTY = "opendcs.rest.api.database.cache.size";
+	public static final String IDLE_TIMEOUT_PROPERTY = "opendcs.rest.api.database.cache.idle.timeout";
+	public static final String CLOSE_DELAY_PROPERTY = "opendcs.rest.api.database.cache.close.delay";
+
 	/**
 	 * The plan going forward is to add the organization as to a database context mechanism
 	 * Right now the office id is set statefully in too many places to allow for reuse
 	 * of the OpenDcsDatabase instance.
 	 */
-	private static final Map<String, OpenDcsDatabase> dbCache = new HashMap<>();
+	private static final Duration IDLE_TIMEOUT = OrganizationRegistry.durationProperty(IDLE_TIMEOUT_PROPERTY, "PT1H");
+	private static final OpenDcsDatabaseRegistry dbCache = new OpenDcsDatabaseRegistry(
+			OrganizationRegistry.MAX_ORGANIZATIONS, IDLE_TIMEOUT,
+			OrganizationRegistry.durationProperty(CLOSE_DELAY_PROPERTY, "PT10M"));
+	private static final ScheduledExecutorService sweeper =
+			BackgroundExecutors.newSingleThreadScheduler("database-registry-sweep");
+
+	static
+	{
+		// Idle organizations are dropped even when no new organization is registered
+		long period = Math.max(1, Math.min(IDLE_TIMEOUT.toSeconds(), 60));
+		sweeper.scheduleWithFixedDelay(dbCache::sweep, period, period, TimeUnit.SECONDS);
+	}
 
 	private OpenDcsDatabaseFactory()
 	{
 		throw new AssertionError("Utility class");
 	}
 
-	public static synchronized OpenDcsDatabase createDb(DataSource dataSource, String organization)
+	public static OpenDcsDatabase createDb(DataSource dataSource, String organization)
+	{
+		return dbCache.get(organization, o -> newDatabase(dataSource, o));
+	}
+
+	public static OpenDcsDatabaseRegistry.Metrics getMetrics()
 	{
-		return dbCache.computeIfAbsent(organization, o -> newDatabase(dataSource, organization));
+		return dbCache.getMetrics();
 	}
 
 	private static OpenDcsDatabase newDatabase(DataSource dataSource, String organization)
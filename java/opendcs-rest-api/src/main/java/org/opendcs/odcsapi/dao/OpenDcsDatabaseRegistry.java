@@ -0,0 +1,303 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.opendcs.database.api.OpenDcsDatabase;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Concurrent cache of {@link OpenDcsDatabase} instances keyed by organization.
+ * <p>
+ * Lookups of an already initialized organization never take a lock. Creating the
+ * database for an organization happens at most once, and only callers asking for that
+ * same organization wait on it. The registry is bounded: {@link #sweep()}, run on a schedule by
+ * the owner and whenever a new organization is added, drops entries idle for longer than the
+ * idle timeout, then the least recently used entries until the registry is back under its
+ * maximum size.
+ * <p>
+ * A lookup stamps the access time of its entry, but only writes it once the stored time is more
+ * than a second old, so concurrent readers of a hot organization do not keep invalidating the
+ * cache line.
+ * <p>
+ * Requests that took an evicted database from the lock-free path may still be using it, so it is
+ * not closed right away. The sweep closes it once it has been evicted for longer than the close
+ * delay, which has to exceed the longest request.
+ */
+public final class OpenDcsDatabaseRegistry
+{
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final long TOUCH_RESOLUTION_NANOS = Duration.ofSeconds(1).toNanos();
+
+	private final OrganizationRegistry<Entry> entries = new OrganizationRegistry<>();
+	private final Queue<Retired> retired = new ConcurrentLinkedQueue<>();
+	private final int maxSize;
+	private final long idleTimeoutNanos;
+	private final long closeDelayNanos;
+	private final LongSupplier clock;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder creations = new LongAdder();
+	private final LongAdder creationNanos = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param maxSize number of organizations kept
+	 * @param idleTimeout time after its last lookup an organization is evicted
+	 * @param closeDelay time after its eviction a database is closed
+	 */
+	public OpenDcsDatabaseRegistry(int maxSize, Duration idleTimeout, Duration closeDelay)
+	{
+		this(maxSize, idleTimeout, closeDelay, System::nanoTime);
+	}
+
+	OpenDcsDatabaseRegistry(int maxSize, Duration idleTimeout, Duration closeDelay, LongSupplier clock)
+	{
+		if(maxSize < 1)
+		{
+			throw new IllegalArgumentException("Registry size must be at least 1, was " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.idleTimeoutNanos = idleTimeout.toNanos();
+		this.closeDelayNanos = closeDelay.toNanos();
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the database for the organization, creating it with the factory if it is not registered yet.
+	 * @param organization organization id, may be null
+	 * @param factory creates the database on a miss; exceptions are propagated and nothing is registered
+	 * @return the registered database
+	 */
+	public OpenDcsDatabase get(String organization, Function<String, OpenDcsDatabase> factory)
+	{
+		Entry entry = entries.get(organization);
+		if(entry != null)
+		{
+			OpenDcsDatabase db = entry.database;
+			if(db != null)
+			{
+				hits.increment();
+				entry.touch(clock.getAsLong());
+				return db;
+			}
+		}
+		else
+		{
+			entry = entries.computeIfAbsent(organization, o -> new Entry(o, clock.getAsLong()));
+		}
+		return initialize(entry, factory);
+	}
+
+	private OpenDcsDatabase initialize(Entry entry, Function<String, OpenDcsDatabase> factory)
+	{
+		boolean created = false;
+		boolean removed = false;
+		OpenDcsDatabase db;
+		synchronized(entry)
+		{
+			db = entry.database;
+			if(db == null && entries.get(entry.organization) != entry)
+			{
+				// The creation this caller waited for failed and removed the entry
+				removed = true;
+			}
+			else if(db == null)
+			{
+				misses.increment();
+				long start = clock.getAsLong();
+				try
+				{
+					db = factory.apply(entry.organization);
+				}
+				catch(RuntimeException ex)
+				{
+					entries.remove(entry.organization, entry);
+					throw ex;
+				}
+				creationNanos.add(clock.getAsLong() - start);
+				creations.increment();
+				entry.database = db;
+				created = true;
+			}
+			else
+			{
+				hits.increment();
+			}
+		}
+		if(removed)
+		{
+			// Start over with a new entry, rather than create a database nobody else can find
+			return get(entry.organization, factory);
+		}
+		entry.touch(clock.getAsLong());
+		if(created)
+		{
+			sweep();
+		}
+		return db;
+	}
+
+	/**
+	 * Drop the databases idle for longer than the idle timeout, then the least recently used ones until the
+	 * registry is within its maximum size. Close the databases evicted for longer than the close delay.
+	 */
+	public void sweep()
+	{
+		long now = clock.getAsLong();
+		for(Retired candidate = retired.peek(); candidate != null && now - candidate.since() > closeDelayNanos;
+				candidate = retired.peek())
+		{
+			// Another sweep may have taken it meanwhile
+			if(retired.remove(candidate))
+			{
+				close(candidate);
+			}
+		}
+		for(Entry entry : entries.values())
+		{
+			if(entry.database != null && now - entry.lastAccess > idleTimeoutNanos)
+			{
+				evict(entry, "idle");
+			}
+		}
+		int overflow = entries.size() - maxSize;
+		if(overflow > 0)
+		{
+			List<Entry> candidates = new ArrayList<>(entries.values());
+			candidates.sort(Comparator.comparingLong(e -> e.lastAccess));
+			for(Entry entry : candidates)
+			{
+				if(overflow <= 0)
+				{
+					break;
+				}
+				if(entry.database != null && evict(entry, "size"))
+				{
+					overflow--;
+				}
+			}
+		}
+	}
+
+	private boolean evict(Entry entry, String reason)
+	{
+		if(!entries.remove(entry.organization, entry))
+		{
+			return false;
+		}
+		evictions.increment();
+		log.debug("Evicting database for organization '{}' ({}).", entry.organization, reason);
+		// Only set once its creation finished, a failed creation removes the entry itself
+		OpenDcsDatabase db = entry.database;
+		if(db != null)
+		{
+			retired.add(new Retired(entry.organization, db, clock.getAsLong()));
+		}
+		return true;
+	}
+
+	private static void close(Retired candidate)
+	{
+		if(candidate.database() instanceof AutoCloseable closeable)
+		{
+			try
+			{
+				closeable.close();
+			}
+			catch(Exception ex)
+			{
+				log.warn("Unable to close evicted database for organization '{}'.", candidate.organization(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Remove every registered database and close it, together with the evicted ones not closed yet. Only for
+	 * shutdown, when no request uses them any more.
+	 */
+	public void clear()
+	{
+		for(Entry entry : entries.values())
+		{
+			evict(entry, "clear");
+		}
+		for(Retired candidate = retired.poll(); candidate != null; candidate = retired.poll())
+		{
+			close(candidate);
+		}
+	}
+
+	public int size()
+	{
+		return entries.size();
+	}
+
+	public Metrics getMetrics()
+	{
+		return new Metrics(hits.sum(), misses.sum(), creations.sum(),
+				Duration.ofNanos(creationNanos.sum()), evictions.sum(), entries.size());
+	}
+
+	/**
+	 * Point in time view of the registry counters.
+	 * @param hits lookups answered from an already initialized database
+	 * @param misses lookups that had to create the database
+	 * @param creations databases successfully created
+	 * @param totalCreationTime time spent in the database factory for successful creations
+	 * @param evictions databases removed due to idle time or size
+	 * @param size current number of registered organizations
+	 */
+	public record Metrics(long hits, long misses, long creations, Duration totalCreationTime, long evictions, int size)
+	{
+	}
+
+	private record Retired(String organization, OpenDcsDatabase database, long since)
+	{
+	}
+
+	private static final class Entry
+	{
+		private final String organization;
+		private volatile OpenDcsDatabase database;
+		private volatile long lastAccess;
+
+		private Entry(String organization, long now)
+		{
+			this.organization = organization;
+			this.lastAccess = now;
+		}
+
+		private void touch(long now)
+		{
+			if(now - lastAccess > TOUCH_RESOLUTION_NANOS)
+			{
+				lastAccess = now;
+			}
+		}
+	}
+}
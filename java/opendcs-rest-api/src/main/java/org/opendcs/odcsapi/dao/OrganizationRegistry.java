@@ -0,0 +1,184 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Concurrent map from organization id to the state kept for that organization, such as a cache or a background
+ * reader. The organization may be null for requests without an organization header.
+ * <p>
+ * Caches use a {@link #bounded()} registry, since the organization header is sent by the client and every new value
+ * would otherwise add an entry. Background readers that deregister themselves when idle use an unbounded one; evicting
+ * them would leave their task running next to a new one.
+ */
+public final class OrganizationRegistry<V>
+{
+	/**
+	 * {@link ConcurrentHashMap} does not allow null keys. A NUL character can not be sent in the organization header.
+	 */
+	private static final String NULL_ORGANIZATION = "\u0000";
+	static final int MAX_ORGANIZATIONS = Integer.getInteger(OpenDcsDatabaseFactory.MAX_ORGANIZATIONS_PROPERTY, 256);
+
+	private final Map<String, Slot<V>> values = new ConcurrentHashMap<>();
+	private final int maxSize;
+
+	public OrganizationRegistry()
+	{
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxSize number of organizations kept; the least recently used one is removed when another is added
+	 */
+	public OrganizationRegistry(int maxSize)
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return a registry keeping as many organizations as the database registry,
+	 * see {@link OpenDcsDatabaseFactory#MAX_ORGANIZATIONS_PROPERTY}
+	 */
+	public static <V> OrganizationRegistry<V> bounded()
+	{
+		return new OrganizationRegistry<>(MAX_ORGANIZATIONS);
+	}
+
+	/**
+	 * Return the value of the organization, creating it if there is none.
+	 * @param organization organization id, may be null
+	 * @param factory creates the value from the organization id; exceptions are propagated and nothing is registered
+	 */
+	public V computeIfAbsent(String organization, Function<String, V> factory)
+	{
+		String key = key(organization);
+		Slot<V> slot = values.get(key);
+		if(slot == null)
+		{
+			slot = values.computeIfAbsent(key, k -> new Slot<>(factory.apply(organization)));
+			trim(key);
+		}
+		slot.touch();
+		return slot.value;
+	}
+
+	/**
+	 * @return the value of the organization, null if there is none
+	 */
+	public V get(String organization)
+	{
+		Slot<V> slot = values.get(key(organization));
+		if(slot == null)
+		{
+			return null;
+		}
+		slot.touch();
+		return slot.value;
+	}
+
+	/**
+	 * Run the action on the value of the organization, if there is one. Used to invalidate caches after writes.
+	 */
+	public void ifPresent(String organization, Consumer<V> action)
+	{
+		Slot<V> slot = values.get(key(organization));
+		if(slot != null)
+		{
+			action.accept(slot.value);
+		}
+	}
+
+	/**
+	 * Remove the value of the organization if it is still the given one.
+	 * @return true if it was removed
+	 */
+	public boolean remove(String organization, V value)
+	{
+		String key = key(organization);
+		Slot<V> slot = values.get(key);
+		return slot != null && slot.value == value && values.remove(key, slot);
+	}
+
+	/**
+	 * @return the values of all organizations at the time of the call
+	 */
+	public Collection<V> values()
+	{
+		return values.values().stream().map(slot -> slot.value).toList();
+	}
+
+	public int size()
+	{
+		return values.size();
+	}
+
+	/**
+	 * Read a duration system property, such as the maximum age of a cache.
+	 * @param defaultValue ISO-8601 duration used if the property is not set, e.g. PT5M
+	 */
+	public static Duration durationProperty(String property, String defaultValue)
+	{
+		return Duration.parse(System.getProperty(property, defaultValue));
+	}
+
+	private static String key(String organization)
+	{
+		return organization == null ? NULL_ORGANIZATION : organization;
+	}
+
+	private void trim(String added)
+	{
+		while(values.size() > maxSize)
+		{
+			Map.Entry<String, Slot<V>> eldest = null;
+			for(Map.Entry<String, Slot<V>> entry : values.entrySet())
+			{
+				if(!entry.getKey().equals(added)
+						&& (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0))
+				{
+					eldest = entry;
+				}
+			}
+			if(eldest == null)
+			{
+				return;
+			}
+			values.remove(eldest.getKey(), eldest.getValue());
+		}
+	}
+
+	private static final class Slot<V>
+	{
+		private final V value;
+		private volatile long lastAccess = System.nanoTime();
+
+		private Slot(V value)
+		{
+			this.value = value;
+		}
+
+		private void touch()
+		{
+			lastAccess = System.nanoTime();
+		}
+	}
+}
@@ -17,17 +17,37 @@ package org.opendcs.odcsapi.dao.cwms;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.opendcs.odcsapi.dao.datasource.ConnectionPreparer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sets the CWMS CCP VPD session context for the organization on connections handed out by the pool.
+ * <p>
+ * The context of the session is read before it is set, so a connection whose session already has the office of
+ * the organization is returned as is. Reading it from the session rather than remembering what was set keeps this
+ * correct when the pool replaces a connection or something else changes the context. Whether the database is Oracle
+ * and whether the CWMS_CCP_VPD package is installed are looked up once per preparer.
+ */
 public class SessionOfficePreparer implements ConnectionPreparer
 {
 	private static final Logger logger = LoggerFactory.getLogger(SessionOfficePreparer.class);
+	private static final String VPD_PACKAGE_QUERY = "select count(*) from all_objects"
+			+ " where object_name = 'CWMS_CCP_VPD' and object_type = 'PACKAGE'";
+	private static final String SESSION_CONTEXT_QUERY = "select sys_context('CCP_ENV', 'CCP_OFFICE_ID'),"
+			+ " sys_context('CCP_ENV', 'CCP_PRIV_LEVEL') from dual";
+	private static final String SET_SESSION_CONTEXT = "BEGIN cwms_ccp_vpd.set_ccp_session_ctx(cwms_util.get_office_code(:1), 2, :2); END;";
+	private static final String PRIV_LEVEL = "2";
+	private static final LongAdder PREPARE_CALLS = new LongAdder();
+	private static final LongAdder SKIPPED_PREPARES = new LongAdder();
 
 	private final String office;
+	private volatile Boolean oracle;
+	private volatile Boolean vpdPackageExists;
 
 	public SessionOfficePreparer(String office)
 	{
@@ -37,10 +57,11 @@ public class SessionOfficePreparer implements ConnectionPreparer
 	@Override
 	public Connection prepare(Connection conn) throws SQLException
 	{
-		if (!"Oracle".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName()))
+		if (!isOracle(conn))
 		{
 			return conn;
 		}
+		PREPARE_CALLS.increment();
 		String sessionOffice = this.office;
 		if(sessionOffice == null || sessionOffice.isBlank())
 		{
@@ -48,22 +69,85 @@ public class SessionOfficePreparer implements ConnectionPreparer
 			//Workaround for default loaded data on OpenDcsDatabase creation
 			sessionOffice = "HQ";
 		}
-		String sql = """
-				declare
-				l_exists NUMBER;
-				begin
-				  select count(*) into l_exists from all_objects where object_name = 'CWMS_CCP_VPD' and object_type = 'PACKAGE';
-				  if l_exists > 0 then
-				    execute immediate 'BEGIN cwms_ccp_vpd.set_ccp_session_ctx(cwms_util.get_office_code(:1), 2, :2 ); END;' using :1, :2;
-				  end if;
-				end;
-				""";
-		try(PreparedStatement setApiUser = conn.prepareStatement(sql))
+		try
+		{
+			if(!hasVpdPackage(conn))
+			{
+				return conn;
+			}
+			if(hasSessionContext(conn, sessionOffice))
+			{
+				SKIPPED_PREPARES.increment();
+				return conn;
+			}
+			try(PreparedStatement setApiUser = conn.prepareStatement(SET_SESSION_CONTEXT))
+			{
+				setApiUser.setString(1, sessionOffice);
+				setApiUser.setString(2, sessionOffice);
+				setApiUser.execute();
+			}
+		}
+		catch(SQLException | RuntimeException ex)
 		{
-			setApiUser.setString(1, sessionOffice);
-			setApiUser.setString(2, sessionOffice);
-			setApiUser.execute();
+			// Look the package up again on the next checkout, it may have been dropped or replaced
+			vpdPackageExists = null;
+			throw ex;
 		}
 		return conn;
 	}
+
+	private boolean isOracle(Connection conn) throws SQLException
+	{
+		Boolean retval = oracle;
+		if(retval == null)
+		{
+			retval = "Oracle".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+			oracle = retval;
+		}
+		return retval;
+	}
+
+	private boolean hasVpdPackage(Connection conn) throws SQLException
+	{
+		Boolean retval = vpdPackageExists;
+		if(retval == null)
+		{
+			try(PreparedStatement stmt = conn.prepareStatement(VPD_PACKAGE_QUERY);
+				ResultSet rs = stmt.executeQuery())
+			{
+				retval = rs.next() && rs.getInt(1) > 0;
+			}
+			vpdPackageExists = retval;
+		}
+		return retval;
+	}
+
+	/**
+	 * @return true if the session context is already set for the office with the privilege level set here
+	 */
+	private static boolean hasSessionContext(Connection conn, String sessionOffice) throws SQLException
+	{
+		try(PreparedStatement stmt = conn.prepareStatement(SESSION_CONTEXT_QUERY);
+			ResultSet rs = stmt.executeQuery())
+		{
+			return rs.next() && sessionOffice.equalsIgnoreCase(rs.getString(1)) && PRIV_LEVEL.equals(rs.getString(2));
+		}
+	}
+
+	/**
+	 * @return number of Oracle connections passed to any session office preparer
+	 */
+	public static long getPrepareCount()
+	{
+		return PREPARE_CALLS.sum();
+	}
+
+	/**
+	 * @return number of Oracle connections returned without setting the session context, since their session
+	 * already had the office
+	 */
+	public static long getSkippedPrepareCount()
+	{
+		return SKIPPED_PREPARES.sum();
+	}
 }
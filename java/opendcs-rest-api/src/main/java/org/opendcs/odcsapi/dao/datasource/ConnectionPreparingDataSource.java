@@ -15,8 +15,16 @@ public class ConnectionPreparingDataSource extends DelegatingDataSource
 		this.preparer = preparer;
 	}
 
+	/**
+	 * Hands out the connection of the {@link RequestConnectionScope} bound to the current thread, if any.
+	 */
 	@Override
 	public Connection getConnection() throws SQLException
+	{
+		return RequestConnectionScope.getConnection(this, this::prepareConnection);
+	}
+
+	private Connection prepareConnection() throws SQLException
 	{
 		Connection connection = getDelegate().getConnection();
 
@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * A unit of work sharing one connection per data source among every DAO used while handling a request.
+ * <p>
+ * A scope is bound to the thread that opened it. While it is bound, {@link ConnectionPreparingDataSource} hands
+ * out the scope's connection, acquired and prepared on first use, wrapped so that closing it only ends that use.
+ * A use that turned auto-commit off is rolled back and auto-commit restored when it is closed, as the pool would
+ * on return. The connections go back to the pool when the scope is closed. Other threads, such as background
+ * tasks, get connections of their own as before.
+ */
+public final class RequestConnectionScope implements AutoCloseable
+{
+	private static final ThreadLocal<RequestConnectionScope> CURRENT = new ThreadLocal<>();
+
+	private final Map<DataSource, Connection> connections = new IdentityHashMap<>();
+	private boolean closed;
+
+	/**
+	 * Acquires a connection outside of any scope.
+	 */
+	@FunctionalInterface
+	interface ConnectionSource
+	{
+		Connection getConnection() throws SQLException;
+	}
+
+	private RequestConnectionScope()
+	{
+	}
+
+	/**
+	 * Open a scope and bind it to the current thread, replacing any scope bound before.
+	 */
+	public static RequestConnectionScope open()
+	{
+		RequestConnectionScope ret = new RequestConnectionScope();
+		CURRENT.set(ret);
+		return ret;
+	}
+
+	/**
+	 * Unbind whatever scope is bound to the current thread without closing it.
+	 */
+	public static void unbind()
+	{
+		CURRENT.remove();
+	}
+
+	/**
+	 * @param owner the data source the connection is for, connections are shared per owner
+	 * @param source acquires a new connection for the owner
+	 * @return a use of the shared connection if a scope is bound to the current thread, otherwise a new connection
+	 */
+	static Connection getConnection(DataSource owner, ConnectionSource source) throws SQLException
+	{
+		RequestConnectionScope scope = CURRENT.get();
+		if (scope == null)
+		{
+			return source.getConnection();
+		}
+		return scope.share(owner, source);
+	}
+
+	private synchronized Connection share(DataSource owner, ConnectionSource source) throws SQLException
+	{
+		if (closed)
+		{
+			return source.getConnection();
+		}
+		Connection connection = connections.get(owner);
+		if (connection == null || connection.isClosed())
+		{
+			connection = source.getConnection();
+			connections.put(owner, connection);
+		}
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[]{Connection.class}, new Use(connection));
+	}
+
+	/**
+	 * @return the number of connections the scope holds
+	 */
+	synchronized int size()
+	{
+		return connections.size();
+	}
+
+	/**
+	 * Return the shared connections to the pool. Uses still open afterwards fail.
+	 */
+	@Override
+	public synchronized void close() throws SQLException
+	{
+		if (CURRENT.get() == this)
+		{
+			CURRENT.remove();
+		}
+		closed = true;
+		List<SQLException> failures = new ArrayList<>();
+		for (Connection connection : connections.values())
+		{
+			try
+			{
+				connection.close();
+			}
+			catch (SQLException ex)
+			{
+				failures.add(ex);
+			}
+		}
+		connections.clear();
+		if (!failures.isEmpty())
+		{
+			SQLException ex = failures.get(0);
+			failures.subList(1, failures.size()).forEach(ex::addSuppressed);
+			throw ex;
+		}
+	}
+
+	/**
+	 * One DAO's use of the shared connection.
+	 */
+	private static final class Use implements InvocationHandler
+	{
+		private final Connection connection;
+		private final boolean autoCommit;
+		private boolean closed;
+
+		private Use(Connection connection) throws SQLException
+		{
+			this.connection = connection;
+			this.autoCommit = connection.getAutoCommit();
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			switch (method.getName())
+			{
+				case "close" ->
+				{
+					if (!closed)
+					{
+						closed = true;
+						if (autoCommit && !connection.isClosed() && !connection.getAutoCommit())
+						{
+							connection.rollback();
+							connection.setAutoCommit(true);
+						}
+					}
+					return null;
+				}
+				case "isClosed" ->
+				{
+					return closed || connection.isClosed();
+				}
+				case "equals" ->
+				{
+					return proxy == args[0];
+				}
+				case "hashCode" ->
+				{
+					return System.identityHashCode(proxy);
+				}
+				default ->
+				{
+					if (closed)
+					{
+						throw new SQLException("Connection is closed.");
+					}
+				}
+			}
+			try
+			{
+				return method.invoke(connection, args);
+			}
+			catch (InvocationTargetException ex)
+			{
+				throw ex.getCause();
+			}
+		}
+	}
+}
@@ -20,6 +20,7 @@ import java.util.Iterator;
 import java.util.List;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -41,6 +42,7 @@ import decodes.tsdb.TsdbException;
 import decodes.tsdb.compedit.AlgorithmInList;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -76,11 +78,14 @@ public final class AlgorithmResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-									array = @ArraySchema(schema = @Schema(implementation = ApiAlgorithmRef.class)))),
+									array = @ArraySchema(schema = @Schema(implementation = ApiAlgorithmRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			}
 	)
-	public Response getAlgorithmRefs() throws DbIoException
+	public Response getAlgorithmRefs(@BeanParam RefListQuery query) throws DbIoException, WebAppException
 	{
 		try(AlgorithmDAI dai = getLegacyTimeseriesDB().makeAlgorithmDAO())
 		{
@@ -89,11 +94,17 @@ public final class AlgorithmResources extends OpenDcsResource
 					.map(AlgorithmResources::map)
 					.sorted(comparing(ApiAlgorithmRef::getAlgorithmId))
 					.collect(toList());
-			return Response.status(HttpServletResponse.SC_OK).entity(algorithmRefs)
-					.build();
+			return query.apply(algorithmRefs, ALGORITHM_REF_FIELDS).toResponse();
 		}
 	}
 
+	static final RefListQuery.Fields<ApiAlgorithmRef> ALGORITHM_REF_FIELDS = RefListQuery.fields(ApiAlgorithmRef.class)
+			.add("algorithmId", ApiAlgorithmRef::getAlgorithmId)
+			.add("algorithmName", ApiAlgorithmRef::getAlgorithmName)
+			.add("execClass", ApiAlgorithmRef::getExecClass)
+			.add("numCompsUsing", ApiAlgorithmRef::getNumCompsUsing)
+			.add("description", ApiAlgorithmRef::getDescription);
+
 	static ApiAlgorithmRef map(AlgorithmInList algorithm)
 	{
 		ApiAlgorithmRef retval = new ApiAlgorithmRef();
@@ -145,6 +156,50 @@ public final class AlgorithmResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("algorithmbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several complete Computation Algorithms",
+			description = "Reads the algorithms with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/algorithmbatch?ids=4,5",
+			operationId = "getAlgorithmBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the algorithms",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiAlgorithm.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - Algorithm Methods"}
+	)
+	public Response getAlgorithmBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "4,5"))
+		@QueryParam("ids") List<String> ids)
+			throws WebAppException, DbIoException
+	{
+		List<Long> algoIds = BatchRead.ids(ids);
+		try(AlgorithmDAI dai = getLegacyTimeseriesDB().makeAlgorithmDAO())
+		{
+			List<ApiAlgorithm> ret = BatchRead.read(algoIds, id ->
+			{
+				try
+				{
+					return map(dai.getAlgorithmById(DbKey.createDbKey(id)));
+				}
+				catch(NoSuchObjectException ex)
+				{
+					return null;
+				}
+			});
+			return Response.status(HttpServletResponse.SC_OK)
+					.entity(ret)
+					.build();
+		}
+	}
+
 	static ApiAlgorithm map(DbCompAlgorithm algorithm)
 	{
 		ApiAlgorithm retval = new ApiAlgorithm();
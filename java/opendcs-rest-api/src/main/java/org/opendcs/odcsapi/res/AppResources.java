@@ -16,8 +16,11 @@
 package org.opendcs.odcsapi.res;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -294,6 +297,9 @@ public final class AppResources extends OpenDcsResource
 					+ "the formula: port = (pid % 10000) + 20000\n\n"
 					+ "Example:  \n\n"
 					+ "`http://localhost:8080/odcsapi/appstat`\n          \n          \n"
+					+ "The list comes from a snapshot refreshed every few seconds for all clients of the organization. "
+					+ "It carries an ETag; repeating the request with If-None-Match returns 304 until an "
+					+ "application changes. GET monitor/stream pushes the changed applications instead.\n\n"
 					+ "The returned structure is an array with one element for each application returned by the "
 					+ "'GET apprefs' method described in the method GET /apprefs\n\n"
 					+ "If an application is currently running, the 'pid' will be the system process ID, "
@@ -437,29 +443,59 @@ public final class AppResources extends OpenDcsResource
 					@ApiResponse(responseCode = "200", description = "Successfully retrieved application statistics",
 						content = @Content(mediaType = MediaType.APPLICATION_JSON,
 							array = @ArraySchema(schema = @Schema(implementation = ApiAppStatus.class)))),
-					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+					@ApiResponse(responseCode = "304", description = "Application status unchanged since the given ETag"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error"),
+					@ApiResponse(responseCode = "503", description = "Every monitor view kept is streamed")
 			},
 			tags = {"OpenDCS Process Monitor and Control (APP)"}
 	)
-	public Response getAppStat() throws DbException
+	public Response getAppStat() throws DbException, WebAppException
 	{
-		List<ApiAppStatus> ret = new ArrayList<>();
-		try (LoadingAppDAI dai = getLegacyDatabase().makeLoadingAppDAO())
+		return MonitorSnapshotter.forOrganization(organizationId)
+				.get(appStatusView(getDataSource(), organizationId))
+				.toResponse(this::evaluatePreconditions);
+	}
+
+	static MonitorSnapshotter.View<ApiAppStatus> appStatusView(DataSource dataSource, String organization)
+	{
+		return new MonitorSnapshotter.View<>("appstat", () ->
 		{
-			for (TsdbCompLock lock : dai.getAllCompProcLocks())
+			try (LoadingAppDAI dai = getLegacyDatabase(dataSource, organization).makeLoadingAppDAO())
 			{
-				ret.add(map(dai, lock));
+				return readAppStatus(dai);
 			}
-			return Response.status(HttpServletResponse.SC_OK)
-					.entity(ret).build();
+			catch (DbIoException ex)
+			{
+				throw new DbException("Unable to retrieve app status", ex);
+			}
+		}, status -> String.valueOf(status.getAppId()));
+	}
+
+	/**
+	 * Reads the locks and all applications once and joins them in memory, so the number of queries does not grow
+	 * with the number of running applications.
+	 */
+	static List<ApiAppStatus> readAppStatus(LoadingAppDAI dai) throws DbIoException
+	{
+		List<TsdbCompLock> locks = dai.getAllCompProcLocks();
+		List<ApiAppStatus> ret = new ArrayList<>(locks.size());
+		if (locks.isEmpty())
+		{
+			return ret;
 		}
-		catch (DbIoException ex)
+		Map<DbKey, CompAppInfo> apps = new HashMap<>();
+		for (CompAppInfo app : dai.listComputationApps(false))
+		{
+			apps.put(app.getAppId(), app);
+		}
+		for (TsdbCompLock lock : locks)
 		{
-			throw new DbException("Unable to retrieve app status", ex);
+			ret.add(map(apps, lock));
 		}
+		return ret;
 	}
 
-	static ApiAppStatus map(LoadingAppDAI dai, TsdbCompLock lock) throws DbIoException
+	static ApiAppStatus map(Map<DbKey, CompAppInfo> apps, TsdbCompLock lock) throws DbIoException
 	{
 		ApiAppStatus ret = new ApiAppStatus();
 		ret.setAppId(lock.getAppId().getValue());
@@ -468,17 +504,18 @@ public final class AppResources extends OpenDcsResource
 		ret.setPid((long) lock.getPID());
 		ret.setHeartbeat(lock.getHeartbeat());
 		ret.setStatus(lock.getStatus());
-		if (dai != null)
+		// A lock may outlive its application record, the type and event port stay unset then
+		CompAppInfo app = apps == null ? null : apps.get(lock.getAppId());
+		if (app != null)
 		{
 			try {
-				ApiLoadingApp app = mapLoading(dai.getComputationApp(lock.getAppId()));
 				if (app.getProperties() != null && app.getProperties().getProperty("EventPort") != null)
 				{
 					ret.setEventPort(Integer.parseInt(app.getProperties().getProperty("EventPort")));
 				}
 				ret.setAppType(app.getAppType());
 			}
-			catch (DbIoException | NoSuchObjectException | NumberFormatException ex)
+			catch (NumberFormatException ex)
 			{
 				throw new DbIoException("Error mapping app status", ex);
 			}
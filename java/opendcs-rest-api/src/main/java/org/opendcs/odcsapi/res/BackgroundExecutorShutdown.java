@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import org.opendcs.odcsapi.dao.BackgroundExecutors;
+
+/**
+ * Stops the background tasks when the web application is undeployed.
+ */
+@WebListener
+public final class BackgroundExecutorShutdown implements ServletContextListener
+{
+	@Override
+	public void contextDestroyed(ServletContextEvent sce)
+	{
+		BackgroundExecutors.shutdown();
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.opendcs.odcsapi.errorhandling.MissingParameterException;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * Reads the records named by the ids parameter of the *batch endpoints. The legacy DAOs only read one record
+ * by key, so the records are read one after the other through the DAO the resource opened for the request,
+ * which keeps the whole batch on one connection.
+ */
+final class BatchRead
+{
+	static final int MAX_IDS = Integer.getInteger("opendcs.rest.api.batch.max.ids", 200);
+
+	/**
+	 * Reads one record.
+	 */
+	@FunctionalInterface
+	interface Reader<T, E extends Exception>
+	{
+		/**
+		 * @return the record, null if there is none with the id
+		 */
+		T read(long id) throws E;
+	}
+
+	private BatchRead()
+	{
+		throw new AssertionError("Utility class");
+	}
+
+	/**
+	 * Parse the ids parameter, which may be repeated and holds comma separated ids.
+	 * @return the distinct ids in the order given
+	 * @throws WebAppException if no id is given, an id is not a number or there are more than {@link #MAX_IDS}
+	 */
+	static List<Long> ids(List<String> ids) throws WebAppException
+	{
+		Set<Long> ret = new LinkedHashSet<>();
+		if (ids != null)
+		{
+			for (String param : ids)
+			{
+				for (String id : param.split(","))
+				{
+					if (id.isBlank())
+					{
+						continue;
+					}
+					try
+					{
+						ret.add(Long.parseLong(id.trim()));
+					}
+					catch (NumberFormatException ex)
+					{
+						throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "Invalid id '" + id.trim() + "'", ex);
+					}
+				}
+			}
+		}
+		if (ret.isEmpty())
+		{
+			throw new MissingParameterException("Missing required ids parameter.");
+		}
+		if (ret.size() > MAX_IDS)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"At most " + MAX_IDS + " ids may be requested at once.");
+		}
+		return new ArrayList<>(ret);
+	}
+
+	/**
+	 * @return the records found, in the order of the ids. Ids without a record are left out.
+	 */
+	static <T, E extends Exception> List<T> read(List<Long> ids, Reader<T, E> reader) throws E
+	{
+		List<T> ret = new ArrayList<>(ids.size());
+		for (long id : ids)
+		{
+			T record = reader.read(id);
+			if (record != null)
+			{
+				ret.add(record);
+			}
+		}
+		return ret;
+	}
+}
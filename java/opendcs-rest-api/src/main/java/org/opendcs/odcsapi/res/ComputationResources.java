@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -44,6 +45,7 @@ import decodes.tsdb.NoSuchObjectException;
 import decodes.tsdb.TsGroup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -78,7 +80,10 @@ public final class ComputationResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-									array = @ArraySchema(schema = @Schema(implementation = ApiComputationRef.class)))),
+									array = @ArraySchema(schema = @Schema(implementation = ApiComputationRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "404", description = "No computations found matching the filter criteria"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			}
@@ -97,8 +102,9 @@ public final class ComputationResources extends OpenDcsResource
 			@Parameter(schema = @Schema(implementation = Boolean.class),
 					description = "Whether to filter only enabled computations") @QueryParam("enabled") Boolean enabled,
 			@Parameter(schema = @Schema(implementation = String.class),
-					description = "Interval code to filter on") @QueryParam("interval") String interval)
-			throws DbException
+					description = "Interval code to filter on") @QueryParam("interval") String interval,
+			@BeanParam RefListQuery query)
+			throws DbException, WebAppException
 	{
 		try (ComputationDAI dai = getLegacyTimeseriesDB().makeComputationDAO())
 		{
@@ -124,7 +130,7 @@ public final class ComputationResources extends OpenDcsResource
 				compFilter.setIntervalCode(interval);
 			}
 			List<ApiComputationRef> computationRefs = map(dai.listComps(c -> compFilter.passes(c)));
-			return Response.status(HttpServletResponse.SC_OK).entity(computationRefs).build();
+			return query.apply(computationRefs, COMPUTATION_REF_FIELDS).toResponse();
 		}
 		catch(DbIoException ex)
 		{
@@ -132,6 +138,19 @@ public final class ComputationResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiComputationRef> COMPUTATION_REF_FIELDS =
+			RefListQuery.fields(ApiComputationRef.class)
+					.add("computationId", ApiComputationRef::getComputationId)
+					.add("name", ApiComputationRef::getName)
+					.add("algorithmId", ApiComputationRef::getAlgorithmId)
+					.add("algorithmName", ApiComputationRef::getAlgorithmName)
+					.add("processId", ApiComputationRef::getProcessId)
+					.add("processName", ApiComputationRef::getProcessName)
+					.add("enabled", ApiComputationRef::isEnabled)
+					.add("groupId", ApiComputationRef::getGroupId)
+					.add("groupName", ApiComputationRef::getGroupName)
+					.add("description", ApiComputationRef::getDescription);
+
 	static ArrayList<ApiComputationRef> map(List<DbComputation> computations)
 	{
 		ArrayList<ApiComputationRef> ret = new ArrayList<>();
@@ -207,6 +226,52 @@ public final class ComputationResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("computationbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several complete Computations",
+			description = "Reads the computations with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/computationbatch?ids=4,5",
+			operationId = "getComputationBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the computations",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiComputation.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - Computation Methods"}
+	)
+	public Response getComputationBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "4,5"))
+		@QueryParam("ids") List<String> ids)
+			throws WebAppException, DbException
+	{
+		List<Long> compIds = BatchRead.ids(ids);
+		try (ComputationDAI dai = getLegacyTimeseriesDB().makeComputationDAO())
+		{
+			List<ApiComputation> ret = BatchRead.read(compIds, id ->
+			{
+				try
+				{
+					return map(dai.getComputationById(DbKey.createDbKey(id)));
+				}
+				catch (NoSuchObjectException ex)
+				{
+					return null;
+				}
+			});
+			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+		}
+		catch(DbIoException ex)
+		{
+			throw new DbException("Unable to retrieve computations by ID", ex);
+		}
+	}
+
 	static ApiComputation map(DbComputation comp)
 	{
 		ApiComputation ret = new ApiComputation();
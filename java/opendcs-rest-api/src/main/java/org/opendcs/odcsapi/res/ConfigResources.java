@@ -27,6 +27,7 @@ import decodes.db.DataTypeSet;
 import decodes.db.FormatStatement;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -35,6 +36,7 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -108,21 +110,24 @@ public final class ConfigResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-							array = @ArraySchema(schema = @Schema(implementation = ApiConfigRef.class)))),
+							array = @ArraySchema(schema = @Schema(implementation = ApiConfigRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500",
 							description = "Database error occurred while retrieving the configuration references")
 			},
 			tags = {"REST - DECODES Platform Configurations"}
 	)
 	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
-	public Response getConfigRefs() throws DbException
+	public Response getConfigRefs(@BeanParam RefListQuery query) throws DbException, WebAppException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
 			PlatformConfigList configList = new PlatformConfigList();
 			dbIo.readConfigList(configList);
-			return Response.status(HttpServletResponse.SC_OK).entity(map(configList)).build();
+			return query.apply(map(configList), CONFIG_REF_FIELDS).toResponse();
 		}
 		catch(DatabaseException ex)
 		{
@@ -134,6 +139,12 @@ public final class ConfigResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiConfigRef> CONFIG_REF_FIELDS = RefListQuery.fields(ApiConfigRef.class)
+			.add("configId", ApiConfigRef::getConfigId)
+			.add("name", ApiConfigRef::getName)
+			.add("numPlatforms", ApiConfigRef::getNumPlatforms)
+			.add("description", ApiConfigRef::getDescription);
+
 	static List<ApiConfigRef> map(PlatformConfigList configList)
 	{
 		List<ApiConfigRef> configRefs = new ArrayList<>();
@@ -208,6 +219,64 @@ public final class ConfigResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("configbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several complete DECODES Platform Configurations",
+			description = "Reads the configurations with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/configbatch?ids=12,13",
+			operationId = "getConfigBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the configurations",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiPlatformConfig.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - DECODES Platform Configurations"}
+	)
+	public Response getConfigBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "12,13"))
+		@QueryParam("ids") List<String> ids)
+			throws WebAppException, DbException
+	{
+		List<Long> configIds = BatchRead.ids(ids);
+		DatabaseIO dbIo = getLegacyDatabase();
+		try
+		{
+			List<ApiPlatformConfig> ret = BatchRead.read(configIds, id ->
+			{
+				PlatformConfig config = new PlatformConfig();
+				config.setId(DbKey.createDbKey(id));
+				try
+				{
+					dbIo.readConfig(config);
+				}
+				catch (DatabaseException ex)
+				{
+					if (ex instanceof ValueNotFoundException || ex.getCause() instanceof ValueNotFoundException)
+					{
+						return null;
+					}
+					throw ex;
+				}
+				return map(config);
+			});
+			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+		}
+		catch (DatabaseException ex)
+		{
+			throw new DbException("Error reading configs", ex);
+		}
+		finally
+		{
+			dbIo.close();
+		}
+	}
+
 	static ApiPlatformConfig map(PlatformConfig config)
 	{
 		ApiPlatformConfig apiConfig = new ApiPlatformConfig();
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.sql.SQLException;
+import jakarta.ws.rs.ext.Provider;
+
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+import org.opendcs.odcsapi.dao.datasource.RequestConnectionScope;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Returns the connection shared by the DAOs of a request to the pool once the resource method returns, before the
+ * response entity is written, so a slow client or a long stream does not hold a pooled connection. Anything read
+ * while writing the entity uses a connection of its own. The scope is opened by {@link OpenDcsResource} on first use
+ * of the database; closing it again when the request finishes covers requests that failed before the method returned.
+ */
+@Provider
+public final class ConnectionScopeListener implements ApplicationEventListener
+{
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+
+	private static final RequestEventListener REQUEST_LISTENER = event ->
+	{
+		if (event.getType() == RequestEvent.Type.RESOURCE_METHOD_FINISHED
+				|| event.getType() == RequestEvent.Type.FINISHED)
+		{
+			close(event.getContainerRequest().getProperty(OpenDcsResource.CONNECTION_SCOPE_PROPERTY));
+		}
+	};
+
+	@Override
+	public void onEvent(ApplicationEvent event)
+	{
+		// Only requests are of interest
+	}
+
+	@Override
+	public RequestEventListener onRequest(RequestEvent event)
+	{
+		// A request that did not finish on the thread it started on leaves its scope bound to that thread
+		RequestConnectionScope.unbind();
+		return REQUEST_LISTENER;
+	}
+
+	static void close(Object scope)
+	{
+		if (scope instanceof RequestConnectionScope connectionScope)
+		{
+			try
+			{
+				connectionScope.close();
+			}
+			catch (SQLException ex)
+			{
+				log.warn("Unable to return the request connection to the pool.", ex);
+			}
+		}
+	}
+}
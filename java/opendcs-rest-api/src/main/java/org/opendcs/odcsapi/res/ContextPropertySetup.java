@@ -21,6 +21,7 @@ import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
 
 import org.opendcs.odcsapi.hydrojson.DbInterface;
+import org.opendcs.odcsapi.sec.PrincipalToken;
 
 @WebListener
 public final class ContextPropertySetup implements ServletContextListener
@@ -35,6 +36,10 @@ public final class ContextPropertySetup implements ServletContextListener
 		initProp(servletContext, "opendcs.rest.api.authorization.expiration.duration", "opendcs.rest.api.authorization.expiration.duration", "OPENDCS_AUTHORIZATION_DURATION");
 		initProp(servletContext, "opendcs.rest.api.authorization.jwt.jwkset.url", "opendcs.rest.api.authorization.jwt.jwkset.url", "OPENDCS_AUTHORIZATION_JWK_SET_URL");
 		initProp(servletContext, "opendcs.rest.api.authorization.jwt.issuer.url", "opendcs.rest.api.authorization.jwt.issuer.url", "OPENDCS_AUTHORIZATION_JWK_ISSUER_URL");
+		initProp(servletContext, "opendcs.rest.api.authorization.stateless", "opendcs.rest.api.authorization.stateless", "OPENDCS_AUTHORIZATION_STATELESS");
+		initProp(servletContext, "opendcs.rest.api.authorization.token.secret", "opendcs.rest.api.authorization.token.secret", "OPENDCS_AUTHORIZATION_TOKEN_SECRET");
+		initProp(servletContext, "opendcs.rest.api.authorization.max.lifetime", "opendcs.rest.api.authorization.max.lifetime", "OPENDCS_AUTHORIZATION_MAX_LIFETIME");
+		PrincipalToken.validateConfiguration();
 	}
 
 	private static void initProp(ServletContext servletContext, String sysParam, String decodesParam, String envParam)
@@ -0,0 +1,396 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import jakarta.servlet.http.HttpServletResponse;
+
+import decodes.tsdb.DbIoException;
+import org.opendcs.odcsapi.beans.ApiDacqEvent;
+import org.opendcs.odcsapi.dao.BackgroundExecutors;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Tails the DACQ_EVENT table of one organization and fans new events out to all stream subscribers, so the database
+ * is polled once per organization no matter how many clients are listening.
+ * <p>
+ * The reader polls every {@value #POLL_INTERVAL_PROPERTY} (default 2 seconds) for events after the newest one seen
+ * and keeps the last {@value #BUFFER_SIZE_PROPERTY} (default 1000) events for clients resuming with a last event id.
+ * A client resuming from before the buffer is caught up with a single database read of at most the buffer size more
+ * ids. A client resuming from further back, or before the reader read its first event, is sent a reset event instead
+ * of the events it missed. Each subscriber has a queue of the same size; a subscriber that falls that far behind is
+ * dropped and expected to reconnect with its last event id.
+ * The reader stops once it had no subscribers for {@value #IDLE_TIMEOUT_PROPERTY} (default 1 minute).
+ * <p>
+ * Every open stream holds a request thread of the servlet container, at most {@value #MAX_STREAMS_PROPERTY}
+ * (default 100) streams of all organizations are open at once. It has to stay well below the thread pool size of
+ * the container.
+ */
+final class DacqEventFeed
+{
+	static final String POLL_INTERVAL_PROPERTY = "opendcs.rest.api.dacqevents.poll.interval";
+	static final String BUFFER_SIZE_PROPERTY = "opendcs.rest.api.dacqevents.buffer.size";
+	static final String IDLE_TIMEOUT_PROPERTY = "opendcs.rest.api.dacqevents.idle.timeout";
+	static final String MAX_STREAMS_PROPERTY = "opendcs.rest.api.dacqevents.max.streams";
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final long POLL_INTERVAL_NANOS =
+			OrganizationRegistry.durationProperty(POLL_INTERVAL_PROPERTY, "PT2S").toNanos();
+	private static final int BUFFER_SIZE = Integer.getInteger(BUFFER_SIZE_PROPERTY, 1000);
+	private static final long IDLE_TIMEOUT_NANOS =
+			OrganizationRegistry.durationProperty(IDLE_TIMEOUT_PROPERTY, "PT1M").toNanos();
+	private static final int MAX_STREAMS = Integer.getInteger(MAX_STREAMS_PROPERTY, 100);
+	private static final AtomicInteger openStreams = new AtomicInteger();
+	private static final OrganizationRegistry<DacqEventFeed> feeds = new OrganizationRegistry<>();
+	private static final ScheduledExecutorService readers =
+			BackgroundExecutors.newScheduler("dacqevents-reader");
+
+	@FunctionalInterface
+	interface Reader
+	{
+		/**
+		 * Read events of all apps, routing executions and platforms in ascending id order.
+		 * @param afterEventId only events with a larger id, null to select by time
+		 * @param sinceMillis only events at or after this time, used when afterEventId is null
+		 */
+		List<ApiDacqEvent> read(Long afterEventId, Long sinceMillis) throws DbIoException;
+	}
+
+	private final Reader reader;
+	private final int capacity;
+	private final Deque<ApiDacqEvent> recent = new ArrayDeque<>();
+	private final List<Subscription> subscribers = new ArrayList<>();
+	private final long startMillis;
+	// Every event with a larger id is in the recent buffer or not read yet
+	private long floorId = Long.MAX_VALUE;
+	private Long lastEventId;
+	private long lastActive;
+	private boolean closed;
+	private ScheduledFuture<?> task;
+
+	DacqEventFeed(Reader reader, int capacity, long startMillis)
+	{
+		this.reader = reader;
+		this.capacity = capacity;
+		this.startMillis = startMillis;
+	}
+
+	/**
+	 * Subscribe to the events of the organization, starting its reader if it is not running.
+	 * @param organization organization id, may be null
+	 * @param reader reads the events of the organization, used if the reader has to be started
+	 * @param filter selects the events delivered to this subscriber
+	 * @param lastEventId id of the last event the client received, null to receive new events only
+	 * @throws DbIoException if the events after lastEventId had to be read and could not be
+	 * @throws WebAppException with 503 if the maximum number of streams is open
+	 */
+	static Subscription subscribe(String organization, Reader reader, Predicate<ApiDacqEvent> filter,
+			Long lastEventId) throws DbIoException, WebAppException
+	{
+		while (true)
+		{
+			DacqEventFeed feed = feeds.computeIfAbsent(organization, o -> start(o, reader));
+			Subscription subscription = feed.subscribe(filter, lastEventId);
+			if (subscription != null)
+			{
+				return subscription;
+			}
+			// The feed stopped between the lookup and the subscription
+			feeds.remove(organization, feed);
+		}
+	}
+
+	/**
+	 * @return a filter matching the events of the given app, routing execution and platform; null matches any
+	 */
+	static Predicate<ApiDacqEvent> filter(Long appId, Long routingExecId, Long platformId)
+	{
+		return event -> (appId == null || appId.equals(event.getAppId()))
+				&& (routingExecId == null || routingExecId.equals(event.getRoutingExecId()))
+				&& (platformId == null || platformId.equals(event.getPlatformId()));
+	}
+
+	private static DacqEventFeed start(String organization, Reader reader)
+	{
+		DacqEventFeed feed = new DacqEventFeed(reader, BUFFER_SIZE, System.currentTimeMillis());
+		feed.lastActive = System.nanoTime();
+		feed.task = readers.scheduleWithFixedDelay(() -> feed.run(organization), POLL_INTERVAL_NANOS,
+				POLL_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+		return feed;
+	}
+
+	private void run(String organization)
+	{
+		synchronized (this)
+		{
+			long now = System.nanoTime();
+			if (!subscribers.isEmpty())
+			{
+				lastActive = now;
+			}
+			else if (now - lastActive > IDLE_TIMEOUT_NANOS)
+			{
+				log.debug("Stopping idle dacq event reader for organization '{}'.", organization);
+				closed = true;
+				feeds.remove(organization, this);
+				task.cancel(false);
+				return;
+			}
+		}
+		try
+		{
+			poll();
+		}
+		catch (DbIoException | RuntimeException ex)
+		{
+			// An exception would cancel the scheduled reader, the next poll continues after the last event seen
+			log.warn("Unable to read dacq events for organization '{}'.", organization, ex);
+		}
+	}
+
+	/**
+	 * Read the events since the last poll and deliver them to the subscribers.
+	 */
+	void poll() throws DbIoException
+	{
+		Long after;
+		synchronized (this)
+		{
+			after = lastEventId;
+		}
+		List<ApiDacqEvent> events = sorted(reader.read(after, after == null ? startMillis : null));
+		synchronized (this)
+		{
+			for (ApiDacqEvent event : events)
+			{
+				long id = event.getEventId();
+				if (lastEventId != null && id <= lastEventId)
+				{
+					continue;
+				}
+				if (lastEventId == null)
+				{
+					// Events before the first one read happened before the reader started
+					floorId = id - 1;
+				}
+				lastEventId = id;
+				recent.addLast(event);
+				if (recent.size() > capacity)
+				{
+					floorId = recent.removeFirst().getEventId();
+				}
+				for (Subscription subscriber : subscribers)
+				{
+					subscriber.offer(event);
+				}
+			}
+			subscribers.removeIf(Subscription::isOverflowed);
+		}
+	}
+
+	/**
+	 * @return the subscription, null if the feed is stopped
+	 */
+	Subscription subscribe(Predicate<ApiDacqEvent> filter, Long resumeAfter) throws DbIoException, WebAppException
+	{
+		if (openStreams.incrementAndGet() > MAX_STREAMS)
+		{
+			openStreams.decrementAndGet();
+			throw new WebAppException(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					"Too many dacq event streams open, try again later.");
+		}
+		Subscription subscription = new Subscription(this, filter, capacity, resumeAfter);
+		Long readAfter = null;
+		synchronized (this)
+		{
+			if (closed)
+			{
+				subscription.close();
+				return null;
+			}
+			subscribers.add(subscription);
+			if (resumeAfter != null)
+			{
+				if (resumeAfter >= floorId)
+				{
+					recent.stream().filter(e -> e.getEventId() > resumeAfter).forEach(subscription::replay);
+				}
+				else if (floorId == Long.MAX_VALUE)
+				{
+					// Nothing read yet, there is no way to tell how far back the client is
+					subscription.reset = true;
+				}
+				else
+				{
+					// Ids are unique, so the read returns at most capacity events before the buffer
+					readAfter = Math.max(resumeAfter, floorId - capacity);
+					subscription.reset = readAfter > resumeAfter;
+				}
+			}
+		}
+		if (readAfter != null)
+		{
+			// Events arriving meanwhile are queued and skipped by id if the read returns them as well
+			try
+			{
+				sorted(reader.read(readAfter, null)).forEach(subscription::replay);
+			}
+			catch (DbIoException | RuntimeException ex)
+			{
+				subscription.close();
+				throw ex;
+			}
+		}
+		return subscription;
+	}
+
+	synchronized int subscriberCount()
+	{
+		return subscribers.size();
+	}
+
+	/**
+	 * @return the number of open streams of all organizations
+	 */
+	static int openStreams()
+	{
+		return openStreams.get();
+	}
+
+	private synchronized void unsubscribe(Subscription subscription)
+	{
+		subscribers.remove(subscription);
+	}
+
+	private static List<ApiDacqEvent> sorted(List<ApiDacqEvent> events)
+	{
+		List<ApiDacqEvent> result = new ArrayList<>(events.size());
+		for (ApiDacqEvent event : events)
+		{
+			if (event.getEventId() != null)
+			{
+				result.add(event);
+			}
+		}
+		result.sort(Comparator.comparing(ApiDacqEvent::getEventId));
+		return result;
+	}
+
+	/**
+	 * Events for one stream client. Replayed events are delivered first, then the queued live events; each event is
+	 * delivered once and in id order.
+	 */
+	static final class Subscription implements AutoCloseable
+	{
+		private final DacqEventFeed feed;
+		private final Predicate<ApiDacqEvent> filter;
+		private final Deque<ApiDacqEvent> replay = new ArrayDeque<>();
+		private final BlockingQueue<ApiDacqEvent> queue;
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private final Long resumeAfter;
+		private volatile boolean overflowed;
+		private boolean reset;
+		private long delivered;
+
+		private Subscription(DacqEventFeed feed, Predicate<ApiDacqEvent> filter, int capacity, Long resumeAfter)
+		{
+			this.feed = feed;
+			this.filter = Objects.requireNonNull(filter);
+			this.queue = new ArrayBlockingQueue<>(capacity);
+			this.resumeAfter = resumeAfter;
+			this.delivered = resumeAfter == null ? Long.MIN_VALUE : resumeAfter;
+		}
+
+		/**
+		 * Wait for the next event.
+		 * @return the event, null if none arrived within the timeout or the subscriber was dropped
+		 */
+		ApiDacqEvent next(long timeout, TimeUnit unit) throws InterruptedException
+		{
+			while (!overflowed)
+			{
+				ApiDacqEvent event = replay.isEmpty() ? queue.poll(timeout, unit) : replay.removeFirst();
+				if (event == null)
+				{
+					return null;
+				}
+				if (event.getEventId() > delivered)
+				{
+					delivered = event.getEventId();
+					return event;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * @return true if events were dropped because the subscriber fell too far behind; it should reconnect
+		 */
+		boolean isOverflowed()
+		{
+			return overflowed;
+		}
+
+		/**
+		 * @return the last event id of the client if events after it were not replayed, null if none were missed
+		 */
+		Long getResetAfter()
+		{
+			return reset ? resumeAfter : null;
+		}
+
+		@Override
+		public void close()
+		{
+			if (closed.compareAndSet(false, true))
+			{
+				feed.unsubscribe(this);
+				openStreams.decrementAndGet();
+			}
+		}
+
+		private void replay(ApiDacqEvent event)
+		{
+			if (filter.test(event))
+			{
+				replay.addLast(event);
+			}
+		}
+
+		private void offer(ApiDacqEvent event)
+		{
+			if (!overflowed && filter.test(event) && !queue.offer(event))
+			{
+				overflowed = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opendcs.odcsapi.beans.ApiDacqEvent;
+
+/**
+ * Writes the events of a {@link DacqEventFeed.Subscription} as a {@code text/event-stream}. Each event carries its
+ * event id, so a reconnecting EventSource resumes through the Last-Event-ID header. A comment is sent while no
+ * events arrive, which keeps proxies from closing the connection and detects clients that went away.
+ * <p>
+ * If events after the Last-Event-ID of the client can no longer be replayed, the stream starts with a
+ * {@value #RESET_EVENT_NAME} event holding that id. The client has to reload the events it needs with
+ * {@code GET dacqevents}; the stream continues with the oldest events that could be replayed.
+ */
+final class DacqEventStreamingOutput extends EventStreamingOutput
+{
+	static final String EVENT_NAME = "dacqevent";
+	static final String RESET_EVENT_NAME = "reset";
+	private static final ObjectMapper MAPPER = ObjectMapperContextResolver.createObjectMapper();
+
+	private final DacqEventFeed.Subscription subscription;
+
+	DacqEventStreamingOutput(DacqEventFeed.Subscription subscription)
+	{
+		this(subscription, HEARTBEAT_MILLIS);
+	}
+
+	DacqEventStreamingOutput(DacqEventFeed.Subscription subscription, long heartbeatMillis)
+	{
+		super(heartbeatMillis);
+		this.subscription = subscription;
+	}
+
+	@Override
+	void writeOpening(OutputStream output) throws IOException
+	{
+		Long resetAfter = subscription.getResetAfter();
+		if (resetAfter != null)
+		{
+			writeMessage(output, "event: " + RESET_EVENT_NAME + "\ndata: {\"lastEventId\":" + resetAfter + "}\n\n");
+		}
+	}
+
+	@Override
+	byte[] next(long timeoutMillis) throws InterruptedException, IOException
+	{
+		ApiDacqEvent event = subscription.next(timeoutMillis, TimeUnit.MILLISECONDS);
+		if (event == null)
+		{
+			return null;
+		}
+		StringBuilder message = new StringBuilder(256)
+				.append("id: ").append(event.getEventId()).append('\n')
+				.append("event: ").append(EVENT_NAME).append('\n')
+				.append("data: ").append(MAPPER.writeValueAsString(event)).append("\n\n");
+		return message.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	boolean isOverflowed()
+	{
+		return subscription.isOverflowed();
+	}
+
+	@Override
+	void close()
+	{
+		subscription.close();
+	}
+}
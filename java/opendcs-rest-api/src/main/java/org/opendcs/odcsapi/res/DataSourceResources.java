@@ -21,6 +21,7 @@ import java.util.Vector;
 
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -35,6 +36,7 @@ import jakarta.ws.rs.core.Response;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -81,19 +83,22 @@ public class DataSourceResources extends OpenDcsResource
 						content = @Content(
 							mediaType = MediaType.APPLICATION_JSON,
 							array = @ArraySchema(schema = @Schema(implementation = ApiDataSourceRef.class))
-					)),
+					),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			},
 			tags = {"REST - DECODES Data Source Records"}
 	)
-	public Response getDataSourceRefs() throws DbException
+	public Response getDataSourceRefs(@BeanParam RefListQuery query) throws DbException, WebAppException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
 			DataSourceList dsl = new DataSourceList();
 			dbIo.readDataSourceList(dsl);
-			return Response.status(HttpServletResponse.SC_OK).entity(map(dsl)).build();
+			return query.apply(map(dsl), DATA_SOURCE_REF_FIELDS).toResponse();
 		}
 		catch (DatabaseException ex)
 		{
@@ -105,6 +110,14 @@ public class DataSourceResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiDataSourceRef> DATA_SOURCE_REF_FIELDS =
+			RefListQuery.fields(ApiDataSourceRef.class)
+					.add("dataSourceId", ApiDataSourceRef::getDataSourceId)
+					.add("name", ApiDataSourceRef::getName)
+					.add("type", ApiDataSourceRef::getType)
+					.add("arguments", ApiDataSourceRef::getArguments)
+					.add("usedBy", ApiDataSourceRef::getUsedBy);
+
 	static ArrayList<ApiDataSourceRef> map(DataSourceList dsl)
 	{
 		ArrayList<ApiDataSourceRef> ret = new ArrayList<>();
@@ -167,18 +167,26 @@ public final class DatatypeUnitResources extends OpenDcsResource
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
 									array = @ArraySchema(schema = @Schema(implementation = ApiUnit.class)))),
+					@ApiResponse(responseCode = "304", description = "Engineering units unchanged since the given ETag"),
 					@ApiResponse(responseCode = "500", description = "Internal server error")
 			},
 			tags = {"REST - Engineering Unit Methods"}
 	)
-	public Response getUnitList() throws DbException
+	public Response getUnitList() throws DbException, WebAppException
+	{
+		return ReferenceDataCache.forOrganization(organizationId)
+				.get(ReferenceDataCache.Kind.UNITS, this::readUnitList)
+				.toResponse(this::evaluatePreconditions);
+	}
+
+	private ArrayList<ApiUnit> readUnitList() throws DbException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
 			EngineeringUnitList euList = new EngineeringUnitList();
 			dbIo.readEngineeringUnitList(euList);
-			return Response.status(HttpServletResponse.SC_OK).entity(map(euList)).build();
+			return map(euList);
 		}
 		catch(DatabaseException ex)
 		{
@@ -255,6 +263,7 @@ public final class DatatypeUnitResources extends OpenDcsResource
 			}
 			euList.add(unit);
 			dbIo.writeEngineeringUnitList(euList);
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.UNITS);
 			return Response.status(HttpServletResponse.SC_CREATED)
 					.entity(map(euList)).build();
 		}
@@ -299,6 +308,7 @@ public final class DatatypeUnitResources extends OpenDcsResource
 		{
 			EngineeringUnit unit = new EngineeringUnit(abbr, "", "", "");
 			dbIo.deleteEngineeringUnit(unit);
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.UNITS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT).entity("EU with abbr " + abbr + " deleted").build();
 		}
 		catch(DatabaseException ex)
@@ -331,18 +341,26 @@ public final class DatatypeUnitResources extends OpenDcsResource
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
 									array = @ArraySchema(schema = @Schema(implementation = ApiUnitConverter.class)))),
+					@ApiResponse(responseCode = "304", description = "Unit conversions unchanged since the given ETag"),
 					@ApiResponse(responseCode = "500", description = "Internal server error")
 			},
 			tags = {"REST - Engineering Unit Methods"}
 	)
-	public Response getUnitConvList() throws DbException
+	public Response getUnitConvList() throws DbException, WebAppException
+	{
+		return ReferenceDataCache.forOrganization(organizationId)
+				.get(ReferenceDataCache.Kind.UNIT_CONVERTERS, this::readUnitConvList)
+				.toResponse(this::evaluatePreconditions);
+	}
+
+	private List<ApiUnitConverter> readUnitConvList() throws DbException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
 			UnitConverterSet unitConverterSet = new UnitConverterSet();
 			dbIo.readUnitConverterSet(unitConverterSet);
-			return Response.status(HttpServletResponse.SC_OK).entity(map(unitConverterSet)).build();
+			return map(unitConverterSet);
 		}
 		catch(DatabaseException ex)
 		{
@@ -415,6 +433,7 @@ public final class DatatypeUnitResources extends OpenDcsResource
 				unitConverterDb.forceSetId(DbKey.NullKey);
 			}
 			dbIo.insertUnitConverter(unitConverterDb);
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.UNIT_CONVERTERS);
 			return Response.status(HttpServletResponse.SC_CREATED).entity(map(unitConverterDb)).build();
 		}
 		catch(DatabaseException ex)
@@ -540,6 +559,7 @@ public final class DatatypeUnitResources extends OpenDcsResource
 		try
 		{
 			dbIo.deleteUnitConverter(id);
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.UNIT_CONVERTERS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT).entity("EUConv with id=" + id + " deleted").build();
 		}
 		catch(DatabaseException ex)
@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes a Server-Sent Events stream from a subscription: a comment that opens the stream, then each message as it
+ * arrives, with a keepalive comment whenever none arrived within the heartbeat interval. The stream ends when the
+ * subscriber fell too far behind, the client then reconnects, and the subscription is closed when the stream ends.
+ */
+abstract class EventStreamingOutput implements StreamingOutput
+{
+	static final long HEARTBEAT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+	private final long heartbeatMillis;
+
+	EventStreamingOutput(long heartbeatMillis)
+	{
+		this.heartbeatMillis = heartbeatMillis;
+	}
+
+	@Override
+	public final void write(OutputStream output) throws IOException
+	{
+		try
+		{
+			// Commits the response headers so the client sees the stream open right away
+			writeComment(output, "connected");
+			writeOpening(output);
+			while (true)
+			{
+				byte[] message = next(heartbeatMillis);
+				if (isOverflowed())
+				{
+					return;
+				}
+				if (message == null)
+				{
+					writeComment(output, "keepalive");
+					continue;
+				}
+				output.write(message);
+				output.flush();
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for events to stream");
+		}
+		finally
+		{
+			close();
+		}
+	}
+
+	/**
+	 * Write the messages that precede the subscribed ones, if any.
+	 */
+	void writeOpening(OutputStream output) throws IOException
+	{
+	}
+
+	/**
+	 * Wait for the next message.
+	 * @return the complete SSE message, null if none arrived within the timeout or the subscriber was dropped
+	 */
+	abstract byte[] next(long timeoutMillis) throws InterruptedException, IOException;
+
+	/**
+	 * @return true if the subscriber fell too far behind and was dropped
+	 */
+	abstract boolean isOverflowed();
+
+	/**
+	 * Close the subscription.
+	 */
+	abstract void close();
+
+	static void writeMessage(OutputStream output, String message) throws IOException
+	{
+		output.write(message.getBytes(StandardCharsets.UTF_8));
+		output.flush();
+	}
+
+	private static void writeComment(OutputStream output, String comment) throws IOException
+	{
+		writeMessage(output, ": " + comment + "\n\n");
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * The properties of a response bean selected by a {@code fields} query parameter. Resources check
+ * {@link #includes(String)} to skip mapping properties that will not be sent, and return {@link #entity(Object)}
+ * to serialize only the selected properties. Only beans of the projected type are trimmed, anything nested in
+ * them is written whole.
+ */
+final class FieldProjection
+{
+	static final FieldProjection ALL = new FieldProjection(null, Set.of());
+
+	private static final String FILTER_ID = "fieldProjection";
+	private static final ObjectMapper MAPPER = ObjectMapperContextResolver.createObjectMapper()
+			.setAnnotationIntrospector(new JacksonAnnotationIntrospector()
+			{
+				@Override
+				public Object findFilterId(Annotated a)
+				{
+					// Beans written by this mapper all go through the projection filter
+					if (a instanceof AnnotatedClass type && !Map.class.isAssignableFrom(type.getRawType()))
+					{
+						return FILTER_ID;
+					}
+					return super.findFilterId(a);
+				}
+			});
+	private static final Map<Class<?>, Map<String, String>> PROPERTIES = new ConcurrentHashMap<>();
+
+	private final Class<?> type;
+	private final Set<String> selected;
+
+	private FieldProjection(Class<?> type, Set<String> selected)
+	{
+		this.type = type;
+		this.selected = selected;
+	}
+
+	/**
+	 * Parse a comma separated list of property names of the given bean type. Names are matched
+	 * case-insensitively.
+	 * @param fields the fields parameter, null or blank to select every property
+	 * @throws WebAppException if a name is not a property of the type
+	 */
+	static FieldProjection of(String fields, Class<?> type) throws WebAppException
+	{
+		if (fields == null || fields.isBlank())
+		{
+			return ALL;
+		}
+		Map<String, String> properties = PROPERTIES.computeIfAbsent(type, FieldProjection::properties);
+		Set<String> selected = new HashSet<>();
+		for (String field : fields.split(","))
+		{
+			if (field.isBlank())
+			{
+				continue;
+			}
+			String name = properties.get(field.trim().toLowerCase(Locale.ROOT));
+			if (name == null)
+			{
+				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "Unknown field '" + field.trim()
+						+ "', expected one of: " + String.join(", ", properties.values()));
+			}
+			selected.add(name);
+		}
+		return new FieldProjection(type, Set.copyOf(selected));
+	}
+
+	private static Map<String, String> properties(Class<?> type)
+	{
+		Map<String, String> ret = new LinkedHashMap<>();
+		for (BeanPropertyDefinition property : MAPPER.getSerializationConfig()
+				.introspect(MAPPER.constructType(type))
+				.findProperties())
+		{
+			if (property.couldSerialize())
+			{
+				ret.put(property.getName().toLowerCase(Locale.ROOT), property.getName());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return true if the JSON property is sent
+	 */
+	boolean includes(String property)
+	{
+		return type == null || selected.contains(property);
+	}
+
+	/**
+	 * @return the entity to put in the response, the given one if every property is selected
+	 */
+	Object entity(Object entity)
+	{
+		if (type == null)
+		{
+			return entity;
+		}
+		ObjectWriter writer = MAPPER.writer(new SimpleFilterProvider().addFilter(FILTER_ID, new Filter()))
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		return (StreamingOutput) output -> writer.writeValue(output, entity);
+	}
+
+	private final class Filter extends SimpleBeanPropertyFilter
+	{
+		@Override
+		public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider,
+				PropertyWriter writer) throws Exception
+		{
+			if (pojo.getClass() != type || selected.contains(writer.getName()))
+			{
+				writer.serializeAsField(pojo, gen, provider);
+			}
+			else if (!gen.canOmitFields())
+			{
+				writer.serializeAsOmittedField(pojo, gen, provider);
+			}
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import decodes.tsdb.DbIoException;
+import decodes.tsdb.IntervalCodes;
+import decodes.tsdb.TimeSeriesDb;
+import opendcs.dai.IntervalDAI;
+import opendcs.opentsdb.Interval;
+import org.opendcs.odcsapi.beans.ApiInterval;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+
+/**
+ * The interval definitions of one organization, with an index of the intervals by case-insensitive name.
+ * <p>
+ * The intervals are loaded as a whole on first use. Intervals written through this API invalidate the registry and
+ * the next use loads it again. The registry is also reloaded once it is older than {@value #MAX_AGE_PROPERTY}
+ * (default 5 minutes), which bounds how long changes made by other tools go unnoticed.
+ */
+final class IntervalRegistry
+{
+	static final String MAX_AGE_PROPERTY = "opendcs.rest.api.intervals.max.age";
+	private static final long MAX_AGE_NANOS = OrganizationRegistry.durationProperty(MAX_AGE_PROPERTY, "PT5M").toNanos();
+	private static final OrganizationRegistry<IntervalRegistry> registries = OrganizationRegistry.bounded();
+
+	@FunctionalInterface
+	interface Loader
+	{
+		/**
+		 * @return all intervals defined in the database
+		 */
+		List<Interval> load() throws DbIoException;
+
+		static Loader of(Supplier<TimeSeriesDb> db)
+		{
+			return () ->
+			{
+				try (IntervalDAI dai = db.get().makeIntervalDAO())
+				{
+					dai.loadAllIntervals();
+					List<Interval> ret = new ArrayList<>();
+					for (String code : dai.getValidIntervalCodes())
+					{
+						Interval intV = IntervalCodes.getInterval(code);
+						if (intV != null)
+						{
+							ret.add(intV);
+						}
+					}
+					return ret;
+				}
+			};
+		}
+	}
+
+	private record Intervals(List<ApiInterval> list, Map<String, Interval> byName, long loaded)
+	{
+	}
+
+	private final long maxAgeNanos;
+	private final LongSupplier clock;
+	private Intervals intervals;
+
+	IntervalRegistry(long maxAgeNanos, LongSupplier clock)
+	{
+		this.maxAgeNanos = maxAgeNanos;
+		this.clock = clock;
+	}
+
+	static IntervalRegistry forOrganization(String organization)
+	{
+		return registries.computeIfAbsent(organization, o -> new IntervalRegistry(MAX_AGE_NANOS, System::nanoTime));
+	}
+
+	/**
+	 * Invalidate the registry of the organization, if there is one.
+	 */
+	static void invalidate(String organization)
+	{
+		registries.ifPresent(organization, IntervalRegistry::invalidate);
+	}
+
+	synchronized void invalidate()
+	{
+		intervals = null;
+	}
+
+	/**
+	 * @return all intervals, in the order the database lists them
+	 */
+	List<ApiInterval> list(Loader loader) throws DbIoException
+	{
+		return intervals(loader).list();
+	}
+
+	/**
+	 * @return the interval with the name ignoring case, null if there is none
+	 */
+	Interval get(String name, Loader loader) throws DbIoException
+	{
+		return name == null ? null : intervals(loader).byName().get(name.toLowerCase(Locale.ROOT));
+	}
+
+	private synchronized Intervals intervals(Loader loader) throws DbIoException
+	{
+		long now = clock.getAsLong();
+		if (intervals == null || now - intervals.loaded() >= maxAgeNanos)
+		{
+			List<ApiInterval> list = new ArrayList<>();
+			Map<String, Interval> byName = new HashMap<>();
+			for (Interval intV : loader.load())
+			{
+				list.add(TimeSeriesResources.map(intV));
+				if (intV.getName() != null)
+				{
+					// The first of two names differing only in case wins, as with the linear scan it replaces
+					byName.putIfAbsent(intV.getName().toLowerCase(Locale.ROOT), intV);
+				}
+			}
+			intervals = new Intervals(List.copyOf(list), byName, now);
+		}
+		return intervals;
+	}
+}
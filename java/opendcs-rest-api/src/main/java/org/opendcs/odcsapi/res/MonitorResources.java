@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.sql.DataSource;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+import org.opendcs.odcsapi.util.ApiConstants;
+
+/**
+ * Live updates of the process monitor views.
+ */
+@Path("/")
+public final class MonitorResources extends OpenDcsResource
+{
+	@GET
+	@Path("monitor/stream")
+	@Produces(MediaType.SERVER_SENT_EVENTS)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Streams changes of routingstatus, appstat and platformstat as Server-Sent Events",
+			description = "Sample URL:\n  \n    "
+					+ "http://localhost:8080/odcsapi/monitor/stream?views=routingstatus,platformstat&netlistid=1001\n  \n"
+					+ "The monitor views are refreshed in the background for all clients of an organization. "
+					+ "This stream sends one event per view when it is opened, with all rows, and afterwards one "
+					+ "event each time the view changes, with the rows that were added or changed and the keys of "
+					+ "the removed rows. The event name is the view; the rows have the format of the GET method of "
+					+ "the same name. Rows are keyed by appId, by platformId, or by routingSpecId, scheduleEntryId "
+					+ "and name joined with ':'.\n  \n```\nevent: appstat\ndata: {\"version\":7,\"full\":true,"
+					+ "\"rows\":[{\"appId\":4,\"appName\":\"compproc\",...}],\"removed\":[]}\n\n"
+					+ "event: appstat\ndata: {\"version\":8,\"full\":false,\"rows\":[{\"appId\":4,...}],"
+					+ "\"removed\":[]}\n```\n  \n"
+					+ "A client that falls behind is disconnected and receives complete views again when it "
+					+ "reconnects. Every open stream holds a server thread, the number of open streams is limited by "
+					+ "the opendcs.rest.api.monitor.max.streams property (default 100).",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Event stream opened",
+							content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS)),
+					@ApiResponse(responseCode = "400", description = "Unknown view"),
+					@ApiResponse(responseCode = "500", description = "Database error occurred"),
+					@ApiResponse(responseCode = "503", description = "Too many monitor streams are open, or every "
+							+ "monitor view kept is streamed")
+			},
+			tags = {"OpenDCS Process Monitor and Control (Routing)"}
+	)
+	public Response streamMonitor(@Parameter(description = "Comma separated views to stream: routingstatus, appstat "
+					+ "and platformstat. All three if omitted.",
+					schema = @Schema(implementation = String.class, example = "routingstatus,appstat"))
+			@QueryParam("views") String views,
+			@Parameter(description = "Only stream platforms that have a transport medium in the referenced "
+					+ "network list.", schema = @Schema(implementation = Long.class, example = "1001"))
+			@QueryParam("netlistid") Long netlistId)
+			throws DbException, WebAppException
+	{
+		DataSource dataSource = getDataSource();
+		List<MonitorSnapshotter.View<?>> subscribed = new ArrayList<>();
+		String requested = views == null || views.isBlank() ? "routingstatus,appstat,platformstat" : views;
+		for (String view : requested.split(","))
+		{
+			switch (view.trim().toLowerCase(Locale.ROOT))
+			{
+				case "routingstatus" -> subscribed.add(RoutingResources.routingStatusView(dataSource, organizationId));
+				case "appstat" -> subscribed.add(AppResources.appStatusView(dataSource, organizationId));
+				case "platformstat" -> subscribed.add(
+						PlatformResources.platformStatusView(dataSource, organizationId, netlistId));
+				default -> throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+						"Unknown monitor view: " + view.trim());
+			}
+		}
+		MonitorSnapshotter.Subscription subscription = null;
+		while (subscription == null)
+		{
+			// Null if the snapshotter stopped for being idle meanwhile, the next lookup starts a new one
+			subscription = MonitorSnapshotter.forOrganization(organizationId).subscribe(subscribed);
+		}
+		return Response.status(HttpServletResponse.SC_OK)
+				.entity(new MonitorStreamingOutput(subscription))
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache")
+				// Keeps reverse proxies from buffering the stream
+				.header("X-Accel-Buffering", "no")
+				.build();
+	}
+}
@@ -0,0 +1,591 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opendcs.odcsapi.dao.BackgroundExecutors;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Keeps the process monitor views (routingstatus, appstat, platformstat) of one organization as immutable snapshots,
+ * refreshed in the background, so the database load does not depend on the number of open monitor screens.
+ * <p>
+ * A view is loaded by the first request for it and refreshed every {@value #REFRESH_PROPERTY} (default 5 seconds)
+ * while it is requested or streamed; views not used for {@value #IDLE_TIMEOUT_PROPERTY} (default 5 minutes) are
+ * dropped. At most {@value #MAX_VIEWS_PROPERTY} (default 32) views are kept per organization, as every netlist id
+ * of platformstat is a view of its own; beyond it the least recently used view that is not streamed is dropped.
+ * Streamed views count against that limit as well: once every view is streamed, a request for another view is
+ * answered with 503 until a stream closes.
+ * A snapshot holds the serialized JSON, an entity tag over its content and a version that only increases
+ * when the content changes. Stream subscribers receive the rows that changed or disappeared with each new version.
+ * <p>
+ * Every open stream holds a request thread of the servlet container, at most {@value #MAX_STREAMS_PROPERTY}
+ * (default 100) monitor streams of all organizations are open at once.
+ */
+final class MonitorSnapshotter
+{
+	static final String REFRESH_PROPERTY = "opendcs.rest.api.monitor.refresh";
+	static final String IDLE_TIMEOUT_PROPERTY = "opendcs.rest.api.monitor.idle.timeout";
+	static final String BUFFER_SIZE_PROPERTY = "opendcs.rest.api.monitor.stream.buffer.size";
+	static final String MAX_VIEWS_PROPERTY = "opendcs.rest.api.monitor.max.views";
+	static final String MAX_STREAMS_PROPERTY = "opendcs.rest.api.monitor.max.streams";
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final ObjectMapper MAPPER = ObjectMapperContextResolver.createObjectMapper();
+	private static final long REFRESH_NANOS = OrganizationRegistry.durationProperty(REFRESH_PROPERTY, "PT5S").toNanos();
+	private static final long IDLE_TIMEOUT_NANOS =
+			OrganizationRegistry.durationProperty(IDLE_TIMEOUT_PROPERTY, "PT5M").toNanos();
+	private static final int BUFFER_SIZE = Integer.getInteger(BUFFER_SIZE_PROPERTY, 64);
+	private static final int MAX_VIEWS = Integer.getInteger(MAX_VIEWS_PROPERTY, 32);
+	private static final int MAX_STREAMS = Integer.getInteger(MAX_STREAMS_PROPERTY, 100);
+	private static final AtomicInteger openStreams = new AtomicInteger();
+	private static final OrganizationRegistry<MonitorSnapshotter> snapshotters = new OrganizationRegistry<>();
+	private static final ScheduledExecutorService refresher =
+			BackgroundExecutors.newScheduler("monitor-snapshot-refresh");
+
+	@FunctionalInterface
+	interface Loader<T>
+	{
+		List<T> load() throws DbException;
+	}
+
+	/**
+	 * A monitor view: its name, how to read its rows and the key identifying a row between versions.
+	 */
+	record View<T>(String name, Loader<T> loader, Function<T, String> key)
+	{
+	}
+
+	private final Map<String, Entry<?>> views = new ConcurrentHashMap<>();
+	private final List<Subscription> subscribers = new ArrayList<>();
+	private final int bufferSize;
+	private final int maxViews;
+	private final AtomicLong uses = new AtomicLong();
+	private boolean closed;
+	private ScheduledFuture<?> task;
+
+	MonitorSnapshotter(int bufferSize)
+	{
+		this(bufferSize, MAX_VIEWS);
+	}
+
+	MonitorSnapshotter(int bufferSize, int maxViews)
+	{
+		this.bufferSize = bufferSize;
+		this.maxViews = maxViews;
+	}
+
+	static MonitorSnapshotter forOrganization(String organization)
+	{
+		return snapshotters.computeIfAbsent(organization, MonitorSnapshotter::start);
+	}
+
+	private static MonitorSnapshotter start(String organization)
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(BUFFER_SIZE);
+		snapshotter.task = refresher.scheduleWithFixedDelay(() -> snapshotter.run(organization), REFRESH_NANOS,
+				REFRESH_NANOS, TimeUnit.NANOSECONDS);
+		return snapshotter;
+	}
+
+	/**
+	 * Return the current snapshot of the view, loading it if this is the first request for it.
+	 * @throws WebAppException with 503 if the view is new and every view kept is streamed
+	 */
+	<T> Snapshot get(View<T> view) throws DbException, WebAppException
+	{
+		Entry<?> existing = views.get(view.name());
+		if (existing == null)
+		{
+			existing = views.computeIfAbsent(view.name(), name -> new Entry<>(view, System.nanoTime()));
+			makeRoom(view.name(), existing);
+		}
+		@SuppressWarnings("unchecked")
+		Entry<T> entry = (Entry<T>) existing;
+		entry.accessed = true;
+		entry.lastUse = uses.incrementAndGet();
+		Snapshot snapshot = entry.snapshot;
+		return snapshot != null ? snapshot : entry.initialize();
+	}
+
+	/**
+	 * Subscribe to the changes of the views. The current snapshot of each view is queued as the first message.
+	 * @return the subscription, null if the snapshotter was stopped and the caller should ask for a new one
+	 * @throws WebAppException with 503 if the maximum number of streams is open, or a view is new and every view
+	 * kept is streamed
+	 */
+	Subscription subscribe(List<View<?>> subscribed) throws DbException, WebAppException
+	{
+		if (openStreams.incrementAndGet() > MAX_STREAMS)
+		{
+			openStreams.decrementAndGet();
+			throw new WebAppException(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					"Too many monitor streams open, try again later.");
+		}
+		Subscription subscription = new Subscription(this, bufferSize);
+		try
+		{
+			List<Snapshot> current = new ArrayList<>();
+			for (View<?> view : subscribed)
+			{
+				current.add(get(view));
+			}
+			synchronized (this)
+			{
+				if (closed)
+				{
+					subscription.close();
+					return null;
+				}
+				// Registered first, so restoring one view can not drop another view of this subscription
+				subscribers.add(subscription);
+				subscribed.forEach(view -> subscription.views.add(view.name()));
+				for (int i = 0; i < subscribed.size(); i++)
+				{
+					String name = subscribed.get(i).name();
+					// A refresh may have published a newer version after the snapshot above was taken
+					Entry<?> entry = views.get(name);
+					if (entry == null)
+					{
+						// Dropped by a newer view meanwhile, streamed views are kept from now on
+						entry = restore(subscribed.get(i), current.get(i));
+						makeRoom(name, entry);
+					}
+					Snapshot latest = entry.snapshot == null ? current.get(i) : entry.snapshot;
+					subscription.offer(message(name, latest.version, true, latest.rows.values(), List.of()));
+				}
+			}
+			return subscription;
+		}
+		catch (DbException | WebAppException | RuntimeException ex)
+		{
+			subscription.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Refresh every view in use and drop the idle ones. Runs on the shared refresh thread.
+	 */
+	void refreshViews()
+	{
+		long now = System.nanoTime();
+		Set<String> streamed = streamedViews();
+		for (Map.Entry<String, Entry<?>> e : views.entrySet())
+		{
+			Entry<?> entry = e.getValue();
+			if (entry.accessed || streamed.contains(e.getKey()))
+			{
+				entry.accessed = false;
+				entry.lastAccess = now;
+			}
+			else if (now - entry.lastAccess > IDLE_TIMEOUT_NANOS)
+			{
+				views.remove(e.getKey(), entry);
+				continue;
+			}
+			try
+			{
+				entry.refresh();
+			}
+			catch (DbException | RuntimeException ex)
+			{
+				log.warn("Unable to refresh the {} monitor view, serving the previous snapshot.", e.getKey(), ex);
+			}
+		}
+	}
+
+	synchronized int subscriberCount()
+	{
+		return subscribers.size();
+	}
+
+	int viewCount()
+	{
+		return views.size();
+	}
+
+	/**
+	 * @return the number of open monitor streams of all organizations
+	 */
+	static int openStreams()
+	{
+		return openStreams.get();
+	}
+
+	private <T> Entry<?> restore(View<T> view, Snapshot snapshot)
+	{
+		return views.computeIfAbsent(view.name(), name ->
+		{
+			Entry<T> entry = new Entry<>(view, System.nanoTime());
+			entry.snapshot = snapshot;
+			return entry;
+		});
+	}
+
+	/**
+	 * Keep the number of views within the limit after a view was added, dropping the least recently used view that
+	 * is not streamed. If there is none, the added view is dropped again.
+	 */
+	private void makeRoom(String added, Entry<?> entry) throws WebAppException
+	{
+		if (views.size() > maxViews && !evict(added))
+		{
+			views.remove(added, entry);
+			throw new WebAppException(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					"All " + maxViews + " monitor views are streamed, try again later.");
+		}
+	}
+
+	/**
+	 * Drop the least recently used view that is not streamed, other than the one just added.
+	 * @return false if there was no view to drop
+	 */
+	private boolean evict(String added)
+	{
+		Set<String> streamed = streamedViews();
+		Map.Entry<String, Entry<?>> oldest = null;
+		for (Map.Entry<String, Entry<?>> e : views.entrySet())
+		{
+			if (!e.getKey().equals(added) && !streamed.contains(e.getKey())
+					&& (oldest == null || e.getValue().lastUse < oldest.getValue().lastUse))
+			{
+				oldest = e;
+			}
+		}
+		if (oldest == null)
+		{
+			return false;
+		}
+		views.remove(oldest.getKey(), oldest.getValue());
+		return true;
+	}
+
+	private void run(String organization)
+	{
+		refreshViews();
+		synchronized (this)
+		{
+			if (views.isEmpty() && subscribers.isEmpty())
+			{
+				closed = true;
+				snapshotters.remove(organization, this);
+				task.cancel(false);
+			}
+		}
+	}
+
+	private synchronized Set<String> streamedViews()
+	{
+		Set<String> streamed = new HashSet<>();
+		for (Subscription subscription : subscribers)
+		{
+			streamed.addAll(subscription.views);
+		}
+		return streamed;
+	}
+
+	private synchronized void publish(String name, Snapshot previous, Snapshot next)
+	{
+		if (subscribers.isEmpty())
+		{
+			return;
+		}
+		List<byte[]> changed = new ArrayList<>();
+		for (Map.Entry<String, byte[]> row : next.rows.entrySet())
+		{
+			byte[] old = previous.rows.get(row.getKey());
+			if (old == null || !Arrays.equals(old, row.getValue()))
+			{
+				changed.add(row.getValue());
+			}
+		}
+		List<String> removed = new ArrayList<>();
+		for (String key : previous.rows.keySet())
+		{
+			if (!next.rows.containsKey(key))
+			{
+				removed.add(key);
+			}
+		}
+		byte[] message = message(name, next.version, false, changed, removed);
+		for (Subscription subscription : subscribers)
+		{
+			if (subscription.views.contains(name))
+			{
+				subscription.offer(message);
+			}
+		}
+		subscribers.removeIf(Subscription::isOverflowed);
+	}
+
+	private synchronized void unsubscribe(Subscription subscription)
+	{
+		subscribers.remove(subscription);
+	}
+
+	/**
+	 * One SSE message: the event is the view name, the data the changed rows and the keys of the removed rows.
+	 */
+	private static byte[] message(String name, long version, boolean full, Collection<byte[]> rows,
+			List<String> removed)
+	{
+		try
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			out.write(("event: " + name + "\ndata: {\"version\":" + version + ",\"full\":" + full + ",\"rows\":")
+					.getBytes(StandardCharsets.UTF_8));
+			writeArray(out, rows);
+			out.write(",\"removed\":".getBytes(StandardCharsets.UTF_8));
+			out.write(MAPPER.writeValueAsBytes(removed));
+			out.write("}\n\n".getBytes(StandardCharsets.UTF_8));
+			return out.toByteArray();
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException("Unable to serialize monitor update", ex);
+		}
+	}
+
+	private static void writeArray(ByteArrayOutputStream out, Collection<byte[]> rows)
+	{
+		out.write('[');
+		boolean first = true;
+		for (byte[] row : rows)
+		{
+			if (!first)
+			{
+				out.write(',');
+			}
+			out.write(row, 0, row.length);
+			first = false;
+		}
+		out.write(']');
+	}
+
+	/**
+	 * Immutable state of a view. The JSON is the exact response body, so requests only copy bytes.
+	 */
+	static final class Snapshot
+	{
+		private final long version;
+		private final byte[] json;
+		private final EntityTag etag;
+		private final Map<String, byte[]> rows;
+
+		private Snapshot(long version, byte[] json, Map<String, byte[]> rows)
+		{
+			this.version = version;
+			this.json = json;
+			this.etag = new EntityTag(digest(json));
+			this.rows = rows;
+		}
+
+		private static <T> Snapshot of(long version, List<T> items, Function<T, String> key)
+		{
+			Map<String, byte[]> rows = new LinkedHashMap<>();
+			try
+			{
+				for (T item : items)
+				{
+					String rowKey = key.apply(item);
+					// Keys are unique in practice; a duplicate keeps its row without breaking the deltas
+					for (int n = 2; rows.containsKey(rowKey); n++)
+					{
+						rowKey = key.apply(item) + "#" + n;
+					}
+					rows.put(rowKey, MAPPER.writeValueAsBytes(item));
+				}
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException("Unable to serialize monitor view", ex);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writeArray(out, rows.values());
+			return new Snapshot(version, out.toByteArray(), rows);
+		}
+
+		long getVersion()
+		{
+			return version;
+		}
+
+		byte[] getJson()
+		{
+			return json;
+		}
+
+		EntityTag getEntityTag()
+		{
+			return etag;
+		}
+
+		/**
+		 * @param preconditions evaluates the conditional request headers against the entity tag
+		 * @return 304 if the client holds this version, otherwise the snapshot
+		 */
+		Response toResponse(Function<EntityTag, Response.ResponseBuilder> preconditions)
+		{
+			Response.ResponseBuilder notModified = preconditions.apply(etag);
+			Response.ResponseBuilder builder = notModified != null ? notModified
+					: Response.status(HttpServletResponse.SC_OK).entity(json).type(MediaType.APPLICATION_JSON_TYPE);
+			// Clients must revalidate, which is cheap, rather than show a stale monitor
+			return builder.tag(etag).header(HttpHeaders.CACHE_CONTROL, "no-cache").build();
+		}
+
+		private static String digest(byte[] json)
+		{
+			try
+			{
+				byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+				return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+			}
+			catch (NoSuchAlgorithmException ex)
+			{
+				throw new IllegalStateException("SHA-256 is not available", ex);
+			}
+		}
+	}
+
+	private final class Entry<T>
+	{
+		private final View<T> view;
+		private volatile Snapshot snapshot;
+		private volatile boolean accessed = true;
+		private volatile long lastUse;
+		private long lastAccess;
+
+		private Entry(View<T> view, long now)
+		{
+			this.view = view;
+			this.lastAccess = now;
+		}
+
+		private synchronized Snapshot initialize() throws DbException
+		{
+			if (snapshot == null)
+			{
+				snapshot = Snapshot.of(1, view.loader().load(), view.key());
+			}
+			return snapshot;
+		}
+
+		private synchronized void refresh() throws DbException
+		{
+			Snapshot previous = snapshot;
+			if (previous == null)
+			{
+				// Still being loaded by its first request
+				return;
+			}
+			Snapshot next = Snapshot.of(previous.version + 1, view.loader().load(), view.key());
+			if (Arrays.equals(previous.json, next.json))
+			{
+				return;
+			}
+			synchronized (MonitorSnapshotter.this)
+			{
+				snapshot = next;
+				publish(view.name(), previous, next);
+			}
+		}
+	}
+
+	/**
+	 * Queued SSE messages for one stream client. A client that falls behind by the buffer size is dropped and
+	 * receives fresh snapshots when it reconnects.
+	 */
+	static final class Subscription implements AutoCloseable
+	{
+		private final MonitorSnapshotter snapshotter;
+		private final Set<String> views = new HashSet<>();
+		private final BlockingQueue<byte[]> queue;
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private volatile boolean overflowed;
+
+		private Subscription(MonitorSnapshotter snapshotter, int capacity)
+		{
+			this.snapshotter = snapshotter;
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		/**
+		 * @return the next message, null if none arrived within the timeout or the subscription was dropped
+		 */
+		byte[] next(long timeout, TimeUnit unit) throws InterruptedException
+		{
+			return overflowed ? null : queue.poll(timeout, unit);
+		}
+
+		boolean isOverflowed()
+		{
+			return overflowed;
+		}
+
+		@Override
+		public void close()
+		{
+			if (closed.compareAndSet(false, true))
+			{
+				snapshotter.unsubscribe(this);
+				openStreams.decrementAndGet();
+			}
+		}
+
+		private void offer(byte[] message)
+		{
+			if (!overflowed && !queue.offer(message))
+			{
+				overflowed = true;
+			}
+		}
+	}
+}
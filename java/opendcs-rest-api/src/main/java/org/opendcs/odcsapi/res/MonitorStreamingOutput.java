@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the messages of a {@link MonitorSnapshotter.Subscription} as a {@code text/event-stream}, with a comment
+ * heartbeat while the views do not change. A client that fell behind reconnects and starts over with complete views.
+ */
+final class MonitorStreamingOutput extends EventStreamingOutput
+{
+	private final MonitorSnapshotter.Subscription subscription;
+
+	MonitorStreamingOutput(MonitorSnapshotter.Subscription subscription)
+	{
+		this(subscription, HEARTBEAT_MILLIS);
+	}
+
+	MonitorStreamingOutput(MonitorSnapshotter.Subscription subscription, long heartbeatMillis)
+	{
+		super(heartbeatMillis);
+		this.subscription = subscription;
+	}
+
+	@Override
+	byte[] next(long timeoutMillis) throws InterruptedException
+	{
+		return subscription.next(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	boolean isOverflowed()
+	{
+		return subscription.isOverflowed();
+	}
+
+	@Override
+	void close()
+	{
+		subscription.close();
+	}
+}
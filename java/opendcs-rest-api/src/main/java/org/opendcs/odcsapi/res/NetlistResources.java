@@ -17,6 +17,7 @@ package org.opendcs.odcsapi.res;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -32,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -92,15 +94,19 @@ public final class NetlistResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-									array = @ArraySchema(schema = @Schema(implementation = ApiNetlistRef.class)))),
+									array = @ArraySchema(schema = @Schema(implementation = ApiNetlistRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			},
 			tags = {"REST - Network Lists"}
 	)
 	public Response getNetlistRefs(@Parameter(description = "The transport medium type to filter by",
 			schema = @Schema(implementation = String.class))
-		@QueryParam("tmtype") String tmtype)
-			throws DbException
+		@QueryParam("tmtype") String tmtype,
+		@BeanParam RefListQuery query)
+			throws DbException, WebAppException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
@@ -114,7 +120,7 @@ public final class NetlistResources extends OpenDcsResource
 			{
 				dbIo.readNetworkListList(nlList, getSingleWord(tmtype).toLowerCase());
 			}
-			return Response.status(HttpServletResponse.SC_OK).entity(map(nlList)).build();
+			return query.apply(map(nlList), NETLIST_REF_FIELDS).toResponse();
 		}
 		catch(DatabaseException ex)
 		{
@@ -126,6 +132,14 @@ public final class NetlistResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiNetlistRef> NETLIST_REF_FIELDS = RefListQuery.fields(ApiNetlistRef.class)
+			.add("netlistId", ApiNetlistRef::getNetlistId)
+			.add("name", ApiNetlistRef::getName)
+			.add("transportMediumType", ApiNetlistRef::getTransportMediumType)
+			.add("siteNameTypePref", ApiNetlistRef::getSiteNameTypePref)
+			.add("lastModifyTime", ApiNetlistRef::getLastModifyTime)
+			.add("numPlatforms", ApiNetlistRef::getNumPlatforms);
+
 	static List<ApiNetlistRef> map(NetworkListList nlList)
 	{
 		List<ApiNetlistRef> ret = new ArrayList<>();
@@ -156,7 +170,9 @@ public final class NetlistResources extends OpenDcsResource
 	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
 	@Operation(
 			summary = "The ‘netlists’ GET method will return a specific network list in its entirety.",
-			description = "Example:\n\n    http://localhost:8080/odcsapi/netlist?netlistid=1",
+			description = "Example:\n\n    http://localhost:8080/odcsapi/netlist?netlistid=1\n\n"
+					+ "Lists are cached by the server. Changes made through this API are returned right away, "
+					+ "changes made by other tools after at most 30 seconds.",
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
@@ -181,14 +197,12 @@ public final class NetlistResources extends OpenDcsResource
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
-			NetworkListList nlList = new NetworkListList();
-			dbIo.readNetworkListList(nlList);
-			NetworkList nl = nlList.getById(DbKey.createDbKey(netlistId));
- 			if (nl == null || nl.networkListEntries == null || nl.networkListEntries.isEmpty())
+			ApiNetList ret = NetworkListCache.forOrganization(organizationId)
+					.get(netlistId, NetworkListCache.Source.of(dbIo));
+			if (ret == null || ret.getItems().isEmpty())
 			{
 				throw new DatabaseItemNotFoundException("No such network list with id=" + netlistId + ".");
 			}
-			ApiNetList ret = map(nl);
 			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
 		}
 		catch(DatabaseException ex)
@@ -201,6 +215,53 @@ public final class NetlistResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("netlistbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several Network Lists",
+			description = "Reads the network lists with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/netlistbatch?ids=6,7",
+			operationId = "getNetListBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the network lists",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiNetList.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - Network Lists"}
+	)
+	public Response getNetListBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "6,7"))
+		@QueryParam("ids") List<String> ids)
+			throws WebAppException, DbException
+	{
+		List<Long> netlistIds = BatchRead.ids(ids);
+		DatabaseIO dbIo = getLegacyDatabase();
+		try
+		{
+			NetworkListCache cache = NetworkListCache.forOrganization(organizationId);
+			NetworkListCache.Source source = NetworkListCache.Source.of(dbIo);
+			List<ApiNetList> ret = BatchRead.read(netlistIds, id ->
+			{
+				ApiNetList list = cache.get(id, source);
+				return list == null || list.getItems().isEmpty() ? null : list;
+			});
+			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+		}
+		catch(DatabaseException ex)
+		{
+			throw new DbException("Unable to retrieve network lists", ex);
+		}
+		finally
+		{
+			dbIo.close();
+		}
+	}
+
 	static ApiNetList map(NetworkList nl)
 	{
 		ApiNetList ret = new ApiNetList();
@@ -270,6 +331,9 @@ public final class NetlistResources extends OpenDcsResource
 		{
 			NetworkList nlList = map(netList);
 			dbIo.writeNetworkList(nlList);
+			NetworkListCache.forOrganization(organizationId).invalidate(nlList.getId().getValue());
+			// Routing specs refer to their network lists by name
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.ROUTING_SPECS);
 			return Response.status(HttpServletResponse.SC_CREATED).entity(map(nlList)).build();
 		}
 		catch(DatabaseException ex)
@@ -340,10 +404,8 @@ public final class NetlistResources extends OpenDcsResource
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
-			NetworkListList nlList = new NetworkListList();
-			dbIo.readNetworkListList(nlList);
-			NetworkList nl = nlList.getById(DbKey.createDbKey(netlistId));
-
+			// Read the routing specs rather than ask the reference index, which may miss a spec added by another tool
+			DbKey id = DbKey.createDbKey(netlistId);
 			RoutingSpecList routingSpecList = new RoutingSpecList();
 			dbIo.readRoutingSpecList(routingSpecList);
 
@@ -353,7 +415,7 @@ public final class NetlistResources extends OpenDcsResource
 			{
 				for (NetworkList list : spec.networkLists)
 				{
-					if (list.getId().equals(nl.getId()))
+					if (id.equals(list.getId()))
 					{
 						errmsg.append((errmsg.length() > 0) ? ", " : "").append(spec.getName());
 					}
@@ -367,12 +429,12 @@ public final class NetlistResources extends OpenDcsResource
 								+ " because it is used by the following routing specs: "
 								+ errmsg).build();
 			}
-			if (nl == null)
-			{
-				nl = new NetworkList();
-				nl.setId(DbKey.createDbKey(netlistId));
-			}
+			// Deleting only needs the key, there is no need to read the list
+			NetworkList nl = new NetworkList();
+			nl.setId(id);
 			dbIo.deleteNetworkList(nl);
+			NetworkListCache.forOrganization(organizationId).invalidate(netlistId);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.ROUTING_SPECS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT).entity("ID " + netlistId + " deleted").build();
 		}
 		catch (DatabaseException ex)
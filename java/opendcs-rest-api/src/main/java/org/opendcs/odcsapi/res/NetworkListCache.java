@@ -0,0 +1,177 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import decodes.db.DatabaseException;
+import decodes.db.DatabaseIO;
+import decodes.db.NetworkList;
+import decodes.sql.DbKey;
+import org.opendcs.odcsapi.beans.ApiNetList;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+
+/**
+ * Cache of the network lists of one organization, keyed by netlist id.
+ * <p>
+ * Each entry keeps the last modify time of the list it was read with. Entries checked within the last
+ * {@value #REVALIDATE_PROPERTY} (default 30 seconds) are served as they are; older entries are compared with the
+ * last modify time in the database and only read again if the list changed, so lists edited by other tools are
+ * picked up. Lists written or deleted through this API are invalidated right away. The cache holds at most
+ * {@value #SIZE_PROPERTY} (default 256) lists and drops the least recently used one first.
+ */
+final class NetworkListCache
+{
+	static final String SIZE_PROPERTY = "opendcs.rest.api.netlist.cache.size";
+	static final String REVALIDATE_PROPERTY = "opendcs.rest.api.netlist.cache.revalidate";
+	private static final int SIZE = Integer.getInteger(SIZE_PROPERTY, 256);
+	private static final long REVALIDATE_NANOS =
+			OrganizationRegistry.durationProperty(REVALIDATE_PROPERTY, "PT30S").toNanos();
+	private static final OrganizationRegistry<NetworkListCache> caches = OrganizationRegistry.bounded();
+
+	/**
+	 * Keyed reads of single network lists.
+	 */
+	interface Source
+	{
+		/**
+		 * @return the last modify time of the list, null if there is no such list
+		 */
+		Date lastModified(DbKey netlistId) throws DatabaseException;
+
+		NetworkList read(DbKey netlistId) throws DatabaseException;
+
+		static Source of(DatabaseIO dbIo)
+		{
+			return new Source()
+			{
+				@Override
+				public Date lastModified(DbKey netlistId) throws DatabaseException
+				{
+					return dbIo.getNetworkListLMT(probe(netlistId));
+				}
+
+				@Override
+				public NetworkList read(DbKey netlistId) throws DatabaseException
+				{
+					NetworkList nl = probe(netlistId);
+					dbIo.readNetworkList(nl);
+					return nl;
+				}
+			};
+		}
+
+		private static NetworkList probe(DbKey netlistId)
+		{
+			NetworkList nl = new NetworkList();
+			nl.setId(netlistId);
+			return nl;
+		}
+	}
+
+	private record Entry(ApiNetList list, long lastModified, long checked)
+	{
+	}
+
+	private final Map<Long, Entry> entries;
+	private final long revalidateNanos;
+	private final LongSupplier clock;
+	// Incremented by every invalidation, a read that overlapped one does not store what it read
+	private long generation;
+
+	NetworkListCache(int size, long revalidateNanos, LongSupplier clock)
+	{
+		this.entries = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest)
+			{
+				return size() > size;
+			}
+		};
+		this.revalidateNanos = revalidateNanos;
+		this.clock = clock;
+	}
+
+	static NetworkListCache forOrganization(String organization)
+	{
+		return caches.computeIfAbsent(organization,
+				o -> new NetworkListCache(SIZE, REVALIDATE_NANOS, System::nanoTime));
+	}
+
+	/**
+	 * Return the network list with the id, reading it from the source if it is not cached or changed since.
+	 * @return the list, null if there is no such list
+	 */
+	ApiNetList get(long netlistId, Source source) throws DatabaseException
+	{
+		long now = clock.getAsLong();
+		Entry entry;
+		long readGeneration;
+		synchronized (entries)
+		{
+			entry = entries.get(netlistId);
+			readGeneration = generation;
+		}
+		if (entry != null && now - entry.checked() < revalidateNanos)
+		{
+			return entry.list();
+		}
+		DbKey id = DbKey.createDbKey(netlistId);
+		Date lastModified = source.lastModified(id);
+		if (lastModified == null)
+		{
+			invalidate(netlistId);
+			return null;
+		}
+		if (entry == null || entry.lastModified() != lastModified.getTime())
+		{
+			entry = new Entry(NetlistResources.map(source.read(id)), lastModified.getTime(), now);
+		}
+		else
+		{
+			entry = new Entry(entry.list(), entry.lastModified(), now);
+		}
+		synchronized (entries)
+		{
+			if (readGeneration == generation)
+			{
+				entries.put(netlistId, entry);
+			}
+		}
+		return entry.list();
+	}
+
+	void invalidate(long netlistId)
+	{
+		synchronized (entries)
+		{
+			generation++;
+			entries.remove(netlistId);
+		}
+	}
+
+	int size()
+	{
+		synchronized (entries)
+		{
+			return entries.size();
+		}
+	}
+}
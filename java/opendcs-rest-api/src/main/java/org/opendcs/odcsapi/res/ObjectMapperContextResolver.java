@@ -38,7 +38,7 @@ public final class ObjectMapperContextResolver implements ContextResolver<Object
         return mapper;
     }
 
-    private ObjectMapper createObjectMapper() 
+    static ObjectMapper createObjectMapper() 
     {
         ObjectMapper objMap = new ObjectMapper();
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'[z]");
@@ -20,8 +20,11 @@ import jakarta.servlet.ServletContext;
 import javax.sql.DataSource;
 
 import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
 
 import decodes.db.Database;
 import decodes.db.DatabaseIO;
@@ -30,6 +33,7 @@ import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.opendcs.database.api.OpenDcsDatabase;
 import org.opendcs.odcsapi.dao.OpenDcsDatabaseFactory;
+import org.opendcs.odcsapi.dao.datasource.RequestConnectionScope;
 
 import static org.opendcs.odcsapi.res.DataSourceContextCreator.DATA_SOURCE_ATTRIBUTE_KEY;
 import static org.opendcs.odcsapi.util.ApiConstants.ORGANIZATION_HEADER;
@@ -45,6 +49,10 @@ import static org.opendcs.odcsapi.util.ApiConstants.ORGANIZATION_HEADER;
 public class OpenDcsResource
 {
 	private static final String UNSUPPORTED_OPERATION_MESSAGE = "Endpoint is unsupported by the OpenDCS REST API.";
+	public static final String SHARE_CONNECTION_PROPERTY = "opendcs.rest.api.database.share.request.connection";
+	static final String CONNECTION_SCOPE_PROPERTY = RequestConnectionScope.class.getName();
+	private static final boolean SHARE_CONNECTION = Boolean.parseBoolean(
+			System.getProperty(SHARE_CONNECTION_PROPERTY, "true"));
 
 	@HeaderParam(ORGANIZATION_HEADER)
 	@Parameter(description = "Organization ID for the request", required = true)
@@ -56,10 +64,12 @@ public class OpenDcsResource
 	@Context
 	protected ServletContext context;
 
-	protected final synchronized OpenDcsDatabase createDb()
+	protected final OpenDcsDatabase createDb()
 	{
 		DataSource dataSource = getDataSource();
-		return OpenDcsDatabaseFactory.createDb(dataSource, organizationId);
+		OpenDcsDatabase ret = OpenDcsDatabaseFactory.createDb(dataSource, organizationId);
+		joinConnectionScope();
+		return ret;
 	}
 
 	protected final DataSource getDataSource()
@@ -74,14 +84,65 @@ public class OpenDcsResource
 
 	protected final DatabaseIO getLegacyDatabase()
 	{
-		return createDb().getLegacyDatabase(Database.class)
+		DatabaseIO ret = getLegacyDatabase(getDataSource(), organizationId);
+		joinConnectionScope();
+		return ret;
+	}
+
+	/**
+	 * Resolve the decodes database outside of a request, e.g. from a background task.
+	 */
+	protected static DatabaseIO getLegacyDatabase(DataSource dataSource, String organization)
+	{
+		return OpenDcsDatabaseFactory.createDb(dataSource, organization).getLegacyDatabase(Database.class)
 				.map(Database::getDbIo)
 				.orElseThrow(() -> new UnsupportedOperationException(UNSUPPORTED_OPERATION_MESSAGE));
 	}
 
+	/**
+	 * @return a 304 Not Modified response builder if the conditional request headers match the tag, otherwise null
+	 */
+	protected final Response.ResponseBuilder evaluatePreconditions(EntityTag etag)
+	{
+		return request.getRequest().evaluatePreconditions(etag);
+	}
+
 	protected TimeSeriesDb getLegacyTimeseriesDB()
 	{
-		return createDb().getLegacyDatabase(TimeSeriesDb.class)
+		TimeSeriesDb ret = getLegacyTimeseriesDB(getDataSource(), organizationId);
+		joinConnectionScope();
+		return ret;
+	}
+
+	/**
+	 * Resolve the time series database outside of a request, e.g. from a background task.
+	 */
+	protected static TimeSeriesDb getLegacyTimeseriesDB(DataSource dataSource, String organization)
+	{
+		return OpenDcsDatabaseFactory.createDb(dataSource, organization).getLegacyDatabase(TimeSeriesDb.class)
 				.orElseThrow(() -> new UnsupportedOperationException(UNSUPPORTED_OPERATION_MESSAGE));
 	}
+
+	/**
+	 * Open the request's connection scope on first use of the database, so every DAO the request creates on this
+	 * thread shares one connection. {@link ConnectionScopeListener} closes the scope once the resource method
+	 * returns. The scope is opened after the organization's database is resolved, so nothing cached with it holds
+	 * on to the request's connection.
+	 * <p>
+	 * Only GET and HEAD requests share a connection. A write may commit or roll back its own transaction, which on a
+	 * shared connection would also end the uncommitted work of every other DAO of the request.
+	 */
+	private void joinConnectionScope()
+	{
+		if (SHARE_CONNECTION && request != null && isReadOnly(request.getMethod())
+				&& request.getProperty(CONNECTION_SCOPE_PROPERTY) == null)
+		{
+			request.setProperty(CONNECTION_SCOPE_PROPERTY, RequestConnectionScope.open());
+		}
+	}
+
+	private static boolean isReadOnly(String method)
+	{
+		return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+	}
 }
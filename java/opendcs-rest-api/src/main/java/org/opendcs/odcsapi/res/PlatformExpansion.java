@@ -0,0 +1,176 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletResponse;
+
+import decodes.db.DatabaseException;
+import decodes.db.DatabaseIO;
+import decodes.db.PlatformConfig;
+import decodes.db.Site;
+import decodes.db.SiteList;
+import decodes.db.ValueNotFoundException;
+import decodes.sql.DbKey;
+import org.opendcs.odcsapi.beans.ApiPlatformConfig;
+import org.opendcs.odcsapi.beans.ApiSite;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * The records embedded in platform responses by the expand query parameter. They are read through the
+ * request's {@link DatabaseIO} and each config and site is read once per response, however many platforms
+ * share it.
+ */
+final class PlatformExpansion
+{
+	static final PlatformExpansion NONE = new PlatformExpansion(false, false);
+
+	private final boolean config;
+	private final boolean site;
+	private final Map<Long, ApiPlatformConfig> configs = new HashMap<>();
+	private final Map<Long, ApiSite> sites = new HashMap<>();
+	private Map<Long, Site> siteList;
+
+	private PlatformExpansion(boolean config, boolean site)
+	{
+		this.config = config;
+		this.site = site;
+	}
+
+	/**
+	 * Parse the comma separated expand parameter.
+	 * @param expand config and/or site, null or blank for none
+	 * @param projection the fields of the response, a record is not read if its property is not sent
+	 * @throws WebAppException if an unknown record is named
+	 */
+	static PlatformExpansion of(String expand, FieldProjection projection) throws WebAppException
+	{
+		if (expand == null || expand.isBlank())
+		{
+			return NONE;
+		}
+		boolean config = false;
+		boolean site = false;
+		for (String name : expand.split(","))
+		{
+			switch (name.trim().toLowerCase(Locale.ROOT))
+			{
+				case "config" -> config = true;
+				case "site" -> site = true;
+				case "" ->
+				{
+					// Trailing or doubled comma
+				}
+				default -> throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+						"Unknown expand '" + name.trim() + "', expected config or site");
+			}
+		}
+		return new PlatformExpansion(config && projection.includes("platformConfig"),
+				site && projection.includes("site"));
+	}
+
+	boolean config()
+	{
+		return config;
+	}
+
+	boolean site()
+	{
+		return site;
+	}
+
+	/**
+	 * @return the config if configs are expanded, null otherwise or if there is no config with the id
+	 */
+	ApiPlatformConfig config(DatabaseIO dbIo, Long configId) throws DatabaseException
+	{
+		if (!config || configId == null || configId.equals(DbKey.NullKey.getValue()))
+		{
+			return null;
+		}
+		if (configs.containsKey(configId))
+		{
+			return configs.get(configId);
+		}
+		PlatformConfig platformConfig = new PlatformConfig();
+		platformConfig.setId(DbKey.createDbKey(configId));
+		ApiPlatformConfig ret = null;
+		try
+		{
+			dbIo.readConfig(platformConfig);
+			ret = ConfigResources.map(platformConfig);
+		}
+		catch (DatabaseException ex)
+		{
+			if (!(ex instanceof ValueNotFoundException) && !(ex.getCause() instanceof ValueNotFoundException))
+			{
+				throw ex;
+			}
+		}
+		configs.put(configId, ret);
+		return ret;
+	}
+
+	/**
+	 * Look up a site for platforms read with the platform list, which only carries stub sites. The site list
+	 * is read on the first call.
+	 * @return the site if sites are expanded, null otherwise or if there is no site with the id
+	 */
+	ApiSite site(DatabaseIO dbIo, Long siteId) throws DatabaseException
+	{
+		if (!site || siteId == null)
+		{
+			return null;
+		}
+		if (siteList == null)
+		{
+			SiteList list = new SiteList();
+			dbIo.readSiteList(list);
+			siteList = new HashMap<>();
+			for (Iterator<Site> it = list.iterator(); it.hasNext(); )
+			{
+				Site next = it.next();
+				if (next.getId() != null)
+				{
+					siteList.put(next.getId().getValue(), next);
+				}
+			}
+		}
+		Site found = siteList.get(siteId);
+		return found == null ? null : site(found);
+	}
+
+	/**
+	 * Map a site that was read in full with its platform.
+	 * @return the site if sites are expanded, null otherwise
+	 */
+	ApiSite site(Site platformSite)
+	{
+		if (!site || platformSite == null)
+		{
+			return null;
+		}
+		if (platformSite.getId() == null)
+		{
+			return SiteResources.map(platformSite, platformSite.getProperties());
+		}
+		return sites.computeIfAbsent(platformSite.getId().getValue(),
+				id -> SiteResources.map(platformSite, platformSite.getProperties()));
+	}
+}
@@ -18,14 +18,18 @@ package org.opendcs.odcsapi.res;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.Vector;
 import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -35,6 +39,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -59,6 +64,7 @@ import decodes.db.PlatformStatus;
 import decodes.db.RoutingSpec;
 import decodes.db.ScheduleEntry;
 import decodes.db.Site;
+import decodes.db.SiteList;
 import decodes.db.TransportMedium;
 import decodes.db.ValueNotFoundException;
 import decodes.sql.DbKey;
@@ -106,29 +112,40 @@ public final class PlatformResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Successfully retrieved platform references",
 							content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiPlatformRef.class)),
-									mediaType = MediaType.APPLICATION_JSON)),
+									mediaType = MediaType.APPLICATION_JSON),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort, filter, fields or expand"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			},
 			tags = {"REST - DECODES Platform Records"}
 	)
 	public Response getPlatformRefs(@Parameter(description = "Transport medium type",
 			schema = @Schema(implementation = String.class, example = "goes"))
-	@QueryParam("tmtype") String tmtype)
-			throws DbException
+	@QueryParam("tmtype") String tmtype,
+			@BeanParam RefListQuery query,
+			@Parameter(description = "Comma separated related records to include with each platform, "
+					+ "config and/or site. Records shared by several platforms are read once.",
+					schema = @Schema(implementation = String.class, example = "config,site"))
+	@QueryParam("expand") String expand)
+			throws DbException, WebAppException
 	{
+		FieldProjection projection = query.projection(PLATFORM_REF_FIELDS);
+		PlatformExpansion expansion = PlatformExpansion.of(expand, projection);
 		DatabaseIO dbIo = getLegacyDatabase();
-		Map<String, ApiPlatformRef> ret = new HashMap<>();
 		try
 		{
-
 			PlatformList platformList = new PlatformList();
 			dbIo.readPlatformList(platformList, tmtype);
-			List<ApiPlatformRef> platSpecs = map(platformList);
-			for(ApiPlatformRef ps : platSpecs)
+			RefListQuery.Page<ApiPlatformRef> page = query.apply(
+					map(platformList, projection.includes("transportMedia")), PLATFORM_REF_FIELDS);
+			// Only the returned page is expanded
+			for (ApiPlatformRef ref : page.items())
 			{
-				ret.put(ps.getName(), ps);
+				ref.setPlatformConfig(expansion.config(dbIo, ref.getConfigId()));
+				ref.setSite(expansion.site(dbIo, ref.getSiteId()));
 			}
-			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+			return page.toResponse(ApiPlatformRef::getName);
 		}
 		catch (DatabaseException ex)
 		{
@@ -140,7 +157,32 @@ public final class PlatformResources extends OpenDcsResource
 		}
 	}
 
+	/**
+	 * Status lists referencing up to this many platforms read them by id. Past it, one read of the platform and site
+	 * lists costs less than that many queries.
+	 */
+	static final int PLATFORM_LOOKUP_LIMIT = 50;
+
+	static final RefListQuery.Fields<ApiPlatformRef> PLATFORM_REF_FIELDS = RefListQuery.fields(ApiPlatformRef.class)
+			.add("platformId", ApiPlatformRef::getPlatformId)
+			.add("name", ApiPlatformRef::getName)
+			.add("agency", ApiPlatformRef::getAgency)
+			.add("config", ApiPlatformRef::getConfig)
+			.add("configId", ApiPlatformRef::getConfigId)
+			.add("siteId", ApiPlatformRef::getSiteId)
+			.add("designator", ApiPlatformRef::getDesignator)
+			.add("description", ApiPlatformRef::getDescription);
+
 	static List<ApiPlatformRef> map(PlatformList platformList)
+	{
+		return map(platformList, true);
+	}
+
+	/**
+	 * @param transportMedia false to leave out the platform properties and transport media, which are copied for
+	 *                       every platform
+	 */
+	static List<ApiPlatformRef> map(PlatformList platformList, boolean transportMedia)
 	{
 		List<ApiPlatformRef> ret = new ArrayList<>();
 		Iterator<Platform> platform = platformList.iterator();
@@ -176,14 +218,17 @@ public final class PlatformResources extends OpenDcsResource
 			{
 				ref.setSiteId(DbKey.NullKey.getValue());
 			}
-			Properties transportProps = new Properties();
-			transportProps.putAll(plat.getProperties());
-			for(Iterator<TransportMedium> it = plat.getTransportMedia(); it.hasNext(); )
+			if (transportMedia)
 			{
-				final TransportMedium medium = it.next();
-				transportProps.setProperty(medium.getMediumType(), medium.getMediumId());
+				Properties transportProps = new Properties();
+				transportProps.putAll(plat.getProperties());
+				for(Iterator<TransportMedium> it = plat.getTransportMedia(); it.hasNext(); )
+				{
+					final TransportMedium medium = it.next();
+					transportProps.setProperty(medium.getMediumType(), medium.getMediumId());
+				}
+				ref.setTransportMedia(transportProps);
 			}
-			ref.setTransportMedia(transportProps);
 			ref.setDesignator(plat.getPlatformDesignator());
 			ret.add(ref);
 		}
@@ -213,13 +258,22 @@ public final class PlatformResources extends OpenDcsResource
 					description = "Platform ID",
 					required = true,
 					schema = @Schema(implementation = Long.class, example = "5"))
-			@QueryParam("platformid") Long platformId)
+			@QueryParam("platformid") Long platformId,
+			@Parameter(description = "Comma separated properties to return, all if not given.",
+					schema = @Schema(implementation = String.class, example = "platformId,name,siteId"))
+			@QueryParam("fields") String fields,
+			@Parameter(description = "Comma separated related records to include with the platform, "
+					+ "config and/or site.",
+					schema = @Schema(implementation = String.class, example = "config,site"))
+			@QueryParam("expand") String expand)
 			throws WebAppException, DbException
 	{
 		if (platformId == null)
 		{
 			throw new MissingParameterException("Missing required platformid parameter.");
 		}
+		FieldProjection projection = FieldProjection.of(fields, ApiPlatform.class);
+		PlatformExpansion expansion = PlatformExpansion.of(expand, projection);
 
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
@@ -227,7 +281,9 @@ public final class PlatformResources extends OpenDcsResource
 			Platform platform = new Platform();
 			platform.setId(DbKey.createDbKey(platformId));
 			dbIo.readPlatform(platform);
-			return Response.status(HttpServletResponse.SC_OK).entity(map(platform)).build();
+			return Response.status(HttpServletResponse.SC_OK)
+					.entity(projection.entity(map(platform, projection, expansion, dbIo)))
+					.build();
 		}
 		catch(ValueNotFoundException ex)
 		{
@@ -247,7 +303,94 @@ public final class PlatformResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("platformbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several complete DECODES Platform records",
+			description = "Reads the platforms with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/platformbatch?ids=5,6,7",
+			operationId = "getPlatformBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the platforms",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiPlatform.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - DECODES Platform Records"}
+	)
+	public Response getPlatformBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "5,6,7"))
+		@QueryParam("ids") List<String> ids,
+			@Parameter(description = "Comma separated properties to return, all if not given.",
+					schema = @Schema(implementation = String.class, example = "platformId,name,siteId"))
+		@QueryParam("fields") String fields,
+			@Parameter(description = "Comma separated related records to include with each platform, "
+					+ "config and/or site. Records shared by several platforms are read once.",
+					schema = @Schema(implementation = String.class, example = "config,site"))
+		@QueryParam("expand") String expand)
+			throws WebAppException, DbException
+	{
+		List<Long> platformIds = BatchRead.ids(ids);
+		FieldProjection projection = FieldProjection.of(fields, ApiPlatform.class);
+		PlatformExpansion expansion = PlatformExpansion.of(expand, projection);
+		DatabaseIO dbIo = getLegacyDatabase();
+		try
+		{
+			List<ApiPlatform> ret = BatchRead.read(platformIds, id ->
+			{
+				Platform platform = new Platform();
+				platform.setId(DbKey.createDbKey(id));
+				try
+				{
+					dbIo.readPlatform(platform);
+				}
+				catch (DatabaseException ex)
+				{
+					if (ex instanceof ValueNotFoundException || ex.getCause() instanceof ValueNotFoundException)
+					{
+						return null;
+					}
+					throw ex;
+				}
+				return map(platform, projection, expansion, dbIo);
+			});
+			return Response.status(HttpServletResponse.SC_OK).entity(projection.entity(ret)).build();
+		}
+		catch (DatabaseException ex)
+		{
+			throw new DbException("Unable to retrieve platforms", ex);
+		}
+		finally
+		{
+			dbIo.close();
+		}
+	}
+
 	static ApiPlatform map(Platform platform)
+	{
+		return map(platform, FieldProjection.ALL);
+	}
+
+	/**
+	 * Map a platform read in full and embed the expanded records.
+	 */
+	static ApiPlatform map(Platform platform, FieldProjection projection, PlatformExpansion expansion,
+			DatabaseIO dbIo) throws DatabaseException
+	{
+		ApiPlatform ret = map(platform, projection);
+		ret.setPlatformConfig(expansion.config(dbIo, ret.getConfigId()));
+		ret.setSite(expansion.site(platform.getSite()));
+		return ret;
+	}
+
+	/**
+	 * @param projection the sensors and transport media are only mapped if selected
+	 */
+	static ApiPlatform map(Platform platform, FieldProjection projection)
 	{
 		ApiPlatform ret = new ApiPlatform();
 		if (platform.getId() != null)
@@ -280,10 +423,16 @@ public final class PlatformResources extends OpenDcsResource
 		}
 		ret.setProperties(platform.getProperties());
 		ret.setName(platform.getSiteName(false));
-		ret.setTransportMedia(map(platform.getTransportMedia()));
-		ret.setPlatformSensors(platform.platformSensors.stream()
-				.map(PlatformResources::map)
-				.collect(toList()));
+		if (projection.includes("transportMedia"))
+		{
+			ret.setTransportMedia(map(platform.getTransportMedia()));
+		}
+		if (projection.includes("platformSensors"))
+		{
+			ret.setPlatformSensors(platform.platformSensors.stream()
+					.map(PlatformResources::map)
+					.collect(toList()));
+		}
 		return ret;
 	}
 
@@ -383,6 +532,7 @@ public final class PlatformResources extends OpenDcsResource
 		{
 			Platform plat = map(platform);
 			dbIo.writePlatform(plat);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.PLATFORMS);
 			return Response.status(HttpServletResponse.SC_CREATED)
 					.entity(map(plat))
 					.build();
@@ -573,6 +723,7 @@ public final class PlatformResources extends OpenDcsResource
 			Platform plat = new Platform();
 			plat.setId(DbKey.createDbKey(platformId));
 			dbIo.deletePlatform(plat);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.PLATFORMS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT)
 					.entity("Platform with ID " + platformId + " deleted")
 					.build();
@@ -595,7 +746,10 @@ public final class PlatformResources extends OpenDcsResource
 			summary = "Returned structure contains information about recent activity on each platform",
 			description = "Sample URL:\n  \n    http://localhost:8080/odcsapi/platformstat  \n  \n  \n"
 					+ "Optional argument 'netlistid' can be passed to only return platforms that have a "
-					+ "transport medium in the referenced network list.\n  \nThe returned data structure contains "
+					+ "transport medium in the referenced network list.\n  \nEach network list selection is served from "
+					+ "a snapshot refreshed every few seconds and shared by all clients; send its ETag in "
+					+ "If-None-Match to get 304 while no platform changed, or follow GET monitor/stream.\n  \n"
+					+ "The returned data structure contains "
 					+ "information about recent activity on each platform:\n  \n```\n  [\n    {\n      "
 					+ "\"platformId\": 53,\n      \"platformName\": \"OKVI4\",\n      \"siteId\": 1,\n      "
 					+ "\"lastContact\": \"2023-06-09T18:30:53.086Z[UTC]\",\n      \"lastMessage\": "
@@ -624,45 +778,69 @@ public final class PlatformResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Successfully retrieved platform status",
 						content = @Content(array = @ArraySchema(schema = @Schema(implementation = ApiPlatformStatus.class)))),
-					@ApiResponse(responseCode = "500", description = "Database error occurred")
+					@ApiResponse(responseCode = "304", description = "Platform status unchanged since the given ETag"),
+					@ApiResponse(responseCode = "500", description = "Database error occurred"),
+					@ApiResponse(responseCode = "503", description = "Every monitor view kept is streamed")
 			},
 			tags = {"OpenDCS Process Monitor and Control (Routing)"}
 	)
 	public Response getPlatformStats(@Parameter(description = "Only return platforms that have a transport medium "
 			+ "in the referenced network list.", schema = @Schema(implementation = Long.class, example = "1001"))
 		@QueryParam("netlistid") Long netlistId)
-			throws DbException
+			throws DbException, WebAppException
 	{
-		DatabaseIO dbIo = getLegacyDatabase();
-		try (PlatformStatusDAI dao = dbIo.makePlatformStatusDAO())
+		return MonitorSnapshotter.forOrganization(organizationId)
+				.get(platformStatusView(getDataSource(), organizationId, netlistId))
+				.toResponse(this::evaluatePreconditions);
+	}
+
+	/**
+	 * Each network list is a view of its own, so screens filtered to the same list share one snapshot.
+	 */
+	static MonitorSnapshotter.View<ApiPlatformStatus> platformStatusView(DataSource dataSource, String organization,
+			Long netlistId)
+	{
+		String name = netlistId == null ? "platformstat" : "platformstat?netlistid=" + netlistId;
+		return new MonitorSnapshotter.View<>(name, () ->
 		{
-			List<PlatformStatus> statuses;
-			if (netlistId != null)
+			DatabaseIO dbIo = getLegacyDatabase(dataSource, organization);
+			try (PlatformStatusDAI dao = dbIo.makePlatformStatusDAO())
 			{
-				statuses = dao.readPlatformStatusList(DbKey.createDbKey(netlistId));
+				List<PlatformStatus> statuses;
+				if (netlistId != null)
+				{
+					statuses = dao.readPlatformStatusList(DbKey.createDbKey(netlistId));
+				}
+				else
+				{
+					statuses = dao.readPlatformStatusList(null);
+				}
+				return statusListMap(dbIo, statuses);
 			}
-			else
+			catch (DbIoException | DatabaseException ex)
 			{
-				statuses = dao.readPlatformStatusList(null);
+				throw new DbException(String.format("Unable to retrieve platform status with ID: %s", netlistId), ex);
 			}
-			return Response.status(HttpServletResponse.SC_OK).entity(statusListMap(dbIo, statuses)).build();
-		}
-		catch (DbIoException | DatabaseException ex)
-		{
-			throw new DbException(String.format("Unable to retrieve platform status with ID: %s", netlistId), ex);
-		}
-		finally
-		{
-			dbIo.close();
-		}
+			finally
+			{
+				dbIo.close();
+			}
+		}, status -> String.valueOf(status.getPlatformId()));
 	}
 
+	/**
+	 * Map the platform status rows. The platforms, schedule entries and routing specs referenced by the rows are
+	 * collected by id, each one is read once and the results are joined in memory, so the number of queries depends
+	 * on the distinct ids and not on the number of status rows.
+	 */
 	static List<ApiPlatformStatus> statusListMap(DatabaseIO dbIo, List<PlatformStatus> statuses) throws DatabaseException
 	{
 		if(statuses == null)
 		{
 			return new ArrayList<>();
 		}
+		Map<Long, String> routingSpecNames = readRoutingSpecNames(dbIo, statuses);
+		Map<Long, Site> sites = readSites(dbIo, statuses);
 		List<ApiPlatformStatus> ret = new ArrayList<>();
 		for(PlatformStatus status : statuses)
 		{
@@ -679,25 +857,9 @@ public final class PlatformResources extends OpenDcsResource
 			ps.setLastContact(status.getLastContactTime());
 			ps.setLastError(status.getLastErrorTime());
 			ps.setLastMessage(status.getLastMessageTime());
-			if (!status.getLastScheduleEntryStatusId().isNull()
-					&& (status.getLastRoutingSpecName() == null || status.getLastRoutingSpecName().isEmpty()))
+			if (needsRoutingSpecName(status))
 			{
-				try (ScheduleEntryDAI dai = dbIo.makeScheduleEntryDAO())
-				{
-					ScheduleEntry scheduleEntry = dai.readScheduleEntryByStatusId(status.getLastScheduleEntryStatusId());
-					if(scheduleEntry != null && scheduleEntry.getRoutingSpecId() != null)
-					{
-						long routingId = scheduleEntry.getRoutingSpecId().getValue();
-						RoutingSpec rs = new RoutingSpec();
-						rs.setId(DbKey.createDbKey(routingId));
-						dbIo.readRoutingSpec(rs);
-						ps.setRoutingSpecName(rs.getName());
-					}
-				}
-				catch (DbIoException ex)
-				{
-					throw new DatabaseException("Unable to retrieve routing spec for platform status", ex);
-				}
+				ps.setRoutingSpecName(routingSpecNames.get(status.getLastScheduleEntryStatusId().getValue()));
 			}
 			else
 			{
@@ -706,23 +868,20 @@ public final class PlatformResources extends OpenDcsResource
 			ps.setLastRoutingExecId(status.getLastScheduleEntryStatusId().getValue());
 			if (status.getPlatformId() != null)
 			{
-				Platform pl = new Platform();
-				pl.setId(status.getPlatformId());
-				dbIo.readPlatform(pl);
-				if (pl.getSite() != null && pl.getSite().getId() != null)
+				Site site = sites.get(status.getPlatformId().getValue());
+				if (site != null && site.getId() != null)
 				{
-					ps.setSiteId(pl.getSite().getId().getValue());
+					ps.setSiteId(site.getId().getValue());
 				}
-				if (pl.getSite() != null && pl.getSite().getUniqueName() != null
-						&& !pl.getSite().getUniqueName().isEmpty())
+				if (site != null && site.getUniqueName() != null && !site.getUniqueName().isEmpty())
 				{
 					if (status.getDesignator() != null && !status.getDesignator().isEmpty())
 					{
-						ps.setPlatformName(pl.getSite().getUniqueName() + "-" + status.getDesignator());
+						ps.setPlatformName(site.getUniqueName() + "-" + status.getDesignator());
 					}
 					else
 					{
-						ps.setPlatformName(pl.getSite().getUniqueName());
+						ps.setPlatformName(site.getUniqueName());
 					}
 				}
 			}
@@ -731,4 +890,131 @@ public final class PlatformResources extends OpenDcsResource
 		return ret;
 	}
 
+	private static boolean needsRoutingSpecName(PlatformStatus status)
+	{
+		return !status.getLastScheduleEntryStatusId().isNull()
+				&& (status.getLastRoutingSpecName() == null || status.getLastRoutingSpecName().isEmpty());
+	}
+
+	/**
+	 * @return the site of each platform referenced by the statuses, keyed by platform id
+	 */
+	private static Map<Long, Site> readSites(DatabaseIO dbIo, List<PlatformStatus> statuses) throws DatabaseException
+	{
+		Set<Long> platformIds = new HashSet<>();
+		for (PlatformStatus status : statuses)
+		{
+			if (status.getPlatformId() != null)
+			{
+				platformIds.add(status.getPlatformId().getValue());
+			}
+		}
+		if (platformIds.size() > PLATFORM_LOOKUP_LIMIT)
+		{
+			return readSiteLists(dbIo, platformIds);
+		}
+		Map<Long, Site> ret = new HashMap<>();
+		for (Long platformId : platformIds)
+		{
+			Platform platform = new Platform();
+			platform.setId(DbKey.createDbKey(platformId));
+			dbIo.readPlatform(platform);
+			if (platform.getSite() != null)
+			{
+				ret.put(platformId, platform.getSite());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Join the platform and site lists, for status lists referencing more platforms than reading them one by one
+	 * is worth.
+	 */
+	private static Map<Long, Site> readSiteLists(DatabaseIO dbIo, Set<Long> platformIds) throws DatabaseException
+	{
+		PlatformList platformList = new PlatformList();
+		dbIo.readPlatformList(platformList, null);
+		SiteList siteList = new SiteList();
+		dbIo.readSiteList(siteList);
+		Map<Long, Site> sitesById = new HashMap<>();
+		for (Iterator<Site> it = siteList.iterator(); it.hasNext(); )
+		{
+			Site site = it.next();
+			if (site.getId() != null)
+			{
+				sitesById.put(site.getId().getValue(), site);
+			}
+		}
+		Map<Long, Site> ret = new HashMap<>();
+		for (Iterator<Platform> it = platformList.iterator(); it.hasNext(); )
+		{
+			Platform platform = it.next();
+			Site site = platform.getSite();
+			if (platform.getId() == null || site == null || !platformIds.contains(platform.getId().getValue()))
+			{
+				continue;
+			}
+			// The platform list may only carry a stub site, prefer the fully read one
+			if (site.getId() != null)
+			{
+				site = sitesById.getOrDefault(site.getId().getValue(), site);
+			}
+			ret.put(platform.getId().getValue(), site);
+		}
+		return ret;
+	}
+
+	/**
+	 * Resolve the routing spec name for statuses that only reference the schedule entry status of their last
+	 * routing execution.
+	 * <p>
+	 * Platforms processed by the same routing execution share its status id, so each distinct status id is looked
+	 * up once, and so is each routing spec they lead to. The execution history itself is never read.
+	 * @return routing spec name keyed by schedule entry status id
+	 */
+	private static Map<Long, String> readRoutingSpecNames(DatabaseIO dbIo, List<PlatformStatus> statuses)
+			throws DatabaseException
+	{
+		Map<Long, String> ret = new HashMap<>();
+		Set<Long> statusIds = new HashSet<>();
+		for (PlatformStatus status : statuses)
+		{
+			if (needsRoutingSpecName(status))
+			{
+				statusIds.add(status.getLastScheduleEntryStatusId().getValue());
+			}
+		}
+		if (statusIds.isEmpty())
+		{
+			return ret;
+		}
+		Map<Long, Long> routingSpecIds = new HashMap<>();
+		try (ScheduleEntryDAI dai = dbIo.makeScheduleEntryDAO())
+		{
+			for (Long statusId : statusIds)
+			{
+				ScheduleEntry entry = dai.readScheduleEntryByStatusId(DbKey.createDbKey(statusId));
+				if (entry != null && entry.getRoutingSpecId() != null)
+				{
+					routingSpecIds.put(statusId, entry.getRoutingSpecId().getValue());
+				}
+			}
+		}
+		catch (DbIoException ex)
+		{
+			throw new DatabaseException("Unable to retrieve routing spec for platform status", ex);
+		}
+		Map<Long, String> namesById = new HashMap<>();
+		for (Long routingSpecId : new HashSet<>(routingSpecIds.values()))
+		{
+			RoutingSpec spec = new RoutingSpec();
+			spec.setId(DbKey.createDbKey(routingSpecId));
+			dbIo.readRoutingSpec(spec);
+			namesById.put(routingSpecId, spec.getName());
+		}
+		routingSpecIds.forEach((statusId, routingSpecId) -> ret.put(statusId, namesById.get(routingSpecId)));
+		return ret;
+	}
+
 }
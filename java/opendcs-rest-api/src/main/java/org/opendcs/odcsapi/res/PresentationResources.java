@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Vector;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -34,6 +35,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -83,18 +85,21 @@ public final class PresentationResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 						content = @Content(mediaType = MediaType.APPLICATION_JSON,
-							array = @ArraySchema(schema = @Schema(implementation = ApiPresentationRef.class)))),
+							array = @ArraySchema(schema = @Schema(implementation = ApiPresentationRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			}
 	)
-	public Response getPresentationRefs() throws DbException
+	public Response getPresentationRefs(@BeanParam RefListQuery query) throws DbException, WebAppException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
 			PresentationGroupList groupList = new PresentationGroupList();
 			dbIo.readPresentationGroupList(groupList);
-			return Response.status(HttpServletResponse.SC_OK).entity(map(groupList)).build();
+			return query.apply(map(groupList), PRESENTATION_REF_FIELDS).toResponse();
 		}
 		catch (DatabaseException ex)
 		{
@@ -106,6 +111,15 @@ public final class PresentationResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiPresentationRef> PRESENTATION_REF_FIELDS =
+			RefListQuery.fields(ApiPresentationRef.class)
+					.add("groupId", ApiPresentationRef::getGroupId)
+					.add("name", ApiPresentationRef::getName)
+					.add("inheritsFrom", ApiPresentationRef::getInheritsFrom)
+					.add("inheritsFromId", ApiPresentationRef::getInheritsFromId)
+					.add("lastModified", ApiPresentationRef::getLastModified)
+					.add("production", ApiPresentationRef::isProduction);
+
 	static ArrayList<ApiPresentationRef> map(PresentationGroupList groupList)
 	{
 		ArrayList<ApiPresentationRef> ret = new ArrayList<>();
@@ -275,6 +289,8 @@ public final class PresentationResources extends OpenDcsResource
 		{
 			PresentationGroup group = map(dai, presGrp);
 			dbIo.writePresentationGroup(group);
+			// Routing specs refer to their presentation group by name
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.ROUTING_SPECS);
 			return Response.status(HttpServletResponse.SC_CREATED)
 					.entity(map(group))
 					.build();
@@ -411,6 +427,7 @@ public final class PresentationResources extends OpenDcsResource
 								"because it is used by the following routing specs: %s", groupId, routeSpecs)).build();
 			}
 			dbIo.deletePresentationGroup(group);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.ROUTING_SPECS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT)
 					.entity("Presentation Group with ID " + groupId + " deleted")
 					.build();
@@ -0,0 +1,287 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Response;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * Paging, sorting and filtering of the reference lists returned by the *refs endpoints, passed to a resource
+ * method as a {@link jakarta.ws.rs.BeanParam}.
+ * <p>
+ * The legacy DAOs always read whole tables, so the query is applied in one pass over what they return: matching
+ * references are counted and, unless sorted, only the requested page is kept. Without any of the parameters the
+ * list is returned unchanged. The number of matching references is sent in the {@value #TOTAL_COUNT_HEADER}
+ * header. A {@link FieldProjection} limits the properties sent for each reference.
+ */
+public final class RefListQuery
+{
+	static final String TOTAL_COUNT_HEADER = TimeSeriesResources.TOTAL_COUNT_HEADER;
+
+	@Parameter(description = "Number of matching references to skip.",
+			schema = @Schema(implementation = Integer.class, example = "100"))
+	@QueryParam("offset")
+	private Integer offset;
+
+	@Parameter(description = "Maximum number of references to return.",
+			schema = @Schema(implementation = Integer.class, example = "100"))
+	@QueryParam("limit")
+	private Integer limit;
+
+	@Parameter(description = "Comma separated fields to sort by, a leading '-' sorts descending. "
+			+ "Text is sorted case-insensitively.", schema = @Schema(implementation = String.class, example = "-name"))
+	@QueryParam("sort")
+	private String sort;
+
+	@Parameter(description = "Filter in the form field:value, may be repeated. The value is matched "
+			+ "case-insensitively against the whole field, '*' matches any number of characters and '?' exactly one.",
+			schema = @Schema(implementation = String.class, example = "name:goes*"))
+	@QueryParam("filter")
+	private List<String> filter;
+
+	@Parameter(description = "Comma separated properties to return for each reference, all if not given.",
+			schema = @Schema(implementation = String.class, example = "platformId,name"))
+	@QueryParam("fields")
+	private String fields;
+
+	public RefListQuery()
+	{
+		// Filled in by JAX-RS
+	}
+
+	RefListQuery(Integer offset, Integer limit, String sort, List<String> filter)
+	{
+		this(offset, limit, sort, filter, null);
+	}
+
+	RefListQuery(Integer offset, Integer limit, String sort, List<String> filter, String fields)
+	{
+		this.offset = offset;
+		this.limit = limit;
+		this.sort = sort;
+		this.filter = filter;
+		this.fields = fields;
+	}
+
+	/**
+	 * The fields of a reference type that can be sorted and filtered on, named like their JSON properties.
+	 */
+	static final class Fields<T>
+	{
+		private final Class<T> type;
+		private final Map<String, Function<T, ?>> getters = new LinkedHashMap<>();
+
+		private Fields(Class<T> type)
+		{
+			this.type = type;
+		}
+
+		Fields<T> add(String name, Function<T, ?> getter)
+		{
+			getters.put(name.toLowerCase(Locale.ROOT), getter);
+			return this;
+		}
+
+		private Function<T, ?> get(String name, String use) throws WebAppException
+		{
+			Function<T, ?> getter = getters.get(name.trim().toLowerCase(Locale.ROOT));
+			if (getter == null)
+			{
+				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "Unknown " + use + " field '"
+						+ name.trim() + "', expected one of: " + String.join(", ", getters.keySet()));
+			}
+			return getter;
+		}
+	}
+
+	record Page<T>(List<T> items, int total, FieldProjection projection)
+	{
+		/**
+		 * Build an OK response with the references and the total count.
+		 */
+		Response toResponse()
+		{
+			return toResponse(items);
+		}
+
+		/**
+		 * Build an OK response with the references keyed by name, in page order, for endpoints that return a map.
+		 */
+		Response toResponse(Function<T, String> name)
+		{
+			Map<String, T> ret = new LinkedHashMap<>();
+			for (T item : items)
+			{
+				ret.put(name.apply(item), item);
+			}
+			return toResponse(ret);
+		}
+
+		private Response toResponse(Object entity)
+		{
+			return Response.status(HttpServletResponse.SC_OK)
+					.entity(projection.entity(entity))
+					.header(TOTAL_COUNT_HEADER, total)
+					.build();
+		}
+	}
+
+	static <T> Fields<T> fields(Class<T> type)
+	{
+		return new Fields<>(type);
+	}
+
+	/**
+	 * @return the properties to send for each reference
+	 * @throws WebAppException if the fields parameter names an unknown property
+	 */
+	<T> FieldProjection projection(Fields<T> fields) throws WebAppException
+	{
+		return FieldProjection.of(this.fields, fields.type);
+	}
+
+	/**
+	 * Filter, sort and page the references.
+	 * @throws WebAppException if a parameter is invalid or names an unknown field
+	 */
+	<T> Page<T> apply(Iterable<T> refs, Fields<T> fields) throws WebAppException
+	{
+		int first = offset == null ? 0 : offset;
+		int max = limit == null ? Integer.MAX_VALUE : limit;
+		if (first < 0)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "offset must not be negative");
+		}
+		if (max < 1)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "limit must be at least 1");
+		}
+		FieldProjection projection = projection(fields);
+		Predicate<T> matches = filter(fields);
+		Comparator<T> order = order(fields);
+		List<T> items = new ArrayList<>();
+		int total = 0;
+		for (T ref : refs)
+		{
+			if (matches.test(ref))
+			{
+				// Unsorted lists are paged while reading, sorted ones once everything matching is known
+				if (order != null || (total >= first && total - first < max))
+				{
+					items.add(ref);
+				}
+				total++;
+			}
+		}
+		if (order != null)
+		{
+			items.sort(order);
+			items = new ArrayList<>(items.subList(Math.min(first, items.size()),
+					(int) Math.min((long) first + max, items.size())));
+		}
+		return new Page<>(items, total, projection);
+	}
+
+	private <T> Predicate<T> filter(Fields<T> fields) throws WebAppException
+	{
+		Predicate<T> ret = ref -> true;
+		if (filter == null)
+		{
+			return ret;
+		}
+		for (String condition : filter)
+		{
+			int colon = condition.indexOf(':');
+			if (colon < 1)
+			{
+				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+						"Invalid filter '" + condition + "', expected field:value");
+			}
+			Function<T, ?> getter = fields.get(condition.substring(0, colon), "filter");
+			Pattern pattern = glob(condition.substring(colon + 1).trim().toLowerCase(Locale.ROOT));
+			ret = ret.and(ref ->
+			{
+				Object value = getter.apply(ref);
+				return value != null && pattern.matcher(String.valueOf(value).toLowerCase(Locale.ROOT)).matches();
+			});
+		}
+		return ret;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private <T> Comparator<T> order(Fields<T> fields) throws WebAppException
+	{
+		if (sort == null || sort.isBlank())
+		{
+			return null;
+		}
+		Comparator<T> ret = null;
+		for (String key : sort.split(","))
+		{
+			boolean descending = key.trim().startsWith("-");
+			Function<T, ?> getter = fields.get(descending ? key.trim().substring(1) : key, "sort");
+			Comparator<Object> values = (a, b) -> a instanceof String s
+					? String.CASE_INSENSITIVE_ORDER.compare(s, (String) b)
+					: ((Comparable) a).compareTo(b);
+			Comparator<T> next = Comparator.comparing(getter,
+					Comparator.nullsLast(descending ? values.reversed() : values));
+			ret = ret == null ? next : ret.thenComparing(next);
+		}
+		return ret;
+	}
+
+	/**
+	 * Convert a wildcard pattern, where {@code *} matches any number of characters and {@code ?} exactly one, to a
+	 * regular expression matching the same strings.
+	 */
+	static Pattern glob(String glob)
+	{
+		StringBuilder regex = new StringBuilder();
+		int literalStart = 0;
+		for (int i = 0; i < glob.length(); i++)
+		{
+			char c = glob.charAt(i);
+			if (c == '*' || c == '?')
+			{
+				if (i > literalStart)
+				{
+					regex.append(Pattern.quote(glob.substring(literalStart, i)));
+				}
+				regex.append(c == '*' ? ".*" : ".");
+				literalStart = i + 1;
+			}
+		}
+		if (literalStart < glob.length())
+		{
+			regex.append(Pattern.quote(glob.substring(literalStart)));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+}
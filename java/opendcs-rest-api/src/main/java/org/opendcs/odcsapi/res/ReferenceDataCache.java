@@ -0,0 +1,204 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * Reference data of one organization: reference lists, seasons, engineering units and unit conversions.
+ * <p>
+ * Each kind is read as a whole and kept as the JSON of its response, so a hit only copies bytes. The tag of the
+ * JSON lets clients revalidate with If-None-Match and get a 304. Writes through this API invalidate the kind they
+ * change. A kind is also read again once it is older than {@value #MAX_AGE_PROPERTY} (default 5 minutes), which
+ * bounds how long changes made by other tools go unnoticed.
+ */
+final class ReferenceDataCache
+{
+	static final String MAX_AGE_PROPERTY = "opendcs.rest.api.reference.data.max.age";
+	private static final long MAX_AGE_NANOS = OrganizationRegistry.durationProperty(MAX_AGE_PROPERTY, "PT5M").toNanos();
+	private static final ObjectMapper MAPPER = ObjectMapperContextResolver.createObjectMapper();
+	private static final OrganizationRegistry<ReferenceDataCache> caches = OrganizationRegistry.bounded();
+
+	enum Kind
+	{
+		REFLISTS, SEASONS, UNITS, UNIT_CONVERTERS
+	}
+
+	@FunctionalInterface
+	interface Loader<T>
+	{
+		/**
+		 * Read all records of the kind, mapped to what the endpoint responds with.
+		 */
+		T load() throws DbException, WebAppException;
+	}
+
+	/**
+	 * Immutable state of a kind. The JSON is the exact response body.
+	 */
+	static final class Snapshot<T>
+	{
+		private final T value;
+		private final byte[] json;
+		private final EntityTag etag;
+		private final long loaded;
+
+		private Snapshot(T value, long loaded)
+		{
+			this.value = value;
+			try
+			{
+				this.json = MAPPER.writeValueAsBytes(value);
+			}
+			catch (JsonProcessingException ex)
+			{
+				throw new IllegalStateException("Unable to serialize reference data", ex);
+			}
+			this.etag = new EntityTag(digest(json));
+			this.loaded = loaded;
+		}
+
+		/**
+		 * @return the records as loaded, shared by every request and not to be modified
+		 */
+		T getValue()
+		{
+			return value;
+		}
+
+		byte[] getJson()
+		{
+			return json;
+		}
+
+		EntityTag getEntityTag()
+		{
+			return etag;
+		}
+
+		/**
+		 * @param preconditions evaluates the conditional request headers against the entity tag
+		 * @return 304 if the client holds this version, otherwise the JSON
+		 */
+		Response toResponse(Function<EntityTag, Response.ResponseBuilder> preconditions)
+		{
+			Response.ResponseBuilder notModified = preconditions.apply(etag);
+			Response.ResponseBuilder builder = notModified != null ? notModified
+					: Response.status(HttpServletResponse.SC_OK).entity(json).type(MediaType.APPLICATION_JSON_TYPE);
+			// Clients must revalidate, which is cheap, so a write is seen right away
+			return builder.tag(etag).header(HttpHeaders.CACHE_CONTROL, "no-cache").build();
+		}
+
+		private static String digest(byte[] json)
+		{
+			try
+			{
+				byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+				return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+			}
+			catch (NoSuchAlgorithmException ex)
+			{
+				throw new IllegalStateException("SHA-256 is not available", ex);
+			}
+		}
+	}
+
+	private final long maxAgeNanos;
+	private final LongSupplier clock;
+	private final Map<Kind, Snapshot<?>> snapshots = new EnumMap<>(Kind.class);
+	// Incremented by every invalidation, a load that overlapped one does not store what it read
+	private final Map<Kind, Long> generations = new EnumMap<>(Kind.class);
+
+	ReferenceDataCache(long maxAgeNanos, LongSupplier clock)
+	{
+		this.maxAgeNanos = maxAgeNanos;
+		this.clock = clock;
+	}
+
+	static ReferenceDataCache forOrganization(String organization)
+	{
+		return caches.computeIfAbsent(organization, o -> new ReferenceDataCache(MAX_AGE_NANOS, System::nanoTime));
+	}
+
+	/**
+	 * Invalidate the kinds in the cache of the organization, if there is one.
+	 */
+	static void invalidate(String organization, Kind... kinds)
+	{
+		caches.ifPresent(organization, cache ->
+		{
+			for (Kind kind : kinds)
+			{
+				cache.invalidate(kind);
+			}
+		});
+	}
+
+	synchronized void invalidate(Kind kind)
+	{
+		generations.merge(kind, 1L, Long::sum);
+		snapshots.remove(kind);
+	}
+
+	/**
+	 * Return the records of the kind, loading them if they are not cached or too old.
+	 * The loader of a kind must always return the same type.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> Snapshot<T> get(Kind kind, Loader<T> loader) throws DbException, WebAppException
+	{
+		long now = clock.getAsLong();
+		Snapshot<T> snapshot;
+		long generation;
+		synchronized (this)
+		{
+			snapshot = (Snapshot<T>) snapshots.get(kind);
+			generation = generations.getOrDefault(kind, 0L);
+		}
+		if (snapshot != null && now - snapshot.loaded < maxAgeNanos)
+		{
+			return snapshot;
+		}
+		// Loaded outside of the lock, concurrent misses may each read the database but never block other kinds
+		snapshot = new Snapshot<>(loader.load(), now);
+		synchronized (this)
+		{
+			if (generation == generations.getOrDefault(kind, 0L))
+			{
+				snapshots.put(kind, snapshot);
+			}
+		}
+		return snapshot;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.opendcs.odcsapi.beans.ApiReference;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Reverse references of one organization: which routing specs use a network list or presentation group, and which
+ * platforms and time series use a configuration or site.
+ * <p>
+ * The references are loaded per kind of referencing record, so a question about network lists only reads the
+ * routing specs. Writes through this API invalidate the kind of record they change and the next question loads it
+ * again. A loaded kind is also reloaded once it is older than {@value #MAX_AGE_PROPERTY} (default 1 minute), which
+ * bounds how long changes made by other tools go unnoticed. That is fine for the referencedby endpoint, which is
+ * the only reader; deletes check the referencing records in the database themselves.
+ */
+final class ReferenceIndex
+{
+	static final String MAX_AGE_PROPERTY = "opendcs.rest.api.references.max.age";
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final long MAX_AGE_NANOS = OrganizationRegistry.durationProperty(MAX_AGE_PROPERTY, "PT1M").toNanos();
+	private static final OrganizationRegistry<ReferenceIndex> indexes = OrganizationRegistry.bounded();
+
+	/**
+	 * Kinds of referencing records, each loaded as a whole.
+	 */
+	enum Source
+	{
+		ROUTING_SPECS("routingspec"), PLATFORMS("platform"), TIME_SERIES("timeseries");
+
+		private final String type;
+
+		Source(String type)
+		{
+			this.type = type;
+		}
+
+		String type()
+		{
+			return type;
+		}
+	}
+
+	/**
+	 * Kinds of referenced records, with the kinds of records that can reference them.
+	 */
+	enum Target
+	{
+		NETLIST(Source.ROUTING_SPECS),
+		PRESENTATION(Source.ROUTING_SPECS),
+		CONFIG(Source.PLATFORMS),
+		SITE(Source.PLATFORMS, Source.TIME_SERIES);
+
+		private final Source[] sources;
+
+		Target(Source... sources)
+		{
+			this.sources = sources;
+		}
+	}
+
+	@FunctionalInterface
+	interface Loader
+	{
+		/**
+		 * Read all records of the source and add their references.
+		 */
+		void load(Source source, Builder builder) throws DbException;
+	}
+
+	/**
+	 * Collects the references of one source.
+	 */
+	static final class Builder
+	{
+		private final Source source;
+		private final Map<Target, Map<Long, List<ApiReference>>> references = new EnumMap<>(Target.class);
+
+		private Builder(Source source)
+		{
+			this.source = source;
+		}
+
+		/**
+		 * Record that the record with the id and name references the target.
+		 */
+		void add(long id, String name, Target target, long targetId)
+		{
+			references.computeIfAbsent(target, t -> new HashMap<>())
+					.computeIfAbsent(targetId, k -> new ArrayList<>())
+					.add(new ApiReference(source.type(), id, name));
+		}
+	}
+
+	private record Part(Map<Target, Map<Long, List<ApiReference>>> references, long loaded)
+	{
+	}
+
+	private final Loader loader;
+	private final long maxAgeNanos;
+	private final LongSupplier clock;
+	private final Map<Source, Part> parts = new EnumMap<>(Source.class);
+
+	ReferenceIndex(Loader loader, long maxAgeNanos, LongSupplier clock)
+	{
+		this.loader = loader;
+		this.maxAgeNanos = maxAgeNanos;
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the index of the organization.
+	 * @param loader reads the records of the organization, used by every load of the index created by this call
+	 */
+	static ReferenceIndex forOrganization(String organization, Loader loader)
+	{
+		return indexes.computeIfAbsent(organization, o -> new ReferenceIndex(loader, MAX_AGE_NANOS, System::nanoTime));
+	}
+
+	/**
+	 * Invalidate the references of the source in the index of the organization, if there is one.
+	 */
+	static void invalidate(String organization, Source source)
+	{
+		indexes.ifPresent(organization, index -> index.invalidate(source));
+	}
+
+	synchronized void invalidate(Source source)
+	{
+		parts.remove(source);
+	}
+
+	/**
+	 * Return the records referencing the target, loading the sources that can reference it if needed.
+	 */
+	synchronized List<ApiReference> referencedBy(Target target, long targetId) throws DbException
+	{
+		List<ApiReference> ret = new ArrayList<>();
+		for (Source source : target.sources)
+		{
+			ret.addAll(part(source).references().getOrDefault(target, Map.of()).getOrDefault(targetId, List.of()));
+		}
+		return ret;
+	}
+
+	private Part part(Source source) throws DbException
+	{
+		long now = clock.getAsLong();
+		Part part = parts.get(source);
+		if (part == null || now - part.loaded() >= maxAgeNanos)
+		{
+			Builder builder = new Builder(source);
+			loader.load(source, builder);
+			part = new Part(builder.references, now);
+			parts.put(source, part);
+			log.debug("Loaded {} references.", source.type());
+		}
+		return part;
+	}
+}
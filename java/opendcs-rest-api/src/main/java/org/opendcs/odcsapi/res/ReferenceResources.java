@@ -0,0 +1,259 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.sql.DataSource;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import decodes.db.DatabaseException;
+import decodes.db.DatabaseIO;
+import decodes.db.NetworkList;
+import decodes.db.Platform;
+import decodes.db.PlatformList;
+import decodes.db.PresentationGroup;
+import decodes.db.PresentationGroupList;
+import decodes.db.RoutingSpec;
+import decodes.db.RoutingSpecList;
+import decodes.sql.DbKey;
+import decodes.tsdb.DbIoException;
+import decodes.tsdb.TimeSeriesIdentifier;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import opendcs.dai.TimeSeriesDAI;
+import org.opendcs.odcsapi.beans.ApiReference;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.errorhandling.MissingParameterException;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+import org.opendcs.odcsapi.util.ApiConstants;
+
+/**
+ * Answers which records use a network list, presentation group, configuration or site.
+ */
+@Path("/")
+public final class ReferenceResources extends OpenDcsResource
+{
+	@GET
+	@Path("referencedby")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Lists the records that reference a network list, presentation group, configuration or site",
+			description = "Examples:\n\n    http://localhost:8080/odcsapi/referencedby?type=netlist&id=6\n\n"
+					+ "    http://localhost:8080/odcsapi/referencedby?type=site&id=3\n\n"
+					+ "Network lists and presentation groups are referenced by routing specs, configurations by "
+					+ "platforms, and sites by platforms and time series. The references are indexed by the server; "
+					+ "changes made through this API are reflected right away, changes made by other tools after "
+					+ "at most a minute.\n```\n[\n  {\n    \"type\": \"routingspec\",\n    \"id\": 20,\n"
+					+ "    \"name\": \"goes1\"\n  }\n]\n```",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Success",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiReference.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing or unknown type, or missing id"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - References"}
+	)
+	public Response getReferencedBy(@Parameter(description = "Type of the referenced record: netlist, presentation, "
+					+ "config or site", required = true, schema = @Schema(implementation = String.class,
+					example = "netlist"))
+			@QueryParam("type") String type,
+			@Parameter(description = "Unique numeric identifier of the referenced record", required = true,
+					schema = @Schema(implementation = Long.class, example = "6"))
+			@QueryParam("id") Long id)
+			throws DbException, WebAppException
+	{
+		if (type == null)
+		{
+			throw new MissingParameterException("Missing required type parameter.");
+		}
+		if (id == null)
+		{
+			throw new MissingParameterException("Missing required id parameter.");
+		}
+		ReferenceIndex.Target target = switch (type.trim().toLowerCase(Locale.ROOT))
+		{
+			case "netlist" -> ReferenceIndex.Target.NETLIST;
+			case "presentation" -> ReferenceIndex.Target.PRESENTATION;
+			case "config" -> ReferenceIndex.Target.CONFIG;
+			case "site" -> ReferenceIndex.Target.SITE;
+			default -> throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"Unknown referenced type: " + type.trim());
+		};
+		List<ApiReference> ret = referencedBy(getDataSource(), organizationId, target, id);
+		return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+	}
+
+	static List<ApiReference> referencedBy(DataSource dataSource, String organization, ReferenceIndex.Target target,
+			long id) throws DbException
+	{
+		return ReferenceIndex.forOrganization(organization, (source, builder) ->
+		{
+			switch (source)
+			{
+				case ROUTING_SPECS -> loadRoutingSpecs(dataSource, organization, builder);
+				case PLATFORMS -> loadPlatforms(dataSource, organization, builder);
+				case TIME_SERIES -> loadTimeSeries(dataSource, organization, builder);
+			}
+		}).referencedBy(target, id);
+	}
+
+	private static void loadRoutingSpecs(DataSource dataSource, String organization,
+			ReferenceIndex.Builder builder) throws DbException
+	{
+		DatabaseIO dbIo = getLegacyDatabase(dataSource, organization);
+		try
+		{
+			RoutingSpecList specs = new RoutingSpecList();
+			dbIo.readRoutingSpecList(specs);
+			PresentationGroupList groups = new PresentationGroupList();
+			dbIo.readPresentationGroupList(groups);
+			addRoutingSpecs(specs, groups, builder);
+		}
+		catch (DatabaseException ex)
+		{
+			throw new DbException("Unable to read routing spec references", ex);
+		}
+		finally
+		{
+			dbIo.close();
+		}
+	}
+
+	private static void loadPlatforms(DataSource dataSource, String organization, ReferenceIndex.Builder builder)
+			throws DbException
+	{
+		DatabaseIO dbIo = getLegacyDatabase(dataSource, organization);
+		try
+		{
+			PlatformList platforms = new PlatformList();
+			dbIo.readPlatformList(platforms, null);
+			addPlatforms(platforms, builder);
+		}
+		catch (DatabaseException ex)
+		{
+			throw new DbException("Unable to read platform references", ex);
+		}
+		finally
+		{
+			dbIo.close();
+		}
+	}
+
+	private static void loadTimeSeries(DataSource dataSource, String organization, ReferenceIndex.Builder builder)
+			throws DbException
+	{
+		try (TimeSeriesDAI dai = getLegacyTimeseriesDB(dataSource, organization).makeTimeSeriesDAO())
+		{
+			addTimeSeries(dai.listTimeSeries(), builder);
+		}
+		catch (DbIoException ex)
+		{
+			throw new DbException("Unable to read time series references", ex);
+		}
+	}
+
+	static void addRoutingSpecs(RoutingSpecList specs, PresentationGroupList groups, ReferenceIndex.Builder builder)
+	{
+		// Routing specs name their presentation group
+		Map<String, Long> groupIds = new HashMap<>();
+		for (PresentationGroup group : groups.getVector())
+		{
+			if (group.groupName != null && isSet(group.getId()))
+			{
+				groupIds.put(group.groupName.toLowerCase(Locale.ROOT), group.getId().getValue());
+			}
+		}
+		for (RoutingSpec spec : specs.getList())
+		{
+			if (!isSet(spec.getId()))
+			{
+				continue;
+			}
+			long id = spec.getId().getValue();
+			for (NetworkList list : spec.networkLists)
+			{
+				if (isSet(list.getId()))
+				{
+					builder.add(id, spec.getName(), ReferenceIndex.Target.NETLIST, list.getId().getValue());
+				}
+			}
+			Long groupId = spec.presentationGroupName == null ? null
+					: groupIds.get(spec.presentationGroupName.toLowerCase(Locale.ROOT));
+			if (groupId != null)
+			{
+				builder.add(id, spec.getName(), ReferenceIndex.Target.PRESENTATION, groupId);
+			}
+		}
+	}
+
+	static void addPlatforms(PlatformList platforms, ReferenceIndex.Builder builder)
+	{
+		Iterator<Platform> iterator = platforms.iterator();
+		while (iterator.hasNext())
+		{
+			Platform platform = iterator.next();
+			if (!isSet(platform.getId()))
+			{
+				continue;
+			}
+			long id = platform.getId().getValue();
+			if (platform.getConfig() != null && isSet(platform.getConfig().getId()))
+			{
+				builder.add(id, platform.getDisplayName(), ReferenceIndex.Target.CONFIG,
+						platform.getConfig().getId().getValue());
+			}
+			if (platform.getSite() != null && isSet(platform.getSite().getId()))
+			{
+				builder.add(id, platform.getDisplayName(), ReferenceIndex.Target.SITE,
+						platform.getSite().getId().getValue());
+			}
+		}
+	}
+
+	static void addTimeSeries(List<TimeSeriesIdentifier> identifiers, ReferenceIndex.Builder builder)
+	{
+		for (TimeSeriesIdentifier tsid : identifiers)
+		{
+			if (isSet(tsid.getKey()) && tsid.getSite() != null && isSet(tsid.getSite().getId()))
+			{
+				builder.add(tsid.getKey().getValue(), tsid.getUniqueString(), ReferenceIndex.Target.SITE,
+						tsid.getSite().getId().getValue());
+			}
+		}
+	}
+
+	private static boolean isSet(DbKey key)
+	{
+		return key != null && !key.isNull();
+	}
+}
@@ -125,6 +125,8 @@ public final class ReflistResources extends OpenDcsResource
 									})
 							)
 					),
+					@ApiResponse(responseCode = "304",
+							description = "Reference lists unchanged since the given ETag, only without 'name'"),
 					@ApiResponse(responseCode = "404", description = "Matching reference lists not found"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			},
@@ -134,6 +136,35 @@ public final class ReflistResources extends OpenDcsResource
 			schema = @Schema(implementation = String.class, example = "scripttype,dataorder"))
 		@QueryParam("name") String listNames)
 			throws DbException, WebAppException
+	{
+		ReferenceDataCache.Snapshot<Map<String, ApiRefList>> snapshot = ReferenceDataCache
+				.forOrganization(organizationId)
+				.get(ReferenceDataCache.Kind.REFLISTS, this::readRefLists);
+		ArrayList<String> searches = getSearchTerms(listNames);
+		if (searches.isEmpty())
+		{
+			return snapshot.toResponse(this::evaluatePreconditions);
+		}
+		HashMap<String, ApiRefList> ret = new HashMap<>();
+		for (Map.Entry<String, ApiRefList> refList : snapshot.getValue().entrySet())
+		{
+			for (String term : searches)
+			{
+				if (refList.getKey().equalsIgnoreCase(term))
+				{
+					ret.put(refList.getKey(), refList.getValue());
+					break;
+				}
+			}
+		}
+		if (ret.isEmpty())
+		{
+			throw new DatabaseItemNotFoundException("No reference lists found matching search criteria");
+		}
+		return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+	}
+
+	private Map<String, ApiRefList> readRefLists() throws DbException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
@@ -165,34 +196,7 @@ public final class ReflistResources extends OpenDcsResource
 				refList.setItems(items);
 				ret.put(enumVal.enumName, refList);
 			}
-
-			ArrayList<String> searches = getSearchTerms(listNames);
-			if (!searches.isEmpty())
-			{
-				ArrayList<String> toRm = new ArrayList<>();
-				nextName:
-				for(String rlname : ret.keySet())
-				{
-					for(String term : searches)
-					{
-						if(rlname.equalsIgnoreCase(term))
-						{
-							continue nextName;
-						}
-					}
-					toRm.add(rlname);
-				}
-				for(String rm : toRm)
-				{
-					ret.remove(rm);
-				}
-				if (ret.isEmpty())
-				{
-					throw new DatabaseItemNotFoundException("No reference lists found matching search criteria");
-				}
-			}
-
-			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+			return ret;
 		}
 		catch(DatabaseException ex)
 		{
@@ -241,6 +245,9 @@ public final class ReflistResources extends OpenDcsResource
 		{
 			DbEnum dbEnum = mapToEnum(reflist);
 			dai.writeEnum(dbEnum);
+			// A reference list may be the season enum itself
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.REFLISTS,
+					ReferenceDataCache.Kind.SEASONS);
 
 			return Response.status(HttpServletResponse.SC_CREATED)
 					.entity(map(dbEnum))
@@ -330,6 +337,8 @@ public final class ReflistResources extends OpenDcsResource
 		try (EnumDAI dai = getLegacyTimeseriesDB().makeEnumDAO())
 		{
 			dai.deleteEnumList(DbKey.createDbKey(reflistId));
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.REFLISTS,
+					ReferenceDataCache.Kind.SEASONS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT)
 					.entity("reflist with ID " + reflistId + " deleted").build();
 		}
@@ -360,12 +369,20 @@ public final class ReflistResources extends OpenDcsResource
 							array = @ArraySchema(schema = @Schema(implementation = ApiSeason.class))
 						)
 					),
+					@ApiResponse(responseCode = "304", description = "Seasons unchanged since the given ETag"),
 					@ApiResponse(responseCode = "404", description = "Season reference list not found"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			},
 			tags = {"REST - Reference Lists"}
 	)
 	public Response getSeasons() throws DbException, WebAppException
+	{
+		return ReferenceDataCache.forOrganization(organizationId)
+				.get(ReferenceDataCache.Kind.SEASONS, this::readSeasons)
+				.toResponse(this::evaluatePreconditions);
+	}
+
+	private ArrayList<ApiSeason> readSeasons() throws DbException, WebAppException
 	{
 		try (EnumDAI dai = getLegacyTimeseriesDB().makeEnumDAO())
 		{
@@ -374,7 +391,7 @@ public final class ReflistResources extends OpenDcsResource
 			{
 				throw new DatabaseItemNotFoundException("Season enum not found");
 			}
-			return Response.status(HttpServletResponse.SC_OK).entity(mapSeasons(dbEnum)).build();
+			return mapSeasons(dbEnum);
 		}
 		catch(DbIoException ex)
 		{
@@ -516,6 +533,7 @@ public final class ReflistResources extends OpenDcsResource
 			}
 			EnumValue dbSeason = map(season, dbEnum);
 			dai.writeEnumValue(dbSeasonId, dbSeason, null, season.getSortNumber());
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.SEASONS);
 			return Response.status(HttpServletResponse.SC_CREATED)
 					.entity(map(dbSeason))
 					.build();
@@ -573,6 +591,7 @@ public final class ReflistResources extends OpenDcsResource
 		{
 			DbKey enumKey = dai.getEnumId(SEASON_ENUM);
 			dai.deleteEnumValue(enumKey, abbr);
+			ReferenceDataCache.invalidate(organizationId, ReferenceDataCache.Kind.SEASONS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT).entity("Deleted season " + abbr).build();
 		}
 		catch(DbIoException ex)
@@ -23,17 +23,21 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.TimeZone;
 import java.util.Vector;
 import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -43,7 +47,6 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import decodes.db.DataSource;
 import decodes.db.DatabaseException;
 import decodes.db.DatabaseIO;
 import decodes.db.RoutingSpec;
@@ -55,9 +58,9 @@ import decodes.db.ValueNotFoundException;
 import decodes.polling.DacqEvent;
 import decodes.sql.DbKey;
 import decodes.tsdb.DbIoException;
-import decodes.tsdb.IntervalCodes;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -66,7 +69,6 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import opendcs.dai.DacqEventDAI;
-import opendcs.dai.IntervalDAI;
 import opendcs.dai.ScheduleEntryDAI;
 import opendcs.opentsdb.Interval;
 import org.opendcs.odcsapi.beans.ApiDacqEvent;
@@ -92,6 +94,7 @@ public final class RoutingResources extends OpenDcsResource
 {
 	private static final Logger log = OpenDcsLoggerFactory.getLogger();
 	private static final String LAST_DACQ_ATTRIBUTE = "last-dacq-event-id";
+	private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
 
 	@Context
 	private HttpServletRequest request;
@@ -109,19 +112,21 @@ public final class RoutingResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-									array = @ArraySchema(schema = @Schema(implementation = ApiRoutingRef.class)))),
+									array = @ArraySchema(schema = @Schema(implementation = ApiRoutingRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error")
 			}
 	)
-	public Response getRoutingRefs() throws DbException
+	public Response getRoutingRefs(@BeanParam RefListQuery query) throws DbException, WebAppException
 	{
 		DatabaseIO dbIo = getLegacyDatabase();
 		try
 		{
 			RoutingSpecList rsList = new RoutingSpecList();
 			dbIo.readRoutingSpecList(rsList);
-			return Response.status(HttpServletResponse.SC_OK)
-					.entity(map(rsList)).build();
+			return query.apply(map(rsList), ROUTING_REF_FIELDS).toResponse();
 		}
 		catch(DatabaseException ex)
 		{
@@ -133,6 +138,13 @@ public final class RoutingResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiRoutingRef> ROUTING_REF_FIELDS = RefListQuery.fields(ApiRoutingRef.class)
+			.add("routingId", ApiRoutingRef::getRoutingId)
+			.add("name", ApiRoutingRef::getName)
+			.add("dataSourceName", ApiRoutingRef::getDataSourceName)
+			.add("destination", ApiRoutingRef::getDestination)
+			.add("lastModified", ApiRoutingRef::getLastModified);
+
 	static List<ApiRoutingRef> map(RoutingSpecList rsList)
 	{
 		List<ApiRoutingRef> refs = new ArrayList<>();
@@ -210,6 +222,64 @@ public final class RoutingResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("routingbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several complete Routing Specs",
+			description = "Reads the routing specs with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/routingbatch?ids=20,21",
+			operationId = "getRoutingBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the routing specs",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiRouting.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - DECODES Routing Spec Records"}
+	)
+	public Response getRoutingBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "20,21"))
+		@QueryParam("ids") List<String> ids)
+			throws WebAppException, DbException
+	{
+		List<Long> routingIds = BatchRead.ids(ids);
+		DatabaseIO dbIo = getLegacyDatabase();
+		try
+		{
+			List<ApiRouting> ret = BatchRead.read(routingIds, id ->
+			{
+				RoutingSpec spec = new RoutingSpec();
+				spec.setId(DbKey.createDbKey(id));
+				try
+				{
+					dbIo.readRoutingSpec(spec);
+				}
+				catch(DatabaseException ex)
+				{
+					if((ex instanceof ValueNotFoundException) || (ex.getCause() instanceof ValueNotFoundException))
+					{
+						return null;
+					}
+					throw ex;
+				}
+				return map(spec);
+			});
+			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+		}
+		catch(DatabaseException ex)
+		{
+			throw new DbException("Unable to retrieve routing specs by ID", ex);
+		}
+		finally
+		{
+			dbIo.close();
+		}
+	}
+
 	static ApiRouting map(RoutingSpec spec)
 	{
 		ApiRouting routing = new ApiRouting();
@@ -383,6 +453,7 @@ public final class RoutingResources extends OpenDcsResource
 		{
 			RoutingSpec spec = map(routing);
 			dbIo.writeRoutingSpec(spec);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.ROUTING_SPECS);
 			return Response.status(HttpServletResponse.SC_CREATED).entity(map(spec)).build();
 		}
 		catch(DatabaseException ex)
@@ -435,7 +506,7 @@ public final class RoutingResources extends OpenDcsResource
 			spec.setProperties(mapRoutingSpecProperties(routing));
 			if(routing.getDataSourceId() != null)
 			{
-				DataSource dataSource = new DataSource();
+				decodes.db.DataSource dataSource = new decodes.db.DataSource();
 				if(routing.getDataSourceId() != null)
 				{
 					dataSource.setId(DbKey.createDbKey(routing.getDataSourceId()));
@@ -566,6 +637,7 @@ public final class RoutingResources extends OpenDcsResource
 			RoutingSpec spec = new RoutingSpec();
 			spec.setId(DbKey.createDbKey(routingId));
 			dbIo.deleteRoutingSpec(spec);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.ROUTING_SPECS);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT)
 					.entity(String.format("RoutingSpec with ID: %d deleted", routingId)).build();
 		}
@@ -857,6 +929,9 @@ public final class RoutingResources extends OpenDcsResource
 	@Operation(
 			summary = "This method allows a developer to implement a web version of the OpenDCS Routing Monitor screen.",
 			description = "Sample URL:\n  \n    http://localhost:8080/odcsapi/routingstatus\n  \n"
+					+ "The status is refreshed in the background every few seconds and shared by all clients. "
+					+ "Send the returned ETag in If-None-Match to get 304 Not Modified while it is unchanged, "
+					+ "or use GET monitor/stream to receive only the changes.\n  \n"
 					+ "The returned data structure is shown below. Note the following:\n  \n"
 					+ "* All routing specs are contained in the list regardless of whether they have a "
 					+ "schedule entry assigned. No schedule entry is indicated by scheduleEntryId = null.\n  \n"
@@ -908,27 +983,39 @@ public final class RoutingResources extends OpenDcsResource
 					@ApiResponse(responseCode = "200", description = "Successfully retrieved routing statistics",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
 									array = @ArraySchema(schema = @Schema(implementation = ApiRoutingStatus.class)))),
-					@ApiResponse(responseCode = "500", description = "Database error occurred")
+					@ApiResponse(responseCode = "304", description = "Routing status unchanged since the given ETag"),
+					@ApiResponse(responseCode = "500", description = "Database error occurred"),
+					@ApiResponse(responseCode = "503", description = "Every monitor view kept is streamed")
 			},
 			tags = {"OpenDCS Process Monitor and Control (Routing)"}
 	)
 	public Response getRoutingStats()
-			throws DbException
+			throws DbException, WebAppException
 	{
-		DatabaseIO dbIo = getLegacyDatabase();
-		try
-		{
-			return Response.status(HttpServletResponse.SC_OK)
-					.entity(map(dbIo.readRoutingSpecStatus())).build();
-		}
-		catch(DatabaseException ex)
-		{
-			throw new DbException("Unable to retrieve routing status", ex);
-		}
-		finally
+		return MonitorSnapshotter.forOrganization(organizationId)
+				.get(routingStatusView(getDataSource(), organizationId))
+				.toResponse(this::evaluatePreconditions);
+	}
+
+	static MonitorSnapshotter.View<ApiRoutingStatus> routingStatusView(DataSource dataSource,
+			String organization)
+	{
+		return new MonitorSnapshotter.View<>("routingstatus", () ->
 		{
-			dbIo.close();
-		}
+			DatabaseIO dbIo = getLegacyDatabase(dataSource, organization);
+			try
+			{
+				return map(dbIo.readRoutingSpecStatus());
+			}
+			catch(DatabaseException ex)
+			{
+				throw new DbException("Unable to retrieve routing status", ex);
+			}
+			finally
+			{
+				dbIo.close();
+			}
+		}, status -> status.getRoutingSpecId() + ":" + status.getScheduleEntryId() + ":" + status.getName());
 	}
 
 	static List<ApiRoutingStatus> map(List<RoutingStatus> entries)
@@ -1103,7 +1190,12 @@ public final class RoutingResources extends OpenDcsResource
 					+ "*  **backlog** (*string*): either the word 'last' or one of the valid interval names "
 					+ "returned in GET intervals (see section 3.4.1). Only events generated since the specified "
 					+ "interval are returned. The word 'last' means only return events generated since the last "
-					+ "'GET dacqevents' call within this session. It can be used to approximate a real-time stream. \n  \n"
+					+ "'GET dacqevents' call within this session. It is deprecated and only works while the client "
+					+ "holds a session; use 'GET dacqevents/stream' for a real-time stream. \n  \n"
+					+ "*  **afterid** (*long integer*): only return events with a larger event id. Clients pass the "
+					+ "largest eventId of the previous response to poll for new events. Unlike backlog=last this "
+					+ "does not need a session, so it also works with stateless authorization. It takes precedence "
+					+ "over backlog.\n  \n"
 					+ "The returned data looks like this:\n  \n```\n  [\n    {\n      \"eventId\": 181646,\n      "
 					+ "\"routingExecId\": 607,\n      \"platformId\": null,\n      "
 					+ "\"eventTime\": \"2023-06-08T19:21:15.255Z[UTC]\",\n      "
@@ -1143,9 +1235,13 @@ public final class RoutingResources extends OpenDcsResource
 			@Parameter(description = "Either the word 'last' or one of the valid interval names returned in " +
 					"GET intervals (see section 3.4.1). Only events generated since the specified interval " +
 					"are returned. The word 'last' means only return events generated since the last " +
-					"'GET dacqevents' call within this session. It can be used to approximate a real-time stream.",
+					"'GET dacqevents' call within this session. Deprecated, use afterid or GET dacqevents/stream.",
 					example = "15Minutes", schema = @Schema(implementation = String.class))
-			@QueryParam("backlog") String backlog)
+			@QueryParam("backlog") String backlog,
+			@Parameter(description = "Only return events with a larger event id, typically the largest eventId of "
+					+ "the previous response. Replaces backlog=last for clients without a session.",
+					example = "181646", schema = @Schema(implementation = Long.class))
+			@QueryParam("afterid") Long afterId)
 			throws DbException, MissingParameterException
 	{
 		if(appId == null || routingExecId == null || platformId == null)
@@ -1176,16 +1272,26 @@ public final class RoutingResources extends OpenDcsResource
 
 		try(DacqEventDAI dai = getLegacyTimeseriesDB().makeDacqEventDAO())
 		{
-			HttpSession session = request.getSession(true);
+			// Polling must not create a session per client, 'last' only applies to clients that already have one
+			HttpSession session = request.getSession(false);
 			ArrayList<DacqEvent> events = new ArrayList<>();
-			Map<String, Object> backlogMap = handleBacklog(backlog, session);
+			Map<String, Object> backlogMap = handleBacklog(backlog, afterId, session);
 			boolean backLogValid = (boolean) backlogMap.get("backLogValid");
 			Long dacqEventId = (Long) backlogMap.get("dacqEventId");
 			Long timeInMillis = (Long) backlogMap.get("timeInMillis");
 			dai.readEvents(events, DbKey.createDbKey(appId), DbKey.createDbKey(routingExecId),
 					DbKey.createDbKey(platformId), backLogValid, dacqEventId, timeInMillis);
+			List<ApiDacqEvent> returnList = events.stream().map(RoutingResources::map).collect(Collectors.toList());
+			if(session != null)
+			{
+				returnList.stream()
+						.map(ApiDacqEvent::getEventId)
+						.filter(Objects::nonNull)
+						.max(Long::compare)
+						.ifPresent(id -> session.setAttribute(LAST_DACQ_ATTRIBUTE, id));
+			}
 			return Response.status(HttpServletResponse.SC_OK)
-					.entity(events.stream().map(RoutingResources::map).collect(Collectors.toList())).build();
+					.entity(returnList).build();
 		}
 		catch(DbIoException ex)
 		{
@@ -1193,14 +1299,110 @@ public final class RoutingResources extends OpenDcsResource
 		}
 	}
 
-	Map<String, Object> handleBacklog(String backlog, HttpSession session) throws DbIoException
+	@GET
+	@Path("dacqevents/stream")
+	@Produces(MediaType.SERVER_SENT_EVENTS)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Streams new data acquisition events as Server-Sent Events",
+			description = "Sample URL:\n  \n    "
+					+ "http://localhost:8080/odcsapi/dacqevents/stream?appid=26\n  \n"
+					+ "Opens a text/event-stream that delivers each new DACQ_EVENT as it is stored. Every message "
+					+ "has the event id as its id, the event name 'dacqevent' and the event in the format of "
+					+ "'GET dacqevents' as data:\n  \n```\nid: 181646\nevent: dacqevent\ndata: {\"eventId\": 181646, "
+					+ "\"routingExecId\": 607, \"appId\": 26, \"priority\": \"INFO\", ...}\n```\n  \n"
+					+ "The optional appid, routingexecid and platformid arguments restrict the stream to the matching "
+					+ "events. Without a Last-Event-ID header only new events are sent. A browser EventSource "
+					+ "reconnects with the id of the last event it received and gets the events it missed. "
+					+ "If the missed events can no longer be replayed, the stream starts with a 'reset' event "
+					+ "holding that id and the client should reload the events with 'GET dacqevents':\n  \n```\n"
+					+ "event: reset\ndata: {\"lastEventId\": 181646}\n```\n  \n"
+					+ "All clients of an organization share one reader of the DACQ_EVENT table. A client that falls "
+					+ "too far behind is disconnected and should reconnect with its last event id. Every open stream "
+					+ "holds a server thread, the number of open streams is limited by the "
+					+ "opendcs.rest.api.dacqevents.max.streams property (default 100).",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Event stream opened",
+							content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS,
+									schema = @Schema(implementation = ApiDacqEvent.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid Last-Event-ID header"),
+					@ApiResponse(responseCode = "500", description = "Database error occurred"),
+					@ApiResponse(responseCode = "503", description = "Too many event streams are open")
+			},
+			tags = {"OpenDCS Process Monitor and Control (Routing)"}
+	)
+	public Response streamDacqEvents(@Parameter(description = "Only stream events generated by a specific app.",
+					example = "26", schema = @Schema(implementation = Long.class))
+			@QueryParam("appid") Long appId,
+			@Parameter(description = "Only stream events generated during a specific execution of a routing spec.",
+					example = "64", schema = @Schema(implementation = Long.class))
+			@QueryParam("routingexecid") Long routingExecId,
+			@Parameter(description = "Only stream events generated during the processing of a specific platform.",
+					example = "45", schema = @Schema(implementation = Long.class))
+			@QueryParam("platformid") Long platformId,
+			@Parameter(description = "Id of the last event received, the stream resumes after it.",
+					example = "181646", schema = @Schema(implementation = Long.class))
+			@HeaderParam(LAST_EVENT_ID_HEADER) String lastEventId)
+			throws DbException, WebAppException
+	{
+		Long resumeAfter = null;
+		if(lastEventId != null && !lastEventId.isBlank())
+		{
+			try
+			{
+				resumeAfter = Long.parseLong(lastEventId.trim());
+			}
+			catch(NumberFormatException ex)
+			{
+				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+						"Invalid " + LAST_EVENT_ID_HEADER + " header: " + lastEventId, ex);
+			}
+		}
+		DataSource dataSource = getDataSource();
+		String organization = organizationId;
+		try
+		{
+			DacqEventFeed.Subscription subscription = DacqEventFeed.subscribe(organization,
+					(after, since) -> readDacqEvents(dataSource, organization, after, since),
+					DacqEventFeed.filter(appId, routingExecId, platformId), resumeAfter);
+			return Response.status(HttpServletResponse.SC_OK)
+					.entity(new DacqEventStreamingOutput(subscription))
+					.header(HttpHeaders.CACHE_CONTROL, "no-cache")
+					// Keeps reverse proxies from buffering the stream
+					.header("X-Accel-Buffering", "no")
+					.build();
+		}
+		catch(DbIoException ex)
+		{
+			throw new DbException("Unable to retrieve dacq events", ex);
+		}
+	}
+
+	private static List<ApiDacqEvent> readDacqEvents(DataSource dataSource, String organization,
+			Long afterEventId, Long sinceMillis) throws DbIoException
+	{
+		try(DacqEventDAI dai = getLegacyTimeseriesDB(dataSource, organization).makeDacqEventDAO())
+		{
+			ArrayList<DacqEvent> events = new ArrayList<>();
+			dai.readEvents(events, DbKey.NullKey, DbKey.NullKey, DbKey.NullKey, true, afterEventId, sinceMillis);
+			return events.stream().map(RoutingResources::map).collect(Collectors.toList());
+		}
+	}
+
+	Map<String, Object> handleBacklog(String backlog, Long afterId, HttpSession session) throws DbIoException
 	{
 		Map<String, Object> backlogMap = new HashMap<>();
-		Object lastDacqEventId = session.getAttribute(LAST_DACQ_ATTRIBUTE);
+		Object lastDacqEventId = session == null ? null : session.getAttribute(LAST_DACQ_ATTRIBUTE);
 		boolean backLogValid = false;
 		Long dacqEventId = null;
 		Long timeInMillis = null;
-		if(backlog != null && !backlog.trim().isEmpty())
+		if(afterId != null)
+		{
+			// The client keeps the position itself, no session needed
+			backLogValid = true;
+			dacqEventId = afterId;
+		}
+		else if(backlog != null && !backlog.trim().isEmpty())
 		{
 			backLogValid = true;
 			if(backlog.equalsIgnoreCase("last"))
@@ -1212,25 +1414,20 @@ public final class RoutingResources extends OpenDcsResource
 			}
 			else
 			{
-				try(IntervalDAI intDai = getLegacyTimeseriesDB().makeIntervalDAO())
+				Interval intV = IntervalRegistry.forOrganization(organizationId)
+						.get(backlog, IntervalRegistry.Loader.of(this::getLegacyTimeseriesDB));
+				if(intV != null)
 				{
-					intDai.loadAllIntervals();
-					String[] intervalCodes = intDai.getValidIntervalCodes();
-					for(String intervalCode : intervalCodes)
+					Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+					cal.setTimeInMillis(System.currentTimeMillis());
+					int calConstant = intV.getCalConstant();
+					if(calConstant != -1)
 					{
-						Interval intV = IntervalCodes.getInterval(intervalCode);
-						if(intV != null && backlog.equalsIgnoreCase(intV.getName()))
+						cal.add(calConstant, -intV.getCalMultiplier());
+						timeInMillis = cal.getTimeInMillis();
+						if(session != null)
 						{
-							Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-							cal.setTimeInMillis(System.currentTimeMillis());
-							int calConstant = intV.getCalConstant();
-							if(calConstant != -1)
-							{
-								cal.add(calConstant, -intV.getCalMultiplier());
-								timeInMillis = cal.getTimeInMillis();
-								session.removeAttribute(LAST_DACQ_ATTRIBUTE);
-							}
-							break;
+							session.removeAttribute(LAST_DACQ_ATTRIBUTE);
 						}
 					}
 				}
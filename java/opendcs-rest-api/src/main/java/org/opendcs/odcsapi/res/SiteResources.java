@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Properties;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -39,6 +40,7 @@ import jakarta.ws.rs.core.Response;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -82,19 +84,21 @@ public final class SiteResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-									array = @ArraySchema(schema = @Schema(implementation = ApiSiteRef.class)))),
+									array = @ArraySchema(schema = @Schema(implementation = ApiSiteRef.class))),
+							headers = @Header(name = RefListQuery.TOTAL_COUNT_HEADER,
+								description = "Number of matching references", schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset, limit, sort or filter"),
 					@ApiResponse(responseCode = "500", description = "Internal server error")
 			}
 	)
-	public Response getSiteRefs()
-			throws DbException
+	public Response getSiteRefs(@BeanParam RefListQuery query)
+			throws DbException, WebAppException
 	{
 		try (SiteDAI dai = getLegacyTimeseriesDB().makeSiteDAO())
 		{
 			SiteList sites = new SiteList();
 			dai.read(sites);
-			List<ApiSiteRef> siteRefs = map(sites);
-			return Response.status(HttpServletResponse.SC_OK).entity(siteRefs).build();
+			return query.apply(map(sites), SITE_REF_FIELDS).toResponse();
 		}
 		catch (DbIoException ex)
 		{
@@ -102,6 +106,11 @@ public final class SiteResources extends OpenDcsResource
 		}
 	}
 
+	static final RefListQuery.Fields<ApiSiteRef> SITE_REF_FIELDS = RefListQuery.fields(ApiSiteRef.class)
+			.add("siteId", ApiSiteRef::getSiteId)
+			.add("publicName", ApiSiteRef::getPublicName)
+			.add("description", ApiSiteRef::getDescription);
+
 	static List<ApiSiteRef> map(SiteList sites)
 	{
 		List<ApiSiteRef> retList = new ArrayList<>();
@@ -182,6 +191,58 @@ public final class SiteResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("sitebatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns several complete DECODES Site records",
+			description = "Reads the sites with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/sitebatch?ids=3,4,5",
+			operationId = "getSiteBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the sites",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiSite.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"REST - DECODES Site Records"}
+	)
+	public Response getSiteBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "3,4,5"))
+		@QueryParam("ids") List<String> ids)
+	throws WebAppException, DbException
+	{
+		List<Long> siteIds = BatchRead.ids(ids);
+		try (SiteDAI dai = getLegacyTimeseriesDB().makeSiteDAO();
+			 PropertiesDAI propsDai = getLegacyTimeseriesDB().makePropertiesDAO())
+		{
+			List<ApiSite> ret = BatchRead.read(siteIds, id ->
+			{
+				DbKey siteKey = DbKey.createDbKey(id);
+				Site site;
+				try
+				{
+					site = dai.getSiteById(siteKey);
+				}
+				catch (NoSuchObjectException ex)
+				{
+					return null;
+				}
+				Properties props = new Properties();
+				propsDai.readProperties("SITE_PROPERTY", "SITE_ID", siteKey, props);
+				return map(site, props);
+			});
+			return Response.status(HttpServletResponse.SC_OK).entity(ret).build();
+		}
+		catch(DbIoException ex)
+		{
+			throw new DbException("Unable to retrieve sites by ID", ex);
+		}
+	}
+
 	static ApiSite map(Site site, Properties properties)
 	{
 		ApiSite returnSite = new ApiSite();
@@ -343,6 +404,8 @@ public final class SiteResources extends OpenDcsResource
 				throw new MissingParameterException("Missing required siteid parameter.");
 			}
 			dai.deleteSite(DbKey.createDbKey(siteId));
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.PLATFORMS);
+			ReferenceIndex.invalidate(organizationId, ReferenceIndex.Source.TIME_SERIES);
 			return Response.status(HttpServletResponse.SC_NO_CONTENT)
 					.entity("ID " + siteId + " deleted").build();
 		}
@@ -0,0 +1,231 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import decodes.tsdb.CTimeSeries;
+import decodes.tsdb.NoSuchObjectException;
+import decodes.tsdb.TimeSeriesDb;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesBatchResult;
+import org.opendcs.odcsapi.dao.BackgroundExecutors;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Retrieves several time series concurrently and streams them back as one JSON array of
+ * {@link ApiTimeSeriesBatchResult}, in the order the keys were requested.
+ * <p>
+ * Retrieval runs on a pool shared by all requests, so the number of connections taken from the data source for
+ * batch reads is bounded by {@value #PARALLELISM_PROPERTY} (default {@value #DEFAULT_PARALLELISM}). Each request
+ * reads at most {@value #WINDOW_PROPERTY} (default {@value #DEFAULT_WINDOW}) series ahead of the one being
+ * written, so a large batch neither holds all of its series in memory nor keeps other requests waiting behind it.
+ * The pool queues at most {@value #QUEUE_PROPERTY} (default {@value #DEFAULT_QUEUE}) reads; a request that can
+ * not queue its first read is answered with 503. A series that cannot be read is reported with its own status and
+ * message and does not fail the other series.
+ */
+final class TimeSeriesBatchStreamingOutput implements StreamingOutput
+{
+	static final String PARALLELISM_PROPERTY = "opendcs.rest.api.tsdata.batch.parallelism";
+	static final String WINDOW_PROPERTY = "opendcs.rest.api.tsdata.batch.window";
+	static final String QUEUE_PROPERTY = "opendcs.rest.api.tsdata.batch.queue";
+	static final int DEFAULT_PARALLELISM = 4;
+	static final int DEFAULT_WINDOW = 4;
+	static final int DEFAULT_QUEUE = 64;
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final ExecutorService EXECUTOR = BackgroundExecutors.register(createExecutor(
+			Integer.getInteger(PARALLELISM_PROPERTY, DEFAULT_PARALLELISM),
+			Integer.getInteger(QUEUE_PROPERTY, DEFAULT_QUEUE)));
+	private static final int WINDOW = Math.max(1, Integer.getInteger(WINDOW_PROPERTY, DEFAULT_WINDOW));
+
+	private final ExecutorService executor;
+	private final int window;
+	private final TimeSeriesDb tsdb;
+	private final List<Long> keys;
+	/**
+	 * Reads of the keys from the one being written up to {@link #submitted}, in key order.
+	 */
+	private final Deque<Future<CTimeSeries>> inFlight = new ArrayDeque<>();
+	private final Date start;
+	private final Date end;
+	private final TimeSeriesDownsampler downsampler;
+	private int submitted;
+
+	private TimeSeriesBatchStreamingOutput(ExecutorService executor, int window, TimeSeriesDb tsdb, List<Long> keys,
+			Date start, Date end, TimeSeriesDownsampler downsampler)
+	{
+		this.executor = executor;
+		this.window = window;
+		this.tsdb = tsdb;
+		this.keys = keys;
+		this.start = start;
+		this.end = end;
+		this.downsampler = downsampler;
+	}
+
+	/**
+	 * Start retrieving the first time series on the shared pool. Retrieval proceeds while the response is being
+	 * prepared.
+	 * @throws WebAppException with 503 if the pool is saturated
+	 */
+	static TimeSeriesBatchStreamingOutput submit(TimeSeriesDb tsdb, Collection<Long> keys, Date start, Date end,
+			TimeSeriesDownsampler downsampler) throws WebAppException
+	{
+		return submit(EXECUTOR, WINDOW, tsdb, keys, start, end, downsampler);
+	}
+
+	static TimeSeriesBatchStreamingOutput submit(ExecutorService executor, int window, TimeSeriesDb tsdb,
+			Collection<Long> keys, Date start, Date end, TimeSeriesDownsampler downsampler) throws WebAppException
+	{
+		TimeSeriesBatchStreamingOutput ret = new TimeSeriesBatchStreamingOutput(executor, window, tsdb,
+				new ArrayList<>(keys), start, end, downsampler);
+		ret.fill();
+		if (ret.inFlight.isEmpty() && !ret.keys.isEmpty())
+		{
+			throw new WebAppException(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+					"Too many time series batch reads in progress, try again later.");
+		}
+		return ret;
+	}
+
+	/**
+	 * Submit the reads of the next keys until the window is full or the pool rejects one.
+	 */
+	private void fill()
+	{
+		while (inFlight.size() < window && submitted < keys.size())
+		{
+			long key = keys.get(submitted);
+			try
+			{
+				inFlight.add(executor.submit(() -> TimeSeriesResources.readTimeSeries(tsdb, key, start, end)));
+			}
+			catch (RejectedExecutionException ex)
+			{
+				return;
+			}
+			submitted++;
+		}
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException
+	{
+		try (JsonGenerator gen = TimeSeriesDataStreamingOutput.createGenerator(output))
+		{
+			gen.writeStartArray();
+			for (int i = 0; i < keys.size(); i++)
+			{
+				fill();
+				Future<CTimeSeries> future = inFlight.poll();
+				if (future == null)
+				{
+					// The pool rejected the read of this key even with nothing of this request in flight
+					submitted++;
+					writeUnavailable(gen, keys.get(i));
+				}
+				else
+				{
+					writeResult(gen, keys.get(i), future);
+				}
+			}
+			gen.writeEndArray();
+		}
+		finally
+		{
+			// Only relevant when the client went away, reads that already started are left to finish normally
+			inFlight.forEach(f -> f.cancel(false));
+			inFlight.clear();
+		}
+	}
+
+	private static void writeUnavailable(JsonGenerator gen, long key) throws IOException
+	{
+		gen.writeStartObject();
+		gen.writeNumberField("key", key);
+		gen.writeNumberField("status", HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		gen.writeStringField("message", "Too many time series batch reads in progress");
+		gen.writeEndObject();
+	}
+
+	private void writeResult(JsonGenerator gen, long key, Future<CTimeSeries> future) throws IOException
+	{
+		gen.writeStartObject();
+		gen.writeNumberField("key", key);
+		try
+		{
+			CTimeSeries cts = future.get();
+			gen.writeNumberField("status", HttpServletResponse.SC_OK);
+			new TimeSeriesDataStreamingOutput(cts, start, end, downsampler).writeFields(gen);
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof NoSuchObjectException)
+			{
+				gen.writeNumberField("status", HttpServletResponse.SC_NOT_FOUND);
+				gen.writeStringField("message", "Time series with key=" + key + " not found");
+			}
+			else
+			{
+				log.warn("Unable to retrieve time series data for key={}", key, ex.getCause());
+				gen.writeNumberField("status", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+				gen.writeStringField("message", "Unable to retrieve time series data");
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for time series key=" + key);
+		}
+		gen.writeEndObject();
+	}
+
+	private static ExecutorService createExecutor(int parallelism, int queueSize)
+	{
+		AtomicInteger threadCount = new AtomicInteger();
+		// A full queue rejects new reads instead of letting them wait without bound
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueSize), r ->
+		{
+			Thread thread = new Thread(r, "tsdata-batch-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Idle threads exit so the pool holds nothing between requests
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+}
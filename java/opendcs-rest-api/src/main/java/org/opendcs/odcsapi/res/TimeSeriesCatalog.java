@@ -0,0 +1,480 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import decodes.tsdb.DbIoException;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesIdentifier;
+import org.opendcs.odcsapi.dao.BackgroundExecutors;
+import org.opendcs.odcsapi.dao.OrganizationRegistry;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * In memory catalog of the time series identifiers of one organization, answering tsrefs searches without
+ * touching the database.
+ * <p>
+ * The catalog holds an immutable snapshot sorted case-insensitively by unique string, so a prefix is found with a
+ * binary search, and one index per dotted segment of the unique string. The first request for an organization loads
+ * the catalog; afterwards it is refreshed in the background every {@value #REFRESH_PROPERTY} (default 5 minutes,
+ * zero disables the refresh). A refresh reuses the entries of identifiers that did not change and keeps the previous
+ * snapshot if nothing changed at all. Catalogs not searched for {@value #IDLE_TIMEOUT_PROPERTY} (default 1 hour)
+ * are dropped and loaded again on the next request.
+ */
+final class TimeSeriesCatalog
+{
+	static final String REFRESH_PROPERTY = "opendcs.rest.api.tsrefs.catalog.refresh";
+	static final String IDLE_TIMEOUT_PROPERTY = "opendcs.rest.api.tsrefs.catalog.idle.timeout";
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final Duration REFRESH_PERIOD = OrganizationRegistry.durationProperty(REFRESH_PROPERTY, "PT5M");
+	private static final long IDLE_TIMEOUT_NANOS =
+			OrganizationRegistry.durationProperty(IDLE_TIMEOUT_PROPERTY, "PT1H").toNanos();
+	private static final OrganizationRegistry<TimeSeriesCatalog> catalogs = new OrganizationRegistry<>();
+	private static final ScheduledExecutorService refresher =
+			BackgroundExecutors.newScheduler("tsrefs-catalog-refresh");
+
+	/**
+	 * Dotted segments of a time series unique string, in the order they are written.
+	 */
+	enum Segment
+	{
+		LOCATION, PARAM, PARAM_TYPE, INTERVAL, DURATION, VERSION
+	}
+
+	@FunctionalInterface
+	interface Loader
+	{
+		List<ApiTimeSeriesIdentifier> load() throws DbIoException;
+	}
+
+	record Page(List<ApiTimeSeriesIdentifier> items, int total)
+	{
+	}
+
+	private final Loader loader;
+	private volatile Snapshot snapshot;
+	private volatile boolean accessed;
+	private long lastAccess;
+	private ScheduledFuture<?> refreshTask;
+
+	TimeSeriesCatalog(Loader loader)
+	{
+		this.loader = loader;
+	}
+
+	/**
+	 * Return the loaded catalog of the organization, loading it with the loader if there is none yet.
+	 * @param organization organization id, may be null
+	 * @param loader lists the identifiers of the organization, used for the first load and every later refresh
+	 * @throws DbIoException if the first load fails; nothing is registered and the next call tries again
+	 */
+	static TimeSeriesCatalog forOrganization(String organization, Loader loader) throws DbIoException
+	{
+		TimeSeriesCatalog catalog = catalogs.computeIfAbsent(organization, o -> new TimeSeriesCatalog(loader));
+		if (catalog.snapshot == null)
+		{
+			catalog.initialize(organization);
+		}
+		return catalog;
+	}
+
+	private synchronized void initialize(String organization) throws DbIoException
+	{
+		if (snapshot != null)
+		{
+			return;
+		}
+		try
+		{
+			refresh();
+		}
+		catch (DbIoException | RuntimeException ex)
+		{
+			catalogs.remove(organization, this);
+			throw ex;
+		}
+		long period = REFRESH_PERIOD.toNanos();
+		if (period > 0)
+		{
+			lastAccess = System.nanoTime();
+			refreshTask = refresher.scheduleWithFixedDelay(() -> refreshInBackground(organization), period, period,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void refreshInBackground(String organization)
+	{
+		// Searches only set a flag, the clock is read here
+		long now = System.nanoTime();
+		if (accessed)
+		{
+			accessed = false;
+			lastAccess = now;
+		}
+		else if (now - lastAccess > IDLE_TIMEOUT_NANOS)
+		{
+			log.debug("Dropping idle time series catalog for organization '{}'.", organization);
+			catalogs.remove(organization, this);
+			refreshTask.cancel(false);
+			return;
+		}
+		try
+		{
+			refresh();
+		}
+		catch (DbIoException | RuntimeException ex)
+		{
+			// An exception would cancel the scheduled refresh, the previous snapshot is served until the next one
+			log.warn("Unable to refresh the time series catalog for organization '{}'.", organization, ex);
+		}
+	}
+
+	/**
+	 * Load the identifiers and replace the snapshot if any of them changed.
+	 */
+	synchronized void refresh() throws DbIoException
+	{
+		List<ApiTimeSeriesIdentifier> ids = loader.load();
+		Snapshot previous = snapshot;
+		Snapshot next = Snapshot.build(ids, previous);
+		if (next != previous)
+		{
+			snapshot = next;
+			log.debug("Time series catalog updated with {} identifiers.", ids.size());
+		}
+	}
+
+	/**
+	 * Find the identifiers matching the filter, ordered case-insensitively by unique string.
+	 * @param offset number of matching identifiers to skip
+	 * @param limit maximum number of identifiers to return
+	 * @return the requested identifiers and the total number of matches
+	 */
+	Page find(Filter filter, int offset, int limit)
+	{
+		accessed = true;
+		Snapshot current = snapshot;
+		List<ApiTimeSeriesIdentifier> items = new ArrayList<>(Math.min(limit, 1024));
+		String prefix = filter.rangePrefix();
+		if (current == null || prefix == null)
+		{
+			return new Page(items, 0);
+		}
+		int start = current.lowerBound(prefix);
+		int[] positions = current.narrowestPostings(filter);
+		int total = 0;
+		int count = positions == null ? current.entries.length - start : positions.length;
+		for (int i = positions == null ? 0 : lowerBound(positions, start); i < count; i++)
+		{
+			Entry entry = current.entries[positions == null ? start + i : positions[i]];
+			if (!entry.name.startsWith(prefix))
+			{
+				break;
+			}
+			if (filter.matches(entry))
+			{
+				if (total >= offset && items.size() < limit)
+				{
+					items.add(entry.id);
+				}
+				total++;
+			}
+		}
+		return new Page(items, total);
+	}
+
+	int size()
+	{
+		Snapshot current = snapshot;
+		return current == null ? 0 : current.entries.length;
+	}
+
+	private static int lowerBound(int[] positions, int value)
+	{
+		int low = 0;
+		int high = positions.length;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (positions[mid] < value)
+			{
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static String lower(String value)
+	{
+		return value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Search criteria for {@link #find}. All text comparisons ignore case.
+	 */
+	static final class Filter
+	{
+		private final String[] segments = new String[Segment.values().length];
+		private String prefix = "";
+		private Pattern pattern;
+		private String patternPrefix = "";
+		private boolean activeOnly;
+
+		/**
+		 * Only identifiers whose unique string starts with the prefix.
+		 */
+		Filter prefix(String prefix)
+		{
+			this.prefix = prefix == null ? "" : lower(prefix);
+			return this;
+		}
+
+		/**
+		 * Only identifiers whose whole unique string matches the wildcard pattern, where {@code *} matches any
+		 * number of characters and {@code ?} exactly one.
+		 */
+		Filter pattern(String glob)
+		{
+			if (glob == null)
+			{
+				pattern = null;
+				patternPrefix = "";
+				return this;
+			}
+			String lowerGlob = lower(glob);
+			pattern = RefListQuery.glob(lowerGlob);
+			int wildcard = 0;
+			while (wildcard < lowerGlob.length() && lowerGlob.charAt(wildcard) != '*' && lowerGlob.charAt(wildcard) != '?')
+			{
+				wildcard++;
+			}
+			patternPrefix = lowerGlob.substring(0, wildcard);
+			return this;
+		}
+
+		/**
+		 * Only identifiers with exactly this value in the segment.
+		 */
+		Filter segment(Segment segment, String value)
+		{
+			segments[segment.ordinal()] = value == null ? null : lower(value);
+			return this;
+		}
+
+		Filter activeOnly(boolean activeOnly)
+		{
+			this.activeOnly = activeOnly;
+			return this;
+		}
+
+		/**
+		 * @return the prefix all matches share, null if the prefix and pattern can not both match
+		 */
+		private String rangePrefix()
+		{
+			if (prefix.startsWith(patternPrefix))
+			{
+				return prefix;
+			}
+			return patternPrefix.startsWith(prefix) ? patternPrefix : null;
+		}
+
+		private boolean matches(Entry entry)
+		{
+			if (activeOnly && !entry.id.isActive())
+			{
+				return false;
+			}
+			for (int i = 0; i < segments.length; i++)
+			{
+				if (segments[i] != null && !segments[i].equals(entry.segments[i]))
+				{
+					return false;
+				}
+			}
+			return pattern == null || pattern.matcher(entry.name).matches();
+		}
+	}
+
+	private static final class Entry
+	{
+		private final ApiTimeSeriesIdentifier id;
+		private final String name;
+		private final String[] segments;
+
+		private Entry(ApiTimeSeriesIdentifier id)
+		{
+			this.id = id;
+			this.name = id.getUniqueString() == null ? "" : lower(id.getUniqueString());
+			// The version is the last segment and may itself contain dots
+			this.segments = Arrays.copyOf(name.split("\\.", Segment.values().length), Segment.values().length);
+		}
+
+		private boolean sameAs(ApiTimeSeriesIdentifier other)
+		{
+			return Objects.equals(id.getUniqueString(), other.getUniqueString())
+					&& Objects.equals(id.getDescription(), other.getDescription())
+					&& Objects.equals(id.getStorageUnits(), other.getStorageUnits())
+					&& id.isActive() == other.isActive();
+		}
+	}
+
+	private static final class Snapshot
+	{
+		private static final int[] NO_POSITIONS = new int[0];
+
+		private final Entry[] entries;
+		private final Map<Long, Entry> byKey;
+		// Per segment, the ascending positions of the entries with each value
+		private final List<Map<String, int[]>> index;
+
+		private Snapshot(Entry[] entries)
+		{
+			Arrays.sort(entries, Comparator.comparing((Entry e) -> e.name)
+					.thenComparing(e -> e.id.getKey(), Comparator.nullsLast(Comparator.naturalOrder())));
+			this.entries = entries;
+			this.byKey = new HashMap<>(entries.length * 2);
+			List<Map<String, PositionList>> building = new ArrayList<>();
+			for (Segment segment : Segment.values())
+			{
+				building.add(new HashMap<>());
+			}
+			for (int i = 0; i < entries.length; i++)
+			{
+				Entry entry = entries[i];
+				if (entry.id.getKey() != null)
+				{
+					byKey.put(entry.id.getKey(), entry);
+				}
+				for (int s = 0; s < entry.segments.length; s++)
+				{
+					if (entry.segments[s] != null)
+					{
+						building.get(s).computeIfAbsent(entry.segments[s], v -> new PositionList()).add(i);
+					}
+				}
+			}
+			this.index = new ArrayList<>();
+			for (Map<String, PositionList> values : building)
+			{
+				Map<String, int[]> postings = new HashMap<>(values.size() * 2);
+				values.forEach((value, positions) -> postings.put(value, positions.toArray()));
+				index.add(postings);
+			}
+		}
+
+		private static Snapshot build(List<ApiTimeSeriesIdentifier> ids, Snapshot previous)
+		{
+			Entry[] entries = new Entry[ids.size()];
+			int reused = 0;
+			for (int i = 0; i < entries.length; i++)
+			{
+				ApiTimeSeriesIdentifier id = ids.get(i);
+				Entry old = previous == null || id.getKey() == null ? null : previous.byKey.get(id.getKey());
+				if (old != null && old.sameAs(id))
+				{
+					entries[i] = old;
+					reused++;
+				}
+				else
+				{
+					entries[i] = new Entry(id);
+				}
+			}
+			if (previous != null && reused == entries.length && reused == previous.entries.length)
+			{
+				return previous;
+			}
+			return new Snapshot(entries);
+		}
+
+		private int lowerBound(String prefix)
+		{
+			int low = 0;
+			int high = entries.length;
+			while (low < high)
+			{
+				int mid = (low + high) >>> 1;
+				if (entries[mid].name.compareTo(prefix) < 0)
+				{
+					low = mid + 1;
+				}
+				else
+				{
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * @return the shortest position list of the filtered segments, null if no segment is filtered
+		 */
+		private int[] narrowestPostings(Filter filter)
+		{
+			int[] narrowest = null;
+			for (int s = 0; s < filter.segments.length; s++)
+			{
+				if (filter.segments[s] != null)
+				{
+					int[] positions = index.get(s).getOrDefault(filter.segments[s], NO_POSITIONS);
+					if (narrowest == null || positions.length < narrowest.length)
+					{
+						narrowest = positions;
+					}
+				}
+			}
+			return narrowest;
+		}
+	}
+
+	private static final class PositionList
+	{
+		private int[] positions = new int[4];
+		private int size;
+
+		private void add(int position)
+		{
+			if (size == positions.length)
+			{
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+
+		private int[] toArray()
+		{
+			return Arrays.copyOf(positions, size);
+		}
+	}
+}
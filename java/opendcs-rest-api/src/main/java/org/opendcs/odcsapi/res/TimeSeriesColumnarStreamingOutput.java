@@ -0,0 +1,67 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import decodes.tsdb.CTimeSeries;
+import org.opendcs.odcsapi.util.TimeSeriesColumnarEncoder;
+
+/**
+ * Writes the samples of a filled {@link CTimeSeries} to the response in the columnar format of
+ * {@link TimeSeriesColumnarEncoder}. Selects the same samples as {@link TimeSeriesDataStreamingOutput}.
+ */
+final class TimeSeriesColumnarStreamingOutput implements StreamingOutput
+{
+	private static final ObjectMapper MAPPER = ObjectMapperContextResolver.createObjectMapper();
+
+	private final CTimeSeries cts;
+	private final Date start;
+	private final Date end;
+	private final TimeSeriesDownsampler downsampler;
+	private final String nextPage;
+
+	/**
+	 * @param cts filled time series, samples sorted by time
+	 * @param start first sample time to write, inclusive, null for the first sample
+	 * @param end last sample time to write, inclusive, null for the last sample
+	 * @param downsampler reduces the samples written, null to write every sample
+	 * @param nextPage continuation token for the samples after end, null if there are none
+	 */
+	TimeSeriesColumnarStreamingOutput(CTimeSeries cts, Date start, Date end, TimeSeriesDownsampler downsampler,
+			String nextPage)
+	{
+		this.cts = cts;
+		this.start = start;
+		this.end = end;
+		this.downsampler = downsampler;
+		this.nextPage = nextPage;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException
+	{
+		byte[] tsid = MAPPER.writeValueAsBytes(TimeSeriesResources.map(cts.getTimeSeriesIdentifier()));
+		TimeSeriesColumnarEncoder encoder = new TimeSeriesColumnarEncoder(output, tsid);
+		TimeSeriesDataStreamingOutput.writeSamples(cts, start, end, downsampler,
+				(time, value, flags) -> encoder.write(time.getTime(), value, flags));
+		encoder.finish(nextPage);
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.util.Date;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import decodes.tsdb.CTimeSeries;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesData;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesIdentifier;
+
+/**
+ * Writes the samples of a filled {@link CTimeSeries} directly to the response as an {@link ApiTimeSeriesData}
+ * JSON document, without building the intermediate list of {@link org.opendcs.odcsapi.beans.ApiTimeSeriesValue}.
+ * <p>
+ * The output matches what Jackson produces for {@link TimeSeriesResources#dataMap(CTimeSeries, Date, Date)}.
+ * Sample times are formatted into a reused buffer, so the work per sample does not allocate beyond the
+ * generator's own buffering. With a {@link TimeSeriesDownsampler}, only the points it keeps are written.
+ */
+final class TimeSeriesDataStreamingOutput implements StreamingOutput
+{
+	private static final ObjectMapper MAPPER = ObjectMapperContextResolver.createObjectMapper();
+
+	private final ApiTimeSeriesIdentifier tsid;
+	private final CTimeSeries cts;
+	private final Date start;
+	private final Date end;
+	private final TimeSeriesDownsampler downsampler;
+	private final String nextPage;
+
+	TimeSeriesDataStreamingOutput(CTimeSeries cts, Date start, Date end)
+	{
+		this(cts, start, end, null);
+	}
+
+	TimeSeriesDataStreamingOutput(CTimeSeries cts, Date start, Date end, TimeSeriesDownsampler downsampler)
+	{
+		this(cts, start, end, downsampler, null);
+	}
+
+	/**
+	 * @param cts filled time series, samples sorted by time
+	 * @param start first sample time to write, inclusive, null for the first sample
+	 * @param end last sample time to write, inclusive, null for the last sample
+	 * @param downsampler reduces the samples written, null to write every sample
+	 * @param nextPage continuation token for the samples after end, null if there are none
+	 */
+	TimeSeriesDataStreamingOutput(CTimeSeries cts, Date start, Date end, TimeSeriesDownsampler downsampler,
+			String nextPage)
+	{
+		this.tsid = TimeSeriesResources.map(cts.getTimeSeriesIdentifier());
+		this.cts = cts;
+		this.start = start;
+		this.end = end;
+		this.downsampler = downsampler;
+		this.nextPage = nextPage;
+	}
+
+	@Override
+	public void write(OutputStream output) throws IOException
+	{
+		try (JsonGenerator gen = createGenerator(output))
+		{
+			gen.writeStartObject();
+			writeFields(gen);
+			if (nextPage != null)
+			{
+				gen.writeStringField("nextPage", nextPage);
+			}
+			gen.writeEndObject();
+		}
+	}
+
+	static JsonGenerator createGenerator(OutputStream output) throws IOException
+	{
+		JsonGenerator gen = MAPPER.getFactory().createGenerator(output);
+		// The container owns the response stream
+		gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		return gen;
+	}
+
+	/**
+	 * Write the tsid and values fields into the object the generator is currently in.
+	 */
+	void writeFields(JsonGenerator gen) throws IOException
+	{
+		gen.writeFieldName("tsid");
+		MAPPER.writeValue(gen, tsid);
+		gen.writeArrayFieldStart("values");
+		writeValues(gen);
+		gen.writeEndArray();
+	}
+
+	private void writeValues(JsonGenerator gen) throws IOException
+	{
+		writeSamples(cts, start, end, downsampler, new JsonSampleWriter(gen));
+	}
+
+	/**
+	 * Hand the numeric samples between start and end, both inclusive, to the writer, reduced by the downsampler
+	 * if there is one.
+	 */
+	static void writeSamples(CTimeSeries cts, Date start, Date end, TimeSeriesDownsampler downsampler,
+			TimeSeriesDownsampler.SampleWriter writer) throws IOException
+	{
+		int from = TimeSeriesResources.firstSampleIndex(cts, start);
+		int to = TimeSeriesResources.endSampleIndex(cts, end);
+		if (downsampler == null)
+		{
+			TimeSeriesDownsampler.writeAll(cts, from, to, writer);
+		}
+		else
+		{
+			downsampler.downsample(cts, from, to, writer);
+		}
+	}
+
+	/**
+	 * Writes each sample as an {@link org.opendcs.odcsapi.beans.ApiTimeSeriesValue} object.
+	 */
+	private static final class JsonSampleWriter implements TimeSeriesDownsampler.SampleWriter
+	{
+		private final JsonGenerator gen;
+		// SimpleDateFormat is not thread safe, each response formats with its own copy
+		private final DateFormat dateFormat = (DateFormat) MAPPER.getDateFormat().clone();
+		private final StringBuffer dateBuffer = new StringBuffer(32);
+		private final FieldPosition fieldPosition = new FieldPosition(0);
+		private char[] dateChars = new char[32];
+
+		private JsonSampleWriter(JsonGenerator gen)
+		{
+			this.gen = gen;
+		}
+
+		@Override
+		public void write(Date time, double value, long flags) throws IOException
+		{
+			dateBuffer.setLength(0);
+			dateFormat.format(time, dateBuffer, fieldPosition);
+			int length = dateBuffer.length();
+			if (length > dateChars.length)
+			{
+				dateChars = new char[length];
+			}
+			dateBuffer.getChars(0, length, dateChars, 0);
+			gen.writeStartObject();
+			gen.writeFieldName("sampleTime");
+			gen.writeString(dateChars, 0, length);
+			gen.writeNumberField("value", value);
+			gen.writeNumberField("flags", flags);
+			gen.writeEndObject();
+		}
+	}
+}
@@ -0,0 +1,334 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Locale;
+import jakarta.servlet.http.HttpServletResponse;
+
+import decodes.tsdb.CTimeSeries;
+import ilex.var.NoConversionException;
+import ilex.var.TimedVariable;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * Reduces a range of time series samples to at most a maximum number of points while walking the series.
+ * No intermediate list of samples is built; each reduced point is handed to a {@link SampleWriter} as soon as
+ * its bucket is complete.
+ * <p>
+ * Samples without a numeric value are skipped. Buckets are formed by sample count, which for regular series is
+ * the same as equal time spans.
+ */
+final class TimeSeriesDownsampler
+{
+	/**
+	 * Receives the points that remain after downsampling, in time order.
+	 */
+	@FunctionalInterface
+	interface SampleWriter
+	{
+		void write(Date time, double value, long flags) throws IOException;
+	}
+
+	enum Method
+	{
+		/**
+		 * Largest-Triangle-Three-Buckets: keeps the first and last sample and from each bucket the sample that
+		 * forms the largest triangle with the previously kept sample and the average of the next bucket.
+		 */
+		LTTB(3),
+		/**
+		 * The lowest and the highest sample of each bucket, so two points per bucket.
+		 */
+		MINMAX(2),
+		/**
+		 * The mean of each bucket at the time of its middle sample, with the flags of the bucket combined.
+		 */
+		MEAN(1);
+
+		private final int minimumPoints;
+
+		Method(int minimumPoints)
+		{
+			this.minimumPoints = minimumPoints;
+		}
+	}
+
+	private final Method method;
+	private final int maxPoints;
+
+	TimeSeriesDownsampler(Method method, int maxPoints)
+	{
+		this.method = method;
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * Build a downsampler from the request parameters.
+	 * @param maxPoints maximum number of points to return, null for no downsampling
+	 * @param method lttb, minmax or mean, null for lttb
+	 * @return the downsampler, or null if no maximum was requested
+	 * @throws WebAppException if the method is unknown or the maximum is too small for it
+	 */
+	static TimeSeriesDownsampler fromParameters(Integer maxPoints, String method) throws WebAppException
+	{
+		if (maxPoints == null)
+		{
+			return null;
+		}
+		Method m;
+		try
+		{
+			m = method == null ? Method.LTTB : Method.valueOf(method.trim().toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"Invalid downsample method '" + method + "'. Use lttb, minmax or mean.", ex);
+		}
+		if (maxPoints < m.minimumPoints)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"maxpoints must be at least " + m.minimumPoints + " for " + m.name().toLowerCase(Locale.ROOT));
+		}
+		return new TimeSeriesDownsampler(m, maxPoints);
+	}
+
+	/**
+	 * Write the samples in [from, to) of the series, reduced to at most the maximum number of points.
+	 */
+	void downsample(CTimeSeries cts, int from, int to, SampleWriter writer) throws IOException
+	{
+		if (to - from <= maxPoints)
+		{
+			writeAll(cts, from, to, writer);
+			return;
+		}
+		switch (method)
+		{
+			case MINMAX:
+				minMax(cts, from, to, writer);
+				break;
+			case MEAN:
+				mean(cts, from, to, writer);
+				break;
+			default:
+				largestTriangleThreeBuckets(cts, from, to, writer);
+				break;
+		}
+	}
+
+	/**
+	 * Write every sample in [from, to) of the series that has a numeric value.
+	 */
+	static void writeAll(CTimeSeries cts, int from, int to, SampleWriter writer) throws IOException
+	{
+		for (int i = from; i < to; i++)
+		{
+			TimedVariable tv = cts.sampleAt(i);
+			try
+			{
+				writer.write(tv.getTime(), tv.getDoubleValue(), tv.getFlags());
+			}
+			catch (NoConversionException ex)
+			{
+				// not a numeric sample, nothing to report
+			}
+		}
+	}
+
+	private void mean(CTimeSeries cts, int from, int to, SampleWriter writer) throws IOException
+	{
+		int count = to - from;
+		for (int bucket = 0; bucket < maxPoints; bucket++)
+		{
+			int bucketStart = from + (int) ((long) bucket * count / maxPoints);
+			int bucketEnd = from + (int) ((long) (bucket + 1) * count / maxPoints);
+			double sum = 0.0;
+			int numeric = 0;
+			long flags = 0;
+			for (int i = bucketStart; i < bucketEnd; i++)
+			{
+				TimedVariable tv = cts.sampleAt(i);
+				double value = value(tv);
+				if (!Double.isNaN(value))
+				{
+					sum += value;
+					numeric++;
+					flags |= tv.getFlags();
+				}
+			}
+			if (numeric > 0)
+			{
+				Date time = cts.sampleAt(bucketStart + (bucketEnd - bucketStart - 1) / 2).getTime();
+				writer.write(time, sum / numeric, flags);
+			}
+		}
+	}
+
+	private void minMax(CTimeSeries cts, int from, int to, SampleWriter writer) throws IOException
+	{
+		int buckets = maxPoints / 2;
+		int count = to - from;
+		for (int bucket = 0; bucket < buckets; bucket++)
+		{
+			int bucketStart = from + (int) ((long) bucket * count / buckets);
+			int bucketEnd = from + (int) ((long) (bucket + 1) * count / buckets);
+			int minIndex = -1;
+			int maxIndex = -1;
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = bucketStart; i < bucketEnd; i++)
+			{
+				double value = value(cts.sampleAt(i));
+				if (value < min)
+				{
+					min = value;
+					minIndex = i;
+				}
+				if (value > max)
+				{
+					max = value;
+					maxIndex = i;
+				}
+			}
+			if (minIndex < 0)
+			{
+				continue;
+			}
+			int first = Math.min(minIndex, maxIndex);
+			int second = Math.max(minIndex, maxIndex);
+			write(cts.sampleAt(first), first == minIndex ? min : max, writer);
+			if (second != first)
+			{
+				write(cts.sampleAt(second), second == minIndex ? min : max, writer);
+			}
+		}
+	}
+
+	private void largestTriangleThreeBuckets(CTimeSeries cts, int from, int to, SampleWriter writer)
+			throws IOException
+	{
+		// The first and last points are always kept, so they must be numeric
+		while (from < to && Double.isNaN(value(cts.sampleAt(from))))
+		{
+			from++;
+		}
+		while (to > from && Double.isNaN(value(cts.sampleAt(to - 1))))
+		{
+			to--;
+		}
+		if (to - from <= maxPoints)
+		{
+			writeAll(cts, from, to, writer);
+			return;
+		}
+		long origin = cts.sampleAt(from).getTime().getTime();
+		TimedVariable last = cts.sampleAt(to - 1);
+		double lastX = last.getTime().getTime() - origin;
+		double lastY = value(last);
+
+		int buckets = maxPoints - 2;
+		double bucketSize = (double) (to - from - 2) / buckets;
+		TimedVariable selected = cts.sampleAt(from);
+		double selectedX = 0.0;
+		double selectedY = value(selected);
+		write(selected, selectedY, writer);
+		for (int bucket = 0; bucket < buckets; bucket++)
+		{
+			int bucketStart = from + 1 + (int) (bucket * bucketSize);
+			int bucketEnd = Math.min(from + 1 + (int) ((bucket + 1) * bucketSize), to - 1);
+			int nextEnd = Math.min(from + 1 + (int) ((bucket + 2) * bucketSize), to);
+
+			// Average of the next bucket, the last bucket looks ahead to the last point
+			double avgX = 0.0;
+			double avgY = 0.0;
+			int numeric = 0;
+			for (int i = bucketEnd; i < nextEnd; i++)
+			{
+				TimedVariable tv = cts.sampleAt(i);
+				double value = value(tv);
+				if (!Double.isNaN(value))
+				{
+					avgX += tv.getTime().getTime() - origin;
+					avgY += value;
+					numeric++;
+				}
+			}
+			if (numeric > 0)
+			{
+				avgX /= numeric;
+				avgY /= numeric;
+			}
+			else
+			{
+				avgX = lastX;
+				avgY = lastY;
+			}
+
+			int bestIndex = -1;
+			double bestValue = Double.NaN;
+			double bestArea = -1.0;
+			for (int i = bucketStart; i < bucketEnd; i++)
+			{
+				TimedVariable tv = cts.sampleAt(i);
+				double value = value(tv);
+				if (Double.isNaN(value))
+				{
+					continue;
+				}
+				double x = tv.getTime().getTime() - origin;
+				// Twice the triangle area, only the comparison matters
+				double area = Math.abs((selectedX - avgX) * (value - selectedY) - (selectedX - x) * (avgY - selectedY));
+				if (area > bestArea)
+				{
+					bestArea = area;
+					bestIndex = i;
+					bestValue = value;
+				}
+			}
+			if (bestIndex >= 0)
+			{
+				selected = cts.sampleAt(bestIndex);
+				selectedX = selected.getTime().getTime() - origin;
+				selectedY = bestValue;
+				write(selected, selectedY, writer);
+			}
+		}
+		write(last, lastY, writer);
+	}
+
+	private static void write(TimedVariable tv, double value, SampleWriter writer) throws IOException
+	{
+		writer.write(tv.getTime(), value, tv.getFlags());
+	}
+
+	/**
+	 * @return the numeric value of the sample, NaN if it has none. NaN samples do not take part in downsampling.
+	 */
+	static double value(TimedVariable tv)
+	{
+		try
+		{
+			return tv.getDoubleValue();
+		}
+		catch (NoConversionException ex)
+		{
+			return Double.NaN;
+		}
+	}
+}
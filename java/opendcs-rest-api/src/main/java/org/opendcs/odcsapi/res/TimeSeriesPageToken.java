@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+/**
+ * Continuation token for paging through the samples of a time series. The token is opaque to clients; it holds
+ * the time series key and the time of the last sample of the previous page, so the next page starts right after
+ * it.
+ */
+final class TimeSeriesPageToken
+{
+	private static final String VERSION = "1";
+	private static final String SEPARATOR = ":";
+
+	private TimeSeriesPageToken()
+	{
+		throw new AssertionError("Utility class");
+	}
+
+	static String encode(long tsKey, Date lastSampleTime)
+	{
+		String token = VERSION + SEPARATOR + tsKey + SEPARATOR + lastSampleTime.getTime();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * @return the time of the last sample already returned for the time series
+	 * @throws WebAppException if the token is malformed or was issued for another time series
+	 */
+	static Date decode(String token, long tsKey) throws WebAppException
+	{
+		String[] parts;
+		try
+		{
+			parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII)
+					.split(SEPARATOR);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "Invalid page token.", ex);
+		}
+		if (parts.length != 3 || !VERSION.equals(parts[0]))
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "Invalid page token.");
+		}
+		try
+		{
+			if (Long.parseLong(parts[1]) != tsKey)
+			{
+				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+						"Page token does not belong to time series key=" + tsKey);
+			}
+			return new Date(Long.parseLong(parts[2]));
+		}
+		catch (NumberFormatException ex)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "Invalid page token.", ex);
+		}
+	}
+}
@@ -15,10 +15,16 @@
 
 package org.opendcs.odcsapi.res;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import javax.sql.DataSource;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.Consumes;
@@ -31,6 +37,7 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
 
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -40,6 +47,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import decodes.cwms.CwmsTsId;
 import decodes.hdb.HdbTsId;
@@ -52,6 +60,7 @@ import decodes.tsdb.NoSuchObjectException;
 import decodes.tsdb.TimeSeriesDb;
 import decodes.tsdb.TimeSeriesIdentifier;
 import decodes.tsdb.TsGroup;
+import ilex.var.NoConversionException;
 import ilex.var.TimedVariable;
 import opendcs.dai.IntervalDAI;
 import opendcs.dai.TimeSeriesDAI;
@@ -64,6 +73,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.opendcs.odcsapi.beans.ApiInterval;
 import org.opendcs.odcsapi.beans.ApiSiteRef;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesBatchResult;
 import org.opendcs.odcsapi.beans.ApiTimeSeriesData;
 import org.opendcs.odcsapi.beans.ApiTimeSeriesIdentifier;
 import org.opendcs.odcsapi.beans.ApiTimeSeriesSpec;
@@ -75,6 +85,7 @@ import org.opendcs.odcsapi.errorhandling.DatabaseItemNotFoundException;
 import org.opendcs.odcsapi.errorhandling.MissingParameterException;
 import org.opendcs.odcsapi.errorhandling.WebAppException;
 import org.opendcs.odcsapi.util.ApiConstants;
+import org.opendcs.odcsapi.util.TimeSeriesColumnarEncoder;
 
 /**
  * HTTP resources relating to Time Series data and descriptors
@@ -84,6 +95,16 @@ import org.opendcs.odcsapi.util.ApiConstants;
 @Path("/")
 public final class TimeSeriesResources extends OpenDcsResource
 {
+	static final int MAX_BATCH_KEYS = 500;
+	static final int MAX_PAGE_LIMIT = 100_000;
+	static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+	static final MediaType COLUMNAR_TYPE = new MediaType("application", "vnd.opendcs.tsdata.columnar");
+	// Assumed sample spacing when sizing the first page window of an irregular time series
+	private static final long IRREGULAR_SPACING_MILLIS = Duration.ofHours(1).toMillis();
+	private static final long MAX_PAGE_WINDOW_MILLIS = Duration.ofDays(3660).toMillis();
+	// Earlier than any stored sample, used to find the first sample when no start is given
+	private static final Date BEGINNING_OF_RECORD = Date.from(Instant.parse("1700-01-01T00:00:00Z"));
+
 	@Context HttpHeaders httpHeaders;
 
 	@GET
@@ -95,7 +116,13 @@ public final class TimeSeriesResources extends OpenDcsResource
 			summary = "The tsrefs method returns a list of time series defined in the database.",
 			description = "You have the option to filter out inactive time series by passing 'active=true' argument.  \n"
 					+ "Examples:  \n\n    http://localhost:8080/odcsapi/tsrefs\n    "
-					+ "http://localhost:8080/odcsapi/tsrefs?active=true\n\n\n"
+					+ "http://localhost:8080/odcsapi/tsrefs?active=true\n    "
+					+ "http://localhost:8080/odcsapi/tsrefs?location=OKVI4&interval=15Minutes&limit=100\n    "
+					+ "http://localhost:8080/odcsapi/tsrefs?pattern=OKVI4.Stage.*.raw&offset=100&limit=100\n\n"
+					+ "The prefix, pattern and segment filters ignore case and may be combined. The list is sorted by "
+					+ "unique string and served from a catalog refreshed in the background, so new time series may "
+					+ "take a few minutes to appear. The total number of matches is returned in the X-Total-Count "
+					+ "header.\n\n"
 					+ "This returns an array of Time Series Identifiers. The numeric Key of a time series identifier "
 					+ "may be used in subsequent calls to get the complete specification for the time series "
 					+ "(GET tsspec) or to retrieve time series data (GET tsdata). The format of the returned "
@@ -109,32 +136,79 @@ public final class TimeSeriesResources extends OpenDcsResource
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Success",
 							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-								array = @ArraySchema(schema = @Schema(implementation = ApiTimeSeriesIdentifier.class)))),
+								array = @ArraySchema(schema = @Schema(implementation = ApiTimeSeriesIdentifier.class))),
+							headers = @Header(name = TOTAL_COUNT_HEADER, description = "Number of matching time series",
+								schema = @Schema(implementation = Integer.class))),
+					@ApiResponse(responseCode = "400", description = "Invalid offset or limit", content = @Content),
 					@ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content)
 			},
 			tags = {"Time Series Methods"}
 	)
 	public Response getTimeSeriesRefs(@Parameter(description = "Include only active time series", required = true,
 			schema = @Schema(implementation = Boolean.class, example = "true"))
-		@QueryParam("active") Boolean activeOnly)
-			throws DbException
+		@QueryParam("active") Boolean activeOnly,
+			@Parameter(description = "Include only time series whose unique string starts with this prefix",
+					schema = @Schema(implementation = String.class, example = "OKVI4.Stage"))
+			@QueryParam("prefix") String prefix,
+			@Parameter(description = "Include only time series whose unique string matches this wildcard pattern, "
+					+ "where * matches any characters and ? a single character",
+					schema = @Schema(implementation = String.class, example = "OKVI4.*.15Minutes.*"))
+			@QueryParam("pattern") String pattern,
+			@Parameter(description = "Location segment of the unique string",
+					schema = @Schema(implementation = String.class, example = "OKVI4"))
+			@QueryParam("location") String location,
+			@Parameter(description = "Parameter segment of the unique string",
+					schema = @Schema(implementation = String.class, example = "Stage"))
+			@QueryParam("param") String param,
+			@Parameter(description = "Parameter type (statistics code) segment of the unique string",
+					schema = @Schema(implementation = String.class, example = "Inst"))
+			@QueryParam("paramtype") String paramType,
+			@Parameter(description = "Interval segment of the unique string",
+					schema = @Schema(implementation = String.class, example = "15Minutes"))
+			@QueryParam("interval") String interval,
+			@Parameter(description = "Duration segment of the unique string",
+					schema = @Schema(implementation = String.class, example = "0"))
+			@QueryParam("duration") String duration,
+			@Parameter(description = "Version segment of the unique string",
+					schema = @Schema(implementation = String.class, example = "raw"))
+			@QueryParam("version") String version,
+			@Parameter(description = "Number of matching time series to skip",
+					schema = @Schema(implementation = Integer.class, example = "0"))
+			@QueryParam("offset") Integer offset,
+			@Parameter(description = "Maximum number of time series to return",
+					schema = @Schema(implementation = Integer.class, example = "100"))
+			@QueryParam("limit") Integer limit)
+			throws DbException, WebAppException
 	{
-		boolean filterActive = activeOnly != null && activeOnly;
+		if (offset != null && offset < 0)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "offset must not be negative");
+		}
+		if (limit != null && limit < 1)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST, "limit must be at least 1");
+		}
+		TimeSeriesCatalog.Filter filter = new TimeSeriesCatalog.Filter()
+				.activeOnly(activeOnly != null && activeOnly)
+				.prefix(prefix)
+				.pattern(pattern)
+				.segment(TimeSeriesCatalog.Segment.LOCATION, location)
+				.segment(TimeSeriesCatalog.Segment.PARAM, param)
+				.segment(TimeSeriesCatalog.Segment.PARAM_TYPE, paramType)
+				.segment(TimeSeriesCatalog.Segment.INTERVAL, interval)
+				.segment(TimeSeriesCatalog.Segment.DURATION, duration)
+				.segment(TimeSeriesCatalog.Segment.VERSION, version);
 
-		TimeSeriesDb tsdb = getLegacyTimeseriesDB();
-		try (TimeSeriesDAI dai = tsdb.makeTimeSeriesDAO())
+		DataSource dataSource = getDataSource();
+		String organization = organizationId;
+		try
 		{
-			List<ApiTimeSeriesIdentifier> tsIds = idMap(dai.listTimeSeries());
-			List<ApiTimeSeriesIdentifier> returnList = new ArrayList<>();
-			for (ApiTimeSeriesIdentifier tsId : tsIds)
-			{
-				if (!filterActive || tsId.isActive())
-				{
-					returnList.add(tsId);
-				}
-			}
+			TimeSeriesCatalog.Page page = TimeSeriesCatalog
+					.forOrganization(organization, () -> listTimeSeriesRefs(dataSource, organization))
+					.find(filter, offset == null ? 0 : offset, limit == null ? Integer.MAX_VALUE : limit);
 			return Response.status(HttpServletResponse.SC_OK)
-					.entity(returnList)
+					.header(TOTAL_COUNT_HEADER, page.total())
+					.entity(page.items())
 					.build();
 		}
 		catch (DbIoException ex)
@@ -143,6 +217,16 @@ public final class TimeSeriesResources extends OpenDcsResource
 		}
 	}
 
+	private static List<ApiTimeSeriesIdentifier> listTimeSeriesRefs(DataSource dataSource, String organization)
+			throws DbIoException
+	{
+		TimeSeriesDb tsdb = getLegacyTimeseriesDB(dataSource, organization);
+		try (TimeSeriesDAI dai = tsdb.makeTimeSeriesDAO())
+		{
+			return idMap(dai.listTimeSeries());
+		}
+	}
+
 	static List<ApiTimeSeriesIdentifier> idMap(List<TimeSeriesIdentifier> identifiers)
 	{
 		List<ApiTimeSeriesIdentifier> ret = new ArrayList<>();
@@ -231,6 +315,53 @@ public final class TimeSeriesResources extends OpenDcsResource
 		}
 	}
 
+	@GET
+	@Path("tsspecbatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "Returns the complete specifications of several time series",
+			description = "Reads the time series specifications with the given IDs in one request, on one database connection. "
+					+ "They are returned in the order of the IDs, IDs that are not found are left out. "
+					+ "Example: \n\n    http://localhost:8080/odcsapi/tsspecbatch?ids=532,533",
+			operationId = "getTimeSeriesSpecBatch",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved the time series specifications",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiTimeSeriesSpec.class)))),
+					@ApiResponse(responseCode = "400", description = "Missing, invalid or too many IDs"),
+					@ApiResponse(responseCode = "500", description = "Internal Server Error")
+			},
+			tags = {"Time Series Methods"}
+	)
+	public Response getTimeSeriesSpecBatch(@Parameter(description = "Comma separated IDs, may be repeated", required = true,
+			schema = @Schema(implementation = String.class, example = "532,533"))
+		@QueryParam("ids") List<String> ids)
+			throws WebAppException, DbException
+	{
+		List<Long> tsKeys = BatchRead.ids(ids);
+		try (TimeSeriesDAI dai = getLegacyTimeseriesDB().makeTimeSeriesDAO())
+		{
+			List<ApiTimeSeriesSpec> ret = BatchRead.read(tsKeys, key ->
+			{
+				try
+				{
+					return specMap(dai.getTimeSeriesIdentifier(DbKey.createDbKey(key)));
+				}
+				catch (NoSuchObjectException ex)
+				{
+					return null;
+				}
+			});
+			return Response.status(HttpServletResponse.SC_OK)
+					.entity(ret).build();
+		}
+		catch (DbIoException ex)
+		{
+			throw new DbException("Unable to retrieve time series specs", ex);
+		}
+	}
+
 	static ApiTimeSeriesSpec specMap(TimeSeriesIdentifier id)
 	{
 		ApiTimeSeriesSpec ret = new ApiTimeSeriesSpec();
@@ -299,7 +430,7 @@ public final class TimeSeriesResources extends OpenDcsResource
 
 	@GET
 	@Path("tsdata")
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, TimeSeriesColumnarEncoder.MEDIA_TYPE})
 	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
 	@Operation(
 			summary = "The tsdata method returns data for a time series over a specified time range.",
@@ -318,11 +449,28 @@ public final class TimeSeriesResources extends OpenDcsResource
 					+ "*\t**YYYY/DDD/HH:MM**\tSeconds omitted means zero.\n"
 					+ "*\t**DDD/HH:MM:SS**\tAssume current year\n*\t**DDD/HH:MM**\t\n"
 					+ "*\t**HH:MM:SS**\tAssume current day\n*\t**HH:MM**  \n\n"
-					+ "Examples:  \n```http://localhost:8080/odcsapi/tsdata?key=12```",
+					+ "Samples are streamed to the response as they are read from the fetched time series.  \n\n"
+					+ "* **maxpoints** – Optionally limits the number of returned points. Longer series are reduced "
+					+ "on the server with the **downsample** method:\n"
+					+ "*\t**lttb**\tLargest-Triangle-Three-Buckets, keeps the visual shape of the series (default)\n"
+					+ "*\t**minmax**\tThe lowest and highest sample of each bucket\n"
+					+ "*\t**mean**\tThe mean of each bucket  \n\n"
+					+ "* **limit** – Optionally returns the values in pages of at most this many samples. "
+					+ "Each page is read from the database on its own. When more samples follow, the response "
+					+ "holds a **nextPage** token; pass it as **page** with the same key, end and limit to get "
+					+ "the next page. The start argument is ignored when a page token is given. "
+					+ "The limit argument cannot be combined with maxpoints.  \n\n"
+					+ "Send ```Accept: " + TimeSeriesColumnarEncoder.MEDIA_TYPE + "``` to receive the values in a "
+					+ "compact binary columnar format instead of JSON. The Java client includes a decoder.  \n\n"
+					+ "Examples:  \n```http://localhost:8080/odcsapi/tsdata?key=12```  \n"
+					+ "```http://localhost:8080/odcsapi/tsdata?key=12&start=now-1year&maxpoints=2000```  \n"
+					+ "```http://localhost:8080/odcsapi/tsdata?key=12&limit=10000```",
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Successfully retrieved time series data",
-							content = @Content(mediaType = MediaType.APPLICATION_JSON,
-									schema = @Schema(implementation = ApiTimeSeriesData.class))),
+							content = {@Content(mediaType = MediaType.APPLICATION_JSON,
+									schema = @Schema(implementation = ApiTimeSeriesData.class)),
+							@Content(mediaType = TimeSeriesColumnarEncoder.MEDIA_TYPE,
+									schema = @Schema(type = "string", format = "binary"))}),
 					@ApiResponse(responseCode = "400", description = "Invalid input parameters"),
 					@ApiResponse(responseCode = "404", description = "Time series not found"),
 					@ApiResponse(responseCode = "500", description = "Database error occurred")
@@ -335,58 +483,251 @@ public final class TimeSeriesResources extends OpenDcsResource
 			@Parameter(description = "Start time of the time range", schema = @Schema(implementation = String.class))
 		@QueryParam("start") String start,
 			@Parameter(description = "End time of the time range", schema = @Schema(implementation = String.class))
-		@QueryParam("end") String end)
+		@QueryParam("end") String end,
+			@Parameter(description = "Maximum number of points to return per time series. "
+					+ "Longer series are downsampled on the server.",
+					schema = @Schema(implementation = Integer.class, example = "2000"))
+		@QueryParam("maxpoints") Integer maxPoints,
+			@Parameter(description = "Downsampling method used with maxpoints: lttb (default), minmax or mean",
+					schema = @Schema(implementation = String.class, allowableValues = {"lttb", "minmax", "mean"}))
+		@QueryParam("downsample") String downsample,
+			@Parameter(description = "Maximum number of samples per page. Enables paging.",
+					schema = @Schema(implementation = Integer.class, example = "10000"))
+		@QueryParam("limit") Integer limit,
+			@Parameter(description = "Continuation token from the nextPage field of the previous page",
+					schema = @Schema(implementation = String.class))
+		@QueryParam("page") String page)
 			throws WebAppException, DbException
 	{
 		if (tsKey == null)
 		{
 			throw new MissingParameterException("Missing required tskey parameter.");
 		}
+		if (limit == null && page != null)
+		{
+			throw new MissingParameterException("Missing required limit parameter for page.");
+		}
+		if (limit != null && (limit < 1 || limit > MAX_PAGE_LIMIT))
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"limit must be between 1 and " + MAX_PAGE_LIMIT);
+		}
+		if (limit != null && maxPoints != null)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"limit cannot be combined with maxpoints");
+		}
 
-		Date dStart = null;
-		Date dEnd = null;
-		if (start != null)
+		Date dStart = page == null
+				? parseTime(start, "start")
+				: new Date(TimeSeriesPageToken.decode(page, tsKey).getTime() + 1);
+		Date dEnd = parseTime(end, "end");
+		TimeSeriesDownsampler downsampler = TimeSeriesDownsampler.fromParameters(maxPoints, downsample);
+		boolean columnar = prefersColumnar(httpHeaders.getAcceptableMediaTypes());
+		MediaType type = columnar ? COLUMNAR_TYPE : MediaType.APPLICATION_JSON_TYPE;
+		TimeSeriesDb tsdb = getLegacyTimeseriesDB();
+		try
 		{
-			try
+			if (limit != null)
 			{
-				dStart = IDateFormat.parse(start);
-			}
-			catch(IllegalArgumentException ex)
-			{
-				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
-						"Invalid start time. Use [[[CC]YY]/DDD]/HH:MM[:SS] or relative time.", ex);
+				CTimeSeries cts = readTimeSeriesPage(tsdb, tsKey, dStart, dEnd, limit);
+				return Response.status(HttpServletResponse.SC_OK).type(type)
+						.entity(pageOutput(cts, tsKey, dStart, dEnd, limit, columnar)).build();
 			}
+			CTimeSeries cts = readTimeSeries(tsdb, tsKey, dStart, dEnd);
+			return Response.status(HttpServletResponse.SC_OK).type(type)
+					.entity(dataOutput(cts, dStart, dEnd, downsampler, null, columnar)).build();
 		}
-		if (end != null)
+		catch (NoSuchObjectException ex)
 		{
-			try
-			{
-				dEnd = IDateFormat.parse(end);
-			}
-			catch (IllegalArgumentException ex)
-			{
-				throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
-						"Invalid end time. Use [[[CC]YY]/DDD]/HH:MM[:SS] or relative time.", ex);
-			}
+			throw new DatabaseItemNotFoundException("Time series with key=" + tsKey + " not found", ex);
+		}
+		catch (DbIoException | BadTimeSeriesException ex)
+		{
+			throw new DbException("Unable to retrieve time series data", ex);
 		}
+	}
 
+	@GET
+	@Path("tsdatabatch")
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+	@Operation(
+			summary = "The tsdatabatch method returns data for several time series over one time range.",
+			description = "Repeat the **key** argument once per time series. The **start** and **end** arguments "
+					+ "are the same as for tsdata and apply to every series. The series are retrieved concurrently "
+					+ "and returned in the order of the keys. A series that cannot be retrieved is reported with "
+					+ "its own status and message and does not fail the others. The **maxpoints** and **downsample** "
+					+ "arguments are applied to each series.  \n\n"
+					+ "Examples:  \n```http://localhost:8080/odcsapi/tsdatabatch?key=12&key=13&start=now-1day```",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Successfully retrieved time series data",
+							content = @Content(mediaType = MediaType.APPLICATION_JSON,
+									array = @ArraySchema(schema = @Schema(implementation = ApiTimeSeriesBatchResult.class)))),
+					@ApiResponse(responseCode = "400", description = "Invalid input parameters"),
+					@ApiResponse(responseCode = "500", description = "Database error occurred"),
+					@ApiResponse(responseCode = "503", description = "Too many batch reads in progress")
+			},
+			tags = {"Time Series Methods"}
+	)
+	public Response getTimeSeriesDataBatch(@Parameter(description = "Timeseries keys", required = true,
+				array = @ArraySchema(schema = @Schema(implementation = Long.class, example = "532")))
+		@QueryParam("key") List<Long> tsKeys,
+			@Parameter(description = "Start time of the time range", schema = @Schema(implementation = String.class))
+		@QueryParam("start") String start,
+			@Parameter(description = "End time of the time range", schema = @Schema(implementation = String.class))
+		@QueryParam("end") String end,
+			@Parameter(description = "Maximum number of points to return per time series. "
+					+ "Longer series are downsampled on the server.",
+					schema = @Schema(implementation = Integer.class, example = "2000"))
+		@QueryParam("maxpoints") Integer maxPoints,
+			@Parameter(description = "Downsampling method used with maxpoints: lttb (default), minmax or mean",
+					schema = @Schema(implementation = String.class, allowableValues = {"lttb", "minmax", "mean"}))
+		@QueryParam("downsample") String downsample)
+			throws WebAppException
+	{
+		Set<Long> keys = new LinkedHashSet<>();
+		if (tsKeys != null)
+		{
+			tsKeys.stream().filter(Objects::nonNull).forEach(keys::add);
+		}
+		if (keys.isEmpty())
+		{
+			throw new MissingParameterException("Missing required key parameter.");
+		}
+		if (keys.size() > MAX_BATCH_KEYS)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"At most " + MAX_BATCH_KEYS + " time series may be requested at once.");
+		}
+		Date dStart = parseTime(start, "start");
+		Date dEnd = parseTime(end, "end");
+		TimeSeriesDownsampler downsampler = TimeSeriesDownsampler.fromParameters(maxPoints, downsample);
 		TimeSeriesDb tsdb = getLegacyTimeseriesDB();
+		return Response.status(HttpServletResponse.SC_OK)
+				.entity(TimeSeriesBatchStreamingOutput.submit(tsdb, keys, dStart, dEnd, downsampler)).build();
+	}
+
+	static Date parseTime(String time, String name) throws WebAppException
+	{
+		if (time == null)
+		{
+			return null;
+		}
+		try
+		{
+			return IDateFormat.parse(time);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new WebAppException(HttpServletResponse.SC_BAD_REQUEST,
+					"Invalid " + name + " time. Use [[[CC]YY]/DDD]/HH:MM[:SS] or relative time.", ex);
+		}
+	}
+
+	/**
+	 * Read the time series with its own DAO, so concurrent calls each use a separate pooled connection.
+	 */
+	static CTimeSeries readTimeSeries(TimeSeriesDb tsdb, long tsKey, Date start, Date end)
+			throws DbIoException, NoSuchObjectException, BadTimeSeriesException
+	{
 		try (TimeSeriesDAI dai = tsdb.makeTimeSeriesDAO())
 		{
 			TimeSeriesIdentifier tsId = dai.getTimeSeriesIdentifier(DbKey.createDbKey(tsKey));
 			CTimeSeries cts = tsdb.makeTimeSeries(tsId);
-			dai.fillTimeSeries(cts, dStart, dEnd);
-			return Response.status(HttpServletResponse.SC_OK)
-					.entity(dataMap(cts, dStart, dEnd)).build();
+			dai.fillTimeSeries(cts, start, end);
+			return cts;
 		}
-		catch (NoSuchObjectException ex)
+	}
+
+	/**
+	 * Read more than limit samples from start on, or all samples up to end if there are fewer.
+	 * <p>
+	 * Samples are fetched in windows that begin at the next stored sample, so gaps in the data are skipped. The
+	 * first window is sized from the interval of the time series to hold about limit samples and each further
+	 * window is twice as long, so a sparse series needs only a few reads and memory stays bounded for a dense one.
+	 */
+	static CTimeSeries readTimeSeriesPage(TimeSeriesDb tsdb, long tsKey, Date start, Date end, int limit)
+			throws DbIoException, NoSuchObjectException, BadTimeSeriesException
+	{
+		try (TimeSeriesDAI dai = tsdb.makeTimeSeriesDAO())
 		{
-			throw new DatabaseItemNotFoundException("Time series with key=" + tsKey + " not found", ex);
+			TimeSeriesIdentifier tsId = dai.getTimeSeriesIdentifier(DbKey.createDbKey(tsKey));
+			CTimeSeries cts = tsdb.makeTimeSeries(tsId);
+			long window = pageWindowMillis(tsId.getInterval(), limit);
+			// getNextValue returns the first sample strictly after the reference time
+			Date after = start == null ? BEGINNING_OF_RECORD : new Date(start.getTime() - 1);
+			while (cts.size() <= limit)
+			{
+				TimedVariable next = dai.getNextValue(cts, after);
+				if (next == null || (end != null && next.getTime().after(end)))
+				{
+					break;
+				}
+				Date windowEnd = new Date(next.getTime().getTime() + window);
+				if (end != null && windowEnd.after(end))
+				{
+					windowEnd = end;
+				}
+				dai.fillTimeSeries(cts, next.getTime(), windowEnd);
+				after = windowEnd;
+				window = Math.min(window * 2, MAX_PAGE_WINDOW_MILLIS);
+			}
+			return cts;
 		}
-		catch (DbIoException | BadTimeSeriesException ex)
+	}
+
+	static long pageWindowMillis(String intervalCode, int limit)
+	{
+		int seconds = intervalCode == null ? 0 : IntervalCodes.getIntervalSeconds(intervalCode);
+		long spacing = seconds > 0 ? seconds * 1000L : IRREGULAR_SPACING_MILLIS;
+		return Math.min(spacing * limit, MAX_PAGE_WINDOW_MILLIS);
+	}
+
+	/**
+	 * Write the first limit samples of the time series from start on, with a token for the rest if there is more.
+	 */
+	static StreamingOutput pageOutput(CTimeSeries cts, long tsKey, Date start, Date end, int limit,
+			boolean columnar)
+	{
+		int from = firstSampleIndex(cts, start);
+		int to = endSampleIndex(cts, end);
+		if (to - from <= limit)
 		{
-			throw new DbException("Unable to retrieve time series data", ex);
+			return dataOutput(cts, start, end, null, null, columnar);
 		}
+		Date pageEnd = cts.sampleAt(from + limit - 1).getTime();
+		return dataOutput(cts, start, pageEnd, null, TimeSeriesPageToken.encode(tsKey, pageEnd), columnar);
+	}
+
+	static StreamingOutput dataOutput(CTimeSeries cts, Date start, Date end, TimeSeriesDownsampler downsampler,
+			String nextPage, boolean columnar)
+	{
+		if (columnar)
+		{
+			return new TimeSeriesColumnarStreamingOutput(cts, start, end, downsampler, nextPage);
+		}
+		return new TimeSeriesDataStreamingOutput(cts, start, end, downsampler, nextPage);
+	}
+
+	/**
+	 * @param acceptable media types of the Accept header, most preferred first
+	 * @return true if the columnar format is preferred over JSON, wildcards select JSON
+	 */
+	static boolean prefersColumnar(List<MediaType> acceptable)
+	{
+		for (MediaType type : acceptable)
+		{
+			if (!type.isWildcardType() && !type.isWildcardSubtype() && type.isCompatible(COLUMNAR_TYPE))
+			{
+				return true;
+			}
+			if (type.isCompatible(MediaType.APPLICATION_JSON_TYPE))
+			{
+				return false;
+			}
+		}
+		return false;
 	}
 
 	static ApiTimeSeriesData dataMap(CTimeSeries cts, Date start, Date end)
@@ -397,42 +738,70 @@ public final class TimeSeriesResources extends OpenDcsResource
 		return ret;
 	}
 
-	static List<ApiTimeSeriesValue> map(CTimeSeries cts, Date start, Date end)
+	/**
+	 * @return index of the first sample at or after start, 0 for a null start, or the series size if there is none
+	 */
+	static int firstSampleIndex(CTimeSeries cts, Date start)
 	{
-		List<ApiTimeSeriesValue> ret = new ArrayList<>();
-		Date current = start;
-		TimedVariable tv = cts.findWithin(current, 5);
-		if (tv != null && !tv.getTime().before(current))
+		int low = 0;
+		int high = cts.size();
+		if (start == null)
 		{
-			current = processSample(tv, current, end, ret);
+			return low;
 		}
-
-		while (current.before(end) || current.equals(end))
+		while (low < high)
 		{
-			TimedVariable value = cts.findNext(current);
-
-			if (value == null)
+			int mid = (low + high) >>> 1;
+			if (cts.sampleAt(mid).getTime().before(start))
 			{
-				break;
+				low = mid + 1;
+			}
+			else
+			{
+				high = mid;
 			}
-			current = processSample(value, current, end, ret);
 		}
-		return ret;
+		return low;
 	}
 
-	static Date processSample(TimedVariable value, Date current, Date end, List<ApiTimeSeriesValue> ret)
+	/**
+	 * @return index after the last sample at or before end, the series size for a null end
+	 */
+	static int endSampleIndex(CTimeSeries cts, Date end)
 	{
-		double val = Double.parseDouble(value.valueString());
-		ApiTimeSeriesValue apiValue = new ApiTimeSeriesValue(value.getTime(), val, value.getFlags());
-		ret.add(apiValue);
-		if (current.equals(end))
+		if (end == null)
 		{
-			return Date.from(end.toInstant().plusSeconds(1));
+			return cts.size();
 		}
-		else
+		return firstSampleIndex(cts, new Date(end.getTime() + 1));
+	}
+
+	/**
+	 * Map the samples between start and end, both inclusive, in a single pass over the sorted samples.
+	 * A null start or end leaves that side of the range open. Samples without a numeric value are skipped.
+	 */
+	static List<ApiTimeSeriesValue> map(CTimeSeries cts, Date start, Date end)
+	{
+		int first = firstSampleIndex(cts, start);
+		int size = cts.size();
+		List<ApiTimeSeriesValue> ret = new ArrayList<>(size - first);
+		for (int i = first; i < size; i++)
 		{
-			return value.getTime();
+			TimedVariable tv = cts.sampleAt(i);
+			if (end != null && tv.getTime().after(end))
+			{
+				break;
+			}
+			try
+			{
+				ret.add(new ApiTimeSeriesValue(tv.getTime(), tv.getDoubleValue(), tv.getFlags()));
+			}
+			catch (NoConversionException ex)
+			{
+				// not a numeric sample, nothing to report
+			}
 		}
+		return ret;
 	}
 
 	static ApiTimeSeriesIdentifier map(TimeSeriesIdentifier tsid)
@@ -500,15 +869,10 @@ public final class TimeSeriesResources extends OpenDcsResource
 	public Response getIntervals()
 			throws DbException
 	{
-		try (IntervalDAI dai = getLegacyTimeseriesDB().makeIntervalDAO())
+		try
 		{
-			dai.loadAllIntervals();
-			List<ApiInterval> intervals = new ArrayList<>();
-			for (String code : dai.getValidIntervalCodes())
-			{
-				Interval intV = IntervalCodes.getInterval(code);
-				intervals.add(map(intV));
-			}
+			List<ApiInterval> intervals = IntervalRegistry.forOrganization(organizationId)
+					.list(IntervalRegistry.Loader.of(this::getLegacyTimeseriesDB));
 			return Response.status(HttpServletResponse.SC_OK)
 					.entity(intervals).build();
 		}
@@ -556,6 +920,7 @@ public final class TimeSeriesResources extends OpenDcsResource
 		{
 			Interval interval = map(intv);
 			dai.writeInterval(interval);
+			IntervalRegistry.invalidate(organizationId);
 			return Response.status(HttpServletResponse.SC_OK)
 					.entity(map(interval)).build();
 		}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.annotation.security.RolesAllowed;
+
+import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
+
+/**
+ * The roles allowed to call each resource method, as a mask of {@link OpenDcsApiRoles#mask()} bits, so checking a
+ * request is a single AND with {@link OpenDcsPrincipal#getRoleMask()}.
+ * <p>
+ * The methods are resolved from their {@link RolesAllowed} annotation when Jersey deploys them, see
+ * {@link AllowedRolesResolver}.
+ */
+final class AllowedRoles
+{
+	/**
+	 * The OpenAPI document is served to everyone.
+	 */
+	private static final AllowedRoles PUBLIC = new AllowedRoles(true, 0);
+	/**
+	 * Methods without {@link RolesAllowed} are a programming error and not served.
+	 */
+	private static final AllowedRoles UNDECLARED = new AllowedRoles(false, 0);
+	private static final Map<Method, AllowedRoles> table = new ConcurrentHashMap<>();
+
+	private final boolean declared;
+	private final int mask;
+
+	private AllowedRoles(boolean declared, int mask)
+	{
+		this.declared = declared;
+		this.mask = mask;
+	}
+
+	/**
+	 * @return the allowed roles of the method, resolved on first use of methods deployed after startup
+	 */
+	static AllowedRoles of(Class<?> resourceClass, Method method)
+	{
+		AllowedRoles ret = table.get(method);
+		if (ret == null)
+		{
+			ret = table.computeIfAbsent(method, m -> resolve(resourceClass, m));
+		}
+		return ret;
+	}
+
+	private static AllowedRoles resolve(Class<?> resourceClass, Method method)
+	{
+		if (resourceClass.equals(OpenApiResource.class))
+		{
+			return PUBLIC;
+		}
+		RolesAllowed annotation = method.getAnnotation(RolesAllowed.class);
+		if (annotation == null)
+		{
+			return UNDECLARED;
+		}
+		int mask = 0;
+		for (String role : annotation.value())
+		{
+			OpenDcsApiRoles apiRole = OpenDcsApiRoles.fromRole(role);
+			if (apiRole != null)
+			{
+				mask |= apiRole.mask();
+			}
+		}
+		return new AllowedRoles(true, mask);
+	}
+
+	/**
+	 * @return false if the method does not declare its roles
+	 */
+	boolean isDeclared()
+	{
+		return declared;
+	}
+
+	boolean allows(OpenDcsPrincipal principal)
+	{
+		return this == PUBLIC || (mask & principal.getRoleMask()) != 0;
+	}
+}
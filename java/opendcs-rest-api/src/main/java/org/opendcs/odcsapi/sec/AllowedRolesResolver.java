@@ -0,0 +1,34 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Resolves the {@link AllowedRoles} of every resource method once, when Jersey deploys it.
+ */
+@Provider
+public final class AllowedRolesResolver implements DynamicFeature
+{
+	@Override
+	public void configure(ResourceInfo resourceInfo, FeatureContext context)
+	{
+		AllowedRoles.of(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
+	}
+}
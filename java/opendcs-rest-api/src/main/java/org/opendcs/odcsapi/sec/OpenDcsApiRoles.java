@@ -35,4 +35,40 @@ public enum OpenDcsApiRoles
 	{
 		return role;
 	}
+
+	/**
+	 * @return the bit of the role in a role mask
+	 */
+	public int mask()
+	{
+		return 1 << ordinal();
+	}
+
+	/**
+	 * @return the mask with the bits of the roles set
+	 */
+	public static int mask(Iterable<OpenDcsApiRoles> roles)
+	{
+		int ret = 0;
+		for (OpenDcsApiRoles role : roles)
+		{
+			ret |= role.mask();
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the role with the name, null if there is none
+	 */
+	public static OpenDcsApiRoles fromRole(String role)
+	{
+		for (OpenDcsApiRoles value : values())
+		{
+			if (value.role.equals(role))
+			{
+				return value;
+			}
+		}
+		return null;
+	}
 }
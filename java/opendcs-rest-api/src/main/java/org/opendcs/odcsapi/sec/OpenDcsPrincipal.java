@@ -26,11 +26,14 @@ public final class OpenDcsPrincipal implements Principal, Serializable
 	private static final long serialVersionUID = -2116796045388257540L;
 	private final String name;
 	private final Set<OpenDcsApiRoles> roles;
+	// Not serialized, so principals stored in sessions by earlier versions still deserialize
+	private transient int roleMask;
 
 	public OpenDcsPrincipal(String name, Set<OpenDcsApiRoles> roles)
 	{
 		this.name = name;
 		this.roles = Collections.unmodifiableSet(roles);
+		this.roleMask = OpenDcsApiRoles.mask(roles);
 	}
 
 	@Override
@@ -43,4 +46,18 @@ public final class OpenDcsPrincipal implements Principal, Serializable
 	{
 		return roles;
 	}
+
+	/**
+	 * @return the roles as a mask of {@link OpenDcsApiRoles#mask()} bits
+	 */
+	public int getRoleMask()
+	{
+		int ret = roleMask;
+		if (ret == 0 && !roles.isEmpty())
+		{
+			ret = OpenDcsApiRoles.mask(roles);
+			roleMask = ret;
+		}
+		return ret;
+	}
 }
@@ -41,13 +41,8 @@ public final class OpenDcsSecurityContext implements SecurityContext
 	@Override
 	public boolean isUserInRole(String role)
 	{
-		return principal.getRoles()
-				.stream()
-				.anyMatch(e ->
-				{
-					final String r = e.getRole();
-					return r.equals(role);
-				});
+		OpenDcsApiRoles apiRole = OpenDcsApiRoles.fromRole(role);
+		return apiRole != null && (principal.getRoleMask() & apiRole.mask()) != 0;
 	}
 
 	@Override
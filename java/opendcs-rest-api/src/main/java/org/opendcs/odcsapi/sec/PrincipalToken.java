@@ -0,0 +1,294 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import java.security.SecureRandom;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import jakarta.ws.rs.core.NewCookie;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeyLengthException;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.opendcs.odcsapi.hydrojson.DbInterface;
+import org.opendcs.utils.logging.OpenDcsLoggerFactory;
+import org.slf4j.Logger;
+
+/**
+ * Signed, expiring token carrying the principal of a login, so requests can be authenticated without a session.
+ * <p>
+ * With {@value #STATELESS_PROPERTY} set to true, a login returns the token in the {@value #COOKIE_NAME} cookie
+ * instead of creating a session. The token is an HS256 JWT with the user name, roles and organization, valid for
+ * {@value #DURATION_PROPERTY} (default 15 minutes) and renewed once half of that has passed. A renewed token keeps
+ * the time of the login, and no token is valid longer than {@value #MAX_LIFETIME_PROPERTY} (default 12 hours) after
+ * it, so the user has to log in again. Nodes behind a load balancer must share the {@value #SECRET_PROPERTY} (base64,
+ * at least 32 bytes); without it each node signs with a random key and tokens do not survive a restart. A logout
+ * clears the cookie, but a copy of the token stays valid until it expires.
+ */
+public final class PrincipalToken
+{
+	public static final String COOKIE_NAME = "opendcs-auth";
+	static final String STATELESS_PROPERTY = "opendcs.rest.api.authorization.stateless";
+	static final String SECRET_PROPERTY = "opendcs.rest.api.authorization.token.secret";
+	static final String DURATION_PROPERTY = "opendcs.rest.api.authorization.expiration.duration";
+	static final String MAX_LIFETIME_PROPERTY = "opendcs.rest.api.authorization.max.lifetime";
+	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final String ROLES_CLAIM = "roles";
+	private static final String ORGANIZATION_CLAIM = "org";
+	private static final String LOGIN_CLAIM = "auth_time";
+	private static final int SECRET_BYTES = 32;
+	private static volatile PrincipalToken instance;
+
+	private final MACSigner signer;
+	private final MACVerifier verifier;
+	private final Duration duration;
+	private final Duration maxLifetime;
+	private final Clock clock;
+
+	/**
+	 * A principal read from a valid token.
+	 * @param renew true once more than half of the token's lifetime has passed and the maximum lifetime allows a
+	 * renewal to extend it
+	 * @param login time of the login the token was first issued for
+	 */
+	public record Verified(OpenDcsPrincipal principal, boolean renew, Date login)
+	{
+	}
+
+	PrincipalToken(byte[] secret, Duration duration, Duration maxLifetime, Clock clock)
+	{
+		try
+		{
+			this.signer = new MACSigner(secret);
+			this.verifier = new MACVerifier(secret);
+		}
+		catch (KeyLengthException ex)
+		{
+			throw new IllegalStateException(SECRET_PROPERTY + " must be at least " + SECRET_BYTES + " bytes", ex);
+		}
+		catch (JOSEException ex)
+		{
+			throw new IllegalStateException("Unable to set up token signing", ex);
+		}
+		this.duration = duration;
+		this.maxLifetime = maxLifetime;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return the token issuer configured by the web.xml context parameters or their system properties
+	 */
+	public static PrincipalToken getInstance()
+	{
+		PrincipalToken ret = instance;
+		if (ret == null)
+		{
+			synchronized (PrincipalToken.class)
+			{
+				if (instance == null)
+				{
+					instance = new PrincipalToken(secret(), duration(DURATION_PROPERTY, "PT15M"),
+							duration(MAX_LIFETIME_PROPERTY, "PT12H"), Clock.systemUTC());
+				}
+				ret = instance;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return true if logins are carried by tokens instead of sessions
+	 */
+	public static boolean isStateless()
+	{
+		return Boolean.parseBoolean(DbInterface.decodesProperties.getProperty(STATELESS_PROPERTY));
+	}
+
+	/**
+	 * Fail the deployment on token settings that can not be used, instead of every request that carries a token.
+	 * @throws IllegalStateException if the secret or a duration is malformed
+	 */
+	public static void validateConfiguration()
+	{
+		if (isStateless() || DbInterface.decodesProperties.getProperty(SECRET_PROPERTY) != null)
+		{
+			getInstance();
+		}
+	}
+
+	private static byte[] secret()
+	{
+		String secret = DbInterface.decodesProperties.getProperty(SECRET_PROPERTY);
+		if (secret == null || secret.isBlank())
+		{
+			log.info("{} is not set, tokens are signed with a random key and only valid on this node until restart.",
+					SECRET_PROPERTY);
+			byte[] ret = new byte[SECRET_BYTES];
+			new SecureRandom().nextBytes(ret);
+			return ret;
+		}
+		try
+		{
+			return Base64.getDecoder().decode(secret.trim());
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new IllegalStateException(SECRET_PROPERTY + " is not valid base64", ex);
+		}
+	}
+
+	private static Duration duration(String property, String defaultValue)
+	{
+		String duration = DbInterface.decodesProperties.getProperty(property);
+		try
+		{
+			return Duration.parse(duration == null || duration.isBlank() ? defaultValue : duration.trim());
+		}
+		catch (DateTimeParseException ex)
+		{
+			throw new IllegalStateException(property + " is not an ISO-8601 duration such as PT15M", ex);
+		}
+	}
+
+	/**
+	 * @return a new token for a login of the principal, valid for requests to the organization
+	 */
+	public String issue(OpenDcsPrincipal principal, String organization)
+	{
+		return issue(principal, organization, Date.from(clock.instant()));
+	}
+
+	/**
+	 * @return a token replacing the verified one, valid for the same login and organization
+	 */
+	public String renew(Verified verified, String organization)
+	{
+		return issue(verified.principal(), organization, verified.login());
+	}
+
+	private String issue(OpenDcsPrincipal principal, String organization, Date login)
+	{
+		Date now = Date.from(clock.instant());
+		long expires = Math.min(now.getTime() + duration.toMillis(), login.getTime() + maxLifetime.toMillis());
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.subject(principal.getName())
+				.claim(ROLES_CLAIM, principal.getRoles().stream().map(OpenDcsApiRoles::name).toList())
+				.claim(ORGANIZATION_CLAIM, organization)
+				.claim(LOGIN_CLAIM, login)
+				.issueTime(now)
+				.expirationTime(new Date(expires))
+				.build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+		try
+		{
+			jwt.sign(signer);
+		}
+		catch (JOSEException ex)
+		{
+			throw new IllegalStateException("Unable to sign token", ex);
+		}
+		return jwt.serialize();
+	}
+
+	/**
+	 * @return the principal of the token, null if the token is not signed by this issuer, expired or was issued for
+	 * another organization
+	 */
+	public Verified verify(String token, String organization)
+	{
+		try
+		{
+			SignedJWT jwt = SignedJWT.parse(token);
+			if (!JWSAlgorithm.HS256.equals(jwt.getHeader().getAlgorithm()) || !jwt.verify(verifier))
+			{
+				return null;
+			}
+			JWTClaimsSet claims = jwt.getJWTClaimsSet();
+			Date issued = claims.getIssueTime();
+			Date expires = claims.getExpirationTime();
+			Date login = claims.getDateClaim(LOGIN_CLAIM);
+			if (login == null)
+			{
+				login = issued;
+			}
+			long now = clock.millis();
+			long maxExpires = login == null ? 0 : login.getTime() + maxLifetime.toMillis();
+			if (issued == null || expires == null || expires.getTime() <= now || maxExpires <= now
+					|| !Objects.equals(organization, claims.getStringClaim(ORGANIZATION_CLAIM)))
+			{
+				return null;
+			}
+			Set<OpenDcsApiRoles> roles = EnumSet.noneOf(OpenDcsApiRoles.class);
+			List<String> names = claims.getStringListClaim(ROLES_CLAIM);
+			if (names != null)
+			{
+				for (String name : names)
+				{
+					roles.add(OpenDcsApiRoles.valueOf(name));
+				}
+			}
+			boolean renew = now - issued.getTime() > (expires.getTime() - issued.getTime()) / 2
+					&& expires.getTime() < maxExpires;
+			return new Verified(new OpenDcsPrincipal(claims.getSubject(), roles), renew, login);
+		}
+		catch (ParseException | JOSEException | IllegalArgumentException ex)
+		{
+			log.debug("Rejected authorization token.", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the cookie carrying the token, limited to the path of the API
+	 */
+	public NewCookie cookie(String token, String path, boolean secure)
+	{
+		return cookie(token, path, secure, (int) duration.toSeconds());
+	}
+
+	/**
+	 * @return a cookie that removes the token cookie from the client
+	 */
+	public static NewCookie expiredCookie(String path, boolean secure)
+	{
+		return cookie("", path, secure, 0);
+	}
+
+	private static NewCookie cookie(String token, String path, boolean secure, int maxAge)
+	{
+		return new NewCookie.Builder(COOKIE_NAME)
+				.value(token)
+				.path(path == null || path.isEmpty() ? "/" : path)
+				.maxAge(maxAge)
+				.secure(secure)
+				.httpOnly(true)
+				.sameSite(NewCookie.SameSite.STRICT)
+				.build();
+	}
+}
@@ -18,7 +18,6 @@ package org.opendcs.odcsapi.sec;
 import java.util.Collections;
 import java.util.ServiceLoader;
 import jakarta.annotation.Priority;
-import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -28,21 +27,28 @@ import jakarta.ws.rs.NotAuthorizedException;
 import jakarta.ws.rs.Priorities;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
 import jakarta.ws.rs.container.ResourceInfo;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Cookie;
 import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
 import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.ext.Provider;
 
-import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
+import org.opendcs.odcsapi.util.ApiConstants;
 import org.slf4j.Logger;
 import org.opendcs.utils.logging.OpenDcsLoggerFactory;
 
 @Provider
 @Priority(Priorities.AUTHORIZATION)
-public final class SecurityFilter implements ContainerRequestFilter
+public final class SecurityFilter implements ContainerRequestFilter, ContainerResponseFilter
 {
 	private static final Logger log = OpenDcsLoggerFactory.getLogger();
+	private static final String RENEWED_COOKIE_PROPERTY = "opendcs.rest.api.authorization.renewed.cookie";
+	private static final OpenDcsPrincipal GUEST =
+			new OpenDcsPrincipal("guest", Collections.singleton(OpenDcsApiRoles.ODCS_API_GUEST));
 
 	@Context
 	private ResourceInfo resourceInfo;
@@ -56,64 +62,98 @@ public final class SecurityFilter implements ContainerRequestFilter
 	@Override
 	public void filter(ContainerRequestContext requestContext)
 	{
-
-		// TODO: instead of create session here check and then see if a stateless method is used
-		HttpSession session = httpServletRequest.getSession(true);
-		Object sessionPrincipal = session.getAttribute(OpenDcsPrincipal.USER_PRINCIPAL_SESSION_ATTRIBUTE);
+		// Only a login creates a session, anonymous requests must not allocate one
+		HttpSession session = httpServletRequest.getSession(false);
+		Object sessionPrincipal = session == null ? null
+				: session.getAttribute(OpenDcsPrincipal.USER_PRINCIPAL_SESSION_ATTRIBUTE);
+		OpenDcsPrincipal principal;
 		if (sessionPrincipal != null)
 		{
-			OpenDcsPrincipal principal = (OpenDcsPrincipal) sessionPrincipal;
+			principal = (OpenDcsPrincipal) sessionPrincipal;
 			requestContext.setSecurityContext(
 				new OpenDcsSecurityContext(principal, httpServletRequest.isSecure(), SecurityContext.BASIC_AUTH));
 		}
 		else
 		{
-			setupGuestContext(requestContext);
+			principal = setupTokenContext(requestContext);
+			if (principal == null)
+			{
+				principal = setupGuestContext(requestContext);
+			}
+		}
+
+		verifyRoles(requestContext, principal);
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+	{
+		// A response that sets the cookie itself, such as a logout, is not overridden
+		if (requestContext.getProperty(RENEWED_COOKIE_PROPERTY) instanceof NewCookie cookie
+				&& !responseContext.getHeaders().containsKey(HttpHeaders.SET_COOKIE))
+		{
+			responseContext.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+		}
+	}
+
+	private OpenDcsPrincipal setupTokenContext(ContainerRequestContext requestContext)
+	{
+		if (!PrincipalToken.isStateless())
+		{
+			return null;
+		}
+		Cookie cookie = requestContext.getCookies().get(PrincipalToken.COOKIE_NAME);
+		if (cookie == null || cookie.getValue() == null || cookie.getValue().isEmpty())
+		{
+			return null;
+		}
+		PrincipalToken tokens = PrincipalToken.getInstance();
+		String organization = requestContext.getHeaderString(ApiConstants.ORGANIZATION_HEADER);
+		PrincipalToken.Verified verified = tokens.verify(cookie.getValue(), organization);
+		if (verified == null)
+		{
+			return null;
+		}
+		requestContext.setSecurityContext(new OpenDcsSecurityContext(verified.principal(),
+				httpServletRequest.isSecure(), SecurityContext.BASIC_AUTH));
+		if (verified.renew())
+		{
+			requestContext.setProperty(RENEWED_COOKIE_PROPERTY, tokens.cookie(tokens.renew(verified, organization),
+					httpServletRequest.getContextPath(), httpServletRequest.isSecure()));
 		}
-	
-		
-		verifyRoles(requestContext);
+		return verified.principal();
 	}
 
-	private void setupGuestContext(ContainerRequestContext requestContext)
+	private OpenDcsPrincipal setupGuestContext(ContainerRequestContext requestContext)
 	{
 		if(log.isTraceEnabled())
 		{
 			log.trace("Public endpoint identified: {}", resourceInfo.getResourceMethod().toGenericString());
 		}
-		OpenDcsPrincipal principal = new OpenDcsPrincipal("guest", Collections.singleton(OpenDcsApiRoles.ODCS_API_GUEST));
-		requestContext.setSecurityContext(new OpenDcsSecurityContext(principal,
+		requestContext.setSecurityContext(new OpenDcsSecurityContext(GUEST,
 				httpServletRequest.isSecure(), ""));
-		
+		return GUEST;
 	}
 
-	private void verifyRoles(ContainerRequestContext requestContext)
+	private void verifyRoles(ContainerRequestContext requestContext, OpenDcsPrincipal principal)
 	{
-		SecurityContext securityContext = requestContext.getSecurityContext();
-		RolesAllowed annotation = resourceInfo.getResourceMethod().getAnnotation(RolesAllowed.class);
+		AllowedRoles allowed = AllowedRoles.of(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
+		if (allowed.allows(principal))
+		{
+			return;
+		}
 		String endpoint = requestContext.getMethod() + " " + requestContext.getUriInfo().getPath();
-		if (!resourceInfo.getResourceClass().equals(OpenApiResource.class))
+		if(!allowed.isDeclared())
 		{
-			if(annotation == null)
-			{
-				throw new InternalServerErrorException("Endpoint " + endpoint + " does not have the @RolesAllowed annotation");
-			}
-			String[] value = annotation.value();
-			for(String role : value)
-			{
-				if(securityContext.isUserInRole(role))
-				{
-					return;
-				}
-			}
-			if ("guest".equals(securityContext.getUserPrincipal().getName()))
-			{
-				throw new NotAuthorizedException("WWW-Authenticate");
-			}
-			else
-			{
-				throw new ForbiddenException("User does not have the correct roles for endpoint: " + endpoint);
-			}
+			throw new InternalServerErrorException("Endpoint " + endpoint + " does not have the @RolesAllowed annotation");
+		}
+		if ("guest".equals(principal.getName()))
+		{
+			throw new NotAuthorizedException("WWW-Authenticate");
+		}
+		else
+		{
+			throw new ForbiddenException("User does not have the correct roles for endpoint: " + endpoint);
 		}
 	}
 }
@@ -89,6 +89,8 @@ public final class SessionResource
 		{
 			session.invalidate();
 		}
-		return Response.status(HttpServletResponse.SC_NO_CONTENT).build();
+		return Response.status(HttpServletResponse.SC_NO_CONTENT)
+				.cookie(PrincipalToken.expiredCookie(request.getContextPath(), request.isSecure()))
+				.build();
 	}
 }
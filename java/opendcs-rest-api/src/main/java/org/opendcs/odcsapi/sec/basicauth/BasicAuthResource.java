@@ -51,6 +51,7 @@ import org.opendcs.odcsapi.errorhandling.WebAppException;
 import org.opendcs.odcsapi.res.OpenDcsResource;
 import org.opendcs.odcsapi.sec.OpenDcsApiRoles;
 import org.opendcs.odcsapi.sec.OpenDcsPrincipal;
+import org.opendcs.odcsapi.sec.PrincipalToken;
 import org.opendcs.odcsapi.sec.cwms.CwmsAuthorizationDAO;
 import org.opendcs.odcsapi.util.ApiConstants;
 import org.opendcs.utils.logging.OpenDcsLoggerFactory;
@@ -150,6 +151,14 @@ public final class BasicAuthResource extends OpenDcsResource
 		{
 			oldSession.invalidate();
 		}
+		if(PrincipalToken.isStateless())
+		{
+			PrincipalToken tokens = PrincipalToken.getInstance();
+			return Response.status(HttpServletResponse.SC_OK).entity(new Status("Authentication Successful."))
+					.cookie(tokens.cookie(tokens.issue(principal, organizationId), httpServletRequest.getContextPath(),
+							httpServletRequest.isSecure()))
+					.build();
+		}
 		HttpSession session = httpServletRequest.getSession(true);
 		session.setAttribute(OpenDcsPrincipal.USER_PRINCIPAL_SESSION_ATTRIBUTE, principal);
 		return Response.status(HttpServletResponse.SC_OK).entity(new Status("Authentication Successful."))
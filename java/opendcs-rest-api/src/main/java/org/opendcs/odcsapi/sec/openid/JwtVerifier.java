@@ -15,14 +15,21 @@
 
 package org.opendcs.odcsapi.sec.openid;
 
+import java.net.MalformedURLException;
+import java.net.URI;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JOSEObjectType;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
 import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
 import com.nimbusds.jose.proc.JWSKeySelector;
@@ -35,14 +42,37 @@ import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.opendcs.odcsapi.hydrojson.DbInterface;
 
+/**
+ * Verifies bearer access tokens.
+ * <p>
+ * The processor and the source of the JWK set are built once per configured JWK set url and issuer, and are shared
+ * by all requests; they are built again when either setting changes. The claims of a verified token are kept until the token expires, so repeated requests with the same
+ * token skip the signature check. At most {@value #CACHE_SIZE_PROPERTY} (default 1024) tokens are kept and the
+ * least recently used one is dropped first.
+ */
 final class JwtVerifier
 {
+	static final String ISSUER_PROPERTY = "opendcs.rest.api.authorization.jwt.issuer.url";
+	static final String JWK_SET_PROPERTY = "opendcs.rest.api.authorization.jwt.jwkset.url";
+	static final String CACHE_SIZE_PROPERTY = "opendcs.rest.api.authorization.jwt.cache.size";
+
+	private static JwtVerifier instance = new JwtVerifier(Integer.getInteger(CACHE_SIZE_PROPERTY, 1024),
+			System::currentTimeMillis, JwtVerifier::jwkSetSource);
 
-	private static JwtVerifier instance = new JwtVerifier();
+	private final int cacheSize;
+	private final LongSupplier clock;
+	private final Function<String, JWKSource<SecurityContext>> keySources;
+	private volatile Processor processor;
 
-	private JwtVerifier()
+	/**
+	 * @param keySources creates the source of the keys from the JWK set url
+	 */
+	JwtVerifier(int cacheSize, LongSupplier clock, Function<String, JWKSource<SecurityContext>> keySources)
 	{
-		//access through singleton
+		//access through singleton, other instances for testing
+		this.cacheSize = cacheSize;
+		this.clock = clock;
+		this.keySources = keySources;
 	}
 
 	static JwtVerifier getInstance()
@@ -56,27 +86,131 @@ final class JwtVerifier
 		JwtVerifier.instance = instance;
 	}
 
-	JWTClaimsSet getClaimsSet(JWKSource<SecurityContext> keySource, String accessToken)
-			throws BadJOSEException, ParseException, JOSEException
+	/**
+	 * Verify the token against the keys of the configured JWK set url and the configured issuer.
+	 */
+	JWTClaimsSet getClaimsSet(String accessToken) throws BadJOSEException, ParseException, JOSEException
+	{
+		Processor current = processor(new Configuration(
+				DbInterface.decodesProperties.getProperty(JWK_SET_PROPERTY),
+				DbInterface.decodesProperties.getProperty(ISSUER_PROPERTY)));
+		long now = clock.getAsLong();
+		JWTClaimsSet ret = current.cached(accessToken, now);
+		if (ret == null)
+		{
+			ret = current.jwtProcessor.process(accessToken, null);
+			current.cache(accessToken, ret, now);
+		}
+		return ret;
+	}
+
+	private Processor processor(Configuration configuration)
+	{
+		Processor ret = processor;
+		if (ret == null || !ret.configuration.equals(configuration))
+		{
+			synchronized (this)
+			{
+				ret = processor;
+				if (ret == null || !ret.configuration.equals(configuration))
+				{
+					ret = new Processor(configuration, keySources.apply(configuration.jwkSetUrl()), cacheSize);
+					processor = ret;
+				}
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Keys of the JWK set at the url. The set is cached for 5 minutes and fetched again ahead of expiry, or when a
+	 * token is signed with a key id that is not in it, but at most once every 30 seconds.
+	 */
+	static JWKSource<SecurityContext> jwkSetSource(String url)
+	{
+		if (url == null || url.isBlank())
+		{
+			throw new IllegalStateException(JWK_SET_PROPERTY + " is not configured");
+		}
+		try
+		{
+			return JWKSourceBuilder.<SecurityContext>create(URI.create(url.trim()).toURL())
+					.refreshAheadCache(true)
+					.retrying(true)
+					.build();
+		}
+		catch (MalformedURLException | IllegalArgumentException ex)
+		{
+			throw new IllegalStateException("Invalid " + JWK_SET_PROPERTY + ": " + url, ex);
+		}
+	}
+
+	/**
+	 * The settings a processor is built for.
+	 */
+	private record Configuration(String jwkSetUrl, String issuer)
+	{
+	}
+
+	/**
+	 * A thread safe processor for one configuration, with the claims of the tokens it verified.
+	 */
+	private static final class Processor
 	{
-		// Nimbus API documentation taken from:
-		// https://connect2id.com/products/nimbus-jose-jwt/examples/validating-jwt-access-tokens
-		ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
-		// Set the required "typ" header "at+jwt" for access tokens
-		jwtProcessor.setJWSTypeVerifier(new DefaultJOSEObjectTypeVerifier<>(JOSEObjectType.JWT));
-
-		// The expected JWS algorithm of the access tokens (agreed out-of-band)
-		JWSAlgorithm expectedJWSAlg = JWSAlgorithm.RS256;
-		JWSKeySelector<SecurityContext> keySelector = new JWSVerificationKeySelector<>(expectedJWSAlg, keySource);
-		jwtProcessor.setJWSKeySelector(keySelector);
-		String issuer = DbInterface.decodesProperties.getProperty("opendcs.rest.api.authorization.jwt.issuer.url");
-		jwtProcessor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
-				new JWTClaimsSet.Builder().issuer(issuer).build(),
-				new HashSet<>(Arrays.asList(
-						JWTClaimNames.SUBJECT,
-						JWTClaimNames.ISSUED_AT,
-						JWTClaimNames.EXPIRATION_TIME,
-						JWTClaimNames.JWT_ID))));
-		return jwtProcessor.process(accessToken, null);
+		private final Configuration configuration;
+		private final ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+		private final Map<String, JWTClaimsSet> claims;
+
+		private Processor(Configuration configuration, JWKSource<SecurityContext> keySource, int cacheSize)
+		{
+			this.configuration = configuration;
+			this.claims = new LinkedHashMap<>(16, 0.75f, true)
+			{
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, JWTClaimsSet> eldest)
+				{
+					return size() > cacheSize;
+				}
+			};
+			// Nimbus API documentation taken from:
+			// https://connect2id.com/products/nimbus-jose-jwt/examples/validating-jwt-access-tokens
+			// Set the required "typ" header "at+jwt" for access tokens
+			jwtProcessor.setJWSTypeVerifier(new DefaultJOSEObjectTypeVerifier<>(JOSEObjectType.JWT));
+
+			// The expected JWS algorithm of the access tokens (agreed out-of-band)
+			JWSAlgorithm expectedJWSAlg = JWSAlgorithm.RS256;
+			JWSKeySelector<SecurityContext> keySelector = new JWSVerificationKeySelector<>(expectedJWSAlg, keySource);
+			jwtProcessor.setJWSKeySelector(keySelector);
+			jwtProcessor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+					new JWTClaimsSet.Builder().issuer(configuration.issuer()).build(),
+					new HashSet<>(Arrays.asList(
+							JWTClaimNames.SUBJECT,
+							JWTClaimNames.ISSUED_AT,
+							JWTClaimNames.EXPIRATION_TIME,
+							JWTClaimNames.JWT_ID))));
+		}
+
+		/**
+		 * @return the claims of the token if it was verified before and has not expired, otherwise null
+		 */
+		private synchronized JWTClaimsSet cached(String accessToken, long now)
+		{
+			JWTClaimsSet ret = claims.get(accessToken);
+			if (ret != null && ret.getExpirationTime().getTime() <= now)
+			{
+				claims.remove(accessToken);
+				return null;
+			}
+			return ret;
+		}
+
+		private synchronized void cache(String accessToken, JWTClaimsSet verified, long now)
+		{
+			// Tokens within the allowed clock skew of their expiry are verified every time
+			if (verified.getExpirationTime() != null && verified.getExpirationTime().getTime() > now)
+			{
+				claims.put(accessToken, verified);
+			}
+		}
 	}
 }
@@ -0,0 +1,252 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes time series samples in the compact columnar format served for {@value #MEDIA_TYPE}.
+ * <p>
+ * Samples are collected into blocks of up to {@value #BLOCK_SIZE} points and each block is written as three
+ * columns as soon as it is full, so the encoder holds one block regardless of the length of the series.
+ * <pre>
+ * stream  := "ODTS" version:u8 tsidLength:varint tsid block* 0:varint nextPage
+ * tsid    := ApiTimeSeriesIdentifier as UTF-8 JSON
+ * block   := count:varint times values flags
+ * times   := first:zigzag [firstDelta:zigzag] deltaOfDelta:zigzag*   epoch milliseconds
+ * values  := Gorilla XOR bit stream of the IEEE 754 doubles, padded to a byte
+ * flags   := (runLength:varint flags:varint)* until the runs cover count samples
+ * nextPage:= 0:u8 | 1:u8 length:varint UTF-8 token
+ * </pre>
+ * Varints are unsigned LEB128, zigzag values are zigzag mapped before the varint encoding. In the value stream a
+ * 0 bit repeats the previous value; otherwise 1 is followed by 0 and the meaningful bits of the XOR with the
+ * previous value within the previous leading/trailing zero window, or by 1, 6 bits of leading zeros, 6 bits of
+ * meaningful length minus one and the meaningful bits. Each block is decoded on its own.
+ */
+public final class TimeSeriesColumnarEncoder
+{
+	public static final String MEDIA_TYPE = "application/vnd.opendcs.tsdata.columnar";
+	public static final int VERSION = 1;
+	public static final int BLOCK_SIZE = 1024;
+	private static final byte[] MAGIC = {'O', 'D', 'T', 'S'};
+
+	private final OutputStream output;
+	private final long[] times = new long[BLOCK_SIZE];
+	private final long[] values = new long[BLOCK_SIZE];
+	private final long[] flags = new long[BLOCK_SIZE];
+	private int count;
+	private byte[] buffer = new byte[BLOCK_SIZE * 12];
+	private int position;
+	// Pending bits of the value column, most significant first
+	private long bits;
+	private int bitCount;
+
+	/**
+	 * Write the stream header.
+	 * @param output receives the encoded stream, it is not closed by the encoder
+	 * @param tsid the time series identifier as UTF-8 JSON
+	 */
+	public TimeSeriesColumnarEncoder(OutputStream output, byte[] tsid) throws IOException
+	{
+		this.output = output;
+		output.write(MAGIC);
+		writeByte(VERSION);
+		writeVarint(tsid.length);
+		flushBuffer();
+		output.write(tsid);
+	}
+
+	public void write(long time, double value, long sampleFlags) throws IOException
+	{
+		times[count] = time;
+		values[count] = Double.doubleToRawLongBits(value);
+		flags[count] = sampleFlags;
+		count++;
+		if (count == BLOCK_SIZE)
+		{
+			writeBlock();
+		}
+	}
+
+	/**
+	 * Write the remaining samples and the end of the stream. The output is flushed but not closed.
+	 * @param nextPage continuation token, null if there is none
+	 */
+	public void finish(String nextPage) throws IOException
+	{
+		if (count > 0)
+		{
+			writeBlock();
+		}
+		writeVarint(0);
+		if (nextPage == null)
+		{
+			writeByte(0);
+		}
+		else
+		{
+			byte[] token = nextPage.getBytes(StandardCharsets.UTF_8);
+			writeByte(1);
+			writeVarint(token.length);
+			ensure(token.length);
+			System.arraycopy(token, 0, buffer, position, token.length);
+			position += token.length;
+		}
+		flushBuffer();
+		output.flush();
+	}
+
+	private void writeBlock() throws IOException
+	{
+		writeVarint(count);
+		writeTimes();
+		writeValues();
+		writeFlags();
+		flushBuffer();
+		count = 0;
+	}
+
+	private void writeTimes()
+	{
+		writeZigzag(times[0]);
+		if (count > 1)
+		{
+			long delta = times[1] - times[0];
+			writeZigzag(delta);
+			for (int i = 2; i < count; i++)
+			{
+				long next = times[i] - times[i - 1];
+				writeZigzag(next - delta);
+				delta = next;
+			}
+		}
+	}
+
+	private void writeValues()
+	{
+		long previous = values[0];
+		writeBits(previous, 64);
+		int leading = -1;
+		int trailing = 0;
+		for (int i = 1; i < count; i++)
+		{
+			long xor = values[i] ^ previous;
+			previous = values[i];
+			if (xor == 0)
+			{
+				writeBits(0, 1);
+				continue;
+			}
+			int lead = Long.numberOfLeadingZeros(xor);
+			int trail = Long.numberOfTrailingZeros(xor);
+			if (leading >= 0 && lead >= leading && trail >= trailing)
+			{
+				writeBits(0b10, 2);
+				writeBits(xor >>> trailing, 64 - leading - trailing);
+			}
+			else
+			{
+				int length = 64 - lead - trail;
+				writeBits(0b11, 2);
+				writeBits(lead, 6);
+				writeBits(length - 1L, 6);
+				writeBits(xor >>> trail, length);
+				leading = lead;
+				trailing = trail;
+			}
+		}
+		if (bitCount > 0)
+		{
+			writeByte((int) (bits << (8 - bitCount)));
+			bits = 0;
+			bitCount = 0;
+		}
+	}
+
+	private void writeFlags()
+	{
+		int run = 1;
+		for (int i = 1; i <= count; i++)
+		{
+			if (i < count && flags[i] == flags[i - 1])
+			{
+				run++;
+			}
+			else
+			{
+				writeVarint(run);
+				writeVarint(flags[i - 1]);
+				run = 1;
+			}
+		}
+	}
+
+	private void writeBits(long value, int length)
+	{
+		for (int remaining = length; remaining > 0; )
+		{
+			int take = Math.min(remaining, 8 - bitCount);
+			remaining -= take;
+			bits = (bits << take) | ((value >>> remaining) & ((1L << take) - 1));
+			bitCount += take;
+			if (bitCount == 8)
+			{
+				writeByte((int) bits);
+				bits = 0;
+				bitCount = 0;
+			}
+		}
+	}
+
+	private void writeZigzag(long value)
+	{
+		writeVarint((value << 1) ^ (value >> 63));
+	}
+
+	private void writeVarint(long value)
+	{
+		ensure(10);
+		while ((value & ~0x7FL) != 0)
+		{
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	private void writeByte(int value)
+	{
+		ensure(1);
+		buffer[position++] = (byte) value;
+	}
+
+	private void ensure(int length)
+	{
+		if (position + length > buffer.length)
+		{
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+		}
+	}
+
+	private void flushBuffer() throws IOException
+	{
+		output.write(buffer, 0, position);
+		position = 0;
+	}
+}
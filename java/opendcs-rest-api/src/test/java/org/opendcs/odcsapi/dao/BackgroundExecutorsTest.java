@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class BackgroundExecutorsTest
+{
+	@Test
+	void testSlowTaskDoesNotStarveOthers() throws InterruptedException
+	{
+		ScheduledThreadPoolExecutor scheduler = BackgroundExecutors.newScheduler("test-refresh", 2);
+		try
+		{
+			CountDownLatch release = new CountDownLatch(1);
+			CountDownLatch slowStarted = new CountDownLatch(1);
+			CountDownLatch otherRuns = new CountDownLatch(3);
+			scheduler.scheduleWithFixedDelay(() ->
+			{
+				slowStarted.countDown();
+				awaitQuietly(release);
+			}, 0, 1, TimeUnit.MILLISECONDS);
+			assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+			scheduler.scheduleWithFixedDelay(otherRuns::countDown, 0, 1, TimeUnit.MILLISECONDS);
+
+			assertTrue(otherRuns.await(5, TimeUnit.SECONDS), "Other organization was not refreshed");
+			release.countDown();
+		}
+		finally
+		{
+			scheduler.shutdownNow();
+		}
+		assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await();
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.opendcs.database.api.OpenDcsDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares per-request database lookup throughput of the previous {@code static synchronized}
+ * HashMap factory with {@link OpenDcsDatabaseRegistry} at 1, 8 and 64 threads.
+ * <p>
+ * Run with: {@code ./gradlew :opendcs-rest-api:jmh -Pjmh.args="OpenDcsDatabaseRegistryBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenDcsDatabaseRegistryBenchmark
+{
+	private static final String[] ORGANIZATIONS = {"SPK", "SWT", "NWW", "LRL", "MVR", "SAJ", "NAB", "HQ"};
+
+	private OpenDcsDatabaseRegistry registry;
+	private Function<String, OpenDcsDatabase> factory;
+
+	@Setup
+	public void setup()
+	{
+		registry = new OpenDcsDatabaseRegistry(256, Duration.ofHours(1), Duration.ofMinutes(10));
+		OpenDcsDatabase db = mock(OpenDcsDatabase.class);
+		factory = o -> db;
+		for(String org : ORGANIZATIONS)
+		{
+			registry.get(org, factory);
+			SynchronizedFactory.createDb(org, factory);
+		}
+	}
+
+	private static String organization()
+	{
+		return ORGANIZATIONS[ThreadLocalRandom.current().nextInt(ORGANIZATIONS.length)];
+	}
+
+	@Benchmark
+	@Threads(1)
+	public OpenDcsDatabase synchronizedFactory1()
+	{
+		return SynchronizedFactory.createDb(organization(), factory);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public OpenDcsDatabase synchronizedFactory8()
+	{
+		return SynchronizedFactory.createDb(organization(), factory);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public OpenDcsDatabase synchronizedFactory64()
+	{
+		return SynchronizedFactory.createDb(organization(), factory);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public OpenDcsDatabase registry1()
+	{
+		return registry.get(organization(), factory);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public OpenDcsDatabase registry8()
+	{
+		return registry.get(organization(), factory);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public OpenDcsDatabase registry64()
+	{
+		return registry.get(organization(), factory);
+	}
+
+	/**
+	 * Copy of the lookup previously used by {@link OpenDcsDatabaseFactory}, kept as the baseline.
+	 */
+	private static final class SynchronizedFactory
+	{
+		private static final Map<String, OpenDcsDatabase> dbCache = new HashMap<>();
+
+		static synchronized OpenDcsDatabase createDb(String organization, Function<String, OpenDcsDatabase> factory)
+		{
+			return dbCache.computeIfAbsent(organization, factory);
+		}
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.database.api.OpenDcsDatabase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+final class OpenDcsDatabaseRegistryTest
+{
+	private static final Duration CLOSE_DELAY = Duration.ofMinutes(2);
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void testCachesPerOrganization()
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(10, Duration.ofHours(1), CLOSE_DELAY, clock::get);
+		AtomicInteger created = new AtomicInteger();
+		OpenDcsDatabase spk = registry.get("SPK", o -> newDb(created));
+		OpenDcsDatabase swt = registry.get("SWT", o -> newDb(created));
+		OpenDcsDatabase noOrg = registry.get(null, o -> newDb(created));
+
+		assertNotSame(spk, swt);
+		assertSame(spk, registry.get("SPK", o -> newDb(created)));
+		assertSame(noOrg, registry.get(null, o -> newDb(created)));
+		assertEquals(3, created.get());
+
+		OpenDcsDatabaseRegistry.Metrics metrics = registry.getMetrics();
+		assertEquals(2, metrics.hits());
+		assertEquals(3, metrics.misses());
+		assertEquals(3, metrics.creations());
+		assertEquals(3, metrics.size());
+	}
+
+	@Test
+	void testFailedCreationIsRetried()
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(10, Duration.ofHours(1), CLOSE_DELAY, clock::get);
+		assertThrows(IllegalStateException.class, () -> registry.get("SPK", o ->
+		{
+			throw new IllegalStateException("No data source");
+		}));
+		assertEquals(0, registry.size());
+		AtomicInteger created = new AtomicInteger();
+		registry.get("SPK", o -> newDb(created));
+		assertEquals(1, created.get());
+	}
+
+	@Test
+	void testIdleAndSizeEviction() throws Exception
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(2, Duration.ofMinutes(10), CLOSE_DELAY, clock::get);
+		OpenDcsDatabase spk = mock(OpenDcsDatabase.class, withSettings().extraInterfaces(AutoCloseable.class));
+		OpenDcsDatabase swt = mock(OpenDcsDatabase.class);
+		registry.get("SPK", o -> spk);
+		clock.addAndGet(Duration.ofMinutes(5).toNanos());
+		registry.get("SWT", o -> swt);
+		clock.addAndGet(Duration.ofMinutes(6).toNanos());
+		// SPK has now been idle for 11 minutes and is dropped when the next organization is registered
+		registry.get("NWW", o -> mock(OpenDcsDatabase.class));
+		// Requests may still hold the evicted database
+		verify((AutoCloseable) spk, never()).close();
+		assertEquals(2, registry.size());
+
+		clock.addAndGet(Duration.ofMinutes(1).toNanos());
+		registry.get("NWW", o -> mock(OpenDcsDatabase.class));
+		registry.get("LRL", o -> mock(OpenDcsDatabase.class));
+		// bounded to two, SWT was the least recently used
+		assertEquals(2, registry.size());
+		assertEquals(2, registry.getMetrics().evictions());
+		AtomicInteger created = new AtomicInteger();
+		registry.get("SWT", o -> newDb(created));
+		assertEquals(1, created.get());
+
+		// Closed once it has been evicted for longer than the close delay
+		registry.sweep();
+		verify((AutoCloseable) spk, never()).close();
+		clock.addAndGet(Duration.ofMinutes(2).toNanos());
+		registry.sweep();
+		verify((AutoCloseable) spk).close();
+		registry.sweep();
+		verify((AutoCloseable) spk).close();
+	}
+
+	@Test
+	void testClearClosesEverything() throws Exception
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(1, Duration.ofHours(1), CLOSE_DELAY, clock::get);
+		OpenDcsDatabase spk = mock(OpenDcsDatabase.class, withSettings().extraInterfaces(AutoCloseable.class));
+		OpenDcsDatabase swt = mock(OpenDcsDatabase.class, withSettings().extraInterfaces(AutoCloseable.class));
+		registry.get("SPK", o -> spk);
+		clock.addAndGet(Duration.ofSeconds(2).toNanos());
+		registry.get("SWT", o -> swt);
+		verify((AutoCloseable) spk, never()).close();
+
+		registry.clear();
+		verify((AutoCloseable) spk).close();
+		verify((AutoCloseable) swt).close();
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void testWaiterOfFailedCreationRegistersItsDatabase() throws Exception
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(10, Duration.ofHours(1), CLOSE_DELAY);
+		CountDownLatch creating = new CountDownLatch(1);
+		CountDownLatch fail = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			Future<?> failing = executor.submit(() -> registry.get("SPK", o ->
+			{
+				creating.countDown();
+				awaitUninterruptibly(fail);
+				throw new IllegalStateException("Connection refused");
+			}));
+			creating.await();
+			AtomicInteger created = new AtomicInteger();
+			AtomicReference<Thread> waiter = new AtomicReference<>();
+			Future<OpenDcsDatabase> waiting = executor.submit(() ->
+			{
+				waiter.set(Thread.currentThread());
+				return registry.get("SPK", o -> newDb(created));
+			});
+			// Waits on the creation in progress
+			while(waiter.get() == null || waiter.get().getState() != Thread.State.BLOCKED)
+			{
+				Thread.onSpinWait();
+			}
+			fail.countDown();
+			assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS));
+			OpenDcsDatabase db = waiting.get(10, TimeUnit.SECONDS);
+
+			// The database of the waiter is the registered one
+			assertSame(db, registry.get("SPK", o -> newDb(created)));
+			assertEquals(1, created.get());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testScheduledSweepAndRecentUse()
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(2, Duration.ofMinutes(10), CLOSE_DELAY, clock::get);
+		registry.get("SPK", o -> mock(OpenDcsDatabase.class));
+		registry.get("SWT", o -> mock(OpenDcsDatabase.class));
+		clock.addAndGet(Duration.ofMinutes(8).toNanos());
+		registry.get("SPK", o -> mock(OpenDcsDatabase.class));
+		clock.addAndGet(Duration.ofMinutes(3).toNanos());
+		// Without any new organization, the sweep drops SWT but keeps the recently used SPK
+		registry.sweep();
+		assertEquals(1, registry.size());
+		AtomicInteger created = new AtomicInteger();
+		registry.get("SPK", o -> newDb(created));
+		assertEquals(0, created.get());
+
+		registry.get("SWT", o -> newDb(created));
+		clock.addAndGet(Duration.ofMinutes(1).toNanos());
+		registry.get("SPK", o -> newDb(created));
+		registry.get("NWW", o -> newDb(created));
+		// Over the size bound, SWT is the least recently used
+		assertEquals(2, registry.size());
+		registry.get("SPK", o -> newDb(created));
+		registry.get("NWW", o -> newDb(created));
+		assertEquals(2, created.get());
+	}
+
+	@Test
+	void testConcurrentInitializationHappensOnce() throws Exception
+	{
+		OpenDcsDatabaseRegistry registry = new OpenDcsDatabaseRegistry(10, Duration.ofHours(1), CLOSE_DELAY);
+		AtomicInteger created = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try
+		{
+			Future<?>[] futures = new Future<?>[64];
+			for(int i = 0; i < futures.length; i++)
+			{
+				String org = i % 2 == 0 ? "SPK" : "SWT";
+				futures[i] = executor.submit(() ->
+				{
+					start.await();
+					return registry.get(org, o -> newDb(created));
+				});
+			}
+			start.countDown();
+			for(Future<?> future : futures)
+			{
+				future.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		assertEquals(2, created.get());
+		assertTrue(registry.getMetrics().hits() >= 62);
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await();
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static OpenDcsDatabase newDb(AtomicInteger created)
+	{
+		created.incrementAndGet();
+		return mock(OpenDcsDatabase.class);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class OrganizationRegistryTest
+{
+	@Test
+	void testValuesPerOrganization()
+	{
+		OrganizationRegistry<List<String>> registry = new OrganizationRegistry<>();
+		List<String> created = new ArrayList<>();
+		List<String> spk = registry.computeIfAbsent("SPK", o -> newValue(o, created));
+		List<String> noOrg = registry.computeIfAbsent(null, o -> newValue(o, created));
+
+		assertSame(spk, registry.computeIfAbsent("SPK", o -> newValue(o, created)));
+		assertSame(noOrg, registry.computeIfAbsent(null, o -> newValue(o, created)));
+		// The factory sees the organization as requested, null included
+		assertEquals(List.of("SPK", "null"), created);
+		assertSame(noOrg, registry.get(null));
+		assertNull(registry.get("SWT"));
+		assertEquals(2, registry.size());
+		assertEquals(2, registry.values().size());
+	}
+
+	@Test
+	void testIfPresentAndRemove()
+	{
+		OrganizationRegistry<List<String>> registry = new OrganizationRegistry<>();
+		List<String> noOrg = registry.computeIfAbsent(null, o -> new ArrayList<>());
+		registry.ifPresent(null, value -> value.add("invalidated"));
+		registry.ifPresent("SPK", value -> value.add("not registered"));
+		assertEquals(List.of("invalidated"), noOrg);
+
+		assertFalse(registry.remove(null, new ArrayList<>()));
+		assertTrue(registry.remove(null, noOrg));
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void testFailedFactoryRegistersNothing()
+	{
+		OrganizationRegistry<List<String>> registry = new OrganizationRegistry<>();
+		assertThrows(IllegalStateException.class, () -> registry.computeIfAbsent("SPK", o ->
+		{
+			throw new IllegalStateException("No data source");
+		}));
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void testBoundedRemovesLeastRecentlyUsed()
+	{
+		OrganizationRegistry<List<String>> registry = new OrganizationRegistry<>(2);
+		List<String> spk = registry.computeIfAbsent("SPK", o -> new ArrayList<>());
+		registry.computeIfAbsent("SWT", o -> new ArrayList<>());
+		assertSame(spk, registry.get("SPK"));
+		registry.computeIfAbsent("MVR", o -> new ArrayList<>());
+
+		assertEquals(2, registry.size());
+		assertSame(spk, registry.get("SPK"));
+		assertNull(registry.get("SWT"));
+		assertNotNull(registry.get("MVR"));
+	}
+
+	@Test
+	void testDurationProperty()
+	{
+		String property = OrganizationRegistryTest.class.getName() + ".duration";
+		assertEquals(Duration.ofMinutes(5), OrganizationRegistry.durationProperty(property, "PT5M"));
+		System.setProperty(property, "PT30S");
+		try
+		{
+			assertEquals(Duration.ofSeconds(30), OrganizationRegistry.durationProperty(property, "PT5M"));
+		}
+		finally
+		{
+			System.clearProperty(property);
+		}
+	}
+
+	private static List<String> newValue(String organization, List<String> created)
+	{
+		created.add(String.valueOf(organization));
+		return new ArrayList<>();
+	}
+}
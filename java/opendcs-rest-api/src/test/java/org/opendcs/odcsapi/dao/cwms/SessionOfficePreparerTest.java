@@ -0,0 +1,174 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao.cwms;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+final class SessionOfficePreparerTest
+{
+	private Connection conn;
+	private DatabaseMetaData metaData;
+	private PreparedStatement packageQuery;
+	private PreparedStatement setContext;
+	private PreparedStatement contextQuery;
+	/**
+	 * Office and privilege level of the simulated database session.
+	 */
+	private String sessionOffice;
+	private String sessionPrivLevel;
+	private String pendingOffice;
+
+	@BeforeEach
+	void setup() throws SQLException
+	{
+		conn = mock(Connection.class);
+		metaData = mock(DatabaseMetaData.class);
+		when(conn.getMetaData()).thenReturn(metaData);
+		packageQuery = mock(PreparedStatement.class);
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.next()).thenReturn(true);
+		when(rs.getInt(1)).thenReturn(1);
+		when(packageQuery.executeQuery()).thenReturn(rs);
+		setContext = mock(PreparedStatement.class);
+		when(conn.prepareStatement(contains("all_objects"))).thenReturn(packageQuery);
+		when(conn.prepareStatement(contains("set_ccp_session_ctx"))).thenReturn(setContext);
+		doAnswer(invocation -> pendingOffice = invocation.getArgument(1))
+				.when(setContext).setString(eq(1), anyString());
+		when(setContext.execute()).thenAnswer(invocation -> setSessionContext());
+		contextQuery = mock(PreparedStatement.class);
+		when(conn.prepareStatement(contains("sys_context"))).thenReturn(contextQuery);
+		when(contextQuery.executeQuery()).thenAnswer(invocation ->
+		{
+			ResultSet context = mock(ResultSet.class);
+			when(context.next()).thenReturn(true);
+			when(context.getString(1)).thenReturn(sessionOffice);
+			when(context.getString(2)).thenReturn(sessionPrivLevel);
+			return context;
+		});
+	}
+
+	private boolean setSessionContext()
+	{
+		sessionOffice = pendingOffice;
+		sessionPrivLevel = "2";
+		return false;
+	}
+
+	@Test
+	void testNonOracleLooksUpProductOnce() throws SQLException
+	{
+		when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+		SessionOfficePreparer preparer = new SessionOfficePreparer("SPK");
+		long prepared = SessionOfficePreparer.getPrepareCount();
+		long skipped = SessionOfficePreparer.getSkippedPrepareCount();
+		for(int i = 0; i < 3; i++)
+		{
+			preparer.prepare(conn);
+		}
+		verify(conn, times(1)).getMetaData();
+		verify(conn, never()).prepareStatement(anyString());
+		// Only Oracle connections are counted
+		assertEquals(prepared, SessionOfficePreparer.getPrepareCount());
+		assertEquals(skipped, SessionOfficePreparer.getSkippedPrepareCount());
+	}
+
+	@Test
+	void testSkipsWhenOfficeAlreadySet() throws SQLException
+	{
+		when(metaData.getDatabaseProductName()).thenReturn("Oracle");
+		SessionOfficePreparer spk = new SessionOfficePreparer("SPK");
+		SessionOfficePreparer swt = new SessionOfficePreparer("SWT");
+		long skipped = SessionOfficePreparer.getSkippedPrepareCount();
+
+		spk.prepare(conn);
+		spk.prepare(conn);
+		verify(packageQuery, times(1)).executeQuery();
+		verify(setContext, times(1)).execute();
+		verify(setContext).setString(1, "SPK");
+
+		// connection reused by another organization must be switched, and back again
+		swt.prepare(conn);
+		verify(setContext).setString(1, "SWT");
+		spk.prepare(conn);
+		verify(setContext, times(3)).execute();
+		assertEquals(skipped + 1, SessionOfficePreparer.getSkippedPrepareCount());
+	}
+
+	@Test
+	void testContextIsReadFromTheSession() throws SQLException
+	{
+		when(metaData.getDatabaseProductName()).thenReturn("Oracle");
+		SessionOfficePreparer spk = new SessionOfficePreparer("SPK");
+		spk.prepare(conn);
+
+		// The session context changed without this preparer, e.g. on a connection replaced by the pool
+		sessionOffice = "SWT";
+		spk.prepare(conn);
+		verify(setContext, times(2)).execute();
+		sessionPrivLevel = "0";
+		spk.prepare(conn);
+		verify(setContext, times(3)).execute();
+		assertEquals("SPK", sessionOffice);
+	}
+
+	@Test
+	void testMissingPackageSkipsContext() throws SQLException
+	{
+		when(metaData.getDatabaseProductName()).thenReturn("Oracle");
+		ResultSet empty = mock(ResultSet.class);
+		when(empty.next()).thenReturn(true);
+		when(empty.getInt(1)).thenReturn(0);
+		when(packageQuery.executeQuery()).thenReturn(empty);
+		SessionOfficePreparer preparer = new SessionOfficePreparer(null);
+		preparer.prepare(conn);
+		preparer.prepare(conn);
+		verify(packageQuery, times(1)).executeQuery();
+		verify(setContext, never()).execute();
+	}
+
+	@Test
+	void testFailureForgetsSessionState() throws SQLException
+	{
+		when(metaData.getDatabaseProductName()).thenReturn("Oracle");
+		when(setContext.execute()).thenThrow(new SQLException("ORA-28113"))
+				.thenAnswer(invocation -> setSessionContext());
+		SessionOfficePreparer preparer = new SessionOfficePreparer("SPK");
+		assertThrows(SQLException.class, () -> preparer.prepare(conn));
+		preparer.prepare(conn);
+		preparer.prepare(conn);
+		verify(packageQuery, times(2)).executeQuery();
+		verify(setContext, times(2)).execute();
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.dao.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+final class RequestConnectionScopeTest
+{
+	@Mock
+	private DataSource pool;
+
+	private final List<Connection> pooled = new ArrayList<>();
+	private final AtomicInteger prepared = new AtomicInteger();
+	private ConnectionPreparingDataSource dataSource;
+
+	@BeforeEach
+	void setup() throws SQLException
+	{
+		lenient().when(pool.getConnection()).thenAnswer(invocation ->
+		{
+			Connection ret = mock(Connection.class);
+			pooled.add(ret);
+			return ret;
+		});
+		dataSource = new ConnectionPreparingDataSource(connection ->
+		{
+			prepared.incrementAndGet();
+			return connection;
+		}, pool);
+	}
+
+	@AfterEach
+	void unbind()
+	{
+		RequestConnectionScope.unbind();
+	}
+
+	@Test
+	void testWithoutScopeEveryCallGetsItsOwnConnection() throws SQLException
+	{
+		assertNotSame(dataSource.getConnection(), dataSource.getConnection());
+		verify(pool, times(2)).getConnection();
+		assertEquals(2, prepared.get());
+	}
+
+	@Test
+	void testScopeSharesOneConnection() throws SQLException
+	{
+		try (RequestConnectionScope scope = RequestConnectionScope.open())
+		{
+			Connection siteDao = dataSource.getConnection();
+			Connection propertiesDao = dataSource.getConnection();
+			siteDao.prepareStatement("select 1");
+			propertiesDao.prepareStatement("select 2");
+			siteDao.close();
+			assertTrue(siteDao.isClosed());
+			assertThrows(SQLException.class, () -> siteDao.prepareStatement("select 3"));
+			propertiesDao.close();
+			dataSource.getConnection().prepareStatement("select 4");
+
+			assertEquals(1, pooled.size());
+			assertEquals(1, prepared.get());
+			assertEquals(1, scope.size());
+			verify(pooled.get(0)).prepareStatement("select 1");
+			verify(pooled.get(0)).prepareStatement("select 4");
+			verify(pooled.get(0), never()).close();
+		}
+		verify(pooled.get(0)).close();
+	}
+
+	@Test
+	void testUncommittedWorkIsRolledBackWhenAUseCloses() throws SQLException
+	{
+		Connection connection = mock(Connection.class);
+		when(pool.getConnection()).thenReturn(connection);
+		when(connection.getAutoCommit()).thenReturn(true, false);
+		try (RequestConnectionScope scope = RequestConnectionScope.open())
+		{
+			Connection transaction = dataSource.getConnection();
+			transaction.setAutoCommit(false);
+			transaction.close();
+			verify(connection).rollback();
+			verify(connection).setAutoCommit(true);
+		}
+	}
+
+	@Test
+	void testOtherThreadsAndClosedScopesUseThePool() throws Exception
+	{
+		RequestConnectionScope scope = RequestConnectionScope.open();
+		dataSource.getConnection();
+		CompletableFuture.runAsync(() ->
+		{
+			try
+			{
+				dataSource.getConnection().close();
+			}
+			catch (SQLException ex)
+			{
+				throw new IllegalStateException(ex);
+			}
+		}).get();
+		assertEquals(2, pooled.size());
+		verify(pooled.get(1)).close();
+
+		// A request finishing on another thread leaves its closed scope bound to this one
+		CompletableFuture.runAsync(() ->
+		{
+			try
+			{
+				scope.close();
+			}
+			catch (SQLException ex)
+			{
+				throw new IllegalStateException(ex);
+			}
+		}).get();
+		verify(pooled.get(0)).close();
+		dataSource.getConnection();
+		assertEquals(3, pooled.size());
+		assertEquals(0, scope.size());
+	}
+}
@@ -1,24 +1,42 @@
 package org.opendcs.odcsapi.res;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
 
 import decodes.sql.DbKey;
 import decodes.tsdb.CompAppInfo;
 import decodes.tsdb.TsdbCompLock;
+import opendcs.dai.LoadingAppDAI;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 import org.opendcs.odcsapi.beans.ApiAppRef;
 import org.opendcs.odcsapi.beans.ApiAppStatus;
 import org.opendcs.odcsapi.beans.ApiLoadingApp;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.opendcs.odcsapi.res.AppResources.map;
 import static org.opendcs.odcsapi.res.AppResources.mapLoading;
+import static org.opendcs.odcsapi.res.AppResources.readAppStatus;
 
+@ExtendWith(MockitoExtension.class)
 final class AppResourcesTest
 {
+	@Mock
+	LoadingAppDAI dai;
+
 	@Test
 	void testAppRefMap()
 	{
@@ -115,4 +133,48 @@ final class AppResourcesTest
 		assertEquals(compAppInfo.getManualEditApp(), app.isManualEditingApp());
 		assertEquals(compAppInfo.getProperties(), app.getProperties());
 	}
+
+	@Test
+	void testStatusJoinsApps() throws Exception
+	{
+		List<TsdbCompLock> locks = new ArrayList<>();
+		List<CompAppInfo> apps = new ArrayList<>();
+		when(dai.getAllCompProcLocks()).thenReturn(locks);
+		when(dai.listComputationApps(false)).thenReturn(apps);
+		for (int count : new int[]{1, 50})
+		{
+			while (locks.size() < count)
+			{
+				long id = 1000L + locks.size();
+				locks.add(new TsdbCompLock(DbKey.createDbKey(id), 4000 + locks.size(), "localhost",
+						Date.from(Instant.parse("2021-07-01T00:00:00Z")), "Running"));
+				CompAppInfo app = new CompAppInfo();
+				app.setAppId(DbKey.createDbKey(id));
+				app.setAppName("app" + id);
+				Properties properties = new Properties();
+				properties.setProperty("appType", "computationprocess");
+				properties.setProperty("EventPort", String.valueOf(20000 + locks.size()));
+				app.setProperties(properties);
+				apps.add(app);
+			}
+			// A lock whose application record is gone is still listed
+			locks.add(new TsdbCompLock(DbKey.createDbKey(1L), 1, "localhost",
+					Date.from(Instant.parse("2021-07-01T00:00:00Z")), "Stale"));
+
+			List<ApiAppStatus> status = readAppStatus(dai);
+
+			assertEquals(count + 1, status.size());
+			assertEquals(1000L, status.get(0).getAppId());
+			assertEquals("computationprocess", status.get(0).getAppType());
+			assertEquals(Integer.valueOf(20001), status.get(0).getEventPort());
+			assertEquals(Integer.valueOf(20000 + count), status.get(count - 1).getEventPort());
+			assertNull(status.get(count).getAppType());
+			assertNull(status.get(count).getEventPort());
+			verify(dai, times(1)).getAllCompProcLocks();
+			verify(dai, times(1)).listComputationApps(false);
+			verify(dai, never()).getComputationApp(any());
+			clearInvocations(dai);
+			locks.remove(count);
+		}
+	}
 }
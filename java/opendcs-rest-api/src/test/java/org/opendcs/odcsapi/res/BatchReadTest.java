@@ -0,0 +1,70 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.errorhandling.MissingParameterException;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class BatchReadTest
+{
+	@Test
+	void testParsesIds() throws Exception
+	{
+		assertEquals(List.of(5L, 3L, 7L, 9L), BatchRead.ids(List.of("5, 3,,5", "7", "9,")));
+	}
+
+	@Test
+	void testInvalidIds()
+	{
+		assertThrows(MissingParameterException.class, () -> BatchRead.ids(null));
+		assertThrows(MissingParameterException.class, () -> BatchRead.ids(List.of(" , ")));
+		WebAppException ex = assertThrows(WebAppException.class, () -> BatchRead.ids(List.of("5,six")));
+		assertEquals(400, ex.getStatus());
+		List<String> tooMany = LongStream.rangeClosed(0, BatchRead.MAX_IDS).mapToObj(Long::toString).toList();
+		assertEquals(400, assertThrows(WebAppException.class, () -> BatchRead.ids(tooMany)).getStatus());
+	}
+
+	@Test
+	void testReadsInOrderAndSkipsMissing() throws Exception
+	{
+		List<Long> reads = new ArrayList<>();
+		List<String> ret = BatchRead.read(List.of(3L, 4L, 1L), id ->
+		{
+			reads.add(id);
+			return id == 4L ? null : "site" + id;
+		});
+		assertEquals(List.of("site3", "site1"), ret);
+		assertEquals(List.of(3L, 4L, 1L), reads);
+	}
+
+	@Test
+	void testReadFailureIsThrown()
+	{
+		assertThrows(DbException.class, () -> BatchRead.read(List.of(1L), id ->
+		{
+			throw new DbException("Database unavailable");
+		}));
+	}
+}
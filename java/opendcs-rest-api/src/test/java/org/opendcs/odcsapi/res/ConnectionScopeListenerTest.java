@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opendcs.odcsapi.dao.datasource.ConnectionPreparingDataSource;
+import org.opendcs.odcsapi.dao.datasource.RequestConnectionScope;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+final class ConnectionScopeListenerTest
+{
+	@Mock
+	private DataSource pool;
+	@Mock
+	private Connection connection;
+	@Mock
+	private ContainerRequest request;
+
+	@AfterEach
+	void unbind()
+	{
+		RequestConnectionScope.unbind();
+	}
+
+	@Test
+	void testConnectionReturnedWhenResourceMethodReturns() throws SQLException
+	{
+		when(pool.getConnection()).thenReturn(connection);
+		DataSource dataSource = new ConnectionPreparingDataSource(c -> c, pool);
+		RequestEventListener listener = new ConnectionScopeListener().onRequest(mock(RequestEvent.class));
+		RequestConnectionScope scope = RequestConnectionScope.open();
+		when(request.getProperty(OpenDcsResource.CONNECTION_SCOPE_PROPERTY)).thenReturn(scope);
+		dataSource.getConnection().close();
+		dataSource.getConnection().close();
+
+		listener.onEvent(event(RequestEvent.Type.RESOURCE_METHOD_START));
+		verify(connection, never()).close();
+		// The entity is written after the resource method returns, without holding the shared connection
+		listener.onEvent(event(RequestEvent.Type.RESOURCE_METHOD_FINISHED));
+		verify(connection).close();
+		verify(pool).getConnection();
+		dataSource.getConnection();
+		verify(pool, times(2)).getConnection();
+	}
+
+	private RequestEvent event(RequestEvent.Type type)
+	{
+		RequestEvent ret = mock(RequestEvent.class);
+		when(ret.getType()).thenReturn(type);
+		if (type == RequestEvent.Type.RESOURCE_METHOD_FINISHED)
+		{
+			when(ret.getContainerRequest()).thenReturn(request);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,259 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiDacqEvent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class DacqEventFeedTest
+{
+	private static final Predicate<ApiDacqEvent> ALL = DacqEventFeed.filter(null, null, null);
+
+	// Simulated DACQ_EVENT table
+	private final List<ApiDacqEvent> table = new ArrayList<>();
+	private final List<String> reads = new ArrayList<>();
+	private DacqEventFeed feed;
+
+	@BeforeEach
+	void setUp()
+	{
+		feed = new DacqEventFeed((after, since) ->
+		{
+			reads.add(after + "/" + since);
+			return table.stream()
+					.filter(e -> after != null ? e.getEventId() > after : e.getEventTime().getTime() >= since)
+					.toList();
+		}, 3, 1_000L);
+	}
+
+	@Test
+	void testDeliversNewEventsToAllSubscribers() throws Exception
+	{
+		table.add(event(1, 500L, 26L, 1L));
+		DacqEventFeed.Subscription first = feed.subscribe(ALL, null);
+		DacqEventFeed.Subscription app27 = feed.subscribe(DacqEventFeed.filter(27L, null, null), null);
+		feed.poll();
+		table.add(event(2, 1_500L, 26L, 1L));
+		table.add(event(3, 1_600L, 27L, 1L));
+		feed.poll();
+		table.add(event(4, 1_700L, 26L, 2L));
+		feed.poll();
+
+		assertEquals(List.of("null/1000", "null/1000", "3/null"), reads);
+		assertEquals(List.of(2L, 3L, 4L), drain(first));
+		assertEquals(List.of(3L), drain(app27));
+		assertEquals(2, feed.subscriberCount());
+		first.close();
+		assertEquals(1, feed.subscriberCount());
+	}
+
+	@Test
+	void testResumesFromBuffer() throws Exception
+	{
+		startWith(2, 3, 4);
+		DacqEventFeed.Subscription subscription = feed.subscribe(ALL, 2L);
+		assertEquals(List.of(3L, 4L), drain(subscription));
+		assertEquals(1, reads.size());
+	}
+
+	@Test
+	void testResumesFromDatabaseBeforeBuffer() throws Exception
+	{
+		startWith(2, 3, 4, 5, 6);
+		// The buffer of 3 holds 4, 5 and 6, event 3 is read from the database
+		DacqEventFeed.Subscription subscription = feed.subscribe(DacqEventFeed.filter(26L, null, null), 2L);
+		table.add(event(7, 2_000L, 26L, 1L));
+		feed.poll();
+		assertEquals(List.of("null/1000", "2/null", "6/null"), reads);
+		assertNull(subscription.getResetAfter());
+		assertEquals(List.of(3L, 4L, 5L, 6L, 7L), drain(subscription));
+	}
+
+	@Test
+	void testResumeTooFarBackIsReset() throws Exception
+	{
+		startWith(2, 3, 4, 5, 6, 7, 8, 9);
+		// The buffer of 3 holds 7, 8 and 9, the database read is limited to the 3 ids before it
+		DacqEventFeed.Subscription subscription = feed.subscribe(ALL, 1L);
+		assertEquals(List.of("null/1000", "3/null"), reads);
+		assertEquals(1L, subscription.getResetAfter());
+		assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 9L), drain(subscription));
+	}
+
+	@Test
+	void testResumeBeforeFirstReadIsReset() throws Exception
+	{
+		table.add(event(1, 900L, 26L, 1L));
+		// Nothing was read yet, the events after 1 could be any number
+		DacqEventFeed.Subscription subscription = feed.subscribe(ALL, 1L);
+		assertTrue(reads.isEmpty());
+		assertEquals(1L, subscription.getResetAfter());
+		startWith(2);
+		assertEquals(List.of(2L), drain(subscription));
+	}
+
+	@Test
+	void testResumeSkipsEventsAlreadyQueued() throws Exception
+	{
+		startWith(2);
+		table.add(event(1, 900L, 26L, 1L));
+		table.add(event(3, 1_200L, 26L, 1L));
+		// The id before the first read event must come from the database, event 3 arrives live as well
+		DacqEventFeed.Subscription subscription = feed.subscribe(ALL, 0L);
+		feed.poll();
+		assertEquals(List.of(1L, 2L, 3L), drain(subscription));
+	}
+
+	@Test
+	void testSlowSubscriberIsDropped() throws Exception
+	{
+		DacqEventFeed.Subscription slow = feed.subscribe(ALL, null);
+		startWith(2, 3, 4, 5);
+		assertTrue(slow.isOverflowed());
+		assertNull(slow.next(0, TimeUnit.MILLISECONDS));
+		assertEquals(0, feed.subscriberCount());
+
+		DacqEventFeed.Subscription resumed = feed.subscribe(ALL, 1L);
+		assertFalse(resumed.isOverflowed());
+		assertEquals(List.of(2L, 3L, 4L, 5L), drain(resumed));
+	}
+
+	@Test
+	void testOpenStreamsAreCounted() throws Exception
+	{
+		int open = DacqEventFeed.openStreams();
+		DacqEventFeed.Subscription first = feed.subscribe(ALL, null);
+		DacqEventFeed.Subscription second = feed.subscribe(ALL, null);
+		assertEquals(open + 2, DacqEventFeed.openStreams());
+		first.close();
+		first.close();
+		assertEquals(open + 1, DacqEventFeed.openStreams());
+		second.close();
+		assertEquals(open, DacqEventFeed.openStreams());
+	}
+
+	@Test
+	void testStreamFormat() throws Exception
+	{
+		startWith(2);
+		DacqEventFeed.Subscription subscription = feed.subscribe(ALL, 1L);
+		ByteArrayOutputStream output = new ByteArrayOutputStream()
+		{
+			private int flushes;
+
+			@Override
+			public void flush() throws IOException
+			{
+				// The client disconnects after the first heartbeat following the event
+				if (++flushes == 3)
+				{
+					throw new IOException("Broken pipe");
+				}
+			}
+		};
+		try
+		{
+			new DacqEventStreamingOutput(subscription, 1).write(output);
+		}
+		catch (IOException expected)
+		{
+			// Ends the stream like a client that went away
+		}
+		String stream = output.toString(StandardCharsets.UTF_8);
+		assertTrue(stream.startsWith(": connected\n\nid: 2\nevent: dacqevent\ndata: {"), stream);
+		assertTrue(stream.contains("\"eventId\":2,"), stream);
+		assertTrue(stream.endsWith("}\n\n: keepalive\n\n"), stream);
+		assertEquals(0, feed.subscriberCount());
+	}
+
+	@Test
+	void testStreamStartsWithReset() throws Exception
+	{
+		startWith(5, 6, 7, 8, 9);
+		DacqEventFeed.Subscription subscription = feed.subscribe(ALL, 1L);
+		ByteArrayOutputStream output = new ByteArrayOutputStream()
+		{
+			private int flushes;
+
+			@Override
+			public void flush() throws IOException
+			{
+				// The client disconnects after the reset and the first event
+				if (++flushes == 3)
+				{
+					throw new IOException("Broken pipe");
+				}
+			}
+		};
+		try
+		{
+			new DacqEventStreamingOutput(subscription, 1).write(output);
+		}
+		catch (IOException expected)
+		{
+			// Ends the stream like a client that went away
+		}
+		String stream = output.toString(StandardCharsets.UTF_8);
+		assertTrue(stream.startsWith(": connected\n\nevent: reset\ndata: {\"lastEventId\":1}\n\nid: 5\n"), stream);
+	}
+
+	private void startWith(long... ids) throws Exception
+	{
+		for (long id : ids)
+		{
+			table.add(event(id, 1_000L + id, 26L, 1L));
+		}
+		feed.poll();
+	}
+
+	private static List<Long> drain(DacqEventFeed.Subscription subscription) throws InterruptedException
+	{
+		List<Long> ids = new ArrayList<>();
+		for (ApiDacqEvent event = subscription.next(0, TimeUnit.MILLISECONDS); event != null;
+				event = subscription.next(0, TimeUnit.MILLISECONDS))
+		{
+			ids.add(event.getEventId());
+		}
+		return ids;
+	}
+
+	private static ApiDacqEvent event(long id, long time, Long appId, Long routingExecId)
+	{
+		ApiDacqEvent event = new ApiDacqEvent();
+		event.setEventId(id);
+		event.setEventTime(new Date(time));
+		event.setAppId(appId);
+		event.setRoutingExecId(routingExecId);
+		event.setPriority("INFO");
+		event.setEventText("event " + id);
+		return event;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiPlatform;
+import org.opendcs.odcsapi.beans.ApiPlatformSensor;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class FieldProjectionTest
+{
+	@Test
+	void testWithoutFieldsEverythingIsIncluded() throws Exception
+	{
+		ApiPlatform platform = new ApiPlatform();
+		assertSame(FieldProjection.ALL, FieldProjection.of(" ", ApiPlatform.class));
+		assertTrue(FieldProjection.ALL.includes("platformSensors"));
+		assertSame(platform, FieldProjection.ALL.entity(platform));
+	}
+
+	@Test
+	void testWritesSelectedProperties() throws Exception
+	{
+		FieldProjection projection = FieldProjection.of("NAME,platformSensors,", ApiPlatform.class);
+		assertTrue(projection.includes("platformSensors"));
+		assertFalse(projection.includes("transportMedia"));
+
+		ApiPlatform platform = new ApiPlatform();
+		platform.setPlatformId(5L);
+		platform.setName("OKVI4");
+		ApiPlatformSensor sensor = new ApiPlatformSensor();
+		sensor.setSensorNum(1);
+		sensor.setMin(0.0);
+		platform.setPlatformSensors(List.of(sensor));
+
+		JsonNode json = write(projection.entity(platform));
+		List<String> names = new ArrayList<>();
+		json.fieldNames().forEachRemaining(names::add);
+		assertEquals(List.of("name", "platformSensors"), names);
+		assertEquals("OKVI4", json.get("name").asText());
+		// Beans nested in the projected one are written whole
+		JsonNode written = json.get("platformSensors").get(0);
+		assertEquals(1, written.get("sensorNum").asInt());
+		assertTrue(written.has("min"));
+		assertTrue(written.has("sensorProps"));
+	}
+
+	@Test
+	void testProjectsEveryElementOfAList() throws Exception
+	{
+		ApiPlatform first = new ApiPlatform();
+		first.setPlatformId(5L);
+		ApiPlatform second = new ApiPlatform();
+		second.setPlatformId(6L);
+		JsonNode json = write(FieldProjection.of("platformId", ApiPlatform.class).entity(List.of(first, second)));
+		assertEquals("[{\"platformId\":5},{\"platformId\":6}]", json.toString());
+	}
+
+	@Test
+	void testUnknownFieldIsRejected()
+	{
+		WebAppException ex = assertThrows(WebAppException.class,
+				() -> FieldProjection.of("name,sensors", ApiPlatform.class));
+		assertEquals(400, ex.getStatus());
+	}
+
+	private static JsonNode write(Object entity) throws Exception
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		((StreamingOutput) entity).write(output);
+		return new ObjectMapper().readTree(output.toByteArray());
+	}
+}
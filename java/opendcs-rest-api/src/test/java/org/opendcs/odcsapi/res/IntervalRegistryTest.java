@@ -0,0 +1,89 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import decodes.sql.DbKey;
+import opendcs.opentsdb.Interval;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiInterval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class IntervalRegistryTest
+{
+	private static final long MAX_AGE = 1_000L;
+
+	// Simulated Interval table
+	private final List<Interval> table = new ArrayList<>();
+	private int loads;
+	private long now;
+	private final IntervalRegistry registry = new IntervalRegistry(MAX_AGE, () -> now);
+	private final IntervalRegistry.Loader loader = () ->
+	{
+		loads++;
+		return new ArrayList<>(table);
+	};
+
+	@Test
+	void testLooksUpNamesIgnoringCase() throws Exception
+	{
+		Interval hour = interval(1L, "1Hour", Calendar.HOUR_OF_DAY, 1);
+		table.add(hour);
+		table.add(interval(2L, "1Day", Calendar.DAY_OF_MONTH, 1));
+
+		assertSame(hour, registry.get("1hour", loader));
+		assertSame(hour, registry.get("1HOUR", loader));
+		assertNull(registry.get("1Week", loader));
+		assertNull(registry.get(null, loader));
+		List<ApiInterval> list = registry.list(loader);
+		assertEquals(List.of("1Hour", "1Day"), list.stream().map(ApiInterval::getName).toList());
+		assertSame(list, registry.list(loader));
+		assertEquals(1, loads);
+	}
+
+	@Test
+	void testInvalidateAndMaxAgeReload() throws Exception
+	{
+		table.add(interval(1L, "1Hour", Calendar.HOUR_OF_DAY, 1));
+		assertNull(registry.get("6Hours", loader));
+		table.add(interval(3L, "6Hours", Calendar.HOUR_OF_DAY, 6));
+		registry.invalidate();
+		assertEquals(6, registry.get("6hours", loader).getCalMultiplier());
+		assertEquals(2, loads);
+
+		table.clear();
+		now += MAX_AGE - 1;
+		assertEquals(2, registry.list(loader).size());
+		now += 1;
+		assertEquals(0, registry.list(loader).size());
+		assertEquals(3, loads);
+	}
+
+	private static Interval interval(long id, String name, int calConstant, int calMultiplier)
+	{
+		Interval ret = new Interval(name);
+		ret.setKey(DbKey.createDbKey(id));
+		ret.setCalConstant(calConstant);
+		ret.setCalMultiplier(calMultiplier);
+		return ret;
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiAppStatus;
+import org.opendcs.odcsapi.dao.DbException;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class MonitorSnapshotterTest
+{
+	// Simulated lock table
+	private final List<ApiAppStatus> locks = new ArrayList<>();
+	private int loads;
+	private final MonitorSnapshotter.View<ApiAppStatus> view = new MonitorSnapshotter.View<>("appstat", () ->
+	{
+		loads++;
+		return new ArrayList<>(locks);
+	}, status -> String.valueOf(status.getAppId()));
+
+	@Test
+	void testRequestsShareSnapshot() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4);
+		locks.add(status(4, "compproc", "Cmps: 0/0"));
+		MonitorSnapshotter.Snapshot first = snapshotter.get(view);
+		MonitorSnapshotter.Snapshot second = snapshotter.get(view);
+		assertSame(first, second);
+		assertEquals(1, loads);
+		assertEquals(1, first.getVersion());
+		String json = new String(first.getJson(), StandardCharsets.UTF_8);
+		assertTrue(json.startsWith("[{\"appId\":4,"), json);
+		assertTrue(json.endsWith("}]"), json);
+	}
+
+	@Test
+	void testVersionChangesWithContentOnly() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4);
+		locks.add(status(4, "compproc", "Cmps: 0/0"));
+		MonitorSnapshotter.Snapshot first = snapshotter.get(view);
+
+		snapshotter.refreshViews();
+		assertSame(first, snapshotter.get(view));
+
+		locks.set(0, status(4, "compproc", "Cmps: 5/0"));
+		snapshotter.refreshViews();
+		MonitorSnapshotter.Snapshot changed = snapshotter.get(view);
+		assertEquals(2, changed.getVersion());
+		assertNotEquals(first.getEntityTag(), changed.getEntityTag());
+		assertEquals(3, loads);
+	}
+
+	@Test
+	void testFailedRefreshKeepsSnapshot() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4);
+		MonitorSnapshotter.View<ApiAppStatus> failing = new MonitorSnapshotter.View<>("appstat", () ->
+		{
+			if (loads++ > 0)
+			{
+				throw new DbException("Database unavailable");
+			}
+			return List.of(status(4, "compproc", null));
+		}, status -> String.valueOf(status.getAppId()));
+		MonitorSnapshotter.Snapshot first = snapshotter.get(failing);
+		snapshotter.refreshViews();
+		assertSame(first, snapshotter.get(failing));
+
+		MonitorSnapshotter.View<ApiAppStatus> unavailable = new MonitorSnapshotter.View<>("other", () ->
+		{
+			throw new DbException("Database unavailable");
+		}, status -> String.valueOf(status.getAppId()));
+		assertThrows(DbException.class, () -> snapshotter.get(unavailable));
+	}
+
+	@Test
+	void testStreamsChangedRows() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4);
+		locks.add(status(4, "compproc", "Cmps: 0/0"));
+		locks.add(status(5, "compproc_regtest", "Inactive"));
+		MonitorSnapshotter.Subscription subscription = snapshotter.subscribe(List.of(view));
+		assertMessage(subscription, "event: appstat\ndata: {\"version\":1,\"full\":true,\"rows\":[{\"appId\":4,",
+				"\"removed\":[]}\n\n");
+
+		locks.set(0, status(4, "compproc", "Cmps: 5/0"));
+		locks.remove(1);
+		locks.add(status(6, "routing", "Running"));
+		snapshotter.refreshViews();
+		String update = assertMessage(subscription,
+				"event: appstat\ndata: {\"version\":2,\"full\":false,\"rows\":[{\"appId\":4,", "\"removed\":[\"5\"]}\n\n");
+		assertTrue(update.contains("\"appId\":6,"), update);
+		assertTrue(!update.contains("\"appId\":5,"), update);
+
+		snapshotter.refreshViews();
+		assertNull(subscription.next(0, TimeUnit.MILLISECONDS));
+		subscription.close();
+		assertEquals(0, snapshotter.subscriberCount());
+	}
+
+	@Test
+	void testSlowSubscriberIsDropped() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(2);
+		MonitorSnapshotter.Subscription subscription = snapshotter.subscribe(List.of(view));
+		for (int i = 0; i < 3; i++)
+		{
+			locks.add(status(i, "app" + i, null));
+			snapshotter.refreshViews();
+		}
+		assertTrue(subscription.isOverflowed());
+		assertNull(subscription.next(0, TimeUnit.MILLISECONDS));
+		assertEquals(0, snapshotter.subscriberCount());
+	}
+
+	@Test
+	void testViewsAreBounded() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4, 2);
+		MonitorSnapshotter.Subscription subscription = snapshotter.subscribe(List.of(view));
+		snapshotter.get(named("platformstat?netlistid=1"));
+		snapshotter.get(named("platformstat?netlistid=2"));
+		snapshotter.get(named("platformstat?netlistid=3"));
+		// The streamed view stays, the least recently used netlist view is dropped
+		assertEquals(2, snapshotter.viewCount());
+		assertEquals(4, loads);
+		snapshotter.get(view);
+		snapshotter.get(named("platformstat?netlistid=3"));
+		assertEquals(4, loads);
+		snapshotter.get(named("platformstat?netlistid=2"));
+		assertEquals(5, loads);
+
+		subscription.close();
+		snapshotter.get(named("platformstat?netlistid=1"));
+		snapshotter.get(named("platformstat?netlistid=2"));
+		assertEquals(2, snapshotter.viewCount());
+		snapshotter.get(view);
+		assertEquals(7, loads);
+	}
+
+	@Test
+	void testStreamedViewsCountAgainstLimit() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4, 1);
+		MonitorSnapshotter.Subscription subscription = snapshotter.subscribe(List.of(view));
+		MonitorSnapshotter.View<ApiAppStatus> other = named("platformstat?netlistid=1");
+
+		WebAppException ex = assertThrows(WebAppException.class, () -> snapshotter.get(other));
+		assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, ex.getStatus());
+		int open = MonitorSnapshotter.openStreams();
+		assertThrows(WebAppException.class, () -> snapshotter.subscribe(List.of(other)));
+		assertEquals(open, MonitorSnapshotter.openStreams());
+		assertEquals(1, snapshotter.viewCount());
+		assertEquals(1, snapshotter.subscriberCount());
+
+		subscription.close();
+		snapshotter.get(other);
+		assertEquals(1, snapshotter.viewCount());
+	}
+
+	@Test
+	void testOpenStreamsAreCounted() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4);
+		int open = MonitorSnapshotter.openStreams();
+		MonitorSnapshotter.Subscription first = snapshotter.subscribe(List.of(view));
+		MonitorSnapshotter.Subscription second = snapshotter.subscribe(List.of(view));
+		assertEquals(open + 2, MonitorSnapshotter.openStreams());
+		first.close();
+		first.close();
+		assertEquals(open + 1, MonitorSnapshotter.openStreams());
+		second.close();
+		assertEquals(open, MonitorSnapshotter.openStreams());
+	}
+
+	@Test
+	void testStreamFormat() throws Exception
+	{
+		MonitorSnapshotter snapshotter = new MonitorSnapshotter(4);
+		locks.add(status(4, "compproc", "Cmps: 0/0"));
+		MonitorSnapshotter.Subscription subscription = snapshotter.subscribe(List.of(view));
+		ByteArrayOutputStream output = new ByteArrayOutputStream()
+		{
+			private int flushes;
+
+			@Override
+			public void flush() throws IOException
+			{
+				// The client disconnects after the first heartbeat following the full view
+				if (++flushes == 3)
+				{
+					throw new IOException("Broken pipe");
+				}
+			}
+		};
+		assertThrows(IOException.class, () -> new MonitorStreamingOutput(subscription, 1).write(output));
+		String stream = output.toString(StandardCharsets.UTF_8);
+		assertTrue(stream.startsWith(": connected\n\nevent: appstat\ndata: {\"version\":1,\"full\":true,"), stream);
+		assertTrue(stream.endsWith("\"removed\":[]}\n\n: keepalive\n\n"), stream);
+		assertEquals(0, snapshotter.subscriberCount());
+	}
+
+	@Test
+	void testConditionalResponse() throws Exception
+	{
+		locks.add(status(4, "compproc", "Cmps: 0/0"));
+		MonitorSnapshotter.Snapshot snapshot = new MonitorSnapshotter(4).get(view);
+
+		Response full = snapshot.toResponse(tag -> null);
+		assertEquals(200, full.getStatus());
+		assertArrayEquals(snapshot.getJson(), (byte[]) full.getEntity());
+		assertEquals(snapshot.getEntityTag(), full.getEntityTag());
+
+		Response notModified = snapshot.toResponse(tag -> Response.notModified(tag));
+		assertEquals(304, notModified.getStatus());
+		assertNull(notModified.getEntity());
+		assertEquals("no-cache", notModified.getHeaderString("Cache-Control"));
+		assertEquals(new EntityTag(snapshot.getEntityTag().getValue()), notModified.getEntityTag());
+	}
+
+	private static String assertMessage(MonitorSnapshotter.Subscription subscription, String start, String end)
+			throws InterruptedException
+	{
+		byte[] message = subscription.next(0, TimeUnit.MILLISECONDS);
+		String text = message == null ? null : new String(message, StandardCharsets.UTF_8);
+		assertTrue(text != null && text.startsWith(start), text);
+		assertTrue(text.endsWith(end), text);
+		return text;
+	}
+
+	private MonitorSnapshotter.View<ApiAppStatus> named(String name)
+	{
+		return new MonitorSnapshotter.View<>(name, view.loader(), view.key());
+	}
+
+	private static ApiAppStatus status(long appId, String name, String status)
+	{
+		ApiAppStatus ret = new ApiAppStatus();
+		ret.setAppId(appId);
+		ret.setAppName(name);
+		ret.setStatus(status);
+		return ret;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import decodes.db.NetworkList;
+import decodes.db.NetworkListEntry;
+import decodes.sql.DbKey;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiNetList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class NetworkListCacheTest
+{
+	private static final long REVALIDATE = 1_000L;
+
+	// Simulated NetworkList table, id to last modify time
+	private final Map<Long, Long> table = new HashMap<>();
+	private final List<String> queries = new ArrayList<>();
+	private long now;
+	private final NetworkListCache cache = new NetworkListCache(2, REVALIDATE, () -> now);
+	private final NetworkListCache.Source source = new NetworkListCache.Source()
+	{
+		@Override
+		public Date lastModified(DbKey netlistId)
+		{
+			queries.add("lmt " + netlistId.getValue());
+			Long lastModified = table.get(netlistId.getValue());
+			return lastModified == null ? null : new Date(lastModified);
+		}
+
+		@Override
+		public NetworkList read(DbKey netlistId)
+		{
+			queries.add("read " + netlistId.getValue());
+			NetworkList nl = new NetworkList("list" + netlistId.getValue());
+			nl.setId(netlistId);
+			nl.lastModifyTime = new Date(table.get(netlistId.getValue()));
+			nl.networkListEntries.put("CE31D030", new NetworkListEntry(nl, "CE31D030"));
+			return nl;
+		}
+	};
+
+	@Test
+	void testServesCachedListUntilRevalidation() throws Exception
+	{
+		table.put(1L, 100L);
+		ApiNetList first = cache.get(1L, source);
+		now = REVALIDATE - 1;
+		assertSame(first, cache.get(1L, source));
+		assertEquals(List.of("lmt 1", "read 1"), queries);
+		assertEquals("list1", first.getName());
+		assertEquals(1, first.getItems().size());
+
+		now = REVALIDATE;
+		assertSame(first, cache.get(1L, source));
+		now = 2 * REVALIDATE - 1;
+		assertSame(first, cache.get(1L, source));
+		assertEquals(List.of("lmt 1", "read 1", "lmt 1"), queries);
+	}
+
+	@Test
+	void testRereadsChangedList() throws Exception
+	{
+		table.put(1L, 100L);
+		ApiNetList first = cache.get(1L, source);
+		// Modified by another tool
+		table.put(1L, 200L);
+		now = REVALIDATE;
+		ApiNetList second = cache.get(1L, source);
+		assertNotSame(first, second);
+		assertEquals(new Date(200L), second.getLastModifyTime());
+		assertEquals(List.of("lmt 1", "read 1", "lmt 1", "read 1"), queries);
+
+		table.remove(1L);
+		now = 2 * REVALIDATE;
+		assertNull(cache.get(1L, source));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void testInvalidate() throws Exception
+	{
+		table.put(1L, 100L);
+		cache.get(1L, source);
+		cache.invalidate(1L);
+		cache.get(1L, source);
+		assertEquals(List.of("lmt 1", "read 1", "lmt 1", "read 1"), queries);
+	}
+
+	@Test
+	void testDropsLeastRecentlyUsed() throws Exception
+	{
+		table.put(1L, 100L);
+		table.put(2L, 100L);
+		table.put(3L, 100L);
+		cache.get(1L, source);
+		cache.get(2L, source);
+		cache.get(1L, source);
+		cache.get(3L, source);
+		assertEquals(2, cache.size());
+		queries.clear();
+		cache.get(1L, source);
+		cache.get(2L, source);
+		assertEquals(List.of("lmt 2", "read 2"), queries);
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import decodes.db.DatabaseIO;
+import decodes.db.PlatformConfig;
+import decodes.db.Site;
+import decodes.db.SiteList;
+import decodes.db.ValueNotFoundException;
+import decodes.sql.DbKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opendcs.odcsapi.beans.ApiPlatform;
+import org.opendcs.odcsapi.beans.ApiPlatformConfig;
+import org.opendcs.odcsapi.beans.ApiSite;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+final class PlatformExpansionTest
+{
+	@Mock
+	private DatabaseIO dbIo;
+
+	@Test
+	void testParsesExpand() throws Exception
+	{
+		PlatformExpansion expansion = PlatformExpansion.of("Config, site,", FieldProjection.ALL);
+		assertTrue(expansion.config());
+		assertTrue(expansion.site());
+		assertSame(PlatformExpansion.NONE, PlatformExpansion.of(null, FieldProjection.ALL));
+		// Records whose property is not sent are not read
+		assertFalse(PlatformExpansion.of("config,site", FieldProjection.of("name,site", ApiPlatform.class)).config());
+		WebAppException ex = assertThrows(WebAppException.class,
+				() -> PlatformExpansion.of("config,sensors", FieldProjection.ALL));
+		assertEquals(400, ex.getStatus());
+	}
+
+	@Test
+	void testReadsSharedConfigOnce() throws Exception
+	{
+		doAnswer(invocation ->
+		{
+			PlatformConfig config = invocation.getArgument(0);
+			if (config.getId().getValue() == 12L)
+			{
+				throw new ValueNotFoundException("No config 12");
+			}
+			config.configName = "Sutron-GOES";
+			return null;
+		}).when(dbIo).readConfig(any(PlatformConfig.class));
+
+		PlatformExpansion expansion = PlatformExpansion.of("config", FieldProjection.ALL);
+		ApiPlatformConfig config = expansion.config(dbIo, 11L);
+		assertEquals("Sutron-GOES", config.getName());
+		assertSame(config, expansion.config(dbIo, 11L));
+		assertNull(expansion.config(dbIo, 12L));
+		assertNull(expansion.config(dbIo, 12L));
+		assertNull(expansion.config(dbIo, DbKey.NullKey.getValue()));
+		verify(dbIo, times(1)).readConfig(argThat(c -> c.getId().getValue() == 11L));
+		verify(dbIo, times(1)).readConfig(argThat(c -> c.getId().getValue() == 12L));
+		assertNull(PlatformExpansion.NONE.config(dbIo, 11L));
+	}
+
+	@Test
+	void testReadsSiteListOnce() throws Exception
+	{
+		doAnswer(invocation ->
+		{
+			SiteList list = invocation.getArgument(0);
+			list.addSite(site(3L));
+			list.addSite(site(4L));
+			return null;
+		}).when(dbIo).readSiteList(any(SiteList.class));
+
+		PlatformExpansion expansion = PlatformExpansion.of("site", FieldProjection.ALL);
+		assertNull(expansion.config(dbIo, 11L));
+		ApiSite site = expansion.site(dbIo, 3L);
+		assertEquals(3L, site.getSiteId());
+		assertSame(site, expansion.site(dbIo, 3L));
+		assertEquals(4L, expansion.site(dbIo, 4L).getSiteId());
+		assertNull(expansion.site(dbIo, 5L));
+		verify(dbIo, times(1)).readSiteList(any(SiteList.class));
+		verify(dbIo, never()).readConfig(any(PlatformConfig.class));
+	}
+
+	private static Site site(long id)
+	{
+		Site ret = new Site();
+		ret.setId(DbKey.createDbKey(id));
+		return ret;
+	}
+}
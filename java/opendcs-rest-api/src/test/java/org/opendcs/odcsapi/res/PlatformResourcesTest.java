@@ -4,8 +4,10 @@ import java.sql.Date;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -18,9 +20,11 @@ import decodes.db.PlatformList;
 import decodes.db.PlatformSensor;
 import decodes.db.PlatformStatus;
 import decodes.db.RoutingSpec;
+import decodes.db.RoutingSpecList;
 import decodes.db.ScheduleEntry;
 import decodes.db.ScriptSensor;
 import decodes.db.Site;
+import decodes.db.SiteList;
 import decodes.db.SiteName;
 import decodes.db.TransportMedium;
 import decodes.sql.DbKey;
@@ -43,7 +47,13 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.opendcs.odcsapi.res.PlatformResources.map;
 import static org.opendcs.odcsapi.res.PlatformResources.statusListMap;
@@ -482,14 +492,10 @@ final class PlatformResourcesTest
 		site.addName(sn);
 
 		ScheduleEntry entry = new ScheduleEntry("Test Entry");
+		entry.setId(DbKey.createDbKey(9987503L));
 		entry.setRoutingSpecId(routingSpecId);
 
-		doAnswer(invocation -> {
-			Platform p = invocation.getArgument(0);
-			assertEquals(platformId, p.getId());
-			p.setSite(site);
-			return null;
-		}).when(dbIo).readPlatform(any(Platform.class));
+		mockPlatformLookup(site);
 
 		List<PlatformStatus> statuses = new ArrayList<>();
 		PlatformStatus status = new PlatformStatus(platformId);
@@ -516,16 +522,12 @@ final class PlatformResourcesTest
 		assertEquals(status.getPlatformId().getValue(), apiStat.getPlatformId());
 		assertEquals(status.getLastRoutingSpecName(), apiStat.getRoutingSpecName());
 		assertEquals(status.getLastScheduleEntryStatusId().getValue(), apiStat.getLastRoutingExecId());
+		assertEquals(siteName + "-" + status.getDesignator(), apiStat.getPlatformName());
+		verify(dbIo, never()).makeScheduleEntryDAO();
 
 		// Test with dbIo mocked to return a ScheduleEntry
-		when(dbIo.makeScheduleEntryDAO()).thenReturn(scheduleEntryDAO);
-		when(scheduleEntryDAO.readScheduleEntryByStatusId(scheduleEntryStatusId)).thenReturn(entry);
-		doAnswer(invocation -> {
-			RoutingSpec rs = invocation.getArgument(0);
-			assertEquals(routingSpecId, rs.getId());
-			rs.setName(routingSpecName);
-			return null;
-		}).when(dbIo).readRoutingSpec(any(RoutingSpec.class));
+		mockRoutingSpecLookup(Map.of(scheduleEntryStatusId.getValue(), entry),
+				List.of(routingSpec(routingSpecId, routingSpecName)));
 
 		statuses = new ArrayList<>();
 		status = new PlatformStatus(platformId);
@@ -551,11 +553,144 @@ final class PlatformResourcesTest
 		assertEquals(status.getPlatformId().getValue(), apiStat.getPlatformId());
 		assertEquals(routingSpecName, apiStat.getRoutingSpecName());
 		assertEquals(status.getLastScheduleEntryStatusId().getValue(), apiStat.getLastRoutingExecId());
-		assertEquals(status.getPlatformName(), apiStat.getPlatformName());
+		assertEquals(siteName + "-" + status.getDesignator(), apiStat.getPlatformName());
 		assertEquals(status.getPlatformId().getValue(), apiStat.getPlatformId());
 		assertEquals(siteId.getValue(), apiStat.getSiteId());
 	}
 
+	@Test
+	void testPlatformStatusMapQueryCountIndependentOfRows() throws Exception
+	{
+		Site site = new Site();
+		site.setId(DbKey.createDbKey(9987504L));
+		mockPlatformLookup(site);
+		Map<Long, ScheduleEntry> entries = new HashMap<>();
+		List<RoutingSpec> routingSpecs = new ArrayList<>();
+		for (int i = 0; i < 3; i++)
+		{
+			ScheduleEntry entry = new ScheduleEntry("Test Entry " + i);
+			entry.setId(DbKey.createDbKey(9987600L + i));
+			entry.setRoutingSpecId(DbKey.createDbKey(9987700L + i));
+			// The last execution of each entry processed its share of the platforms
+			entries.put(9990000L + i, entry);
+			routingSpecs.add(routingSpec(entry.getRoutingSpecId(), "Routing Spec " + i));
+		}
+		mockRoutingSpecLookup(entries, routingSpecs);
+
+		for (int rows : new int[]{1, 10, 2000})
+		{
+			List<PlatformStatus> statuses = new ArrayList<>();
+			for (int i = 0; i < rows; i++)
+			{
+				PlatformStatus status = new PlatformStatus(DbKey.createDbKey(9989900L + i % 5));
+				status.setLastScheduleEntryStatusId(DbKey.createDbKey(9990000L + i % entries.size()));
+				statuses.add(status);
+			}
+			clearInvocations(dbIo, scheduleEntryDAO);
+
+			List<ApiPlatformStatus> apiStatus = statusListMap(dbIo, statuses);
+
+			assertEquals(rows, apiStatus.size());
+			for (int i = 0; i < rows; i++)
+			{
+				assertEquals("Routing Spec " + (i % entries.size()), apiStatus.get(i).getRoutingSpecName());
+				assertEquals(site.getId().getValue(), apiStatus.get(i).getSiteId());
+			}
+			int distinctStatuses = Math.min(rows, entries.size());
+			verify(dbIo, times(Math.min(rows, 5))).readPlatform(any(Platform.class));
+			verify(dbIo, never()).readPlatformList(any(PlatformList.class), isNull());
+			verify(dbIo, never()).readSiteList(any(SiteList.class));
+			verify(dbIo, times(1)).makeScheduleEntryDAO();
+			verify(dbIo, times(distinctStatuses)).readRoutingSpec(any(RoutingSpec.class));
+			verify(scheduleEntryDAO, times(distinctStatuses)).readScheduleEntryByStatusId(any(DbKey.class));
+			verify(scheduleEntryDAO, times(1)).close();
+			verifyNoMoreInteractions(scheduleEntryDAO);
+		}
+	}
+
+	@Test
+	void testPlatformStatusMapReadsListsForManyPlatforms() throws Exception
+	{
+		Site site = new Site();
+		site.setId(DbKey.createDbKey(9987504L));
+		int platforms = PlatformResources.PLATFORM_LOOKUP_LIMIT + 1;
+		List<PlatformStatus> statuses = new ArrayList<>();
+		List<DbKey> platformIds = new ArrayList<>();
+		for (int i = 0; i < platforms; i++)
+		{
+			platformIds.add(DbKey.createDbKey(9989900L + i));
+			statuses.add(new PlatformStatus(platformIds.get(i)));
+		}
+		// Platforms of other network lists are read too, but not mapped
+		platformIds.add(DbKey.createDbKey(9988800L));
+		mockPlatformAndSiteLists(platformIds, site);
+
+		List<ApiPlatformStatus> apiStatus = statusListMap(dbIo, statuses);
+
+		assertEquals(platforms, apiStatus.size());
+		apiStatus.forEach(status -> assertEquals(site.getId().getValue(), status.getSiteId()));
+		verify(dbIo, times(1)).readPlatformList(any(PlatformList.class), isNull());
+		verify(dbIo, times(1)).readSiteList(any(SiteList.class));
+		verify(dbIo, never()).readPlatform(any(Platform.class));
+	}
+
+	private void mockPlatformLookup(Site site) throws Exception
+	{
+		doAnswer(invocation -> {
+			Platform platform = invocation.getArgument(0);
+			platform.setSite(site);
+			return null;
+		}).when(dbIo).readPlatform(any(Platform.class));
+	}
+
+	private void mockPlatformAndSiteLists(List<DbKey> platformIds, Site site) throws Exception
+	{
+		doAnswer(invocation -> {
+			PlatformList list = invocation.getArgument(0);
+			for (DbKey platformId : platformIds)
+			{
+				Platform platform = new Platform();
+				platform.setId(platformId);
+				Site stub = new Site();
+				stub.setId(site.getId());
+				platform.setSite(stub);
+				list.add(platform);
+			}
+			return null;
+		}).when(dbIo).readPlatformList(any(PlatformList.class), isNull());
+		doAnswer(invocation -> {
+			SiteList list = invocation.getArgument(0);
+			list.addSite(site);
+			return null;
+		}).when(dbIo).readSiteList(any(SiteList.class));
+	}
+
+	/**
+	 * @param entries schedule entry keyed by the id of one of its schedule entry statuses
+	 */
+	private void mockRoutingSpecLookup(Map<Long, ScheduleEntry> entries, List<RoutingSpec> routingSpecs)
+			throws Exception
+	{
+		when(dbIo.makeScheduleEntryDAO()).thenReturn(scheduleEntryDAO);
+		when(scheduleEntryDAO.readScheduleEntryByStatusId(any(DbKey.class)))
+				.thenAnswer(invocation -> entries.get(invocation.<DbKey>getArgument(0).getValue()));
+		doAnswer(invocation -> {
+			RoutingSpec spec = invocation.getArgument(0);
+			routingSpecs.stream()
+					.filter(rs -> rs.getId().equals(spec.getId()))
+					.forEach(rs -> spec.setName(rs.getName()));
+			return null;
+		}).when(dbIo).readRoutingSpec(any(RoutingSpec.class));
+	}
+
+	private static RoutingSpec routingSpec(DbKey id, String name)
+	{
+		RoutingSpec ret = new RoutingSpec();
+		ret.setId(id);
+		ret.setName(name);
+		return ret;
+	}
+
 	private static int iterSize(Iterator<?> it)
 	{
 		int n = 0;
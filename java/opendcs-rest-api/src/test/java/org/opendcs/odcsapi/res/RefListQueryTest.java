@@ -0,0 +1,147 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiConfigRef;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RefListQueryTest
+{
+	private static final RefListQuery.Fields<ApiConfigRef> FIELDS = RefListQuery.fields(ApiConfigRef.class)
+			.add("configId", ApiConfigRef::getConfigId)
+			.add("name", ApiConfigRef::getName)
+			.add("numPlatforms", ApiConfigRef::getNumPlatforms)
+			.add("description", ApiConfigRef::getDescription);
+
+	private final List<ApiConfigRef> refs = List.of(
+			config(1L, "Sutron-GOES", 3, "GOES stations"),
+			config(2L, "amazon-satlink", 0, null),
+			config(3L, "Sutron-Iridium", 12, "Iridium stations"),
+			config(4L, "campbell-goes", 3, "Older GOES stations"));
+
+	@Test
+	void testWithoutParametersReturnsEverything() throws Exception
+	{
+		RefListQuery.Page<ApiConfigRef> page = new RefListQuery().apply(refs, FIELDS);
+		assertEquals(refs, page.items());
+		assertEquals(4, page.total());
+	}
+
+	@Test
+	void testPagesInOriginalOrder() throws Exception
+	{
+		RefListQuery.Page<ApiConfigRef> page = new RefListQuery(1, 2, null, null).apply(refs, FIELDS);
+		assertEquals(List.of(2L, 3L), ids(page));
+		assertEquals(4, page.total());
+		assertEquals(List.of(), new RefListQuery(4, 2, null, null).apply(refs, FIELDS).items());
+	}
+
+	@Test
+	void testSorts() throws Exception
+	{
+		assertEquals(List.of(2L, 4L, 1L, 3L), ids(new RefListQuery(null, null, "name", null).apply(refs, FIELDS)));
+		assertEquals(List.of(3L, 4L, 1L, 2L),
+				ids(new RefListQuery(null, null, "-numPlatforms, -configId", null).apply(refs, FIELDS)));
+		// Missing values are sorted last in both directions
+		assertEquals(List.of(4L, 3L, 1L, 2L),
+				ids(new RefListQuery(null, null, "-description", null).apply(refs, FIELDS)));
+		assertEquals(List.of(4L, 1L), ids(new RefListQuery(1, 2, "NAME", null).apply(refs, FIELDS)));
+	}
+
+	@Test
+	void testFilters() throws Exception
+	{
+		RefListQuery.Page<ApiConfigRef> page = new RefListQuery(null, 1, null,
+				List.of("name:*goes", "description:*GOES*")).apply(refs, FIELDS);
+		assertEquals(List.of(1L), ids(page));
+		assertEquals(2, page.total());
+		assertEquals(List.of(2L), ids(new RefListQuery(null, null, null, List.of("numPlatforms:0"))
+				.apply(refs, FIELDS)));
+		assertEquals(List.of(1L), ids(new RefListQuery(null, null, null, List.of("name:sutron-????"))
+				.apply(refs, FIELDS)));
+	}
+
+	@Test
+	void testInvalidParameters()
+	{
+		assertBadRequest(new RefListQuery(-1, null, null, null));
+		assertBadRequest(new RefListQuery(null, 0, null, null));
+		assertBadRequest(new RefListQuery(null, null, "platforms", null));
+		assertBadRequest(new RefListQuery(null, null, null, List.of("name")));
+		assertBadRequest(new RefListQuery(null, null, null, List.of("platforms:3")));
+		assertBadRequest(new RefListQuery(null, null, null, null, "name,platforms"));
+	}
+
+	@Test
+	void testResponse() throws Exception
+	{
+		RefListQuery.Page<ApiConfigRef> page = new RefListQuery(0, 2, "-configId", null).apply(refs, FIELDS);
+		Response list = page.toResponse();
+		assertEquals(200, list.getStatus());
+		assertSame(page.items(), list.getEntity());
+		assertEquals("4", list.getHeaderString(RefListQuery.TOTAL_COUNT_HEADER));
+
+		Map<?, ?> byName = (Map<?, ?>) page.toResponse(ApiConfigRef::getName).getEntity();
+		assertEquals(List.of("campbell-goes", "Sutron-Iridium"), List.copyOf(byName.keySet()));
+	}
+
+	@Test
+	void testProjectsFields() throws Exception
+	{
+		RefListQuery query = new RefListQuery(null, 1, "name", null, "configId, NAME");
+		assertTrue(query.projection(FIELDS).includes("name"));
+		assertFalse(query.projection(FIELDS).includes("description"));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		((StreamingOutput) query.apply(refs, FIELDS).toResponse().getEntity()).write(output);
+		assertEquals("[{\"configId\":2,\"name\":\"amazon-satlink\"}]", output.toString(StandardCharsets.UTF_8));
+	}
+
+	private static void assertBadRequest(RefListQuery query)
+	{
+		WebAppException ex = assertThrows(WebAppException.class, () -> query.apply(List.<ApiConfigRef>of(), FIELDS));
+		assertEquals(400, ex.getStatus());
+	}
+
+	private static List<Long> ids(RefListQuery.Page<ApiConfigRef> page)
+	{
+		return page.items().stream().map(ApiConfigRef::getConfigId).toList();
+	}
+
+	private static ApiConfigRef config(long id, String name, int numPlatforms, String description)
+	{
+		ApiConfigRef ret = new ApiConfigRef();
+		ret.setConfigId(id);
+		ret.setName(name);
+		ret.setNumPlatforms(numPlatforms);
+		ret.setDescription(description);
+		return ret;
+	}
+}
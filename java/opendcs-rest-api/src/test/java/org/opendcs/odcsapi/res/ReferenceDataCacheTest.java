@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiUnit;
+import org.opendcs.odcsapi.errorhandling.DatabaseItemNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ReferenceDataCacheTest
+{
+	private static final long MAX_AGE = 1_000L;
+
+	private int loads;
+	private String feet = "Feet";
+	private long now;
+	private final ReferenceDataCache cache = new ReferenceDataCache(MAX_AGE, () -> now);
+
+	@Test
+	void testServesKindsUntilInvalidated() throws Exception
+	{
+		ReferenceDataCache.Snapshot<List<ApiUnit>> units = cache.get(ReferenceDataCache.Kind.UNITS, this::units);
+		assertTrue(new String(units.getJson(), StandardCharsets.UTF_8).contains("\"name\":\"Feet\""));
+		assertSame(units, cache.get(ReferenceDataCache.Kind.UNITS, this::units));
+		cache.get(ReferenceDataCache.Kind.UNIT_CONVERTERS, this::units);
+		assertEquals(2, loads);
+
+		feet = "International Feet";
+		cache.invalidate(ReferenceDataCache.Kind.UNITS);
+		ReferenceDataCache.Snapshot<List<ApiUnit>> changed = cache.get(ReferenceDataCache.Kind.UNITS, this::units);
+		assertEquals("International Feet", changed.getValue().get(0).getName());
+		assertNotEquals(units.getEntityTag(), changed.getEntityTag());
+		cache.get(ReferenceDataCache.Kind.UNIT_CONVERTERS, this::units);
+		assertEquals(3, loads);
+	}
+
+	@Test
+	void testReloadsOnceTooOld() throws Exception
+	{
+		ReferenceDataCache.Snapshot<List<ApiUnit>> units = cache.get(ReferenceDataCache.Kind.UNITS, this::units);
+		now += MAX_AGE - 1;
+		assertSame(units, cache.get(ReferenceDataCache.Kind.UNITS, this::units));
+		now += 1;
+		ReferenceDataCache.Snapshot<List<ApiUnit>> reloaded = cache.get(ReferenceDataCache.Kind.UNITS, this::units);
+		// Unchanged data keeps its tag, so clients still get 304
+		assertEquals(units.getEntityTag(), reloaded.getEntityTag());
+		assertEquals(2, loads);
+	}
+
+	@Test
+	void testLoadOverlappingAnInvalidationIsNotKept() throws Exception
+	{
+		cache.get(ReferenceDataCache.Kind.SEASONS, () ->
+		{
+			cache.invalidate(ReferenceDataCache.Kind.SEASONS);
+			return units();
+		});
+		cache.get(ReferenceDataCache.Kind.SEASONS, this::units);
+		assertEquals(2, loads);
+
+		assertThrows(DatabaseItemNotFoundException.class, () -> cache.get(ReferenceDataCache.Kind.REFLISTS, () ->
+		{
+			throw new DatabaseItemNotFoundException("Season enum not found");
+		}));
+		cache.get(ReferenceDataCache.Kind.REFLISTS, this::units);
+		assertEquals(3, loads);
+	}
+
+	@Test
+	void testConditionalResponse() throws Exception
+	{
+		ReferenceDataCache.Snapshot<List<ApiUnit>> units = cache.get(ReferenceDataCache.Kind.UNITS, this::units);
+
+		Response full = units.toResponse(tag -> null);
+		assertEquals(200, full.getStatus());
+		assertArrayEquals(units.getJson(), (byte[]) full.getEntity());
+		assertEquals(units.getEntityTag(), full.getEntityTag());
+
+		Response notModified = units.toResponse(Response::notModified);
+		assertEquals(304, notModified.getStatus());
+		assertNull(notModified.getEntity());
+		assertEquals("no-cache", notModified.getHeaderString("Cache-Control"));
+	}
+
+	private List<ApiUnit> units()
+	{
+		loads++;
+		ApiUnit unit = new ApiUnit();
+		unit.setAbbr("ft");
+		unit.setName(feet);
+		unit.setFamily("English");
+		unit.setMeasures("Length");
+		return List.of(unit);
+	}
+}
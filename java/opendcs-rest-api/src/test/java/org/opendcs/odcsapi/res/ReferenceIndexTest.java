@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiReference;
+import org.opendcs.odcsapi.dao.DbException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ReferenceIndexTest
+{
+	private static final long MAX_AGE = 1_000L;
+
+	private final List<ReferenceIndex.Source> loads = new ArrayList<>();
+	private String goesSpec = "goes1";
+	private long now;
+	private final ReferenceIndex index = new ReferenceIndex((source, builder) ->
+	{
+		loads.add(source);
+		switch (source)
+		{
+			case ROUTING_SPECS ->
+			{
+				builder.add(20L, goesSpec, ReferenceIndex.Target.NETLIST, 6L);
+				builder.add(20L, goesSpec, ReferenceIndex.Target.PRESENTATION, 4L);
+				builder.add(21L, "goes2", ReferenceIndex.Target.NETLIST, 6L);
+			}
+			case PLATFORMS ->
+			{
+				builder.add(7L, "OKVI4-GOES", ReferenceIndex.Target.CONFIG, 11L);
+				builder.add(7L, "OKVI4-GOES", ReferenceIndex.Target.SITE, 3L);
+			}
+			case TIME_SERIES -> builder.add(532L, "OKVI4.Stage.Inst.15Minutes.0.raw", ReferenceIndex.Target.SITE, 3L);
+		}
+	}, MAX_AGE, () -> now);
+
+	@Test
+	void testLoadsOnlyTheReferencingSources() throws Exception
+	{
+		assertEquals(List.of("routingspec:20:goes1", "routingspec:21:goes2"),
+				names(index.referencedBy(ReferenceIndex.Target.NETLIST, 6L)));
+		assertEquals(List.of("routingspec:20:goes1"), names(index.referencedBy(ReferenceIndex.Target.PRESENTATION, 4L)));
+		assertTrue(index.referencedBy(ReferenceIndex.Target.NETLIST, 5L).isEmpty());
+		assertEquals(List.of(ReferenceIndex.Source.ROUTING_SPECS), loads);
+
+		assertEquals(List.of("platform:7:OKVI4-GOES", "timeseries:532:OKVI4.Stage.Inst.15Minutes.0.raw"),
+				names(index.referencedBy(ReferenceIndex.Target.SITE, 3L)));
+		assertEquals(List.of("platform:7:OKVI4-GOES"), names(index.referencedBy(ReferenceIndex.Target.CONFIG, 11L)));
+		assertEquals(List.of(ReferenceIndex.Source.ROUTING_SPECS, ReferenceIndex.Source.PLATFORMS,
+				ReferenceIndex.Source.TIME_SERIES), loads);
+	}
+
+	@Test
+	void testInvalidateReloadsSource() throws Exception
+	{
+		index.referencedBy(ReferenceIndex.Target.SITE, 3L);
+		index.referencedBy(ReferenceIndex.Target.NETLIST, 6L);
+		goesSpec = "goes-east";
+		index.invalidate(ReferenceIndex.Source.ROUTING_SPECS);
+		assertEquals(List.of("routingspec:20:goes-east", "routingspec:21:goes2"),
+				names(index.referencedBy(ReferenceIndex.Target.NETLIST, 6L)));
+		index.referencedBy(ReferenceIndex.Target.SITE, 3L);
+		assertEquals(List.of(ReferenceIndex.Source.PLATFORMS, ReferenceIndex.Source.TIME_SERIES,
+				ReferenceIndex.Source.ROUTING_SPECS, ReferenceIndex.Source.ROUTING_SPECS), loads);
+	}
+
+	@Test
+	void testReloadsAfterMaxAge() throws Exception
+	{
+		index.referencedBy(ReferenceIndex.Target.NETLIST, 6L);
+		now = MAX_AGE - 1;
+		index.referencedBy(ReferenceIndex.Target.NETLIST, 6L);
+		assertEquals(1, loads.size());
+		now = MAX_AGE;
+		index.referencedBy(ReferenceIndex.Target.NETLIST, 6L);
+		assertEquals(2, loads.size());
+	}
+
+	@Test
+	void testFailedLoadIsRetried() throws Exception
+	{
+		ReferenceIndex failing = new ReferenceIndex((source, builder) ->
+		{
+			if (loads.add(source) && loads.size() == 1)
+			{
+				throw new DbException("Database unavailable");
+			}
+			builder.add(20L, "goes1", ReferenceIndex.Target.NETLIST, 6L);
+		}, MAX_AGE, () -> now);
+		assertThrows(DbException.class, () -> failing.referencedBy(ReferenceIndex.Target.NETLIST, 6L));
+		assertEquals(List.of("routingspec:20:goes1"), names(failing.referencedBy(ReferenceIndex.Target.NETLIST, 6L)));
+	}
+
+	private static List<String> names(List<ApiReference> references)
+	{
+		return references.stream()
+				.map(reference -> reference.getType() + ":" + reference.getId() + ":" + reference.getName())
+				.toList();
+	}
+}
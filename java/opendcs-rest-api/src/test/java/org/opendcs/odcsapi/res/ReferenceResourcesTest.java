@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import decodes.db.NetworkList;
+import decodes.db.Platform;
+import decodes.db.PlatformConfig;
+import decodes.db.PlatformList;
+import decodes.db.PresentationGroup;
+import decodes.db.PresentationGroupList;
+import decodes.db.RoutingSpec;
+import decodes.db.RoutingSpecList;
+import decodes.db.Site;
+import decodes.sql.DbKey;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ReferenceResourcesTest
+{
+	@Test
+	void testRoutingSpecReferences() throws Exception
+	{
+		PresentationGroupList groups = new PresentationGroupList();
+		PresentationGroup group = new PresentationGroup();
+		group.setId(DbKey.createDbKey(4L));
+		group.groupName = "CWMS-English";
+		groups.add(group);
+		RoutingSpecList specs = new RoutingSpecList();
+		RoutingSpec spec = new RoutingSpec();
+		spec.setName("goes1");
+		spec.setId(DbKey.createDbKey(20L));
+		spec.presentationGroupName = "cwms-english";
+		NetworkList list = new NetworkList("goes-east");
+		list.setId(DbKey.createDbKey(6L));
+		spec.networkLists.add(list);
+		specs.add(spec);
+
+		ReferenceIndex index = new ReferenceIndex((source, builder) ->
+				ReferenceResources.addRoutingSpecs(specs, groups, builder), Long.MAX_VALUE, System::nanoTime);
+
+		ApiReference reference = index.referencedBy(ReferenceIndex.Target.NETLIST, 6L).get(0);
+		assertEquals("routingspec", reference.getType());
+		assertEquals(20L, reference.getId());
+		assertEquals("goes1", reference.getName());
+		assertEquals(20L, index.referencedBy(ReferenceIndex.Target.PRESENTATION, 4L).get(0).getId());
+	}
+
+	@Test
+	void testPlatformReferences() throws Exception
+	{
+		Platform platform = new Platform();
+		platform.setId(DbKey.createDbKey(7L));
+		PlatformConfig config = new PlatformConfig();
+		config.setId(DbKey.createDbKey(11L));
+		platform.setConfig(config);
+		Site site = new Site();
+		site.setId(DbKey.createDbKey(3L));
+		platform.setSite(site);
+		Platform unconfigured = new Platform();
+		unconfigured.setId(DbKey.createDbKey(8L));
+		PlatformList platforms = new PlatformList();
+		platforms.add(platform);
+		platforms.add(unconfigured);
+
+		ReferenceIndex index = new ReferenceIndex((source, builder) ->
+		{
+			if (source == ReferenceIndex.Source.PLATFORMS)
+			{
+				ReferenceResources.addPlatforms(platforms, builder);
+			}
+		}, Long.MAX_VALUE, System::nanoTime);
+
+		assertEquals(7L, index.referencedBy(ReferenceIndex.Target.CONFIG, 11L).get(0).getId());
+		assertEquals(1, index.referencedBy(ReferenceIndex.Target.SITE, 3L).size());
+		assertTrue(index.referencedBy(ReferenceIndex.Target.CONFIG, DbKey.NullKey.getValue()).isEmpty());
+	}
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
 import java.util.Vector;
@@ -30,6 +31,7 @@ import static ilex.util.TextUtil.str2boolean;
 import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opendcs.odcsapi.res.RoutingResources.map;
 import static org.opendcs.odcsapi.res.RoutingResources.statusMap;
@@ -403,6 +405,20 @@ final class RoutingResourcesTest
 		assertEquals(apiDacqEvent.getPlatformId(), dacqEvent.getPlatformId().getValue());
 	}
 
+	@Test
+	void testBacklogAfterIdWithoutSession() throws Exception
+	{
+		Map<String, Object> backlog = new RoutingResources().handleBacklog("last", 181646L, null);
+		assertEquals(true, backlog.get("backLogValid"));
+		assertEquals(181646L, backlog.get("dacqEventId"));
+		assertNull(backlog.get("timeInMillis"));
+
+		// Without a session there is no position to resume from
+		backlog = new RoutingResources().handleBacklog("last", null, null);
+		assertEquals(true, backlog.get("backLogValid"));
+		assertNull(backlog.get("dacqEventId"));
+	}
+
 	private RoutingSpec buildRoutingSpec() throws Exception
 	{
 		DataSource dataSource = new DataSource();
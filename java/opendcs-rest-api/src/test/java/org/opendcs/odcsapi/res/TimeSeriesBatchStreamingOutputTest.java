@@ -0,0 +1,208 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import decodes.cwms.CwmsTsId;
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import decodes.tsdb.DbIoException;
+import decodes.tsdb.NoSuchObjectException;
+import decodes.tsdb.TimeSeriesDb;
+import decodes.tsdb.TimeSeriesIdentifier;
+import ilex.var.TimedVariable;
+import opendcs.dai.TimeSeriesDAI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesBatchResult;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+final class TimeSeriesBatchStreamingOutputTest
+{
+	private final ObjectMapper mapper = new ObjectMapperContextResolver().getContext(ApiTimeSeriesBatchResult.class);
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@Mock
+	TimeSeriesDb tsdb;
+
+	@Mock
+	TimeSeriesDAI dai;
+
+	@AfterEach
+	void tearDown()
+	{
+		executor.shutdownNow();
+	}
+
+	@Test
+	void testFailuresAreIsolatedPerKey() throws Exception
+	{
+		CTimeSeries found = series(1L, 3);
+		CTimeSeries broken = series(3L, 0);
+		when(tsdb.makeTimeSeriesDAO()).thenReturn(dai);
+		when(dai.getTimeSeriesIdentifier(DbKey.createDbKey(1L))).thenReturn(found.getTimeSeriesIdentifier());
+		when(dai.getTimeSeriesIdentifier(DbKey.createDbKey(2L))).thenThrow(new NoSuchObjectException("No such key"));
+		when(dai.getTimeSeriesIdentifier(DbKey.createDbKey(3L))).thenReturn(broken.getTimeSeriesIdentifier());
+		when(tsdb.makeTimeSeries(found.getTimeSeriesIdentifier())).thenReturn(found);
+		when(tsdb.makeTimeSeries(broken.getTimeSeriesIdentifier())).thenReturn(broken);
+		when(dai.fillTimeSeries(same(found), any(), any())).thenReturn(found.size());
+		doThrow(new DbIoException("Connection lost")).when(dai).fillTimeSeries(same(broken), any(), any());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TimeSeriesBatchStreamingOutput.submit(executor, 2, tsdb, List.of(1L, 2L, 3L), null, null, null).write(out);
+		List<ApiTimeSeriesBatchResult> results = mapper.readValue(out.toByteArray(), new TypeReference<>() {});
+
+		assertEquals(3, results.size());
+		ApiTimeSeriesBatchResult result = results.get(0);
+		assertEquals(1L, result.getKey());
+		assertEquals(200, result.getStatus());
+		assertEquals(3, result.getValues().size());
+		assertEquals(2L, results.get(1).getKey());
+		assertEquals(404, results.get(1).getStatus());
+		assertNull(results.get(1).getTsid());
+		assertEquals(3L, results.get(2).getKey());
+		assertEquals(500, results.get(2).getStatus());
+		assertTrue(results.get(2).getValues().isEmpty());
+		// Each series is read with its own DAO
+		verify(tsdb, times(3)).makeTimeSeriesDAO();
+		verify(dai, times(3)).close();
+	}
+
+	@Test
+	void testSeriesWrittenInRequestOrder() throws Exception
+	{
+		CTimeSeries first = series(7L, 2);
+		CTimeSeries second = series(5L, 4);
+		when(tsdb.makeTimeSeriesDAO()).thenReturn(dai);
+		when(dai.getTimeSeriesIdentifier(DbKey.createDbKey(7L))).thenReturn(first.getTimeSeriesIdentifier());
+		when(dai.getTimeSeriesIdentifier(DbKey.createDbKey(5L))).thenReturn(second.getTimeSeriesIdentifier());
+		when(tsdb.makeTimeSeries(first.getTimeSeriesIdentifier())).thenReturn(first);
+		when(tsdb.makeTimeSeries(second.getTimeSeriesIdentifier())).thenReturn(second);
+		Date end = Date.from(Instant.parse("2021-08-01T02:00:00Z"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TimeSeriesBatchStreamingOutput.submit(executor, 2, tsdb, List.of(7L, 5L), null, end, null).write(out);
+		List<ApiTimeSeriesBatchResult> results = mapper.readValue(out.toByteArray(), new TypeReference<>() {});
+
+		assertEquals(2, results.size());
+		assertEquals(7L, results.get(0).getKey());
+		assertEquals(200, results.get(0).getStatus());
+		assertEquals(7L, results.get(0).getTsid().getKey());
+		assertEquals(2, results.get(0).getValues().size());
+		assertEquals(5L, results.get(1).getKey());
+		assertEquals(3, results.get(1).getValues().size());
+		verify(dai).fillTimeSeries(first, null, end);
+	}
+
+	@Test
+	void testReadsAheadWithinWindow() throws Exception
+	{
+		AtomicInteger reading = new AtomicInteger();
+		AtomicInteger maxReading = new AtomicInteger();
+		when(tsdb.makeTimeSeriesDAO()).thenReturn(dai);
+		when(dai.getTimeSeriesIdentifier(any())).thenAnswer(invocation ->
+		{
+			maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+			DbKey key = invocation.getArgument(0);
+			return series(key.getValue(), 1).getTimeSeriesIdentifier();
+		});
+		when(tsdb.makeTimeSeries(any())).thenAnswer(invocation ->
+		{
+			CTimeSeries cts = new CTimeSeries(DbKey.NullKey, null, null);
+			cts.setTimeSeriesIdentifier(invocation.getArgument(0));
+			return cts;
+		});
+		when(dai.fillTimeSeries(any(), any(), any())).thenAnswer(invocation ->
+		{
+			// Slow enough for all eight threads to be busy if the reads were not windowed
+			Thread.sleep(2);
+			reading.decrementAndGet();
+			return 0;
+		});
+		List<Long> keys = LongStream.rangeClosed(1, 50).boxed().toList();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExecutorService wide = Executors.newFixedThreadPool(8);
+		try
+		{
+			TimeSeriesBatchStreamingOutput.submit(wide, 2, tsdb, keys, null, null, null).write(out);
+		}
+		finally
+		{
+			wide.shutdownNow();
+		}
+		List<ApiTimeSeriesBatchResult> results = mapper.readValue(out.toByteArray(), new TypeReference<>() {});
+
+		assertEquals(keys, results.stream().map(ApiTimeSeriesBatchResult::getKey).toList());
+		assertTrue(maxReading.get() <= 3, "at most the window plus the series being written");
+	}
+
+	@Test
+	void testSaturatedPool() throws Exception
+	{
+		ExecutorService saturated = mock(ExecutorService.class);
+		when(saturated.submit(ArgumentMatchers.<Callable<CTimeSeries>>any()))
+				.thenThrow(new RejectedExecutionException("full"));
+
+		WebAppException ex = assertThrows(WebAppException.class,
+				() -> TimeSeriesBatchStreamingOutput.submit(saturated, 2, tsdb, List.of(1L, 2L), null, null, null));
+		assertEquals(503, ex.getStatus());
+	}
+
+	private static CTimeSeries series(long key, int count)
+	{
+		CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(key), null, null);
+		TimeSeriesIdentifier id = new CwmsTsId();
+		id.setUniqueString("SAC.Flow.Inst.1Hour.0.GOES-" + key);
+		id.setKey(DbKey.createDbKey(key));
+		cts.setTimeSeriesIdentifier(id);
+		Instant time = Instant.parse("2021-08-01T00:00:00Z");
+		for (int i = 0; i < count; i++)
+		{
+			cts.addSample(new TimedVariable(Date.from(time.plusSeconds(3600L * i)), i, 0));
+		}
+		return cts;
+	}
+}
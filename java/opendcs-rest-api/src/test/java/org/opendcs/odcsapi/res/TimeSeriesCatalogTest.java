@@ -0,0 +1,181 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import decodes.tsdb.DbIoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesIdentifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TimeSeriesCatalogTest
+{
+	private final List<ApiTimeSeriesIdentifier> database = new ArrayList<>();
+	private final AtomicInteger loads = new AtomicInteger();
+	private TimeSeriesCatalog catalog;
+
+	@BeforeEach
+	void setUp() throws Exception
+	{
+		database.add(id(1, "OKVI4.Stage.Inst.15Minutes.0.raw", true));
+		database.add(id(2, "OKVI4.Stage.Ave.1Day.1Day.CO", true));
+		database.add(id(3, "OKVI4.Flow.Inst.15Minutes.0.raw", false));
+		database.add(id(4, "SAC.Flow.Inst.15Minutes.0.GOES", true));
+		database.add(id(5, "sac.Stage.Inst.1Hour.0.rev.2", true));
+		database.add(id(6, "OKVI5.Stage.Inst.15Minutes.0.raw", true));
+		catalog = new TimeSeriesCatalog(() ->
+		{
+			loads.incrementAndGet();
+			return new ArrayList<>(database);
+		});
+		catalog.refresh();
+	}
+
+	@Test
+	void testAllSortedIgnoringCase()
+	{
+		TimeSeriesCatalog.Page page = catalog.find(new TimeSeriesCatalog.Filter(), 0, Integer.MAX_VALUE);
+		assertEquals(6, page.total());
+		assertEquals(List.of(3L, 2L, 1L, 6L, 4L, 5L), keys(page));
+	}
+
+	@Test
+	void testActiveOnly()
+	{
+		TimeSeriesCatalog.Page page = catalog.find(new TimeSeriesCatalog.Filter().activeOnly(true), 0, 100);
+		assertEquals(5, page.total());
+		assertEquals(List.of(2L, 1L, 6L, 4L, 5L), keys(page));
+	}
+
+	@Test
+	void testPrefix()
+	{
+		assertEquals(List.of(2L, 1L), keys(catalog.find(new TimeSeriesCatalog.Filter().prefix("okvi4.stage"), 0, 100)));
+		assertEquals(List.of(4L, 5L), keys(catalog.find(new TimeSeriesCatalog.Filter().prefix("SAC."), 0, 100)));
+		assertEquals(0, catalog.find(new TimeSeriesCatalog.Filter().prefix("ZZZ"), 0, 100).total());
+	}
+
+	@Test
+	void testPattern()
+	{
+		assertEquals(List.of(3L, 1L, 6L, 4L),
+				keys(catalog.find(new TimeSeriesCatalog.Filter().pattern("*.15minutes.*"), 0, 100)));
+		assertEquals(List.of(1L, 6L),
+				keys(catalog.find(new TimeSeriesCatalog.Filter().pattern("OKVI?.Stage.*.raw"), 0, 100)));
+		// Regular expression characters are literal
+		assertEquals(0, catalog.find(new TimeSeriesCatalog.Filter().pattern("OKVI4.Stage.(Inst|Ave)*"), 0, 100)
+				.total());
+		// The prefix and the literal start of the pattern must agree
+		assertEquals(0, catalog.find(new TimeSeriesCatalog.Filter().prefix("SAC").pattern("OKVI*"), 0, 100).total());
+		assertEquals(List.of(3L, 1L),
+				keys(catalog.find(new TimeSeriesCatalog.Filter().prefix("OKVI").pattern("okvi4.*.raw"), 0, 100)));
+	}
+
+	@Test
+	void testSegments()
+	{
+		TimeSeriesCatalog.Filter filter = new TimeSeriesCatalog.Filter()
+				.segment(TimeSeriesCatalog.Segment.PARAM, "stage")
+				.segment(TimeSeriesCatalog.Segment.INTERVAL, "15MINUTES");
+		assertEquals(List.of(1L, 6L), keys(catalog.find(filter, 0, 100)));
+		assertEquals(List.of(6L), keys(catalog.find(filter.prefix("OKVI5"), 0, 100)));
+		// The version keeps any further dots
+		assertEquals(List.of(5L), keys(catalog.find(new TimeSeriesCatalog.Filter()
+				.segment(TimeSeriesCatalog.Segment.VERSION, "rev.2"), 0, 100)));
+		assertEquals(0, catalog.find(new TimeSeriesCatalog.Filter()
+				.segment(TimeSeriesCatalog.Segment.LOCATION, "nowhere"), 0, 100).total());
+	}
+
+	@Test
+	void testPaging()
+	{
+		TimeSeriesCatalog.Filter filter = new TimeSeriesCatalog.Filter().activeOnly(true);
+		TimeSeriesCatalog.Page first = catalog.find(filter, 0, 2);
+		TimeSeriesCatalog.Page second = catalog.find(filter, 2, 2);
+		TimeSeriesCatalog.Page last = catalog.find(filter, 4, 2);
+		assertEquals(List.of(2L, 1L), keys(first));
+		assertEquals(List.of(6L, 4L), keys(second));
+		assertEquals(List.of(5L), keys(last));
+		assertEquals(5, last.total());
+		assertEquals(List.of(), keys(catalog.find(filter, 10, 2)));
+	}
+
+	@Test
+	void testRefreshReusesUnchangedIdentifiers() throws Exception
+	{
+		ApiTimeSeriesIdentifier before = catalog.find(new TimeSeriesCatalog.Filter().prefix("SAC.Flow"), 0, 1)
+				.items().get(0);
+
+		database.set(0, id(1, "OKVI4.Stage.Inst.15Minutes.0.raw", true));
+		catalog.refresh();
+		assertSame(before, catalog.find(new TimeSeriesCatalog.Filter().prefix("SAC.Flow"), 0, 1).items().get(0));
+
+		database.remove(3);
+		database.add(id(7, "NEW.Elev.Inst.1Hour.0.raw", true));
+		database.set(0, id(1, "OKVI4.Stage.Inst.15Minutes.0.raw", false));
+		catalog.refresh();
+		assertEquals(3, loads.get());
+		assertEquals(0, catalog.find(new TimeSeriesCatalog.Filter().prefix("SAC.Flow"), 0, 1).total());
+		assertEquals(List.of(7L), keys(catalog.find(new TimeSeriesCatalog.Filter()
+				.segment(TimeSeriesCatalog.Segment.LOCATION, "new"), 0, 100)));
+		assertEquals(List.of(2L), keys(catalog.find(new TimeSeriesCatalog.Filter()
+				.prefix("OKVI4.Stage").activeOnly(true), 0, 100)));
+		assertSame(database.get(4), catalog.find(new TimeSeriesCatalog.Filter().prefix("OKVI5"), 0, 1).items().get(0));
+	}
+
+	@Test
+	void testFailedRefreshKeepsCatalog() throws Exception
+	{
+		TimeSeriesCatalog failing = new TimeSeriesCatalog(new TimeSeriesCatalog.Loader()
+		{
+			private boolean loaded;
+
+			@Override
+			public List<ApiTimeSeriesIdentifier> load() throws DbIoException
+			{
+				if (loaded)
+				{
+					throw new DbIoException("Database unavailable");
+				}
+				loaded = true;
+				return database;
+			}
+		});
+		failing.refresh();
+		assertThrows(DbIoException.class, failing::refresh);
+		assertEquals(6, failing.size());
+		assertEquals(6, failing.find(new TimeSeriesCatalog.Filter(), 0, 100).total());
+	}
+
+	private static ApiTimeSeriesIdentifier id(long key, String uniqueString, boolean active)
+	{
+		ApiTimeSeriesIdentifier id = new ApiTimeSeriesIdentifier(uniqueString, key, null, "ft");
+		id.setActive(active);
+		return id;
+	}
+
+	private static List<Long> keys(TimeSeriesCatalog.Page page)
+	{
+		return page.items().stream().map(ApiTimeSeriesIdentifier::getKey).toList();
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import decodes.cwms.CwmsTsId;
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import decodes.tsdb.TimeSeriesIdentifier;
+import ilex.var.TimedVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing 1M samples of a 15 minute series as JSON with the columnar format. The time of each shot is
+ * the CPU cost per million points. The encoded size per point is checked by
+ * {@link org.opendcs.odcsapi.util.TimeSeriesColumnarEncoderTest}.
+ * <p>
+ * Run with: {@code ./gradlew :opendcs-rest-api:jmh -Pjmh.args="TimeSeriesColumnarBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class TimeSeriesColumnarBenchmark
+{
+	private static final int SAMPLES = 1_000_000;
+
+	private CTimeSeries cts;
+
+	@Setup
+	public void setup()
+	{
+		cts = new CTimeSeries(DbKey.createDbKey(1L), null, null);
+		TimeSeriesIdentifier id = new CwmsTsId();
+		id.setUniqueString("SAC.Flow.Inst.15Minutes.0.GOES");
+		id.setKey(DbKey.createDbKey(1L));
+		id.setStorageUnits("cms");
+		cts.setTimeSeriesIdentifier(id);
+		Instant time = Instant.parse("2000-01-01T00:00:00Z");
+		for (int i = 0; i < SAMPLES; i++)
+		{
+			// Gauge readings with two decimals, steady for a few samples at a time
+			double value = Math.round(Math.sin(i / 384.0) * 10_000.0) / 100.0;
+			cts.addSample(new TimedVariable(Date.from(time.plusSeconds(900L * i)), value, i % 5000 == 0 ? 3 : 0));
+		}
+	}
+
+	@Benchmark
+	public void json() throws IOException
+	{
+		new TimeSeriesDataStreamingOutput(cts, null, null).write(OutputStream.nullOutputStream());
+	}
+
+	@Benchmark
+	public void columnar() throws IOException
+	{
+		new TimeSeriesColumnarStreamingOutput(cts, null, null, null, null).write(OutputStream.nullOutputStream());
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import decodes.cwms.CwmsTsId;
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import decodes.tsdb.TimeSeriesIdentifier;
+import ilex.var.TimedVariable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serializing 1M samples through the {@link org.opendcs.odcsapi.beans.ApiTimeSeriesValue} list with
+ * {@link TimeSeriesDataStreamingOutput}.
+ * <p>
+ * Besides the total time, the {@code firstByteMillis} counter reports the time until the first byte reaches the
+ * response stream and {@code peakHeapMb} the largest heap growth observed while writing, relative to the heap
+ * after a full GC before each invocation. JMH sums these counters over the measured iterations, one invocation
+ * each, so the value per response is the reported counter divided by its {@code Cnt}.
+ * <p>
+ * Run with: {@code ./gradlew :opendcs-rest-api:jmh -Pjmh.args="TimeSeriesDataStreamingBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class TimeSeriesDataStreamingBenchmark
+{
+	private static final int SAMPLES = 1_000_000;
+
+	private final ObjectMapper mapper = new ObjectMapperContextResolver().getContext(Object.class);
+	private CTimeSeries cts;
+	private Date start;
+	private Date end;
+
+	@Setup
+	public void setup()
+	{
+		cts = new CTimeSeries(DbKey.createDbKey(1L), null, null);
+		TimeSeriesIdentifier id = new CwmsTsId();
+		id.setUniqueString("SAC.Flow.Inst.15Minutes.0.GOES");
+		id.setKey(DbKey.createDbKey(1L));
+		id.setStorageUnits("cms");
+		cts.setTimeSeriesIdentifier(id);
+		Instant time = Instant.parse("2000-01-01T00:00:00Z");
+		for (int i = 0; i < SAMPLES; i++)
+		{
+			cts.addSample(new TimedVariable(Date.from(time.plusSeconds(900L * i)), Math.sin(i / 96.0) * 100.0, 0));
+		}
+		start = cts.sampleAt(0).getTime();
+		end = cts.sampleAt(SAMPLES - 1).getTime();
+	}
+
+	@Benchmark
+	public void list(ResponseCounters counters) throws IOException
+	{
+		mapper.writeValue(counters.output, TimeSeriesResources.dataMap(cts, start, end));
+	}
+
+	@Benchmark
+	public void streaming(ResponseCounters counters) throws IOException
+	{
+		new TimeSeriesDataStreamingOutput(cts, start, end).write(counters.output);
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class ResponseCounters
+	{
+		public double firstByteMillis;
+		public double peakHeapMb;
+
+		private final Runtime runtime = Runtime.getRuntime();
+		private long invocationStart;
+		private long baselineHeap;
+		private long peakHeap;
+		private boolean firstByte;
+		OutputStream output;
+
+		@Setup(Level.Invocation)
+		public void reset()
+		{
+			System.gc();
+			baselineHeap = usedHeap();
+			peakHeap = baselineHeap;
+			firstByte = false;
+			output = new OutputStream()
+			{
+				@Override
+				public void write(int b)
+				{
+					written();
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len)
+				{
+					written();
+				}
+			};
+			invocationStart = System.nanoTime();
+		}
+
+		private void written()
+		{
+			if (!firstByte)
+			{
+				firstByte = true;
+				firstByteMillis = (System.nanoTime() - invocationStart) / 1_000_000.0;
+			}
+			peakHeap = Math.max(peakHeap, usedHeap());
+			peakHeapMb = (peakHeap - baselineHeap) / (1024.0 * 1024.0);
+		}
+
+		private long usedHeap()
+		{
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+}
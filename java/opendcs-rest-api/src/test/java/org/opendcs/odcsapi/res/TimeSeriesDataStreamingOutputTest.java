@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import decodes.cwms.CwmsTsId;
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import decodes.tsdb.TimeSeriesIdentifier;
+import ilex.var.TimedVariable;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opendcs.odcsapi.res.TimeSeriesResources.dataMap;
+import static org.opendcs.odcsapi.res.TimeSeriesResources.firstSampleIndex;
+
+final class TimeSeriesDataStreamingOutputTest
+{
+	private final ObjectMapper mapper = new ObjectMapperContextResolver().getContext(ApiTimeSeriesData.class);
+
+	@Test
+	void testSameJsonAsDataMap() throws Exception
+	{
+		CTimeSeries cts = buildSeries(4);
+		Date start = Date.from(Instant.parse("2021-08-01T00:00:00Z"));
+		Date end = Date.from(Instant.parse("2021-08-01T03:00:00Z"));
+
+		String expected = mapper.writeValueAsString(dataMap(cts, start, end));
+
+		assertEquals(expected, stream(cts, start, end));
+	}
+
+	@Test
+	void testSameJsonAsDataMapWithinRange() throws Exception
+	{
+		CTimeSeries cts = buildSeries(6);
+		Date start = Date.from(Instant.parse("2021-08-01T00:30:00Z"));
+		Date end = Date.from(Instant.parse("2021-08-01T02:00:00Z"));
+
+		String expected = mapper.writeValueAsString(dataMap(cts, start, end));
+
+		assertEquals(expected, stream(cts, start, end));
+	}
+
+	@Test
+	void testRangeBounds() throws Exception
+	{
+		CTimeSeries cts = buildSeries(4);
+		Date start = Date.from(Instant.parse("2021-08-01T00:30:00Z"));
+		Date end = Date.from(Instant.parse("2021-08-01T02:00:00Z"));
+
+		ApiTimeSeriesData data = mapper.readValue(stream(cts, start, end), ApiTimeSeriesData.class);
+
+		assertEquals(2, data.getValues().size());
+		assertEquals(cts.sampleAt(1).getTime(), data.getValues().get(0).getSampleTime());
+		assertEquals(cts.sampleAt(2).getTime(), data.getValues().get(1).getSampleTime());
+
+		data = mapper.readValue(stream(cts, null, null), ApiTimeSeriesData.class);
+		assertEquals(cts.size(), data.getValues().size());
+		assertEquals(88795L, data.getTsid().getKey());
+	}
+
+	@Test
+	void testNextPageOnlyWhenPaged() throws Exception
+	{
+		CTimeSeries cts = buildSeries(2);
+		assertFalse(stream(cts, null, null).contains("nextPage"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new TimeSeriesDataStreamingOutput(cts, null, null, null, "token").write(out);
+		ApiTimeSeriesData data = mapper.readValue(out.toString(StandardCharsets.UTF_8), ApiTimeSeriesData.class);
+		assertEquals("token", data.getNextPage());
+	}
+
+	@Test
+	void testFirstSampleIndex()
+	{
+		CTimeSeries cts = buildSeries(4);
+		assertEquals(0, firstSampleIndex(cts, null));
+		assertEquals(0, firstSampleIndex(cts, Date.from(Instant.parse("2021-07-01T00:00:00Z"))));
+		assertEquals(1, firstSampleIndex(cts, Date.from(Instant.parse("2021-08-01T01:00:00Z"))));
+		assertEquals(2, firstSampleIndex(cts, Date.from(Instant.parse("2021-08-01T01:00:01Z"))));
+		assertEquals(4, firstSampleIndex(cts, Date.from(Instant.parse("2021-09-01T00:00:00Z"))));
+	}
+
+	private String stream(CTimeSeries cts, Date start, Date end) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new TimeSeriesDataStreamingOutput(cts, start, end).write(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static CTimeSeries buildSeries(int count)
+	{
+		CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(86795L), null, null);
+		TimeSeriesIdentifier id = new CwmsTsId();
+		id.setDescription("TimeSeries data used for computation");
+		id.setUniqueString("SAC.Flow.Inst.1Hour.0.GOES");
+		id.setKey(DbKey.createDbKey(88795L));
+		id.setStorageUnits("m");
+		cts.setTimeSeriesIdentifier(id);
+		Instant time = Instant.parse("2021-08-01T00:00:00Z");
+		for (int i = 0; i < count; i++)
+		{
+			cts.addSample(new TimedVariable(Date.from(time.plusSeconds(3600L * i)), 10.0 * (i + 1), i));
+		}
+		return cts;
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import ilex.var.TimedVariable;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesValue;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TimeSeriesDownsamplerTest
+{
+	private static final Instant ORIGIN = Instant.parse("2021-08-01T00:00:00Z");
+
+	@Test
+	void testParameters() throws Exception
+	{
+		assertNull(TimeSeriesDownsampler.fromParameters(null, "mean"));
+		assertThrows(WebAppException.class, () -> TimeSeriesDownsampler.fromParameters(100, "median"));
+		assertThrows(WebAppException.class, () -> TimeSeriesDownsampler.fromParameters(2, null));
+		assertThrows(WebAppException.class, () -> TimeSeriesDownsampler.fromParameters(1, "minmax"));
+		// Short series pass through untouched
+		List<ApiTimeSeriesValue> values = downsample(TimeSeriesDownsampler.fromParameters(10, " MEAN "), series(8));
+		assertEquals(8, values.size());
+	}
+
+	@Test
+	void testMean() throws Exception
+	{
+		CTimeSeries cts = series(100);
+		List<ApiTimeSeriesValue> values = downsample(new TimeSeriesDownsampler(TimeSeriesDownsampler.Method.MEAN, 10), cts);
+
+		assertEquals(10, values.size());
+		// Bucket of samples 0..9 has a mean of 4.5 and is placed at its middle sample
+		assertEquals(4.5, values.get(0).getValue(), 1e-9);
+		assertEquals(cts.sampleAt(4).getTime(), values.get(0).getSampleTime());
+		assertEquals(94.5, values.get(9).getValue(), 1e-9);
+		// Flags of the bucket are combined
+		assertEquals(0x13, values.get(0).getFlags());
+	}
+
+	@Test
+	void testMinMax() throws Exception
+	{
+		CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(1L), null, null);
+		double[] data = {5, 1, 9, 3, 4, 4, 2, 8, 7, 6, 0, 5};
+		for (int i = 0; i < data.length; i++)
+		{
+			cts.addSample(new TimedVariable(time(i), data[i], 0));
+		}
+		List<ApiTimeSeriesValue> values = downsample(new TimeSeriesDownsampler(TimeSeriesDownsampler.Method.MINMAX, 4), cts);
+
+		// Two buckets of six samples, min and max of each in time order
+		assertEquals(4, values.size());
+		assertEquals(1.0, values.get(0).getValue());
+		assertEquals(9.0, values.get(1).getValue());
+		assertEquals(8.0, values.get(2).getValue());
+		assertEquals(0.0, values.get(3).getValue());
+		assertEquals(time(10), values.get(3).getSampleTime());
+	}
+
+	@Test
+	void testLargestTriangleThreeBuckets() throws Exception
+	{
+		CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(1L), null, null);
+		for (int i = 0; i < 1000; i++)
+		{
+			cts.addSample(new TimedVariable(time(i), i == 500 ? 1000.0 : Math.sin(i / 50.0), 0));
+		}
+		List<ApiTimeSeriesValue> values = downsample(new TimeSeriesDownsampler(TimeSeriesDownsampler.Method.LTTB, 50), cts);
+
+		assertEquals(50, values.size());
+		assertEquals(cts.sampleAt(0).getTime(), values.get(0).getSampleTime());
+		assertEquals(cts.sampleAt(999).getTime(), values.get(49).getSampleTime());
+		// The spike is the largest triangle in its bucket and must survive
+		assertTrue(values.stream().anyMatch(v -> v.getValue() == 1000.0));
+		for (int i = 1; i < values.size(); i++)
+		{
+			assertTrue(values.get(i).getSampleTime().after(values.get(i - 1).getSampleTime()));
+		}
+	}
+
+	@Test
+	void testRangeOnly() throws Exception
+	{
+		CTimeSeries cts = series(100);
+		List<ApiTimeSeriesValue> values = new ArrayList<>();
+		new TimeSeriesDownsampler(TimeSeriesDownsampler.Method.MEAN, 2).downsample(cts, 10, 20,
+				(t, v, f) -> values.add(new ApiTimeSeriesValue(t, v, f)));
+
+		assertEquals(2, values.size());
+		assertEquals(12.0, values.get(0).getValue(), 1e-9);
+		assertEquals(17.0, values.get(1).getValue(), 1e-9);
+	}
+
+	private static List<ApiTimeSeriesValue> downsample(TimeSeriesDownsampler downsampler, CTimeSeries cts)
+			throws Exception
+	{
+		List<ApiTimeSeriesValue> values = new ArrayList<>();
+		downsampler.downsample(cts, 0, cts.size(), (t, v, f) -> values.add(new ApiTimeSeriesValue(t, v, f)));
+		return values;
+	}
+
+	private static CTimeSeries series(int count)
+	{
+		CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(1L), null, null);
+		for (int i = 0; i < count; i++)
+		{
+			cts.addSample(new TimedVariable(time(i), i, i % 7 == 5 ? 0x10 : i % 3));
+		}
+		return cts;
+	}
+
+	private static Date time(int index)
+	{
+		return Date.from(ORIGIN.plusSeconds(900L * index));
+	}
+}
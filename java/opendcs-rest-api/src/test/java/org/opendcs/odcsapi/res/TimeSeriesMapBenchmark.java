@@ -0,0 +1,129 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import ilex.var.TimedVariable;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the previous findWithin/findNext sample walk of {@link TimeSeriesResources#map(CTimeSeries, Date, Date)}
+ * with the single indexed pass, for 10k, 100k and 1M samples.
+ * <p>
+ * Run with: {@code ./gradlew :opendcs-rest-api:jmh -Pjmh.args="TimeSeriesMapBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class TimeSeriesMapBenchmark
+{
+	@Param({"10000", "100000", "1000000"})
+	public int samples;
+
+	private CTimeSeries cts;
+	private Date start;
+	private Date end;
+
+	@Setup
+	public void setup()
+	{
+		cts = new CTimeSeries(DbKey.createDbKey(1L), null, null);
+		Instant time = Instant.parse("2000-01-01T00:00:00Z");
+		for (int i = 0; i < samples; i++)
+		{
+			cts.addSample(new TimedVariable(Date.from(time.plusSeconds(900L * i)), Math.sin(i / 96.0) * 100.0, 0));
+		}
+		start = cts.sampleAt(0).getTime();
+		end = cts.sampleAt(samples - 1).getTime();
+	}
+
+	@Benchmark
+	public List<ApiTimeSeriesValue> findNextWalk()
+	{
+		return LegacyMap.map(cts, start, end);
+	}
+
+	@Benchmark
+	public List<ApiTimeSeriesValue> indexedPass()
+	{
+		return TimeSeriesResources.map(cts, start, end);
+	}
+
+	/**
+	 * Copy of the sample walk previously used by {@link TimeSeriesResources}, kept as the baseline.
+	 */
+	private static final class LegacyMap
+	{
+		static List<ApiTimeSeriesValue> map(CTimeSeries cts, Date start, Date end)
+		{
+			List<ApiTimeSeriesValue> ret = new ArrayList<>();
+			Date current = start;
+			TimedVariable tv = cts.findWithin(current, 5);
+			if (tv != null && !tv.getTime().before(current))
+			{
+				current = processSample(tv, current, end, ret);
+			}
+
+			while (current.before(end) || current.equals(end))
+			{
+				TimedVariable value = cts.findNext(current);
+
+				if (value == null)
+				{
+					break;
+				}
+				current = processSample(value, current, end, ret);
+			}
+			return ret;
+		}
+
+		static Date processSample(TimedVariable value, Date current, Date end, List<ApiTimeSeriesValue> ret)
+		{
+			double val = Double.parseDouble(value.valueString());
+			ApiTimeSeriesValue apiValue = new ApiTimeSeriesValue(value.getTime(), val, value.getFlags());
+			ret.add(apiValue);
+			if (current.equals(end))
+			{
+				return Date.from(end.toInstant().plusSeconds(1));
+			}
+			else
+			{
+				return value.getTime();
+			}
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.res;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import decodes.cwms.CwmsTsId;
+import decodes.sql.DbKey;
+import decodes.tsdb.CTimeSeries;
+import decodes.tsdb.TimeSeriesDb;
+import decodes.tsdb.TimeSeriesIdentifier;
+import ilex.var.TimedVariable;
+import opendcs.dai.TimeSeriesDAI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesData;
+import org.opendcs.odcsapi.beans.ApiTimeSeriesValue;
+import org.opendcs.odcsapi.errorhandling.WebAppException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+final class TimeSeriesPagingTest
+{
+	private static final long TS_KEY = 42L;
+	private static final Instant ORIGIN = Instant.parse("2021-08-01T00:00:00Z");
+
+	private final ObjectMapper mapper = new ObjectMapperContextResolver().getContext(ApiTimeSeriesData.class);
+	// Stored samples by time, stands in for the database
+	private final TreeMap<Long, TimedVariable> stored = new TreeMap<>();
+
+	@Mock
+	TimeSeriesDb tsdb;
+
+	@Mock
+	TimeSeriesDAI dai;
+
+	@Test
+	void testPagesCoverSeriesOnce() throws Exception
+	{
+		for (int i = 0; i < 25; i++)
+		{
+			store(ORIGIN.plusSeconds(3600L * i), i);
+		}
+		mockDatabase();
+
+		List<ApiTimeSeriesValue> all = new ArrayList<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		Date start = null;
+		String page;
+		do
+		{
+			ApiTimeSeriesData data = readPage(start, null, 10);
+			all.addAll(data.getValues());
+			pageSizes.add(data.getValues().size());
+			page = data.getNextPage();
+			start = page == null ? null : new Date(TimeSeriesPageToken.decode(page, TS_KEY).getTime() + 1);
+		}
+		while (page != null);
+
+		assertEquals(List.of(10, 10, 5), pageSizes);
+		assertEquals(25, all.size());
+		for (int i = 0; i < all.size(); i++)
+		{
+			assertEquals(i, all.get(i).getValue());
+		}
+		// Hourly samples fit the first window of each page, so each page is one read
+		verify(dai, atMost(3)).fillTimeSeries(any(), any(), any());
+	}
+
+	@Test
+	void testPageStopsAtEnd() throws Exception
+	{
+		for (int i = 0; i < 25; i++)
+		{
+			store(ORIGIN.plusSeconds(3600L * i), i);
+		}
+		mockDatabase();
+
+		ApiTimeSeriesData data = readPage(null, Date.from(ORIGIN.plusSeconds(3600L * 10)), 10);
+		assertEquals(10, data.getValues().size());
+		assertNotNull(data.getNextPage());
+
+		Date next = new Date(TimeSeriesPageToken.decode(data.getNextPage(), TS_KEY).getTime() + 1);
+		data = readPage(next, Date.from(ORIGIN.plusSeconds(3600L * 10)), 10);
+		assertEquals(1, data.getValues().size());
+		assertEquals(10.0, data.getValues().get(0).getValue());
+		assertNull(data.getNextPage());
+	}
+
+	@Test
+	void testSparseSeriesSkipsGaps() throws Exception
+	{
+		for (int i = 0; i < 5; i++)
+		{
+			store(ORIGIN.plusSeconds(3600L * i), i);
+		}
+		Instant later = ORIGIN.plusSeconds(3600L * 24 * 365 * 3);
+		for (int i = 0; i < 20; i++)
+		{
+			store(later.plusSeconds(86400L * i), 100 + i);
+		}
+		mockDatabase();
+
+		ApiTimeSeriesData data = readPage(null, null, 10);
+		assertEquals(10, data.getValues().size());
+		assertEquals(0.0, data.getValues().get(0).getValue());
+		assertEquals(104.0, data.getValues().get(9).getValue());
+		// Windows start at the next stored sample and grow, the three year gap costs one extra read
+		verify(dai, atMost(5)).fillTimeSeries(any(), any(), any());
+	}
+
+	@Test
+	void testPageToken() throws Exception
+	{
+		Date time = Date.from(ORIGIN);
+		String token = TimeSeriesPageToken.encode(TS_KEY, time);
+		assertEquals(time, TimeSeriesPageToken.decode(token, TS_KEY));
+		assertTrue(token.matches("[A-Za-z0-9_-]+"));
+		assertThrows(WebAppException.class, () -> TimeSeriesPageToken.decode(token, TS_KEY + 1));
+		assertThrows(WebAppException.class, () -> TimeSeriesPageToken.decode("not a token", TS_KEY));
+		assertThrows(WebAppException.class, () -> TimeSeriesPageToken.decode("MjoxOjI", TS_KEY));
+	}
+
+	@Test
+	void testPageWindow()
+	{
+		assertEquals(3600_000L * 1000, TimeSeriesResources.pageWindowMillis(null, 1000));
+		assertTrue(TimeSeriesResources.pageWindowMillis(null, TimeSeriesResources.MAX_PAGE_LIMIT) > 0);
+	}
+
+	private ApiTimeSeriesData readPage(Date start, Date end, int limit) throws Exception
+	{
+		CTimeSeries cts = TimeSeriesResources.readTimeSeriesPage(tsdb, TS_KEY, start, end, limit);
+		// Never more than one window beyond the page
+		assertTrue(cts.size() <= 2 * limit + 1);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TimeSeriesResources.pageOutput(cts, TS_KEY, start, end, limit, false).write(out);
+		return mapper.readValue(out.toByteArray(), ApiTimeSeriesData.class);
+	}
+
+	private void store(Instant time, double value)
+	{
+		stored.put(time.toEpochMilli(), new TimedVariable(Date.from(time), value, 0));
+	}
+
+	private void mockDatabase() throws Exception
+	{
+		TimeSeriesIdentifier tsId = new CwmsTsId();
+		tsId.setUniqueString("SAC.Flow.Inst.~1Hour.0.GOES");
+		tsId.setKey(DbKey.createDbKey(TS_KEY));
+		when(tsdb.makeTimeSeriesDAO()).thenReturn(dai);
+		when(dai.getTimeSeriesIdentifier(DbKey.createDbKey(TS_KEY))).thenReturn(tsId);
+		when(tsdb.makeTimeSeries(tsId)).thenAnswer(inv ->
+		{
+			CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(TS_KEY), null, null);
+			cts.setTimeSeriesIdentifier(tsId);
+			return cts;
+		});
+		when(dai.getNextValue(any(), any())).thenAnswer(inv ->
+		{
+			Map.Entry<Long, TimedVariable> next = stored.higherEntry(inv.<Date>getArgument(1).getTime());
+			return next == null ? null : next.getValue();
+		});
+		doAnswer(inv ->
+		{
+			CTimeSeries cts = inv.getArgument(0);
+			Date from = inv.getArgument(1);
+			Date until = inv.getArgument(2);
+			Map<Long, TimedVariable> window = stored.subMap(from.getTime(), true, until.getTime(), true);
+			window.values().forEach(cts::addSample);
+			return window.size();
+		}).when(dai).fillTimeSeries(any(), any(), any());
+	}
+}
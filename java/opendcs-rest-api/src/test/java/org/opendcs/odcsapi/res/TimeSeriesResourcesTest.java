@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import jakarta.ws.rs.core.MediaType;
 
 import decodes.cwms.CwmsTsId;
 import decodes.db.Site;
@@ -42,13 +43,14 @@ import org.opendcs.odcsapi.beans.ApiTsGroup;
 import org.opendcs.odcsapi.beans.ApiTsGroupRef;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opendcs.odcsapi.res.TimeSeriesResources.dataMap;
 import static org.opendcs.odcsapi.res.TimeSeriesResources.idMap;
 import static org.opendcs.odcsapi.res.TimeSeriesResources.map;
 import static org.opendcs.odcsapi.res.TimeSeriesResources.mapRef;
-import static org.opendcs.odcsapi.res.TimeSeriesResources.processSample;
+import static org.opendcs.odcsapi.res.TimeSeriesResources.prefersColumnar;
 import static org.opendcs.odcsapi.res.TimeSeriesResources.specMap;
 import static org.opendcs.odcsapi.res.TimeSeriesResources.str2const;
 
@@ -151,21 +153,42 @@ final class TimeSeriesResourcesTest
 	}
 
 	@Test
-	void testProcessSample() throws NoConversionException
+	void testValueMapRange() throws NoConversionException
 	{
-		TimedVariable tv = new TimedVariable(Date.from(Instant.parse("2021-08-01T00:15:00Z")), 10.0, 0);
-		Date start = Date.from(Instant.parse("2021-08-01T00:00:00Z"));
-		Date end = Date.from(Instant.parse("2021-08-01T01:00:00Z"));
-
-		List<ApiTimeSeriesValue> values = new ArrayList<>();
-
-		Date current = processSample(tv, start, end, values);
-		assertNotNull(current);
-		assertTrue(current.after(start));
-		assertTrue(current.before(end));
-		assertEquals(1, values.size());
-		assertEquals(tv.getTime(), values.get(0).getSampleTime());
-		assertEquals(tv.getDoubleValue(), values.get(0).getValue());
+		CTimeSeries cts = new CTimeSeries(DbKey.createDbKey(86795L), null, null);
+		Instant time = Instant.parse("2021-08-01T00:00:00Z");
+		for (int i = 0; i < 6; i++)
+		{
+			cts.addSample(new TimedVariable(Date.from(time.plusSeconds(900L * i)), 10.0 * i, i));
+		}
+
+		List<ApiTimeSeriesValue> values = map(cts, Date.from(Instant.parse("2021-08-01T00:10:00Z")),
+				Date.from(Instant.parse("2021-08-01T00:45:00Z")));
+		assertEquals(3, values.size());
+		for (int i = 0; i < values.size(); i++)
+		{
+			TimedVariable tv = cts.sampleAt(i + 1);
+			assertEquals(tv.getTime(), values.get(i).getSampleTime());
+			assertEquals(tv.getDoubleValue(), values.get(i).getValue());
+			assertEquals(tv.getFlags(), values.get(i).getFlags());
+		}
+
+		assertEquals(6, map(cts, null, null).size());
+		assertEquals(2, map(cts, null, Date.from(Instant.parse("2021-08-01T00:15:00Z"))).size());
+		assertEquals(1, map(cts, Date.from(Instant.parse("2021-08-01T01:15:00Z")), null).size());
+		assertTrue(map(cts, Date.from(Instant.parse("2021-08-02T00:00:00Z")), null).isEmpty());
+	}
+
+	@Test
+	void testColumnarNegotiation()
+	{
+		MediaType columnar = TimeSeriesResources.COLUMNAR_TYPE;
+		assertTrue(prefersColumnar(List.of(columnar)));
+		assertTrue(prefersColumnar(List.of(columnar, MediaType.APPLICATION_JSON_TYPE)));
+		assertFalse(prefersColumnar(List.of(MediaType.APPLICATION_JSON_TYPE, columnar)));
+		assertFalse(prefersColumnar(List.of(MediaType.WILDCARD_TYPE)));
+		assertFalse(prefersColumnar(List.of(new MediaType("application", "*"))));
+		assertFalse(prefersColumnar(List.of()));
 	}
 
 	private void assertMatch(TimeSeriesIdentifier id, ApiTimeSeriesIdentifier apiId)
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import java.util.EnumSet;
+import jakarta.annotation.security.RolesAllowed;
+
+import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.util.ApiConstants;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class AllowedRolesTest
+{
+	private final OpenDcsPrincipal guest = new OpenDcsPrincipal("guest", EnumSet.of(OpenDcsApiRoles.ODCS_API_GUEST));
+	private final OpenDcsPrincipal user = new OpenDcsPrincipal("user", EnumSet.of(OpenDcsApiRoles.ODCS_API_USER));
+	private final OpenDcsPrincipal admin = new OpenDcsPrincipal("admin", EnumSet.of(OpenDcsApiRoles.ODCS_API_ADMIN));
+	private final OpenDcsPrincipal none = new OpenDcsPrincipal("none", EnumSet.noneOf(OpenDcsApiRoles.class));
+
+	@Test
+	void testResolvesDeclaredRoles() throws Exception
+	{
+		AllowedRoles allowed = AllowedRoles.of(Resource.class, Resource.class.getMethod("write"));
+		assertTrue(allowed.isDeclared());
+		assertFalse(allowed.allows(guest));
+		assertTrue(allowed.allows(user));
+		assertTrue(allowed.allows(admin));
+		assertFalse(allowed.allows(none));
+		assertSame(allowed, AllowedRoles.of(Resource.class, Resource.class.getMethod("write")));
+
+		AllowedRoles all = AllowedRoles.of(Resource.class, Resource.class.getMethod("read"));
+		assertTrue(all.allows(guest));
+		assertFalse(all.allows(none));
+	}
+
+	@Test
+	void testUndeclaredAndPublicMethods() throws Exception
+	{
+		AllowedRoles undeclared = AllowedRoles.of(Resource.class, Resource.class.getMethod("undeclared"));
+		assertFalse(undeclared.isDeclared());
+		assertFalse(undeclared.allows(admin));
+
+		AllowedRoles openApi = AllowedRoles.of(OpenApiResource.class,
+				OpenApiResource.class.getDeclaredMethods()[0]);
+		assertTrue(openApi.isDeclared());
+		assertTrue(openApi.allows(none));
+	}
+
+	@Test
+	void testSecurityContextRoles()
+	{
+		OpenDcsSecurityContext context = new OpenDcsSecurityContext(user, true, "");
+		assertTrue(context.isUserInRole(ApiConstants.ODCS_API_USER));
+		assertFalse(context.isUserInRole(ApiConstants.ODCS_API_ADMIN));
+		assertFalse(context.isUserInRole("unknown"));
+	}
+
+	public static final class Resource
+	{
+		@RolesAllowed({ApiConstants.ODCS_API_GUEST, ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+		public void read()
+		{
+		}
+
+		@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+		public void write()
+		{
+		}
+
+		public void undeclared()
+		{
+		}
+	}
+}
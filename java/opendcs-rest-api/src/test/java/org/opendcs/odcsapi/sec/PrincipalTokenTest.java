@@ -0,0 +1,135 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import jakarta.ws.rs.core.NewCookie;
+
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class PrincipalTokenTest
+{
+	private static final byte[] SECRET = new byte[32];
+	private static final Instant LOGIN = Instant.parse("2025-03-04T15:00:00Z");
+	private static final Duration DURATION = Duration.ofMinutes(15);
+	private static final Duration MAX_LIFETIME = Duration.ofHours(1);
+
+	static
+	{
+		Arrays.fill(SECRET, (byte) 7);
+	}
+
+	private final OpenDcsPrincipal alice = new OpenDcsPrincipal("alice",
+			EnumSet.of(OpenDcsApiRoles.ODCS_API_GUEST, OpenDcsApiRoles.ODCS_API_USER));
+
+	@Test
+	void testVerifiesIssuedToken()
+	{
+		String token = tokens(LOGIN).issue(alice, "SPK");
+
+		PrincipalToken.Verified verified = tokens(LOGIN.plusSeconds(60)).verify(token, "SPK");
+		assertEquals("alice", verified.principal().getName());
+		assertEquals(alice.getRoles(), verified.principal().getRoles());
+		assertFalse(verified.renew());
+		// Past half of its lifetime the filter renews it
+		assertTrue(tokens(LOGIN.plusSeconds(480)).verify(token, "SPK").renew());
+
+		assertNull(tokens(LOGIN.plusSeconds(900)).verify(token, "SPK"));
+		assertNull(tokens(LOGIN).verify(token, "SWT"));
+		assertNull(tokens(LOGIN).verify(token, null));
+		String guest = tokens(LOGIN).issue(new OpenDcsPrincipal("guest", EnumSet.noneOf(OpenDcsApiRoles.class)), null);
+		assertTrue(tokens(LOGIN).verify(guest, null).principal().getRoles().isEmpty());
+	}
+
+	@Test
+	void testRenewalKeepsLoginUntilMaxLifetime()
+	{
+		String token = tokens(LOGIN).issue(alice, "SPK");
+		// Renewed every 10 minutes, the token stays valid for the maximum lifetime after the login
+		Instant now = LOGIN;
+		while (now.isBefore(LOGIN.plus(MAX_LIFETIME).minusSeconds(600)))
+		{
+			now = now.plusSeconds(600);
+			PrincipalToken.Verified verified = tokens(now).verify(token, "SPK");
+			assertTrue(verified.renew(), "Not renewed at " + now);
+			assertEquals(Date.from(LOGIN), verified.login());
+			token = tokens(now).renew(verified, "SPK");
+		}
+
+		// The last renewal expires with the maximum lifetime and is not renewed again
+		PrincipalToken.Verified last = tokens(LOGIN.plus(MAX_LIFETIME).minusSeconds(60)).verify(token, "SPK");
+		assertEquals("alice", last.principal().getName());
+		assertFalse(last.renew());
+		assertNull(tokens(LOGIN.plus(MAX_LIFETIME)).verify(token, "SPK"));
+	}
+
+	@Test
+	void testRejectsForgedTokens() throws Exception
+	{
+		String token = tokens(LOGIN).issue(alice, "SPK");
+		byte[] otherSecret = SECRET.clone();
+		otherSecret[0] = 8;
+		assertNull(new PrincipalToken(otherSecret, DURATION, MAX_LIFETIME, clock(LOGIN)).verify(token, "SPK"));
+
+		SignedJWT jwt = SignedJWT.parse(token);
+		String unsigned = new PlainJWT(jwt.getJWTClaimsSet()).serialize();
+		assertNull(tokens(LOGIN).verify(unsigned, "SPK"));
+		assertNull(tokens(LOGIN).verify(token.substring(0, token.length() - 2), "SPK"));
+		assertNull(tokens(LOGIN).verify("not a token", "SPK"));
+		assertThrows(IllegalStateException.class, () -> new PrincipalToken(new byte[16], DURATION, MAX_LIFETIME,
+				clock(LOGIN)));
+	}
+
+	@Test
+	void testCookies()
+	{
+		NewCookie cookie = tokens(LOGIN).cookie("abc", "/odcsapi", true);
+		assertEquals(PrincipalToken.COOKIE_NAME, cookie.getName());
+		assertEquals("/odcsapi", cookie.getPath());
+		assertEquals(900, cookie.getMaxAge());
+		assertTrue(cookie.isHttpOnly());
+		assertTrue(cookie.isSecure());
+		assertEquals(NewCookie.SameSite.STRICT, cookie.getSameSite());
+
+		NewCookie expired = PrincipalToken.expiredCookie("", false);
+		assertEquals("/", expired.getPath());
+		assertEquals(0, expired.getMaxAge());
+	}
+
+	private static PrincipalToken tokens(Instant now)
+	{
+		return new PrincipalToken(SECRET, DURATION, MAX_LIFETIME, clock(now));
+	}
+
+	private static Clock clock(Instant now)
+	{
+		return Clock.fixed(now, ZoneOffset.UTC);
+	}
+}
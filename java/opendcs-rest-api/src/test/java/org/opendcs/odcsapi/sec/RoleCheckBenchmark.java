@@ -0,0 +1,155 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.core.SecurityContext;
+
+import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
+import org.opendcs.odcsapi.util.ApiConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the role check {@link SecurityFilter} does per request, reading the {@link RolesAllowed} annotation and
+ * matching role names as it used to, against the {@link AllowedRoles} mask resolved once per method. Requests are
+ * spread over guest, user and admin principals calling guest, user and admin endpoints.
+ * <p>
+ * Run with: {@code ./gradlew :opendcs-rest-api:jmh -Pjmh.args="RoleCheckBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoleCheckBenchmark
+{
+	private Method[] methods;
+	private OpenDcsPrincipal[] principals;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		methods = new Method[]{
+				Resource.class.getMethod("read"),
+				Resource.class.getMethod("write"),
+				Resource.class.getMethod("delete")
+		};
+		principals = new OpenDcsPrincipal[]{
+				null,
+				new OpenDcsPrincipal("user", EnumSet.of(OpenDcsApiRoles.ODCS_API_USER)),
+				new OpenDcsPrincipal("admin", EnumSet.of(OpenDcsApiRoles.ODCS_API_USER, OpenDcsApiRoles.ODCS_API_ADMIN))
+		};
+		for (Method method : methods)
+		{
+			AllowedRoles.of(Resource.class, method);
+		}
+	}
+
+	@Benchmark
+	public boolean annotationPerRequest()
+	{
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		OpenDcsPrincipal principal = principals[random.nextInt(principals.length)];
+		return AnnotationRoleCheck.allows(Resource.class, methods[random.nextInt(methods.length)], principal);
+	}
+
+	@Benchmark
+	public boolean precomputedMask()
+	{
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		OpenDcsPrincipal principal = principals[random.nextInt(principals.length)];
+		if (principal == null)
+		{
+			principal = AnnotationRoleCheck.GUEST;
+		}
+		return AllowedRoles.of(Resource.class, methods[random.nextInt(methods.length)]).allows(principal);
+	}
+
+	public static final class Resource
+	{
+		@RolesAllowed({ApiConstants.ODCS_API_GUEST, ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+		public void read()
+		{
+		}
+
+		@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+		public void write()
+		{
+		}
+
+		@RolesAllowed({ApiConstants.ODCS_API_ADMIN})
+		public void delete()
+		{
+		}
+	}
+
+	/**
+	 * Copy of the check previously done by {@link SecurityFilter}, kept as the baseline.
+	 */
+	private static final class AnnotationRoleCheck
+	{
+		static final OpenDcsPrincipal GUEST =
+				new OpenDcsPrincipal("guest", Collections.singleton(OpenDcsApiRoles.ODCS_API_GUEST));
+
+		static boolean allows(Class<?> resourceClass, Method method, OpenDcsPrincipal principal)
+		{
+			if (principal == null)
+			{
+				principal = new OpenDcsPrincipal("guest", Collections.singleton(OpenDcsApiRoles.ODCS_API_GUEST));
+			}
+			SecurityContext securityContext = new OpenDcsSecurityContext(principal, true, "");
+			RolesAllowed annotation = method.getAnnotation(RolesAllowed.class);
+			if (!resourceClass.equals(OpenApiResource.class))
+			{
+				for (String role : annotation.value())
+				{
+					if (isUserInRole(securityContext, role))
+					{
+						return true;
+					}
+				}
+				return false;
+			}
+			return true;
+		}
+
+		private static boolean isUserInRole(SecurityContext securityContext, String role)
+		{
+			return ((OpenDcsPrincipal) securityContext.getUserPrincipal()).getRoles()
+					.stream()
+					.anyMatch(e ->
+					{
+						final String r = e.getRole();
+						return r.equals(role);
+					});
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec;
+
+import java.util.EnumSet;
+import java.util.Map;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opendcs.odcsapi.hydrojson.DbInterface;
+import org.opendcs.odcsapi.util.ApiConstants;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+final class SecurityFilterTest
+{
+	private final OpenDcsPrincipal alice = new OpenDcsPrincipal("alice", EnumSet.of(OpenDcsApiRoles.ODCS_API_USER));
+	private final OpenDcsPrincipal bob = new OpenDcsPrincipal("bob", EnumSet.of(OpenDcsApiRoles.ODCS_API_USER));
+
+	@Mock
+	private HttpServletRequest httpServletRequest;
+	@Mock
+	private HttpSession session;
+	@Mock
+	private ResourceInfo resourceInfo;
+	@Mock
+	private ContainerRequestContext requestContext;
+	@Mock
+	private UriInfo uriInfo;
+	@InjectMocks
+	private SecurityFilter filter;
+
+	@AfterEach
+	void clearProperties()
+	{
+		DbInterface.decodesProperties.remove(PrincipalToken.STATELESS_PROPERTY);
+	}
+
+	@Test
+	void testSessionTakesPrecedenceOverToken() throws Exception
+	{
+		DbInterface.decodesProperties.setProperty(PrincipalToken.STATELESS_PROPERTY, "true");
+		resource("write");
+		when(httpServletRequest.getSession(false)).thenReturn(session);
+		when(session.getAttribute(OpenDcsPrincipal.USER_PRINCIPAL_SESSION_ATTRIBUTE)).thenReturn(alice);
+
+		filter.filter(requestContext);
+
+		assertEquals("alice", securityContext().getUserPrincipal().getName());
+		verify(requestContext, never()).getCookies();
+	}
+
+	@Test
+	void testTokenWithoutSession() throws Exception
+	{
+		DbInterface.decodesProperties.setProperty(PrincipalToken.STATELESS_PROPERTY, "true");
+		resource("write");
+		String token = PrincipalToken.getInstance().issue(bob, "SPK");
+		when(requestContext.getCookies()).thenReturn(Map.of(PrincipalToken.COOKIE_NAME,
+				new Cookie.Builder(PrincipalToken.COOKIE_NAME).value(token).build()));
+		when(requestContext.getHeaderString(ApiConstants.ORGANIZATION_HEADER)).thenReturn("SPK");
+
+		filter.filter(requestContext);
+
+		assertEquals("bob", securityContext().getUserPrincipal().getName());
+	}
+
+	@Test
+	void testTokenIgnoredUnlessStateless() throws Exception
+	{
+		resource("read");
+
+		filter.filter(requestContext);
+
+		assertEquals("guest", securityContext().getUserPrincipal().getName());
+		verify(requestContext, never()).getCookies();
+	}
+
+	@Test
+	void testGuestIsNotAuthorizedForUserEndpoints() throws Exception
+	{
+		resource("write");
+		when(requestContext.getUriInfo()).thenReturn(uriInfo);
+
+		assertThrows(NotAuthorizedException.class, () -> filter.filter(requestContext));
+		assertEquals("guest", securityContext().getUserPrincipal().getName());
+	}
+
+	private void resource(String method) throws NoSuchMethodException
+	{
+		doReturn(Resource.class).when(resourceInfo).getResourceClass();
+		when(resourceInfo.getResourceMethod()).thenReturn(Resource.class.getMethod(method));
+	}
+
+	private SecurityContext securityContext()
+	{
+		ArgumentCaptor<SecurityContext> captor = ArgumentCaptor.forClass(SecurityContext.class);
+		verify(requestContext).setSecurityContext(captor.capture());
+		return captor.getValue();
+	}
+
+	public static final class Resource
+	{
+		@RolesAllowed({ApiConstants.ODCS_API_GUEST, ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+		public void read()
+		{
+		}
+
+		@RolesAllowed({ApiConstants.ODCS_API_USER, ApiConstants.ODCS_API_ADMIN})
+		public void write()
+		{
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec.openid;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.DefaultJOSEObjectTypeVerifier;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimNames;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.ConfigurableJWTProcessor;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.opendcs.odcsapi.hydrojson.DbInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares verifying bearer tokens with a processor built per call, as {@link JwtVerifier} used to, against the
+ * shared processor without and with the claims cache. 64 clients each reuse their token, signed with a locally
+ * generated RSA key.
+ * <p>
+ * Run with: {@code ./gradlew :opendcs-rest-api:jmh -Pjmh.args="JwtVerifierBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JwtVerifierBenchmark
+{
+	private static final String ISSUER = "https://auth.example.org/realms/opendcs";
+
+	private final String[] tokens = new String[64];
+	private JWKSource<SecurityContext> keySource;
+	private JwtVerifier sharedProcessor;
+	private JwtVerifier cachedClaims;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		DbInterface.decodesProperties.setProperty(JwtVerifier.ISSUER_PROPERTY, ISSUER);
+		DbInterface.decodesProperties.setProperty(JwtVerifier.JWK_SET_PROPERTY, ISSUER + "/certs");
+		RSAKey key = new RSAKeyGenerator(2048).keyID("bench").generate();
+		keySource = new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK()));
+		for (int i = 0; i < tokens.length; i++)
+		{
+			Date issued = new Date();
+			SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+					.type(JOSEObjectType.JWT)
+					.keyID(key.getKeyID())
+					.build(), new JWTClaimsSet.Builder()
+					.issuer(ISSUER)
+					.subject("user" + i)
+					.issueTime(issued)
+					.expirationTime(new Date(issued.getTime() + TimeUnit.HOURS.toMillis(1)))
+					.jwtID(UUID.randomUUID().toString())
+					.build());
+			jwt.sign(new RSASSASigner(key));
+			tokens[i] = jwt.serialize();
+		}
+		sharedProcessor = new JwtVerifier(0, System::currentTimeMillis, url -> keySource);
+		cachedClaims = new JwtVerifier(1024, System::currentTimeMillis, url -> keySource);
+	}
+
+	private String token()
+	{
+		return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+	}
+
+	@Benchmark
+	public JWTClaimsSet processorPerCall() throws Exception
+	{
+		return PerCallVerifier.getClaimsSet(keySource, token());
+	}
+
+	@Benchmark
+	public JWTClaimsSet sharedProcessor() throws Exception
+	{
+		return sharedProcessor.getClaimsSet(token());
+	}
+
+	@Benchmark
+	public JWTClaimsSet cachedClaims() throws Exception
+	{
+		return cachedClaims.getClaimsSet(token());
+	}
+
+	/**
+	 * Copy of the verification previously done by {@link JwtVerifier}, kept as the baseline.
+	 */
+	private static final class PerCallVerifier
+	{
+		static JWTClaimsSet getClaimsSet(JWKSource<SecurityContext> keySource, String accessToken) throws Exception
+		{
+			ConfigurableJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+			jwtProcessor.setJWSTypeVerifier(new DefaultJOSEObjectTypeVerifier<>(JOSEObjectType.JWT));
+			jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, keySource));
+			String issuer = DbInterface.decodesProperties.getProperty(JwtVerifier.ISSUER_PROPERTY);
+			jwtProcessor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+					new JWTClaimsSet.Builder().issuer(issuer).build(),
+					new HashSet<>(Arrays.asList(
+							JWTClaimNames.SUBJECT,
+							JWTClaimNames.ISSUED_AT,
+							JWTClaimNames.EXPIRATION_TIME,
+							JWTClaimNames.JWT_ID))));
+			return jwtProcessor.process(accessToken, null);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.sec.openid;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opendcs.odcsapi.hydrojson.DbInterface;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class JwtVerifierTest
+{
+	private static final String ISSUER = "https://auth.example.org/realms/opendcs";
+	private static final String JWK_SET = ISSUER + "/protocol/openid-connect/certs";
+
+	private static RSAKey key;
+
+	private int lookups;
+	private final List<String> keySourceUrls = new ArrayList<>();
+	private long now = System.currentTimeMillis();
+	private JWKSource<SecurityContext> keySource;
+
+	@BeforeAll
+	static void generateKey() throws Exception
+	{
+		key = new RSAKeyGenerator(2048).keyID("test").generate();
+	}
+
+	@BeforeEach
+	void setup()
+	{
+		DbInterface.decodesProperties.setProperty(JwtVerifier.ISSUER_PROPERTY, ISSUER);
+		DbInterface.decodesProperties.setProperty(JwtVerifier.JWK_SET_PROPERTY, JWK_SET);
+		JWKSet jwkSet = new JWKSet(key.toPublicJWK());
+		keySource = (selector, context) ->
+		{
+			lookups++;
+			return selector.select(jwkSet);
+		};
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		DbInterface.decodesProperties.remove(JwtVerifier.ISSUER_PROPERTY);
+		DbInterface.decodesProperties.remove(JwtVerifier.JWK_SET_PROPERTY);
+	}
+
+	@Test
+	void testVerifiedClaimsAreKeptUntilExpiry() throws Exception
+	{
+		JwtVerifier verifier = verifier(16);
+		String token = token(ISSUER, "alice");
+		JWTClaimsSet claims = verifier.getClaimsSet(token);
+		assertEquals("alice", claims.getSubject());
+		assertSame(claims, verifier.getClaimsSet(token));
+		assertEquals(1, lookups);
+
+		now += TimeUnit.HOURS.toMillis(2);
+		verifier.getClaimsSet(token);
+		assertEquals(2, lookups);
+	}
+
+	@Test
+	void testRejectedTokensAreNotKept() throws Exception
+	{
+		JwtVerifier verifier = verifier(16);
+		String token = token("https://elsewhere.example.org", "alice");
+		assertThrows(BadJOSEException.class, () -> verifier.getClaimsSet(token));
+		assertThrows(BadJOSEException.class, () -> verifier.getClaimsSet(token));
+		assertEquals(2, lookups);
+	}
+
+	@Test
+	void testLeastRecentlyUsedTokenIsDropped() throws Exception
+	{
+		JwtVerifier verifier = verifier(1);
+		String alice = token(ISSUER, "alice");
+		String bob = token(ISSUER, "bob");
+		verifier.getClaimsSet(alice);
+		verifier.getClaimsSet(bob);
+		verifier.getClaimsSet(bob);
+		assertEquals(2, lookups);
+		verifier.getClaimsSet(alice);
+		assertEquals(3, lookups);
+	}
+
+	@Test
+	void testProcessorFollowsConfiguration() throws Exception
+	{
+		JwtVerifier verifier = verifier(16);
+		String token = token(ISSUER, "alice");
+		verifier.getClaimsSet(token);
+		verifier.getClaimsSet(token(ISSUER, "bob"));
+		assertEquals(List.of(JWK_SET), keySourceUrls);
+
+		// A changed issuer is enforced, also for tokens verified before
+		DbInterface.decodesProperties.setProperty(JwtVerifier.ISSUER_PROPERTY, "https://elsewhere.example.org");
+		assertThrows(BadJOSEException.class, () -> verifier.getClaimsSet(token));
+		DbInterface.decodesProperties.setProperty(JwtVerifier.JWK_SET_PROPERTY, "https://elsewhere.example.org/certs");
+		DbInterface.decodesProperties.setProperty(JwtVerifier.ISSUER_PROPERTY, ISSUER);
+		verifier.getClaimsSet(token);
+		assertEquals(List.of(JWK_SET, JWK_SET, "https://elsewhere.example.org/certs"), keySourceUrls);
+	}
+
+	private JwtVerifier verifier(int cacheSize)
+	{
+		return new JwtVerifier(cacheSize, () -> now, url ->
+		{
+			keySourceUrls.add(url);
+			return keySource;
+		});
+	}
+
+	static String token(String issuer, String subject) throws Exception
+	{
+		Date issued = new Date();
+		JWTClaimsSet claims = new JWTClaimsSet.Builder()
+				.issuer(issuer)
+				.subject(subject)
+				.issueTime(issued)
+				.expirationTime(new Date(issued.getTime() + TimeUnit.HOURS.toMillis(1)))
+				.jwtID(UUID.randomUUID().toString())
+				.build();
+		SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+				.type(JOSEObjectType.JWT)
+				.keyID(key.getKeyID())
+				.build(), claims);
+		jwt.sign(new RSASSASigner(key));
+		return jwt.serialize();
+	}
+}
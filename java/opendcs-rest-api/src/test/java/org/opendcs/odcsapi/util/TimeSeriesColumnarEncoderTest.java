@@ -0,0 +1,64 @@
+/*
+ *  Copyright 2025 OpenDCS Consortium and its Contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License")
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.opendcs.odcsapi.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TimeSeriesColumnarEncoderTest
+{
+	private static final int SAMPLES = 100_000;
+	private static final long START = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
+	private static final long SPACING = 900_000L;
+
+	@Test
+	void testGaugeSeriesSize() throws IOException
+	{
+		// Same series as TimeSeriesColumnarBenchmark, which takes about 70 bytes per point as JSON
+		double bytesPerPoint = encodedSize(i -> Math.round(Math.sin(i / 384.0) * 10_000.0) / 100.0,
+				i -> i % 5000 == 0 ? 3 : 0) / (double) SAMPLES;
+		assertTrue(bytesPerPoint < 9.0, "bytes per point: " + bytesPerPoint);
+	}
+
+	@Test
+	void testConstantSeriesSize() throws IOException
+	{
+		// A repeated value is a single bit, which leaves about one varint byte per point for the zero time delta
+		double bytesPerPoint = encodedSize(i -> 12.5, i -> 0) / (double) SAMPLES;
+		assertTrue(bytesPerPoint < 1.5, "bytes per point: " + bytesPerPoint);
+	}
+
+	private static int encodedSize(IntToDoubleFunction values, IntToLongFunction flags) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TimeSeriesColumnarEncoder encoder = new TimeSeriesColumnarEncoder(out,
+				"{\"uniqueString\":\"SAC.Flow.Inst.15Minutes.0.GOES\"}".getBytes(StandardCharsets.UTF_8));
+		for (int i = 0; i < SAMPLES; i++)
+		{
+			encoder.write(START + SPACING * i, values.applyAsDouble(i), flags.applyAsLong(i));
+		}
+		encoder.finish(null);
+		return out.size();
+	}
+}